@@ -166,6 +166,13 @@ public class LegacyImageMap extends AbstractContextual {
 	 */
 	private final LegacyService legacyService;
 
+	/**
+	 * The {@link Harmonizer} used when switching between legacy and modern mode.
+	 * It is kept for the lifetime of the image map, since it remembers the
+	 * state of each display as of its last harmonization.
+	 */
+	private Harmonizer harmonizer;
+
 	@Parameter
 	private ImageDisplayService imageDisplayService;
 
@@ -294,6 +301,28 @@ public class LegacyImageMap extends AbstractContextual {
 		return display;
 	}
 
+	/**
+	 * Returns the legacy {@link Roi}s of the given display which contain the
+	 * given position, as of the last switch between legacy and modern mode.
+	 */
+	public List<Roi> getRoisAt(final ImageDisplay display, final int x,
+		final int y)
+	{
+		return harmonizer().getRoisAt(display, x, y);
+	}
+
+	/**
+	 * Returns the legacy {@link Roi}s of the given display whose bounds
+	 * intersect the given rectangle, bounds inclusive, as of the last switch
+	 * between legacy and modern mode.
+	 */
+	public List<Roi> getRoisIntersecting(final ImageDisplay display,
+		final double minX, final double minY, final double maxX,
+		final double maxY)
+	{
+		return harmonizer().getRoisIntersecting(display, minX, minY, maxX, maxY);
+	}
+
 	public synchronized void toggleLegacyMode(boolean enteringLegacyMode) {
 		if (enteringLegacyMode)
 			enterLegacyMode();
@@ -303,7 +332,7 @@ public class LegacyImageMap extends AbstractContextual {
 
 	private void enterLegacyMode()
 	{
-		final Harmonizer harmonizer = new Harmonizer(legacyService.getContext(), imageTranslator);
+		final Harmonizer harmonizer = harmonizer();
 		// migrate from the ImagePlusTable and DisplayTable to legacy versions.
 		final List<ImageDisplay> imageDisplays =
 				imageDisplayService.getImageDisplays();
@@ -336,7 +365,7 @@ public class LegacyImageMap extends AbstractContextual {
 
 	private void leaveLegacyMode()
 	{
-		final Harmonizer harmonizer = new Harmonizer(legacyService.getContext(), imageTranslator);
+		final Harmonizer harmonizer = harmonizer();
 		// migrate from legacyImagePlusTable and legacyDisplayTable to modern
 		// versions.
 		for (final ImagePlus imp : legacyDisplayTable.keySet()) {
@@ -415,6 +444,13 @@ public class LegacyImageMap extends AbstractContextual {
 
 	// -- Helper methods --
 
+	/** Returns the harmonizer of this image map, creating it if need be. */
+	private synchronized Harmonizer harmonizer() {
+		if (harmonizer == null) harmonizer = new Harmonizer(legacyService
+			.getContext(), imageTranslator);
+		return harmonizer;
+	}
+
 	/**
 	 * Creates a mapping between a given {@link ImageDisplay} and
 	 * {@link ImagePlus}.
@@ -0,0 +1,210 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.measure.ResultsTable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the values of one {@link ResultsTable} column, answering the
+ * lookups of {@link ResultsTableColumnWrapper} without scanning the column.
+ * <p>
+ * Numbers are matched as {@code double}s, as by {@code ==}: the numbers of the
+ * column are kept in a sorted primitive array, along with their rows. Strings
+ * are matched against the String value of each cell with a hash index. Each
+ * part is built on its first lookup.
+ * </p>
+ * <p>
+ * The index is a snapshot. It records the size, last column and change count
+ * (see {@link ResultsTables#changeCount(ResultsTable)}) of the table when
+ * created, so {@link #matches(ResultsTable)} can detect rows or columns being
+ * added or removed, and the changes which the table counts. Values set
+ * directly in a plain {@link ResultsTable} are not counted; callers check that
+ * the row found still holds the value looked up.
+ * </p>
+ */
+final class ColumnValueIndex {
+
+	private final ResultsTable table;
+	private final int col;
+	private final int size;
+	private final int lastColumn;
+	private final int changes;
+
+	/** The non-NaN numbers of the column, sorted. */
+	private double[] numbers;
+
+	/** The row of each entry of {@link #numbers}; ascending for equal numbers. */
+	private int[] numberRows;
+
+	/** The first and last row of each String value of the column. */
+	private Map<String, int[]> strings;
+
+	ColumnValueIndex(final ResultsTable table, final int col) {
+		this.table = table;
+		this.col = col;
+		size = table.size();
+		lastColumn = table.getLastColumn();
+		changes = ResultsTables.changeCount(table);
+	}
+
+	/** Returns true if the table is in the same state as when indexed. */
+	boolean matches(final ResultsTable t) {
+		return t == table && t.size() == size && t.getLastColumn() == lastColumn &&
+			ResultsTables.changeCount(t) == changes;
+	}
+
+	/** Returns the first row matching the given value, or -1. */
+	int indexOf(final Object o) {
+		if (o instanceof Number) {
+			final int i = lowerBound(((Number) o).doubleValue());
+			return i < 0 ? -1 : numberRows[i];
+		}
+		if (o instanceof String) {
+			final int[] rows = strings().get(o);
+			return rows == null ? -1 : rows[0];
+		}
+		return -1;
+	}
+
+	/** Returns the last row matching the given value, or -1. */
+	int lastIndexOf(final Object o) {
+		if (o instanceof Number) {
+			final int i = upperBound(((Number) o).doubleValue());
+			return i < 0 ? -1 : numberRows[i];
+		}
+		if (o instanceof String) {
+			final int[] rows = strings().get(o);
+			return rows == null ? -1 : rows[1];
+		}
+		return -1;
+	}
+
+	// -- Helper methods --
+
+	/** Returns the position of the first entry equal to v, or -1. */
+	private int lowerBound(final double v) {
+		if (Double.isNaN(v)) return -1;
+		final double key = v + 0.0; // NB: Matches -0.0 and 0.0 alike.
+		final double[] sorted = numbers();
+		int lo = 0;
+		int hi = sorted.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (sorted[mid] < key) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo < sorted.length && sorted[lo] == key ? lo : -1;
+	}
+
+	/** Returns the position of the last entry equal to v, or -1. */
+	private int upperBound(final double v) {
+		if (Double.isNaN(v)) return -1;
+		final double key = v + 0.0;
+		final double[] sorted = numbers();
+		int lo = 0;
+		int hi = sorted.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (sorted[mid] <= key) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo > 0 && sorted[lo - 1] == key ? lo - 1 : -1;
+	}
+
+	private synchronized double[] numbers() {
+		if (numbers != null) return numbers;
+		double[] values = new double[size];
+		int[] rows = new int[size];
+		int n = 0;
+		for (int r = 0; r < size; r++) {
+			final double v = table.getValueAsDouble(col, r);
+			if (Double.isNaN(v)) continue;
+			values[n] = v + 0.0;
+			rows[n++] = r;
+		}
+
+		// NB: A stable merge sort keeps the rows of equal numbers ascending.
+		double[] valueBuffer = new double[n];
+		int[] rowBuffer = new int[n];
+		for (int width = 1; width < n; width *= 2) {
+			for (int lo = 0; lo < n; lo += 2 * width) {
+				merge(values, rows, valueBuffer, rowBuffer, lo, Math.min(lo + width,
+					n), Math.min(lo + 2 * width, n));
+			}
+			final double[] v = values;
+			values = valueBuffer;
+			valueBuffer = v;
+			final int[] r = rows;
+			rows = rowBuffer;
+			rowBuffer = r;
+		}
+		numberRows = rows;
+		numbers = Arrays.copyOf(values, n);
+		return numbers;
+	}
+
+	private synchronized Map<String, int[]> strings() {
+		if (strings != null) return strings;
+		final Map<String, int[]> index = new HashMap<>();
+		for (int r = 0; r < size; r++) {
+			final String s = table.getStringValue(col, r);
+			final int[] rows = index.get(s);
+			if (rows == null) index.put(s, new int[] { r, r });
+			else rows[1] = r;
+		}
+		strings = index;
+		return strings;
+	}
+
+	/** Merges the sorted runs [lo, mid) and [mid, hi) into the buffers. */
+	private static void merge(final double[] values, final int[] rows,
+		final double[] valueBuffer, final int[] rowBuffer, final int lo,
+		final int mid, final int hi)
+	{
+		int i = lo;
+		int j = mid;
+		for (int k = lo; k < hi; k++) {
+			if (j >= hi || (i < mid && values[i] <= values[j])) {
+				valueBuffer[k] = values[i];
+				rowBuffer[k] = rows[i++];
+			}
+			else {
+				valueBuffer[k] = values[j];
+				rowBuffer[k] = rows[j++];
+			}
+		}
+	}
+}
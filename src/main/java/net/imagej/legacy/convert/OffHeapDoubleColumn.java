@@ -0,0 +1,466 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collection;
+
+import net.imagej.table.DoubleColumn;
+
+/**
+ * A {@link DoubleColumn} stored outside of the Java heap, either in direct
+ * memory or in a memory-mapped scratch file, at 8 bytes per row.
+ * <p>
+ * All {@link DoubleColumn} methods work on the off-heap values. Since there is
+ * no backing {@code double[]}, {@link #getArray()} returns a copy of the
+ * values, and {@link #setArray(double[])} copies the given array into the
+ * column.
+ * </p>
+ * <p>
+ * {@link #close()} drops the storage, after which the column cannot be used.
+ * Direct memory is returned when the buffer is garbage collected, and a
+ * scratch file is deleted right away. A column can hold at most
+ * {@link #MAX_ROWS} rows.
+ * </p>
+ */
+public class OffHeapDoubleColumn extends DoubleColumn implements Closeable {
+
+	/** The maximum number of rows, limited by the size of one buffer. */
+	public static final int MAX_ROWS = Integer.MAX_VALUE / Double.BYTES;
+
+	private final boolean mapped;
+
+	private DoubleBuffer values;
+	private File file;
+	private int size;
+	private boolean closed;
+
+	/**
+	 * Creates an empty column.
+	 *
+	 * @param capacity the number of rows to allocate storage for
+	 * @param mapped whether to store the values in a memory-mapped scratch
+	 *          file, rather than in direct memory
+	 */
+	public OffHeapDoubleColumn(final String header, final int capacity,
+		final boolean mapped)
+	{
+		super(header);
+		this.mapped = mapped;
+		allocate(Math.max(capacity, 1));
+	}
+
+	/** Returns true if the values are stored in a memory-mapped file. */
+	public boolean isMapped() {
+		return mapped;
+	}
+
+	/** Returns true if the storage of this column has been released. */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Copies values from an array into the column, growing it if needed.
+	 *
+	 * @param index the first row to set
+	 * @param src the array to copy from
+	 * @param offset the index of the first value to copy in {@code src}
+	 * @param length the number of values to copy
+	 */
+	public void put(final int index, final double[] src, final int offset,
+		final int length)
+	{
+		checkIndex(index, size + 1);
+		final int end = index + length;
+		if (end > size) {
+			// NB: Every new row is about to be set, so skip zeroing them.
+			if (end > values.capacity()) grow(end);
+			size = end;
+		}
+		final DoubleBuffer target = values.duplicate();
+		target.position(index);
+		target.put(src, offset, length);
+	}
+
+	/**
+	 * Drops the storage of this column, and deletes its scratch file if any.
+	 */
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		values = null;
+		size = 0;
+		deleteFile(file);
+		file = null;
+	}
+
+	// -- DoubleArray methods --
+
+	@Override
+	public double getValue(final int index) {
+		checkIndex(index, size);
+		return values.get(index);
+	}
+
+	@Override
+	public double setValue(final int index, final double value) {
+		checkIndex(index, size);
+		final double prev = values.get(index);
+		values.put(index, value);
+		return prev;
+	}
+
+	@Override
+	public void addValue(final double value) {
+		addValue(size, value);
+	}
+
+	@Override
+	public void addValue(final int index, final double value) {
+		insert(index, 1);
+		values.put(index, value);
+	}
+
+	@Override
+	public int indexOf(final double value) {
+		checkOpen();
+		for (int i = 0; i < size; i++) {
+			if (Double.compare(values.get(i), value) == 0) return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(final double value) {
+		checkOpen();
+		for (int i = size - 1; i >= 0; i--) {
+			if (Double.compare(values.get(i), value) == 0) return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(final double value) {
+		return indexOf(value) >= 0;
+	}
+
+	// -- PrimitiveColumn methods --
+
+	@Override
+	public void fill(final double[] array) {
+		setSize(0);
+		put(0, array, 0, array.length);
+	}
+
+	@Override
+	public void fill(final double[] array, final int offset) {
+		if (offset > size) setSize(offset);
+		put(offset, array, 0, array.length);
+	}
+
+	// -- PrimitiveArray methods --
+
+	/** Returns a copy of the values; changing it does not change the column. */
+	@Override
+	public double[] getArray() {
+		// NB: Also called by the superclass constructor, before allocation.
+		if (values == null && !closed) return new double[0];
+		return copyArray();
+	}
+
+	/**
+	 * Copies the given array into the column. As for an array backed column,
+	 * the array must be at least as long as the column.
+	 */
+	@Override
+	public void setArray(final double[] array) {
+		// NB: Also called by the superclass constructor, before allocation.
+		if (values == null && !closed) return;
+		checkOpen();
+		if (array.length < size) {
+			throw new IllegalArgumentException("Array too small: " + array.length +
+				" < " + size);
+		}
+		if (array.length > values.capacity()) grow(array.length);
+		final DoubleBuffer target = values.duplicate();
+		target.put(array, 0, array.length);
+	}
+
+	@Override
+	public double[] copyArray() {
+		checkOpen();
+		final double[] copy = new double[size];
+		final DoubleBuffer src = values.duplicate();
+		src.get(copy, 0, size);
+		return copy;
+	}
+
+	@Override
+	public int capacity() {
+		return values == null ? 0 : values.capacity();
+	}
+
+	@Override
+	public void ensureCapacity(final int minCapacity) {
+		checkOpen();
+		if (minCapacity > values.capacity()) grow(minCapacity);
+	}
+
+	/** Inserts {@code count} rows of zeros at the given index. */
+	@Override
+	public void insert(final int index, final int count) {
+		checkIndex(index, size + 1);
+		final int oldSize = size;
+		setSize(oldSize + count);
+		if (index == oldSize) return;
+		// NB: DoubleBuffer.put(DoubleBuffer) is undefined for overlapping
+		// regions of the same buffer, so move the values from the end.
+		for (int i = oldSize - 1; i >= index; i--)
+			values.put(i + count, values.get(i));
+		for (int i = index; i < index + count; i++)
+			values.put(i, 0);
+	}
+
+	@Override
+	public void delete(final int index, final int count) {
+		checkIndex(index, size);
+		if (count < 0 || index + count > size) {
+			throw new IndexOutOfBoundsException("Index: " + (index + count) +
+				", Size: " + size);
+		}
+		for (int i = index + count; i < size; i++)
+			values.put(i - count, values.get(i));
+		size -= count;
+	}
+
+	// -- Sizable methods --
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/** Sets the number of rows; new rows are zero. */
+	@Override
+	public void setSize(final int size) {
+		// NB: Also called by the superclass constructor, before allocation.
+		if (values == null && !closed) return;
+		checkOpen();
+		if (size < 0 || size > MAX_ROWS) {
+			throw new IllegalArgumentException("Invalid size: " + size);
+		}
+		if (size > values.capacity()) grow(size);
+		for (int i = this.size; i < size; i++)
+			values.put(i, 0);
+		this.size = size;
+	}
+
+	// -- List methods --
+
+	@Override
+	public Double get(final int index) {
+		return getValue(index);
+	}
+
+	@Override
+	public Double set(final int index, final Double element) {
+		return setValue(index, element);
+	}
+
+	@Override
+	public boolean add(final Double e) {
+		addValue(size, e);
+		return true;
+	}
+
+	@Override
+	public void add(final int index, final Double element) {
+		addValue(index, element);
+	}
+
+	@Override
+	public Double remove(final int index) {
+		final double prev = getValue(index);
+		delete(index, 1);
+		return prev;
+	}
+
+	@Override
+	public int indexOf(final Object o) {
+		return o instanceof Double ? indexOf((double) (Double) o) : -1;
+	}
+
+	@Override
+	public int lastIndexOf(final Object o) {
+		return o instanceof Double ? lastIndexOf((double) (Double) o) : -1;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public boolean addAll(final int index, final Collection<? extends Double> c) {
+		final int count = c.size();
+		if (count == 0) return false;
+		insert(index, count);
+		int i = index;
+		for (final Double d : c)
+			values.put(i++, d);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		return retain(c, false);
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		return retain(c, true);
+	}
+
+	@Override
+	public void clear() {
+		setSize(0);
+	}
+
+	@Override
+	public Object[] toArray() {
+		final Object[] array = new Object[size];
+		for (int i = 0; i < array.length; i++)
+			array[i] = getValue(i);
+		return array;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(final T[] a) {
+		final T[] copy = a.length < size ? Arrays.copyOf(a, size) : a;
+		for (int i = 0; i < size; i++)
+			copy[i] = (T) Double.valueOf(getValue(i));
+		if (copy.length > size) copy[size] = null;
+		return copy;
+	}
+
+	// -- Helper methods --
+
+	/** Keeps the values which are in the collection, or those which are not. */
+	private boolean retain(final Collection<?> c, final boolean inside) {
+		checkOpen();
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			final double value = values.get(i);
+			if (c.contains(value) == inside) values.put(kept++, value);
+		}
+		if (kept == size) return false;
+		size = kept;
+		return true;
+	}
+
+	private void grow(final int minCapacity) {
+		final long capacity = Math.min(MAX_ROWS, Math.max(minCapacity,
+			values.capacity() * 3L / 2 + 16));
+		final DoubleBuffer oldValues = values;
+		final File oldFile = file;
+		allocate((int) capacity);
+		final DoubleBuffer src = oldValues.duplicate();
+		src.position(0).limit(size);
+		values.duplicate().put(src);
+		deleteFile(oldFile);
+	}
+
+	private void allocate(final int capacity) {
+		if (capacity > MAX_ROWS) {
+			throw new IllegalArgumentException("Too many rows: " + capacity);
+		}
+		final int length = capacity * Double.BYTES;
+		final ByteBuffer bytes;
+		if (mapped) {
+			File scratch = null;
+			try {
+				scratch = File.createTempFile("imagej-table-", ".bin");
+				scratch.deleteOnExit();
+				try (final RandomAccessFile raf = new RandomAccessFile(scratch,
+					"rw"))
+				{
+					// NB: The mapping stays valid after the channel is closed.
+					bytes = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+						length);
+				}
+			}
+			catch (final IOException exc) {
+				deleteFile(scratch);
+				throw new UncheckedIOException(exc);
+			}
+			file = scratch;
+		}
+		else {
+			file = null;
+			bytes = ByteBuffer.allocateDirect(length);
+		}
+		values = bytes.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+	}
+
+	/**
+	 * Deletes a scratch file. The pages of a mapping which is still reachable
+	 * stay valid until it is garbage collected; where the file cannot be
+	 * deleted while mapped, it is deleted on exit.
+	 */
+	private static void deleteFile(final File file) {
+		if (file != null) file.delete();
+	}
+
+	private void checkOpen() {
+		if (closed) throw new IllegalStateException("Column has been closed");
+	}
+
+	private void checkIndex(final int index, final int bound) {
+		checkOpen();
+		if (index < 0 || index >= bound) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " +
+				size);
+		}
+	}
+}
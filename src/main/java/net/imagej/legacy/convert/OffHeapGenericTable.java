@@ -0,0 +1,172 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.measure.ResultsTable;
+
+import java.io.Closeable;
+
+import net.imagej.table.Column;
+import net.imagej.table.DefaultGenericTable;
+import net.imagej.table.GenericColumn;
+
+/**
+ * A {@link DefaultGenericTable} whose numeric columns may be
+ * {@link OffHeapDoubleColumn}s, so that very large tables do not have to fit
+ * on the Java heap. {@link #close()} releases the off-heap storage of all its
+ * columns.
+ * <p>
+ * {@link #copyOf(ResultsTable)} spills the numeric columns of tables with at
+ * least {@value #OFF_HEAP_ROWS_PROPERTY} rows (default:
+ * {@value #DEFAULT_OFF_HEAP_ROWS}) to direct memory, and those of tables with
+ * at least {@value #MAPPED_ROWS_PROPERTY} rows (default:
+ * {@value #DEFAULT_MAPPED_ROWS}) to memory-mapped scratch files instead.
+ * </p>
+ */
+public class OffHeapGenericTable extends DefaultGenericTable implements
+	Closeable
+{
+
+	/** System property for the number of rows from which to spill columns. */
+	public static final String OFF_HEAP_ROWS_PROPERTY =
+		"imagej.legacy.table.offHeapRows";
+
+	/** System property for the number of rows from which to map columns. */
+	public static final String MAPPED_ROWS_PROPERTY =
+		"imagej.legacy.table.mappedRows";
+
+	public static final int DEFAULT_OFF_HEAP_ROWS = 1 << 20;
+	public static final int DEFAULT_MAPPED_ROWS = 1 << 24;
+
+	/**
+	 * Copies the given table, using the spill thresholds of the system
+	 * properties.
+	 */
+	public static OffHeapGenericTable copyOf(final ResultsTable table) {
+		return copyOf(table, Integer.getInteger(OFF_HEAP_ROWS_PROPERTY,
+			DEFAULT_OFF_HEAP_ROWS), Integer.getInteger(MAPPED_ROWS_PROPERTY,
+				DEFAULT_MAPPED_ROWS));
+	}
+
+	/**
+	 * Copies the given table. Columns holding Strings stay on the heap, as
+	 * {@link GenericColumn}s. Numeric columns are copied straight from the
+	 * arrays of the {@link ResultsTable}, without an intermediate copy on the
+	 * heap.
+	 *
+	 * @param offHeapRows the number of rows from which numeric columns are
+	 *          stored in direct memory
+	 * @param mappedRows the number of rows from which numeric columns are
+	 *          stored in memory-mapped scratch files
+	 */
+	public static OffHeapGenericTable copyOf(final ResultsTable table,
+		final int offHeapRows, final int mappedRows)
+	{
+		final int rows = table.size();
+		final OffHeapGenericTable copy = new OffHeapGenericTable();
+		try {
+			for (int c = 0; c <= table.getLastColumn(); c++) {
+				if (!table.columnExists(c)) continue;
+				final String header = table.getColumnHeading(c);
+				if (rows >= offHeapRows && !hasStrings(table, c)) {
+					copy.add(copyColumn(table, c, header, rows >= mappedRows));
+				}
+				else {
+					final GenericColumn column = new GenericColumn(header);
+					column.addAll(new ResultsTableColumnWrapper(table, c));
+					copy.add(column);
+				}
+			}
+			copyLabels(table, copy);
+		}
+		catch (final RuntimeException exc) {
+			copy.close();
+			throw exc;
+		}
+		return copy;
+	}
+
+	/**
+	 * Releases the storage of all off-heap columns. The columns stay in the
+	 * table, but cannot be used anymore.
+	 */
+	@Override
+	public void close() {
+		for (final Column<?> column : this) {
+			if (column instanceof OffHeapDoubleColumn) {
+				((OffHeapDoubleColumn) column).close();
+			}
+		}
+	}
+
+	// -- Helper methods --
+
+	private static OffHeapDoubleColumn copyColumn(final ResultsTable table,
+		final int col, final String header, final boolean mapped)
+	{
+		final int rows = table.size();
+		final OffHeapDoubleColumn column = new OffHeapDoubleColumn(header, rows,
+			mapped);
+		final double[] values = ResultsTables.columnArray(table, col);
+		if (values != null && values.length >= rows) {
+			column.put(0, values, 0, rows);
+		}
+		else {
+			// NB: Copy in blocks, to keep the heap footprint small.
+			final double[] block = new double[Math.min(rows, 8192)];
+			for (int r = 0; r < rows; r += block.length) {
+				final int length = Math.min(block.length, rows - r);
+				for (int i = 0; i < length; i++)
+					block[i] = table.getValueAsDouble(col, r + i);
+				column.put(r, block, 0, length);
+			}
+		}
+		return column;
+	}
+
+	private static boolean hasStrings(final ResultsTable table, final int col) {
+		for (int r = 0; r < table.size(); r++) {
+			if (ResultsTables.isString(table, col, r)) return true;
+		}
+		return false;
+	}
+
+	private static void copyLabels(final ResultsTable table,
+		final OffHeapGenericTable copy)
+	{
+		final int rows = table.size();
+		for (int r = 0; r < rows; r++) {
+			final String label = table.getLabel(r);
+			if (label != null) copy.setRowHeader(r, label);
+		}
+	}
+}
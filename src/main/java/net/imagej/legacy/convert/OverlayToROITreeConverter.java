@@ -31,6 +31,7 @@
 package net.imagej.legacy.convert;
 
 import ij.gui.Overlay;
+import ij.gui.Roi;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -58,6 +59,9 @@ public class OverlayToROITreeConverter extends
 	@Parameter
 	private ConvertService convertService;
 
+	@SuppressWarnings("rawtypes")
+	private RoiConverterCache<MaskPredicate> converters;
+
 	@Override
 	public Class<Overlay> getInputType() {
 		return Overlay.class;
@@ -69,7 +73,7 @@ public class OverlayToROITreeConverter extends
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public <T> T convert(Object src, Class<T> dest) {
 		if (!getInputType().isInstance(src)) throw new IllegalArgumentException(
 			"Unexpected source type: " + src.getClass());
@@ -77,13 +81,25 @@ public class OverlayToROITreeConverter extends
 			throw new IllegalArgumentException("Unexpected output class: " + dest);
 
 		final Overlay o = (Overlay) src;
-		final List<MaskPredicate<?>> converted = new ArrayList<>();
+		final List<Roi> legacyRois = new ArrayList<>(o.size());
 		for (int i = 0; i < o.size(); i++)
-			converted.add(convertService.convert(o.get(i), MaskPredicate.class));
+			legacyRois.add(o.get(i));
+		final List<MaskPredicate<?>> converted = new ArrayList<>();
+		for (final MaskPredicate<?> roi : converters().convertAll(legacyRois))
+			converted.add(roi);
 
 		final ROITree rois = new DefaultROITree();
 		rois.addROIs(converted);
 		return (T) rois;
 	}
 
+	// -- Helper methods --
+
+	@SuppressWarnings("rawtypes")
+	private synchronized RoiConverterCache<MaskPredicate> converters() {
+		if (converters == null) converters = new RoiConverterCache<>(
+			convertService, MaskPredicate.class);
+		return converters;
+	}
+
 }
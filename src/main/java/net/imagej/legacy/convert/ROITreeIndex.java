@@ -0,0 +1,146 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.legacy.convert.roi.BoundsIndex;
+import net.imagej.roi.ROITree;
+import net.imglib2.Point;
+import net.imglib2.RealInterval;
+import net.imglib2.RealPoint;
+import net.imglib2.roi.Mask;
+import net.imglib2.roi.MaskPredicate;
+import net.imglib2.roi.RealMask;
+
+import org.scijava.util.TreeNode;
+
+/**
+ * A spatial index over the 2D ROIs of a {@link ROITree}, such as the one
+ * {@link OverlayToROITreeConverter} creates, for hit testing and region
+ * queries which do not scan every ROI.
+ * <p>
+ * Candidates are found through a {@link BoundsIndex} over the bounds of the
+ * ROIs, and hit tests confirm them with the exact {@code test(...)} of each
+ * ROI. Integer {@link Mask}s are tested at the position which contains the
+ * query point, i.e. its coordinates rounded down, and ROIs which are neither
+ * {@link Mask}s nor {@link RealMask}s are never hit. ROIs which are not
+ * {@link RealInterval}s are candidates of every query.
+ * </p>
+ * <p>
+ * The index does not observe the tree: ROIs added to or removed from it, or
+ * whose bounds changed, are passed to {@link #add} and {@link #remove}.
+ * </p>
+ */
+public class ROITreeIndex {
+
+	private final BoundsIndex<MaskPredicate<?>> index = new BoundsIndex<>();
+
+	public ROITreeIndex() {
+		// NB: An empty index, filled with add(...).
+	}
+
+	/** Creates an index over the 2D ROIs of the given tree. */
+	public ROITreeIndex(final ROITree rois) {
+		addAll(rois);
+	}
+
+	/** Returns the number of indexed ROIs. */
+	public int size() {
+		return index.size();
+	}
+
+	/** Adds the 2D ROIs of the given tree, or of one of its nodes. */
+	public void addAll(final TreeNode<?> rois) {
+		if (rois.data() instanceof MaskPredicate) add((MaskPredicate<?>) rois
+			.data());
+		if (rois.children() == null || rois.children().isEmpty()) return;
+		for (final TreeNode<?> roi : rois.children())
+			addAll(roi);
+	}
+
+	/**
+	 * Adds the given ROI if it is 2D, or updates its bounds if it is already
+	 * indexed.
+	 *
+	 * @return true if the index changed
+	 */
+	public boolean add(final MaskPredicate<?> roi) {
+		if (roi.numDimensions() != 2) return false;
+		if (!(roi instanceof RealInterval)) return index.put(roi,
+			Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+			Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+		final RealInterval bounds = (RealInterval) roi;
+		// NB: An integer mask contains the points up to one past its max.
+		final double extra = roi instanceof Mask ? 1 : 0;
+		return index.put(roi, bounds.realMin(0), bounds.realMin(1), bounds
+			.realMax(0) + extra, bounds.realMax(1) + extra);
+	}
+
+	/**
+	 * Removes the given ROI from the index.
+	 *
+	 * @return true if it was indexed
+	 */
+	public boolean remove(final MaskPredicate<?> roi) {
+		return index.remove(roi);
+	}
+
+	/** Returns the ROIs which contain the given point, in no particular order. */
+	public List<MaskPredicate<?>> at(final double x, final double y) {
+		final List<MaskPredicate<?>> hits = new ArrayList<>();
+		final Point position = new Point((long) Math.floor(x), (long) Math.floor(
+			y));
+		final RealPoint realPosition = new RealPoint(x, y);
+		for (final MaskPredicate<?> roi : index.candidates(x, y)) {
+			if (roi instanceof Mask ? ((Mask) roi).test(position)
+				: roi instanceof RealMask && ((RealMask) roi).test(realPosition))
+			{
+				hits.add(roi);
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Returns the ROIs whose bounds intersect the given rectangle, bounds
+	 * inclusive, in no particular order. The ROIs themselves are not tested,
+	 * since a region query has no single position to test.
+	 */
+	public List<MaskPredicate<?>> intersecting(final double minX,
+		final double minY, final double maxX, final double maxY)
+	{
+		return index.candidates(minX, minY, maxX, maxY);
+	}
+
+}
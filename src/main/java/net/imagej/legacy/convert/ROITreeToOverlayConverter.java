@@ -33,6 +33,9 @@ package net.imagej.legacy.convert;
 
 import ij.gui.Overlay;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.imagej.roi.ROITree;
 import net.imglib2.roi.MaskPredicate;
 
@@ -56,6 +59,8 @@ public class ROITreeToOverlayConverter extends
 	@Parameter
 	private ConvertService convertService;
 
+	private RoiConverterCache<ij.gui.Roi> converters;
+
 	@Override
 	public Class<ROITree> getInputType() {
 		return ROITree.class;
@@ -75,20 +80,28 @@ public class ROITreeToOverlayConverter extends
 			throw new IllegalArgumentException("Unexpected output class: " + dest);
 
 		final ROITree rois = (ROITree) src;
+		final List<Object> masks = new ArrayList<>();
+		collectROIs(rois, masks);
 		final Overlay o = new Overlay();
-		addROIs(rois, o);
+		for (final ij.gui.Roi ijRoi : converters().convertAll(masks))
+			o.add(ijRoi);
 		return (T) o;
 	}
 
-	private void addROIs(final TreeNode<?> rois, final Overlay overlay) {
-		if (rois.data() instanceof MaskPredicate) {
-			final ij.gui.Roi ijRoi = convertService.convert(rois.data(),
-				ij.gui.Roi.class);
-			overlay.add(ijRoi);
-		}
+	// -- Helper methods --
+
+	/** Collects the ROIs of the tree, depth first. */
+	private void collectROIs(final TreeNode<?> rois, final List<Object> masks) {
+		if (rois.data() instanceof MaskPredicate) masks.add(rois.data());
 		if (rois.children() == null || rois.children().isEmpty()) return;
 		for (final TreeNode<?> roi : rois.children())
-			addROIs(roi, overlay);
+			collectROIs(roi, masks);
+	}
+
+	private synchronized RoiConverterCache<ij.gui.Roi> converters() {
+		if (converters == null) converters = new RoiConverterCache<>(
+			convertService, ij.gui.Roi.class);
+		return converters;
 	}
 
 }
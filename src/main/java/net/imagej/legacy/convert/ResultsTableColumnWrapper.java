@@ -33,13 +33,13 @@ package net.imagej.legacy.convert;
 
 import ij.measure.ResultsTable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.IntStream;
 
 import net.imagej.table.GenericColumn;
@@ -54,11 +54,43 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 	private final ResultsTable table;
 	private final int col;
 
+	private boolean indexed;
+	private volatile ColumnValueIndex index;
+
 	public ResultsTableColumnWrapper(final ResultsTable table, final int col) {
 		this.table = table;
 		this.col = col;
 	}
 
+	/**
+	 * Enables or disables the value index used by {@link #contains(Object)},
+	 * {@link #indexOf(Object)} and {@link #lastIndexOf(Object)}. Without it,
+	 * each of these scans the column.
+	 * <p>
+	 * The index is built on the first lookup, and rebuilt once rows or columns
+	 * are added to or removed from the table, or values are set through any
+	 * wrapper of the table. Every change of a {@link TableWrapper} is detected.
+	 * Values set directly in any other {@link ResultsTable} are caught when the
+	 * row found no longer holds the value, which rebuilds the index; a value
+	 * set directly in a row not found by the index is only seen after
+	 * {@link #invalidateIndex()}.
+	 * </p>
+	 */
+	public void setIndexed(final boolean indexed) {
+		this.indexed = indexed;
+		index = null;
+	}
+
+	/** Returns true if lookups use the value index. */
+	public boolean isIndexed() {
+		return indexed;
+	}
+
+	/** Discards the value index, if any, so the next lookup rebuilds it. */
+	public void invalidateIndex() {
+		index = null;
+	}
+
 	@Override
 	public String getHeader() {
 		return table.getColumnHeading(col);
@@ -77,6 +109,7 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 
 	@Override
 	public boolean contains(final Object o) {
+		if (indexed) return lookup(o, false) >= 0;
 		if (o instanceof Number) {
 			final double value = ((Number) o).doubleValue();
 			for (int i = 0; i < table.size(); i++) {
@@ -94,9 +127,25 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 		return false;
 	}
 
+	/**
+	 * Returns an iterator over the values of the column. Throws
+	 * {@link java.util.ConcurrentModificationException} if rows or columns are
+	 * added to or removed from the table while iterating.
+	 */
 	@Override
 	public Iterator<Object> iterator() {
-		throw new UnsupportedOperationException("iterator()");
+		return Spliterators.iterator(spliterator());
+	}
+
+	/**
+	 * Returns a {@link Spliterator} over the values of the column, which splits
+	 * the rows in halves. Throws
+	 * {@link java.util.ConcurrentModificationException} if rows or columns are
+	 * added to or removed from the table while iterating.
+	 */
+	@Override
+	public Spliterator<Object> spliterator() {
+		return new ResultsTableSpliterator<>(table, this::get, 0, table.size());
 	}
 
 	@Override
@@ -131,6 +180,7 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 	@Override
 	public boolean add(final Object e) {
 		table.incrementCounter(); // addValue does not increment row count
+		ResultsTables.changed(table);
 		if (e instanceof Number) table.addValue(col, ((Number) e).doubleValue());
 		else if (e != null) table.addValue(table.getColumnHeading(col), e
 			.toString());
@@ -178,16 +228,7 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 	@Override
 	public void clear() {
 		// Determine if empty cells are NaN or 0
-		double fill = 0;
-		try {
-			final Field f = ResultsTable.class.getDeclaredField("NaNEmptyCells");
-			f.setAccessible(true);
-			final boolean nan = (boolean) f.get(table);
-			fill = nan ? Double.NaN : 0;
-		}
-		catch (final Exception exc) {
-			// Keep as zero
-		}
+		final double fill = ResultsTables.emptyCellValue(table);
 
 		for (int i = 0; i < table.size(); i++) {
 			// set strings to "", this must be done first. Since setting the string
@@ -195,6 +236,7 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 			table.setValue(col, i, "");
 			table.setValue(col, i, fill);
 		}
+		ResultsTables.changed(table);
 	}
 
 	@Override
@@ -219,6 +261,7 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 			.doubleValue());
 		else if (element != null) table.setValue(col, index, element.toString());
 		else throw new NullPointerException();
+		ResultsTables.changed(table);
 
 		return prev;
 	}
@@ -235,11 +278,13 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 
 	@Override
 	public int indexOf(final Object o) {
+		if (indexed) return lookup(o, false);
 		return findInRange(o, IntStream.range(0, table.size()));
 	}
 
 	@Override
 	public int lastIndexOf(final Object o) {
+		if (indexed) return lookup(o, true);
 		return findInRange(o, IntStream.range(0, table.size()).map(i -> table
 			.size() - i - 1));
 	}
@@ -284,34 +329,33 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 	 *         false
 	 */
 	private boolean checkString(final int row) {
-		final double d = table.getValueAsDouble(col, row);
-		final String s = table.getStringValue(col, row);
-
-		// convert d to a string, as ResultsTable would
-		String c = "";
-		try {
-			final Field f = ResultsTable.class.getDeclaredField("decimalPlaces");
-			f.setAccessible(true);
-			final short[] dec = (short[]) f.get(table);
-			final short places = dec[col];
-			if (places == Short.MIN_VALUE) {
-				final Method m = table.getClass().getDeclaredMethod("n", double.class);
-				m.setAccessible(true);
-				c = (String) m.invoke(table, d);
-			}
-			else {
-				c = ResultsTable.d2s(d, dec[col]);
-			}
-		}
-		catch (final Exception exc) {
-			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
-			c = ResultsTable.d2s(d, ResultsTable.AUTO_FORMAT);
-		}
+		return ResultsTables.isString(table, col, row);
+	}
 
-		// Special case for NaN
-		if (((Double) d).isNaN() && (s == "" || s == null)) return false;
+	/** Returns the value index, rebuilding it if the table changed shape. */
+	private ColumnValueIndex index() {
+		ColumnValueIndex i = index;
+		if (i == null || !i.matches(table)) {
+			i = new ColumnValueIndex(table, col);
+			index = i;
+		}
+		return i;
+	}
 
-		return !s.equals(c);
+	/**
+	 * Looks the given value up in the value index, checking that the row found
+	 * still holds it.
+	 */
+	private int lookup(final Object o, final boolean last) {
+		ColumnValueIndex i = index();
+		final int row = last ? i.lastIndexOf(o) : i.indexOf(o);
+		if (row < 0 || cellContains(o, row)) return row;
+
+		// NB: The cell was set directly in the table, which the index cannot
+		// detect otherwise. Rebuild it, as other cells may have changed too.
+		i = new ColumnValueIndex(table, col);
+		index = i;
+		return last ? i.lastIndexOf(o) : i.indexOf(o);
 	}
 
 	private int findInRange(final Object o, final IntStream range) {
@@ -0,0 +1,219 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.measure.ResultsTable;
+
+import java.util.Arrays;
+
+import net.imagej.table.DoubleColumn;
+
+/**
+ * A {@link DoubleColumn} which shares the storage of a {@link ResultsTable}
+ * column, rather than copying it.
+ * <p>
+ * Until the column is modified, reads go straight to the array in which the
+ * {@link ResultsTable} stores the column, so values set in the
+ * {@link ResultsTable} are visible. Rows added to or removed from the table
+ * are picked up on the next read, including when the table reallocates its
+ * columns to grow or is reset. Until the table creates the column, it reads
+ * as empty. Cells holding Strings read as NaN.
+ * </p>
+ * <p>
+ * The first modification of this column copies the values, after which the
+ * column and the {@link ResultsTable} are independent. The array returned by
+ * {@link #getArray()} before that is the table's own and must not be
+ * modified.
+ * </p>
+ */
+public class ResultsTableDoubleColumn extends DoubleColumn {
+
+	private ResultsTable table;
+	private int col;
+
+	/** Whether the values are still those of the {@link ResultsTable}. */
+	private boolean shared;
+
+	/** Whether the shared array is being replaced, see {@link #refresh()}. */
+	private boolean refreshing;
+
+	/** The table's array when last refreshed, or null if it had none. */
+	private double[] sharedArray;
+
+	/** The table size when the shared array was last refreshed. */
+	private int sharedSize;
+
+	public ResultsTableDoubleColumn(final ResultsTable table, final int col) {
+		super(table.getColumnHeading(col));
+		this.table = table;
+		this.col = col;
+		shared = true;
+		sharedSize = -1;
+		refresh();
+	}
+
+	/** Returns true if this column still shares the table's storage. */
+	public boolean isShared() {
+		return shared;
+	}
+
+	// -- DoubleArray methods --
+
+	@Override
+	public double getValue(final int index) {
+		refresh();
+		return super.getValue(index);
+	}
+
+	@Override
+	public double setValue(final int index, final double value) {
+		unshare();
+		return super.setValue(index, value);
+	}
+
+	// -- PrimitiveColumn methods --
+
+	@Override
+	public void fill(final double[] values) {
+		unshare();
+		super.fill(values);
+	}
+
+	@Override
+	public void fill(final double[] values, final int offset) {
+		unshare();
+		super.fill(values, offset);
+	}
+
+	// -- PrimitiveArray methods --
+
+	@Override
+	public double[] getArray() {
+		refresh();
+		return super.getArray();
+	}
+
+	@Override
+	public void setArray(final double[] array) {
+		unshare();
+		super.setArray(array);
+	}
+
+	@Override
+	public void ensureCapacity(final int minCapacity) {
+		unshare();
+		super.ensureCapacity(minCapacity);
+	}
+
+	@Override
+	public void insert(final int index, final int count) {
+		unshare();
+		super.insert(index, count);
+	}
+
+	@Override
+	public void delete(final int index, final int count) {
+		unshare();
+		super.delete(index, count);
+	}
+
+	// -- Sizable methods --
+
+	@Override
+	public int size() {
+		refresh();
+		return super.size();
+	}
+
+	@Override
+	public void setSize(final int size) {
+		unshare();
+		super.setSize(size);
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Points this column at the table's array again if the table's size or
+	 * array changed, since growing or resetting the table replaces its arrays.
+	 */
+	private void refresh() {
+		// NB: Also called by the superclass constructor, before the fields are
+		// set, in which case shared is still false.
+		if (!shared || refreshing) return;
+		final int size = table.size();
+		final double[] array = ResultsTables.columnArray(table, col);
+		if (array == sharedArray && size == sharedSize) return;
+
+		refreshing = true;
+		try {
+			if (array == null ? table.columnExists(col) : array.length < size) {
+				// NB: Cannot share the storage, so keep a copy.
+				final double[] copy = table.getColumnAsDoubles(col);
+				shared = false;
+				super.setSize(0);
+				super.setArray(copy);
+				super.setSize(copy.length);
+				table = null;
+				return;
+			}
+			super.setSize(0);
+			super.setArray(array == null ? new double[0] : array);
+			super.setSize(array == null ? 0 : size);
+			sharedArray = array;
+			sharedSize = size;
+		}
+		finally {
+			refreshing = false;
+		}
+	}
+
+	/** Copies the shared values, so that they can be modified. */
+	private void unshare() {
+		if (!shared || refreshing) return;
+		refresh();
+		if (!shared) return;
+		refreshing = true;
+		try {
+			final double[] copy = Arrays.copyOf(super.getArray(), super.size());
+			shared = false;
+			super.setSize(0);
+			super.setArray(copy);
+			super.setSize(copy.length);
+		}
+		finally {
+			refreshing = false;
+		}
+		// NB: Release the table, which this column no longer reflects.
+		table = null;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.measure.ResultsTable;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * {@link Spliterator} over a range of indices (rows or columns) of a
+ * {@link ResultsTable}, splitting the range in halves.
+ * <p>
+ * {@link ResultsTable} has no modification count, so its row count and last
+ * column are recorded instead; if either changes while iterating a
+ * {@link ConcurrentModificationException} is thrown.
+ * </p>
+ *
+ * @param <T> type of the elements
+ */
+final class ResultsTableSpliterator<T> implements Spliterator<T> {
+
+	private final ResultsTable table;
+	private final IntFunction<T> element;
+	private final int expectedSize;
+	private final int expectedLastColumn;
+	private int index;
+	private final int fence;
+
+	/**
+	 * @param table the table whose elements are iterated
+	 * @param element returns the element at an index
+	 * @param from the first index (inclusive)
+	 * @param to the last index (exclusive)
+	 */
+	ResultsTableSpliterator(final ResultsTable table,
+		final IntFunction<T> element, final int from, final int to)
+	{
+		this(table, element, from, to, table.size(), table.getLastColumn());
+	}
+
+	private ResultsTableSpliterator(final ResultsTable table,
+		final IntFunction<T> element, final int from, final int to,
+		final int expectedSize, final int expectedLastColumn)
+	{
+		this.table = table;
+		this.element = element;
+		this.index = from;
+		this.fence = to;
+		this.expectedSize = expectedSize;
+		this.expectedLastColumn = expectedLastColumn;
+	}
+
+	// -- Spliterator methods --
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super T> action) {
+		checkForComodification();
+		if (index >= fence) return false;
+		action.accept(element.apply(index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(final Consumer<? super T> action) {
+		for (; index < fence; index++) {
+			checkForComodification();
+			action.accept(element.apply(index));
+		}
+		checkForComodification();
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		final int mid = (index + fence) >>> 1;
+		if (mid <= index) return null;
+		final Spliterator<T> prefix = new ResultsTableSpliterator<>(table, element,
+			index, mid, expectedSize, expectedLastColumn);
+		index = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | NONNULL;
+	}
+
+	// -- Helper methods --
+
+	private void checkForComodification() {
+		if (table.size() != expectedSize || table
+			.getLastColumn() != expectedLastColumn)
+		{
+			throw new ConcurrentModificationException();
+		}
+	}
+}
@@ -31,17 +31,19 @@
 
 package net.imagej.legacy.convert;
 
-import ij.measure.ResultsTable;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import net.imagej.table.Column;
+import net.imagej.table.DoubleColumn;
 import net.imagej.table.GenericTable;
 
 /**
@@ -53,6 +55,10 @@ public class ResultsTableWrapper implements GenericTable {
 
 	private final ij.measure.ResultsTable table;
 
+	/** The wrappers of the columns, by ImageJ 1.x column index. */
+	private final Map<Integer, ResultsTableColumnWrapper> columnWrappers =
+		new HashMap<>();
+
 	public ResultsTableWrapper(final ij.measure.ResultsTable table) {
 		this.table = table;
 	}
@@ -80,27 +86,17 @@ public class ResultsTableWrapper implements GenericTable {
 
 	@Override
 	public Column<? extends Object> get(final String colHeader) {
-		return new ResultsTableColumnWrapper(table, table.getColumnIndex(
-			colHeader));
+		return column(table.getColumnIndex(colHeader));
 	}
 
 	@Override
 	public Column<? extends Object> appendColumn() {
 		// Determine if empty cells are NaN or 0
-		double fill = 0;
-		try {
-			final Field f = ij.measure.ResultsTable.class.getDeclaredField(
-				"NaNEmptyCells");
-			f.setAccessible(true);
-			final boolean nan = (boolean) f.get(table);
-			fill = nan ? Double.NaN : 0;
-		}
-		catch (final Exception exc) {
-			// Keep as zero
-		}
+		final double fill = ResultsTables.emptyCellValue(table);
 		// addValue does not increment the counter (row count) and sets the heading
 		// to "---"
 		table.addValue(table.getLastColumn() + 1, fill);
+		ResultsTables.changed(table);
 		return get(table.getLastColumn());
 	}
 
@@ -189,23 +185,7 @@ public class ResultsTableWrapper implements GenericTable {
 
 	@Override
 	public void appendRow() {
-		// Determine if empty cells are NaN or 0
-		double fill = 0;
-		try {
-			final Field f = ij.measure.ResultsTable.class.getDeclaredField(
-				"NaNEmptyCells");
-			f.setAccessible(true);
-			final boolean nan = (boolean) f.get(table);
-			fill = nan ? Double.NaN : 0;
-		}
-		catch (final Exception exc) {
-			// Keep as zero
-		}
-
-		for (int i = 0; i <= table.getLastColumn(); i++) {
-			// setValue increments the column whereas addValue does not
-			table.setValue(i, table.size(), fill);
-		}
+		appendRows(1);
 	}
 
 	@Override
@@ -214,43 +194,62 @@ public class ResultsTableWrapper implements GenericTable {
 		table.setLabel(header, table.size() - 1);
 	}
 
+	/**
+	 * Appends {@code count} rows, filled with the table's empty cell value. The
+	 * rows are all allocated first, and then each column is filled in turn. A
+	 * table without columns gets the rows all the same, so that they can hold
+	 * labels.
+	 */
 	@Override
 	public void appendRows(final int count) {
-		for (int i = 0; i < count; i++) {
-			appendRow();
+		if (count <= 0) return;
+		final int lastColumn = table.getLastColumn();
+
+		// Determine if empty cells are NaN or 0
+		final double fill = ResultsTables.emptyCellValue(table);
+		final int size = table.size();
+		for (int r = 0; r < count; r++)
+			table.incrementCounter();
+		for (int c = 0; c <= lastColumn; c++) {
+			for (int r = size; r < size + count; r++)
+				table.setValue(c, r, fill);
 		}
+		ResultsTables.changed(table);
 	}
 
 	@Override
 	public void appendRows(final String... headers) {
+		final int size = table.size();
+		appendRows(headers.length);
 		for (int i = 0; i < headers.length; i++) {
-			appendRow(headers[i]);
+			table.setLabel(headers[i], size + i);
 		}
 	}
 
 	@Override
 	public void insertRow(final int row) {
-		throw new UnsupportedOperationException("insertRow(int)");
+		insertRows(row, 1);
 	}
 
 	@Override
 	public void insertRow(final int row, final String header) {
-		throw new UnsupportedOperationException("insertRow(int, String)");
+		insertRows(row, header);
 	}
 
 	@Override
 	public void insertRows(final int row, final int count) {
-		throw new UnsupportedOperationException("insertRows(int, int)");
+		insertBlock(row, count, null);
 	}
 
 	@Override
 	public void insertRows(final int row, final String... headers) {
-		throw new UnsupportedOperationException("insertRows(int, String...)");
+		insertBlock(row, headers.length, headers);
 	}
 
 	@Override
 	public void removeRow(final int row) {
 		table.deleteRow(row);
+		ResultsTables.changed(table);
 	}
 
 	@Override
@@ -258,6 +257,7 @@ public class ResultsTableWrapper implements GenericTable {
 		for (int i = 0; i < table.size(); i++) {
 			if (table.getLabel(i).equals(header)) {
 				table.deleteRow(i);
+				ResultsTables.changed(table);
 				break;
 			}
 		}
@@ -265,16 +265,62 @@ public class ResultsTableWrapper implements GenericTable {
 
 	@Override
 	public void removeRows(final int row, final int count) {
-		for (int i = 0; i < count; i++) {
-			table.deleteRow(i + row);
-		}
+		if (count <= 0 || row + count <= 0) return;
+		final BitSet rows = new BitSet();
+		rows.set(Math.max(row, 0), row + count);
+		removeRows(rows);
 	}
 
+	/**
+	 * Removes the first row with each of the given labels, in a single pass
+	 * over the table.
+	 */
 	@Override
 	public void removeRows(final String... headers) {
-		for (int i = 0; i < headers.length; i++) {
-			removeRow(headers[i]);
+		final Map<String, Integer> remaining = new HashMap<>();
+		for (final String header : headers)
+			remaining.merge(header, 1, Integer::sum);
+
+		final BitSet rows = new BitSet();
+		for (int i = 0; i < table.size() && !remaining.isEmpty(); i++) {
+			final String label = table.getLabel(i);
+			final Integer count = remaining.get(label);
+			if (label == null || count == null) continue;
+			rows.set(i);
+			if (count == 1) remaining.remove(label);
+			else remaining.put(label, count - 1);
 		}
+		removeRows(rows);
+	}
+
+	/**
+	 * Removes the given rows. Unlike removing the rows one at a time, which
+	 * shifts every column once per row, the remaining rows are compacted in a
+	 * single pass and the then unused rows are removed from the end.
+	 *
+	 * @param rows the indices of the rows to remove; indices past the end of
+	 *          the table are ignored
+	 */
+	public void removeRows(final BitSet rows) {
+		final int size = table.size();
+		final int first = rows.nextSetBit(0);
+		if (first < 0 || first >= size) return;
+
+		final int[] columns = columnsInUse();
+		int target = first;
+		for (int r = rows.nextClearBit(first); r < size; r = rows.nextClearBit(r +
+			1))
+		{
+			for (final int c : columns)
+				ResultsTables.copyCell(table, c, r, target);
+			ResultsTables.copyLabel(table, r, target);
+			target++;
+		}
+
+		// NB: Deleting the last row does not shift any values.
+		for (int r = size - 1; r >= target; r--)
+			table.deleteRow(r);
+		ResultsTables.changed(table);
 	}
 
 	@Override
@@ -328,6 +374,7 @@ public class ResultsTableWrapper implements GenericTable {
 		if (value instanceof String) table.setValue(actualCol, row, (String) value);
 		else if (value instanceof Number) table.setValue(actualCol, row,
 			((Number) value).doubleValue());
+		ResultsTables.changed(table);
 	}
 
 	/**
@@ -339,6 +386,7 @@ public class ResultsTableWrapper implements GenericTable {
 		if (value instanceof String) table.setValue(colHeader, row, (String) value);
 		else if (value instanceof Number) table.setValue(colHeader, row,
 			((Number) value).doubleValue());
+		ResultsTables.changed(table);
 	}
 
 	@Override
@@ -371,9 +419,27 @@ public class ResultsTableWrapper implements GenericTable {
 		throw new UnsupportedOperationException("contains(Object)");
 	}
 
+	/**
+	 * Returns an iterator over the columns in use. Throws
+	 * {@link java.util.ConcurrentModificationException} if rows or columns are
+	 * added to or removed from the table while iterating.
+	 */
 	@Override
 	public Iterator<Column<? extends Object>> iterator() {
-		throw new UnsupportedOperationException("iterator()");
+		return Spliterators.iterator(spliterator());
+	}
+
+	/**
+	 * Returns a {@link Spliterator} over the columns in use, which splits the
+	 * columns in halves. Throws
+	 * {@link java.util.ConcurrentModificationException} if rows or columns are
+	 * added to or removed from the table while iterating.
+	 */
+	@Override
+	public Spliterator<Column<? extends Object>> spliterator() {
+		final int[] columns = columnsInUse();
+		return new ResultsTableSpliterator<>(table, i -> column(columns[i]), 0,
+			columns.length);
 	}
 
 	@Override
@@ -381,7 +447,7 @@ public class ResultsTableWrapper implements GenericTable {
 		final int size = getColumnCount();
 		final Object[] o = new Object[size];
 		for (int i = 0; i < size; i++)
-			o[i] = new ResultsTableColumnWrapper(table, getActualColumnIndex(i));
+			o[i] = column(getActualColumnIndex(i));
 		return o;
 	}
 
@@ -393,8 +459,7 @@ public class ResultsTableWrapper implements GenericTable {
 			.newInstance(a.getClass().getComponentType(), size) : a;
 
 		for (int i = 0; i < size; i++)
-			copy[i] = (A) new ResultsTableColumnWrapper(table, getActualColumnIndex(
-				i));
+			copy[i] = (A) column(getActualColumnIndex(i));
 		if (copy.length > size) copy[size] = null;
 
 		return copy;
@@ -403,6 +468,7 @@ public class ResultsTableWrapper implements GenericTable {
 	@Override
 	public boolean add(final Column<? extends Object> column) {
 		final int colIndex = table.getLastColumn() + 1;
+		ResultsTables.changed(table);
 		for (int i = 0; i < column.size(); i++) {
 			if (column.get(i) instanceof Number) table.setValue(colIndex, i,
 				((Number) column.get(i)).doubleValue());
@@ -454,12 +520,40 @@ public class ResultsTableWrapper implements GenericTable {
 	@Override
 	public void clear() {
 		table.reset();
+		ResultsTables.changed(table);
 	}
 
+	/**
+	 * Returns the given column. The same wrapper is returned for each column
+	 * as long as this table is in use, so that its settings, such as
+	 * {@link ResultsTableColumnWrapper#setIndexed(boolean)}, are kept.
+	 */
 	@Override
 	public Column<? extends Object> get(final int col) {
-		final int actualCol = getActualColumnIndex(col);
-		return new ResultsTableColumnWrapper(table, actualCol);
+		return column(getActualColumnIndex(col));
+	}
+
+	/**
+	 * Returns the given column as a {@link DoubleColumn} which shares the
+	 * storage of the {@link ij.measure.ResultsTable} until it is modified,
+	 * rather than boxing each value as {@link #get(int)} does.
+	 *
+	 * @see ResultsTableDoubleColumn
+	 */
+	public ResultsTableDoubleColumn getDoubleColumn(final int col) {
+		return new ResultsTableDoubleColumn(table, getActualColumnIndex(col));
+	}
+
+	/**
+	 * Returns the column with the given header as a {@link DoubleColumn} which
+	 * shares the storage of the {@link ij.measure.ResultsTable} until it is
+	 * modified.
+	 *
+	 * @see ResultsTableDoubleColumn
+	 */
+	public ResultsTableDoubleColumn getDoubleColumn(final String colHeader) {
+		return new ResultsTableDoubleColumn(table, table.getColumnIndex(
+			colHeader));
 	}
 
 	/**
@@ -470,8 +564,7 @@ public class ResultsTableWrapper implements GenericTable {
 	public Column<? extends Object> set(final int col,
 		final Column<? extends Object> column)
 	{
-		final int actualCol = getActualColumnIndex(col);
-		final Column<Object> w = new ResultsTableColumnWrapper(table, actualCol);
+		final Column<Object> w = column(getActualColumnIndex(col));
 		for (int i = 0; i < column.size(); i++) {
 			w.set(i, column.get(i));
 		}
@@ -514,8 +607,7 @@ public class ResultsTableWrapper implements GenericTable {
 	{
 		final List<Column<?>> l = new ArrayList<>(toCol - fromCol);
 		for (int i = fromCol; i < toCol; i++) {
-			final int actualCol = getActualColumnIndex(i);
-			l.add(new ResultsTableColumnWrapper(table, actualCol));
+			l.add(column(getActualColumnIndex(i)));
 		}
 		return l;
 	}
@@ -529,35 +621,51 @@ public class ResultsTableWrapper implements GenericTable {
 	 *         false
 	 */
 	private boolean checkString(final int row, final int col) {
-		final double d = table.getValueAsDouble(col, row);
-		final String s = table.getStringValue(col, row);
-
-		// convert d to a string, as ResultsTable would
-		String c = "";
-		try {
-			final Field f = ij.measure.ResultsTable.class.getDeclaredField(
-				"decimalPlaces");
-			f.setAccessible(true);
-			final short[] dec = (short[]) f.get(table);
-			final short places = dec[col];
-			if (places == Short.MIN_VALUE) {
-				final Method m = table.getClass().getDeclaredMethod("n", double.class);
-				m.setAccessible(true);
-				c = (String) m.invoke(table, d);
-			}
-			else {
-				c = ResultsTable.d2s(d, dec[col]);
-			}
+		return ResultsTables.isString(table, col, row);
+	}
+
+	/**
+	 * Inserts {@code count} rows filled with the table's empty cell value before
+	 * the given row, shifting the following rows down in a single pass.
+	 *
+	 * @param headers the labels of the new rows, or null
+	 */
+	private void insertBlock(final int row, final int count,
+		final String[] headers)
+	{
+		final int size = table.size();
+		if (row < 0 || row > size) throw new IndexOutOfBoundsException("Row " +
+			row + " of " + size);
+		appendRows(count);
+
+		final int[] columns = columnsInUse();
+		for (int r = size - 1; r >= row; r--) {
+			for (final int c : columns)
+				ResultsTables.copyCell(table, c, r, r + count);
+			ResultsTables.copyLabel(table, r, r + count);
 		}
-		catch (final Exception exc) {
-			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
-			c = ResultsTable.d2s(d, ij.measure.ResultsTable.AUTO_FORMAT);
+		final double fill = ResultsTables.emptyCellValue(table);
+		for (int r = row; r < row + count; r++) {
+			for (final int c : columns)
+				ResultsTables.setNumber(table, c, r, fill);
+			ResultsTables.setLabel(table, headers == null ? null : headers[r - row],
+				r);
 		}
+		ResultsTables.changed(table);
+	}
 
-		// Special case for NaN
-		if (((Double) d).isNaN() && (s == "" || s == null)) return false;
+	/** Returns the wrapper of the given ImageJ 1.x column. */
+	private synchronized ResultsTableColumnWrapper column(final int actualCol) {
+		return columnWrappers.computeIfAbsent(actualCol,
+			c -> new ResultsTableColumnWrapper(table, c));
+	}
 
-		return !s.equals(c);
+	/** Returns the indices of the ImageJ 1.x columns which are in use. */
+	private int[] columnsInUse() {
+		final int[] columns = new int[getColumnCount()];
+		for (int i = 0, n = 0; i <= table.getLastColumn(); i++)
+			if (table.columnExists(i)) columns[n++] = i;
+		return columns;
 	}
 
 	/**
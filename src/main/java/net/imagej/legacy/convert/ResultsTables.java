@@ -0,0 +1,245 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.measure.ResultsTable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility methods for the {@link ResultsTable} wrappers, with the reflective
+ * lookups into {@link ResultsTable} resolved once rather than per cell.
+ */
+public final class ResultsTables {
+
+	private static final Field DECIMAL_PLACES = field("decimalPlaces");
+	private static final Field NAN_EMPTY_CELLS = field("NaNEmptyCells");
+	private static final Field COLUMNS = field("columns");
+	private static final Method N = method("n", double.class);
+
+	/** The changes made through the wrappers to tables other than views. */
+	private static final Map<ResultsTable, AtomicInteger> CHANGES = Collections
+		.synchronizedMap(new WeakHashMap<>());
+
+	private ResultsTables() {
+		// Prevent instantiation of utility class
+	}
+
+	/**
+	 * Checks if the value at the given position is a String. A value is a String
+	 * if the table's String representation of the cell is not the formatted
+	 * {@code double} value.
+	 *
+	 * @return true if the value at the given location is a String, otherwise
+	 *         false
+	 */
+	static boolean isString(final ResultsTable table, final int col,
+		final int row)
+	{
+		final double d = table.getValueAsDouble(col, row);
+
+		// NB: ImageJ 1.x stores NaN as the number of a String cell, so any other
+		// number means the cell holds that number. This avoids formatting it.
+		if (!Double.isNaN(d)) return false;
+
+		final String s = table.getStringValue(col, row);
+
+		// Special case for NaN
+		if (s == null || s.isEmpty()) return false;
+
+		return !s.equals(format(table, col, d));
+	}
+
+	/**
+	 * Returns the number of changes counted for the given table. A
+	 * {@link TableWrapper} counts every change made to it; any other table only
+	 * counts the changes made through the wrappers of this package, which
+	 * report them with {@link #changed(ResultsTable)}.
+	 */
+	static int changeCount(final ResultsTable table) {
+		if (table instanceof TableWrapper) return ((TableWrapper) table)
+			.changeCount();
+		final AtomicInteger count = CHANGES.get(table);
+		return count == null ? 0 : count.get();
+	}
+
+	/** Counts a change of the given table's values, rows or columns. */
+	static void changed(final ResultsTable table) {
+		if (table instanceof TableWrapper) ((TableWrapper) table).changed();
+		else CHANGES.computeIfAbsent(table, t -> new AtomicInteger())
+			.incrementAndGet();
+	}
+
+	/**
+	 * Returns the value of empty cells in the given table: NaN if the table has
+	 * {@code NaNEmptyCells} set, otherwise zero.
+	 */
+	static double emptyCellValue(final ResultsTable table) {
+		try {
+			return NAN_EMPTY_CELLS.getBoolean(table) ? Double.NaN : 0;
+		}
+		catch (final Exception exc) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the array in which the given table stores the numbers of a column
+	 * (not a copy). The array may be longer than the table, and is replaced
+	 * when the table grows.
+	 *
+	 * @return the array, or null if the column does not exist or the array
+	 *         cannot be accessed
+	 */
+	static double[] columnArray(final ResultsTable table, final int col) {
+		try {
+			final double[][] columns = (double[][]) COLUMNS.get(table);
+			return col >= 0 && col < columns.length ? columns[col] : null;
+		}
+		catch (final Exception exc) {
+			return null;
+		}
+	}
+
+	/**
+	 * Sets rows {@code [0, length)} of a column to the given numbers, creating
+	 * the column if it does not exist yet. The numbers are copied straight into
+	 * the array of the column, so this is meant for filling new columns: String
+	 * cells which the column already holds are not cleared.
+	 *
+	 * @param table The table, which must already have {@code length} rows
+	 * @param col The index of the column to set
+	 * @param values The numbers to set, of which the first {@code length} are
+	 *          used
+	 * @param length The number of rows to set
+	 */
+	public static void setColumn(final ResultsTable table, final int col,
+		final double[] values, final int length)
+	{
+		if (length == 0) return;
+		// NB: Setting the last cell creates the column if need be.
+		table.setValue(col, length - 1, values[length - 1]);
+		final double[] array = columnArray(table, col);
+		if (array != null && array.length >= length) {
+			System.arraycopy(values, 0, array, 0, length - 1);
+			return;
+		}
+		for (int r = 0; r < length - 1; r++)
+			table.setValue(col, r, values[r]);
+	}
+
+	/**
+	 * Copies the value of one cell of a column to another row, as a String if
+	 * it is one and as a {@code double} otherwise.
+	 */
+	static void copyCell(final ResultsTable table, final int col,
+		final int fromRow, final int toRow)
+	{
+		if (isString(table, col, fromRow)) table.setValue(col, toRow, table
+			.getStringValue(col, fromRow));
+		else setNumber(table, col, toRow, table.getValueAsDouble(col, fromRow));
+	}
+
+	/**
+	 * Sets a cell to a {@code double}, first clearing the String it holds if it
+	 * holds one.
+	 */
+	static void setNumber(final ResultsTable table, final int col,
+		final int row, final double value)
+	{
+		// NB: Setting a number does not remove the String of a cell, which would
+		// then still be returned for NaN values; see
+		// ResultsTableColumnWrapper#clear().
+		if (isString(table, col, row)) table.setValue(col, row, "");
+		table.setValue(col, row, value);
+	}
+
+	/** Copies the label of one row to another row, if either has one. */
+	static void copyLabel(final ResultsTable table, final int fromRow,
+		final int toRow)
+	{
+		setLabel(table, table.getLabel(fromRow), toRow);
+	}
+
+	/** Sets the label of a row, unless both the old and new label are null. */
+	static void setLabel(final ResultsTable table, final String label,
+		final int row)
+	{
+		if (label != null || table.getLabel(row) != null) table.setLabel(label,
+			row);
+	}
+
+	// -- Helper methods --
+
+	/** Converts {@code d} to a String, as the given column would. */
+	private static String format(final ResultsTable table, final int col,
+		final double d)
+	{
+		try {
+			final short[] dec = (short[]) DECIMAL_PLACES.get(table);
+			final short places = dec[col];
+			if (places != Short.MIN_VALUE) return ResultsTable.d2s(d, places);
+			return (String) N.invoke(table, d);
+		}
+		catch (final Exception exc) {
+			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
+			return ResultsTable.d2s(d, ResultsTable.AUTO_FORMAT);
+		}
+	}
+
+	private static Field field(final String name) {
+		try {
+			final Field f = ResultsTable.class.getDeclaredField(name);
+			f.setAccessible(true);
+			return f;
+		}
+		catch (final Exception exc) {
+			return null;
+		}
+	}
+
+	private static Method method(final String name, final Class<?>... params) {
+		try {
+			final Method m = ResultsTable.class.getDeclaredMethod(name, params);
+			m.setAccessible(true);
+			return m;
+		}
+		catch (final Exception exc) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.gui.Roi;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.scijava.convert.AbstractConverter;
+import org.scijava.convert.ConversionRequest;
+import org.scijava.convert.ConvertService;
+import org.scijava.convert.Converter;
+
+/**
+ * Converts ROIs to one output type, remembering which {@link Converter}s
+ * could handle each pair of ROI class and {@link Roi#getType()}, so that
+ * {@link ConvertService} only lists converters for new kinds of ROIs.
+ * <p>
+ * The remembered candidates are kept in priority order, and each ROI goes to
+ * the first candidate which can convert it, as {@link ConvertService} would
+ * pick it. Whether a candidate applies is decided once for each kind of ROI,
+ * unless the candidate overrides {@link Converter#canConvert(Object, Class)}
+ * to inspect the ROI itself: only those candidates are asked for each ROI.
+ * Lists of at least {@link #PARALLEL_THRESHOLD} ROIs are converted in
+ * parallel.
+ * </p>
+ */
+public class RoiConverterCache<O> {
+
+	/** The number of ROIs from which {@link #convertAll} runs in parallel. */
+	static final int PARALLEL_THRESHOLD = 256;
+
+	/** The parameters of the {@code canConvert} methods given a source. */
+	private static final Class<?>[][] INSTANCE_CHECKS = { //
+		{ ConversionRequest.class }, { Object.class, Type.class }, //
+		{ Object.class, Class.class } };
+
+	private final ConvertService convertService;
+	private final Class<O> outputType;
+	private final Map<Key, Candidates> candidates = new ConcurrentHashMap<>();
+
+	public RoiConverterCache(final ConvertService convertService,
+		final Class<O> outputType)
+	{
+		this.convertService = convertService;
+		this.outputType = outputType;
+	}
+
+	/**
+	 * Converts the given ROI, or returns null if no converter can convert it.
+	 */
+	public O convert(final Object roi) {
+		if (roi == null) return convertService.convert(roi, outputType);
+		final Converter<?, ?> converter = handler(roi);
+		return converter == null ? null : converter.convert(roi, outputType);
+	}
+
+	/** Returns true if the given ROI can be converted. */
+	public boolean supports(final Object roi) {
+		if (roi == null) return convertService.supports(roi, outputType);
+		return handler(roi) != null;
+	}
+
+	/**
+	 * Converts the given ROIs, preserving their order.
+	 */
+	public List<O> convertAll(final List<?> rois) {
+		IntStream indices = IntStream.range(0, rois.size());
+		if (rois.size() >= PARALLEL_THRESHOLD) indices = indices.parallel();
+		return indices.mapToObj(i -> convert(rois.get(i))).collect(Collectors
+			.toList());
+	}
+
+	// -- Helper methods --
+
+	/** Returns the converter for the given ROI, or null if there is none. */
+	private Converter<?, ?> handler(final Object roi) {
+		final Candidates c = candidates.computeIfAbsent(new Key(roi),
+			key -> candidates(key.roiClass));
+		for (int i = 0; i < c.converters.size(); i++) {
+			final Converter<?, ?> converter = c.converters.get(i);
+			if (!c.inspectsRoi[i] || converter.canConvert(roi, outputType))
+				return converter;
+		}
+		// NB: Not all converters can tell from the class alone.
+		return convertService.getHandler(roi, outputType);
+	}
+
+	/**
+	 * Lists the converters, in priority order, which can convert instances of
+	 * the given class to the output type, up to the first one which can convert
+	 * every instance.
+	 */
+	private Candidates candidates(final Class<?> roiClass) {
+		final List<Converter<?, ?>> list = new ArrayList<>();
+		for (final Converter<?, ?> c : convertService.getInstances()) {
+			if (!c.canConvert(roiClass, outputType)) continue;
+			list.add(c);
+			if (!inspectsRoi(c)) break;
+		}
+		return new Candidates(list);
+	}
+
+	/**
+	 * Returns true if whether the given converter applies may depend on the ROI
+	 * itself, not just on its class: that is, if it overrides any of the
+	 * {@code canConvert} methods given a source, which {@link Converter} and
+	 * {@link AbstractConverter} answer from the source's class.
+	 */
+	private static boolean inspectsRoi(final Converter<?, ?> c) {
+		for (final Class<?>[] params : INSTANCE_CHECKS) {
+			try {
+				final Class<?> declarer = c.getClass().getMethod("canConvert", params)
+					.getDeclaringClass();
+				if (declarer != AbstractConverter.class &&
+					declarer != Converter.class) return true;
+			}
+			catch (final NoSuchMethodException exc) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// -- Helper classes --
+
+	private static final class Candidates {
+
+		private final List<Converter<?, ?>> converters;
+
+		/** Whether each converter must be asked about each ROI. */
+		private final boolean[] inspectsRoi;
+
+		private Candidates(final List<Converter<?, ?>> converters) {
+			this.converters = converters;
+			inspectsRoi = new boolean[converters.size()];
+			for (int i = 0; i < inspectsRoi.length; i++)
+				inspectsRoi[i] = inspectsRoi(converters.get(i));
+		}
+	}
+
+	private static final class Key {
+
+		private final Class<?> roiClass;
+		private final int roiType;
+
+		private Key(final Object roi) {
+			roiClass = roi.getClass();
+			roiType = roi instanceof Roi ? ((Roi) roi).getType() : -1;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof Key)) return false;
+			final Key other = (Key) o;
+			return roiClass == other.roiClass && roiType == other.roiType;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * roiClass.hashCode() + roiType;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.gui.Roi;
+import ij.plugin.frame.RoiManager;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.imagej.legacy.convert.roi.IJRoiWrapper;
+import net.imagej.roi.DefaultROITree;
+import net.imagej.roi.ROITree;
+import net.imglib2.roi.MaskPredicate;
+
+import org.scijava.convert.ConvertService;
+
+/**
+ * Exports the contents of a {@link RoiManager} to a {@link ROITree}.
+ * <p>
+ * Each export takes one snapshot of the {@link Roi}s in the manager and
+ * converts them all at once, in parallel for large managers. The resulting
+ * {@link MaskPredicate}s are {@link IJRoiWrapper}s of the managed {@link Roi}s,
+ * so names and C/Z/T positions are those of the wrapped {@link Roi}s.
+ * </p>
+ * <p>
+ * The {@link Roi}s are children of the root of the tree, in the order of the
+ * manager. {@link Roi}s which cannot be converted are left out.
+ * </p>
+ * <p>
+ * {@link #refresh()} only converts the {@link Roi}s which were not part of the
+ * previous snapshot. {@link Roi}s removed from the manager are dropped, and
+ * updating a {@link Roi} in the manager replaces it with a new object, which is
+ * converted again.
+ * </p>
+ */
+public class RoiManagerSnapshot {
+
+	private final RoiManager manager;
+
+	@SuppressWarnings("rawtypes")
+	private final RoiConverterCache<MaskPredicate> converters;
+
+	/** Conversions of the previous snapshot, null if a Roi is unsupported. */
+	private Map<Roi, MaskPredicate<?>> converted = new IdentityHashMap<>();
+
+	private ROITree tree = new DefaultROITree();
+	private int lastConverted;
+
+	public RoiManagerSnapshot(final ConvertService convertService,
+		final RoiManager manager)
+	{
+		this.manager = manager;
+		converters = new RoiConverterCache<>(convertService, MaskPredicate.class);
+	}
+
+	/**
+	 * Returns the tree of the latest snapshot, which is empty before the first
+	 * {@link #snapshot()} or {@link #refresh()}.
+	 */
+	public synchronized ROITree rois() {
+		return tree;
+	}
+
+	/**
+	 * Takes a new snapshot of the manager, converting every {@link Roi}.
+	 *
+	 * @return the tree of the new snapshot
+	 */
+	public synchronized ROITree snapshot() {
+		return snapshot(manager.getRoisAsArray());
+	}
+
+	/**
+	 * Takes a new snapshot of the manager, converting only the {@link Roi}s
+	 * which were not part of the previous snapshot.
+	 *
+	 * @return the tree of the new snapshot
+	 */
+	public synchronized ROITree refresh() {
+		return refresh(manager.getRoisAsArray());
+	}
+
+	/** Returns how many {@link Roi}s the latest snapshot had to convert. */
+	public synchronized int lastConverted() {
+		return lastConverted;
+	}
+
+	// -- Internal methods --
+
+	/**
+	 * Takes a new snapshot of the given {@link Roi}s, in the order of the
+	 * manager, converting every {@link Roi}.
+	 */
+	synchronized ROITree snapshot(final Roi[] rois) {
+		converted = new IdentityHashMap<>();
+		return refresh(rois);
+	}
+
+	/**
+	 * Takes a new snapshot of the given {@link Roi}s, in the order of the
+	 * manager, converting only those which were not part of the previous
+	 * snapshot.
+	 */
+	synchronized ROITree refresh(final Roi[] rois) {
+		final Map<Roi, MaskPredicate<?>> masks = new IdentityHashMap<>();
+		final List<Roi> added = new ArrayList<>();
+		for (final Roi roi : rois) {
+			if (masks.containsKey(roi)) continue;
+			if (converted.containsKey(roi)) masks.put(roi, converted.get(roi));
+			else {
+				// NB: Reserves the entry so that duplicates are converted once.
+				masks.put(roi, null);
+				added.add(roi);
+			}
+		}
+		@SuppressWarnings("rawtypes")
+		final List<MaskPredicate> conversions = converters.convertAll(added);
+		for (int i = 0; i < added.size(); i++)
+			masks.put(added.get(i), conversions.get(i));
+
+		converted = masks;
+		lastConverted = added.size();
+		tree = createTree(rois, masks);
+		return tree;
+	}
+
+	// -- Helper methods --
+
+	private static ROITree createTree(final Roi[] rois,
+		final Map<Roi, MaskPredicate<?>> masks)
+	{
+		final List<MaskPredicate<?>> children = new ArrayList<>(rois.length);
+		for (final Roi roi : rois) {
+			final MaskPredicate<?> mask = masks.get(roi);
+			if (mask != null) children.add(mask);
+		}
+		final ROITree root = new DefaultROITree();
+		root.addROIs(children);
+		return root;
+	}
+
+}
@@ -33,20 +33,43 @@ package net.imagej.legacy.convert;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 import net.imagej.table.Table;
 
 import org.scijava.convert.ConvertService;
 
+/**
+ * Wraps a {@code List<Table<?, ?>>} as a {@code List<ResultsTable>}.
+ * <p>
+ * The {@link Table}s are converted when the list is first accessed. Each
+ * {@code ResultsTable} is then paired with its {@link Table}, together with the
+ * shape both had when they were last known to agree. {@link #synchronize()}
+ * only converts the {@code ResultsTable}s which were added or replaced since,
+ * and the pairs in which one side changed shape without the other following
+ * it; every other element keeps its {@link Table}.
+ * </p>
+ */
 public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	private List<Table<?, ?>> tables;
 	private final ConvertService convertService;
 	private List<ij.measure.ResultsTable> resultsTables;
 
+	/** The {@link Table} which each {@code ResultsTable} corresponds to. */
+	private final Map<ij.measure.ResultsTable, Pair> converted =
+		new IdentityHashMap<>();
+
+	/** Counts the modifications of {@code resultsTables} made through this. */
+	private int modCount;
+
+	/** The value of {@link #modCount} at the last synchronization. */
+	private int syncedModCount;
+
 	public TableListWrapper(final List<Table<?, ?>> tables,
 		final ConvertService convertService)
 	{
@@ -65,16 +88,52 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	/**
 	 * Synchronizes {@code this} and the source {@code List<Table<?, ?>>}.
+	 * <p>
+	 * Only {@code ResultsTable}s which have not been converted before, or whose
+	 * pair changed on one side only, are converted again. If only the
+	 * {@link Table} changed, it is kept and the {@code ResultsTable} is replaced
+	 * by a new conversion of it instead. The source list is only replaced if
+	 * any of its elements changed.
+	 * </p>
 	 */
-	public void synchronize() {
+	public synchronized void synchronize() {
 		if (resultsTables == null) return;
-		final List<Table<?, ?>> updated = new ArrayList<>();
-		for (final ij.measure.ResultsTable resultsTable : getResultsTables()) {
-			final Table<?, ?> table = convertService.convert(resultsTable,
-				Table.class);
+		if (modCount == syncedModCount && !hasStalePairs()) return;
+
+		final List<Table<?, ?>> updated = new ArrayList<>(resultsTables.size());
+		final Map<ij.measure.ResultsTable, Pair> current = new IdentityHashMap<>();
+		boolean changed = resultsTables.size() != tables.size();
+		for (int i = 0; i < resultsTables.size(); i++) {
+			ij.measure.ResultsTable resultsTable = resultsTables.get(i);
+			Pair pair = converted.get(resultsTable);
+			if (pair == null) pair = convert(resultsTable);
+			else if (!pair.isCurrent(resultsTable)) {
+				if (pair.tableChangedAlone(resultsTable)) {
+					// NB: The ResultsTable is a copy which did not see the changes.
+					final ij.measure.ResultsTable rt = convertService.convert(
+						pair.table, ij.measure.ResultsTable.class);
+					if (rt != null) {
+						resultsTable = rt;
+						resultsTables.set(i, rt);
+					}
+					pair = new Pair(resultsTable, pair.table);
+				}
+				else if (Pair.agree(resultsTable, pair.table)) {
+					pair = new Pair(resultsTable, pair.table);
+				}
+				else pair = convert(resultsTable);
+			}
+			if (pair != null) current.put(resultsTable, pair);
+			final Table<?, ?> table = pair == null ? null : pair.table;
+			changed = changed || tables.get(updated.size()) != table;
 			updated.add(table);
 		}
-		tables = updated;
+
+		// NB: Drop the tables of ResultsTables which are no longer in the list.
+		converted.clear();
+		converted.putAll(current);
+		if (changed) tables = updated;
+		syncedModCount = modCount;
 	}
 
 	/**
@@ -105,6 +164,8 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	@Override
 	public Iterator<ij.measure.ResultsTable> iterator() {
+		// NB: The returned iterator can modify the list.
+		modCount++;
 		return getResultsTables().iterator();
 	}
 
@@ -120,11 +181,13 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	@Override
 	public boolean add(final ij.measure.ResultsTable e) {
+		modCount++;
 		return getResultsTables().add(e);
 	}
 
 	@Override
 	public boolean remove(final Object o) {
+		modCount++;
 		return getResultsTables().remove(o);
 	}
 
@@ -135,6 +198,7 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	@Override
 	public boolean addAll(final Collection<? extends ij.measure.ResultsTable> c) {
+		modCount++;
 		return getResultsTables().addAll(c);
 	}
 
@@ -142,21 +206,25 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 	public boolean addAll(final int index,
 		final Collection<? extends ij.measure.ResultsTable> c)
 	{
+		modCount++;
 		return getResultsTables().addAll(index, c);
 	}
 
 	@Override
 	public boolean removeAll(final Collection<?> c) {
+		modCount++;
 		return getResultsTables().removeAll(c);
 	}
 
 	@Override
 	public boolean retainAll(final Collection<?> c) {
+		modCount++;
 		return getResultsTables().retainAll(c);
 	}
 
 	@Override
 	public void clear() {
+		modCount++;
 		getResultsTables().clear();
 	}
 
@@ -169,16 +237,19 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 	public ij.measure.ResultsTable set(final int index,
 		final ij.measure.ResultsTable element)
 	{
+		modCount++;
 		return getResultsTables().set(index, element);
 	}
 
 	@Override
 	public void add(final int index, final ij.measure.ResultsTable element) {
+		modCount++;
 		getResultsTables().add(index, element);
 	}
 
 	@Override
 	public ij.measure.ResultsTable remove(final int index) {
+		modCount++;
 		return getResultsTables().remove(index);
 	}
 
@@ -194,11 +265,15 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	@Override
 	public ListIterator<ij.measure.ResultsTable> listIterator() {
+		// NB: The returned iterator can modify the list.
+		modCount++;
 		return getResultsTables().listIterator();
 	}
 
 	@Override
 	public ListIterator<ij.measure.ResultsTable> listIterator(final int index) {
+		// NB: The returned iterator can modify the list.
+		modCount++;
 		return getResultsTables().listIterator(index);
 	}
 
@@ -206,6 +281,8 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 	public List<ij.measure.ResultsTable> subList(final int fromIndex,
 		final int toIndex)
 	{
+		// NB: The returned view can modify the list.
+		modCount++;
 		return getResultsTables().subList(fromIndex, toIndex);
 	}
 
@@ -218,12 +295,103 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	private synchronized void createResultsTableList() {
 		if (resultsTables != null) return;
-		final List<ij.measure.ResultsTable> rts = new ArrayList<>();
+		final List<ij.measure.ResultsTable> rts = new ArrayList<>(tables.size());
 		for (final Table<?, ?> table : tables) {
 			final ij.measure.ResultsTable rt = convertService.convert(table,
 				ij.measure.ResultsTable.class);
+			if (rt != null) converted.put(rt, new Pair(rt, table));
 			rts.add(rt);
 		}
 		resultsTables = rts;
+		syncedModCount = modCount;
+	}
+
+	/** Returns true if any element changed since it was last synchronized. */
+	private boolean hasStalePairs() {
+		for (final ij.measure.ResultsTable resultsTable : resultsTables) {
+			final Pair pair = converted.get(resultsTable);
+			if (pair != null && !pair.isCurrent(resultsTable)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Converts the given {@code ResultsTable}, which has changed since it was
+	 * last synchronized or is new to the list.
+	 */
+	private Pair convert(final ij.measure.ResultsTable resultsTable) {
+		if (resultsTable == null) return null;
+		Table<?, ?> table = convertService.convert(resultsTable, Table.class);
+		// NB: Unwrapping a TableWrapper gives back its source, which does not
+		// see the changes made by ImageJ 1.x methods it does not override.
+		if (table != null && !Pair.agree(resultsTable, table)) table =
+			new ResultsTableWrapper(resultsTable);
+		return table == null ? null : new Pair(resultsTable, table);
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * A {@code ResultsTable} and its {@link Table}, with the shape each had
+	 * when they were last synchronized.
+	 * <p>
+	 * Neither table type counts its modifications, so the shapes act as the
+	 * change counters of both sides. Cell values need no tracking, as the
+	 * converted tables write them through to one another.
+	 * </p>
+	 */
+	private static final class Pair {
+
+		private final Table<?, ?> table;
+		private final int rows;
+		private final int columns;
+		private final int tableRows;
+		private final int tableColumns;
+
+		private Pair(final ij.measure.ResultsTable resultsTable,
+			final Table<?, ?> table)
+		{
+			this.table = table;
+			rows = resultsTable.size();
+			columns = columnCount(resultsTable);
+			tableRows = table.getRowCount();
+			tableColumns = table.getColumnCount();
+		}
+
+		/** Returns true if neither side changed shape since the pairing. */
+		private boolean isCurrent(final ij.measure.ResultsTable resultsTable) {
+			if (isView(resultsTable)) return true;
+			return resultsTable.size() == rows && columnCount(
+				resultsTable) == columns && table.getRowCount() == tableRows && table
+					.getColumnCount() == tableColumns;
+		}
+
+		/** Returns true if only the {@link Table} changed shape. */
+		private boolean tableChangedAlone(
+			final ij.measure.ResultsTable resultsTable)
+		{
+			return resultsTable.size() == rows && columnCount(
+				resultsTable) == columns;
+		}
+
+		/** Returns true if the {@link Table} is a live view of the other. */
+		private boolean isView(final ij.measure.ResultsTable resultsTable) {
+			return table instanceof ResultsTableWrapper &&
+				((ResultsTableWrapper) table).getSource() == resultsTable;
+		}
+
+		private static boolean agree(final ij.measure.ResultsTable resultsTable,
+			final Table<?, ?> table)
+		{
+			return resultsTable.size() == table.getRowCount() && columnCount(
+				resultsTable) == table.getColumnCount();
+		}
+
+		private static int columnCount(final ij.measure.ResultsTable rt) {
+			int count = 0;
+			for (int c = 0; c <= rt.getLastColumn(); c++)
+				if (rt.columnExists(c)) count++;
+			return count;
+		}
 	}
 }
@@ -32,8 +32,8 @@
 package net.imagej.legacy.convert;
 
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 import net.imagej.table.ByteTable;
 import net.imagej.table.Column;
@@ -101,12 +101,12 @@ public final class TableToResultsTableConverters {
 		}
 
 		private boolean containsDuplicateHeadings(final Table<?, ?> table) {
-			final List<String> headings = new ArrayList<>();
-			for (int c = 0; c < table.getColumnCount(); c++) {
+			final int columnCount = table.getColumnCount();
+			final Set<String> headings = new HashSet<>(2 * columnCount);
+			for (int c = 0; c < columnCount; c++) {
 				final String heading = table.getColumnHeader(c);
 				if (heading == null || heading.isEmpty()) continue;
-				if (headings.contains(heading)) return true;
-				headings.add(heading);
+				if (!headings.add(heading)) return true;
 			}
 			return false;
 		}
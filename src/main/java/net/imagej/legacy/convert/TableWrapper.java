@@ -33,18 +33,31 @@ package net.imagej.legacy.convert;
 
 import ij.ImagePlus;
 import ij.gui.Roi;
-import ij.measure.ResultsTable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.Arrays;
 
+import net.imagej.table.BoolColumn;
+import net.imagej.table.ByteColumn;
 import net.imagej.table.Column;
+import net.imagej.table.DoubleColumn;
+import net.imagej.table.FloatColumn;
+import net.imagej.table.IntColumn;
+import net.imagej.table.LongColumn;
+import net.imagej.table.ShortColumn;
 import net.imagej.table.Table;
 
 import org.scijava.convert.ConvertService;
+import org.scijava.convert.Converter;
 
 /**
  * Wraps an {@link Table} as a {@link ij.measure.ResultsTable}.
+ * <p>
+ * Values are written through to the backing {@link Table} as they are set.
+ * While ImageJ 1.x rewrites the table in bulk ({@link #applyMacro(String)},
+ * {@link #update(int, ImagePlus, Roi)}) the rows written in each column are
+ * only recorded, and just those rows are copied to the backing table when the
+ * operation completes.
+ * </p>
  *
  * @author Alison Walter
  */
@@ -53,6 +66,21 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	private final Table<?, ?> source;
 	private final ConvertService convert;
 
+	/** Whether cell writes are recorded rather than written through. */
+	private boolean deferred;
+
+	/** Per column, the first row written while deferred. */
+	private int[] dirtyFrom = new int[0];
+
+	/** Per column, one past the last row written while deferred. */
+	private int[] dirtyTo = new int[0];
+
+	/** Per column, how {@code double} values are stored in the source. */
+	private ColumnSink[] sinks = new ColumnSink[0];
+
+	/** Counts the changes of the values, rows and columns of this table. */
+	private int changes;
+
 	public TableWrapper(final Table<?, ?> source, final ConvertService convert) {
 		super();
 		for (int r = 0; r < source.getRowCount(); r++)
@@ -69,6 +97,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 
 	@Override
 	public synchronized void incrementCounter() {
+		changes++;
 		super.incrementCounter();
 		source.appendRow();
 	}
@@ -77,7 +106,9 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	public synchronized void addColumns() {
 		super.addColumns();
 		final int numIJColumns = super.getLastColumn() + 1;
-		while (numIJColumns != source.getColumnCount())
+		// NB: ImageJ 1.x also calls this while the backing table, which may have
+		// more columns, is copied in.
+		while (source.getColumnCount() < numIJColumns)
 			source.appendColumn();
 	}
 
@@ -86,7 +117,12 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	// before.
 	@Override
 	public void addValue(final int column, final double value) {
+		changes++;
 		super.addValue(column, value);
+		if (deferred) {
+			markDirty(column, size() - 1);
+			return;
+		}
 
 		// NB: In IJ String and double values are in separate data structures,
 		// so when String values are set the corresponding position in the double
@@ -129,6 +165,14 @@ public class TableWrapper extends ij.measure.ResultsTable {
 
 	@Override
 	public void setValue(final int column, final int row, final double value) {
+		changes++;
+		if (deferred) {
+			// NB: Macros assign every cell, most of them to their current value.
+			// Only record the cells whose value actually changes.
+			if (!isUnchanged(column, row, value)) markDirty(column, row);
+			super.setValue(column, row, value);
+			return;
+		}
 		super.setValue(column, row, value);
 
 		// NB: In IJ String and double values are in separate data structures,
@@ -142,7 +186,12 @@ public class TableWrapper extends ij.measure.ResultsTable {
 
 	@Override
 	public void setValue(final int column, final int row, final String value) {
+		changes++;
 		super.setValue(column, row, value);
+		if (deferred) {
+			markDirty(column, row);
+			return;
+		}
 		createMissingColumns(column);
 		setStringValue(column, row, value);
 	}
@@ -167,12 +216,14 @@ public class TableWrapper extends ij.measure.ResultsTable {
 
 	@Override
 	public synchronized void deleteRow(final int rowIndex) {
+		changes++;
 		super.deleteRow(rowIndex);
 		source.removeRow(rowIndex);
 	}
 
 	@Override
 	public void deleteColumn(final String column) {
+		changes++;
 		super.deleteColumn(column);
 		source.removeColumn(column);
 	}
@@ -185,6 +236,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 
 	@Override
 	public synchronized void reset() {
+		changes++;
 		super.reset();
 		source.clear();
 	}
@@ -193,15 +245,46 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	public void update(final int measurements, final ImagePlus imp,
 		final Roi roi)
 	{
-		super.update(measurements, imp, roi);
-		synchronizeToIJTable();
+		final boolean[] existing = columnsInUse();
+		deferred = true;
+		try {
+			super.update(measurements, imp, roi);
+		}
+		finally {
+			deferred = false;
+			// NB: update(...) adds and removes columns without setting any values,
+			// so only the columns which did not exist before need to be copied.
+			markNewColumnsDirty(existing);
+			flush();
+		}
 	}
 
 	@Override
 	public boolean applyMacro(final String macro) {
-		final boolean applyMacro = super.applyMacro(macro);
-		synchronizeToIJTable();
-		return applyMacro;
+		final boolean[] existing = columnsInUse();
+		deferred = true;
+		try {
+			return super.applyMacro(macro);
+		}
+		finally {
+			deferred = false;
+			// NB: Columns created by the macro start out as 0 or NaN, and the
+			// cells left at that value are not recorded by setValue.
+			markNewColumnsDirty(existing);
+			flush();
+		}
+	}
+
+	// -- Internal methods --
+
+	/** Returns the number of changes made to this table so far. */
+	int changeCount() {
+		return changes;
+	}
+
+	/** Counts a change made to this table. */
+	void changed() {
+		changes++;
 	}
 
 	// -- Helper methods --
@@ -212,9 +295,12 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	 */
 	@SuppressWarnings("deprecation")
 	private void synchronizeToImageJTable() {
+		final int rowCount = source.getRowCount();
 		for (int c = 0; c < source.getColumnCount(); c++) {
-			for (int r = 0; r < source.getRowCount(); r++) {
-				final Object value = source.get(c, r);
+			final Column<?> col = source.get(c);
+			if (copyPrimitiveColumn(c, col, rowCount)) continue;
+			for (int r = 0; r < rowCount; r++) {
+				final Object value = col.get(r);
 				if (value instanceof Number) super.setValue(c, r, ((Number) value)
 					.doubleValue());
 				else if (value instanceof String) super.setValue(c, r, (String) value);
@@ -230,13 +316,79 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	}
 
 	/**
-	 * Synchronizes the backing {@link Table} to be the same as this
-	 * {@link ij.measure.ResultsTable}.
+	 * Copies a primitive column of the backing {@link Table} straight from its
+	 * backing array into the array of the ImageJ 1.x column, without boxing or
+	 * setting each value.
+	 *
+	 * @return false if the column is not a primitive numeric column
 	 */
-	private void synchronizeToIJTable() {
-		for (int c = 0; c <= getLastColumn(); c++) {
-			for (int r = 0; r < size(); r++) {
-				if (checkString(c, r)) {
+	private boolean copyPrimitiveColumn(final int c, final Column<?> col,
+		final int rowCount)
+	{
+		if (!(col instanceof DoubleColumn || col instanceof FloatColumn ||
+			col instanceof LongColumn || col instanceof IntColumn ||
+			col instanceof ShortColumn || col instanceof ByteColumn)) return false;
+		if (rowCount == 0) return true;
+
+		// NB: The rows exist already, so setting the last cell creates the whole
+		// column, whose array is then filled directly.
+		super.setValue(c, rowCount - 1, 0);
+		double[] array = ResultsTables.columnArray(this, c);
+		final boolean direct = array != null && array.length >= rowCount;
+		if (!direct) array = new double[rowCount];
+		copyValues(col, array, rowCount);
+		if (direct) return true;
+		for (int r = 0; r < rowCount; r++)
+			super.setValue(c, r, array[r]);
+		return true;
+	}
+
+	/** Copies the first values of a primitive numeric column. */
+	private static void copyValues(final Column<?> col, final double[] dest,
+		final int count)
+	{
+		if (col instanceof DoubleColumn) {
+			System.arraycopy(((DoubleColumn) col).getArray(), 0, dest, 0, count);
+		}
+		else if (col instanceof FloatColumn) {
+			final float[] values = ((FloatColumn) col).getArray();
+			for (int r = 0; r < count; r++)
+				dest[r] = values[r];
+		}
+		else if (col instanceof LongColumn) {
+			final long[] values = ((LongColumn) col).getArray();
+			for (int r = 0; r < count; r++)
+				dest[r] = values[r];
+		}
+		else if (col instanceof IntColumn) {
+			final int[] values = ((IntColumn) col).getArray();
+			for (int r = 0; r < count; r++)
+				dest[r] = values[r];
+		}
+		else if (col instanceof ShortColumn) {
+			final short[] values = ((ShortColumn) col).getArray();
+			for (int r = 0; r < count; r++)
+				dest[r] = values[r];
+		}
+		else if (col instanceof ByteColumn) {
+			final byte[] values = ((ByteColumn) col).getArray();
+			for (int r = 0; r < count; r++)
+				dest[r] = values[r];
+		}
+	}
+
+	/**
+	 * Copies the rows recorded by {@link #markDirty} to the backing
+	 * {@link Table}, and synchronizes its column headings.
+	 */
+	private void flush() {
+		for (int c = 0; c < dirtyFrom.length; c++) {
+			final int from = dirtyFrom[c];
+			final int to = Math.min(dirtyTo[c], size());
+			if (from >= to || !columnExists(c)) continue;
+			createMissingColumns(c);
+			for (int r = from; r < to; r++) {
+				if (ResultsTables.isString(this, c, r)) {
 					setStringValue(c, r, getStringValue(c, r));
 				}
 				else {
@@ -244,17 +396,67 @@ public class TableWrapper extends ij.measure.ResultsTable {
 				}
 			}
 		}
+		Arrays.fill(dirtyFrom, Integer.MAX_VALUE);
+		Arrays.fill(dirtyTo, 0);
 
 		for (int i = 0; i < source.getColumnCount(); i++)
 			source.setColumnHeader(i, getColumnHeading(i));
 	}
 
+	/** Records that the given cell must be copied to the backing table. */
+	private void markDirty(final int column, final int row) {
+		markDirty(column, row, row + 1);
+	}
+
+	/** Records that the given rows must be copied to the backing table. */
+	private void markDirty(final int column, final int from, final int to) {
+		if (column < 0) return;
+		if (column >= dirtyFrom.length) {
+			final int oldLength = dirtyFrom.length;
+			final int newLength = Math.max(column + 1, 2 * oldLength);
+			dirtyFrom = Arrays.copyOf(dirtyFrom, newLength);
+			dirtyTo = Arrays.copyOf(dirtyTo, newLength);
+			Arrays.fill(dirtyFrom, oldLength, newLength, Integer.MAX_VALUE);
+		}
+		dirtyFrom[column] = Math.min(dirtyFrom[column], from);
+		dirtyTo[column] = Math.max(dirtyTo[column], to);
+	}
+
+	/**
+	 * Records that every row of the columns which exist now, but not in the
+	 * given {@link #columnsInUse()} snapshot, must be copied to the backing
+	 * table.
+	 */
+	private void markNewColumnsDirty(final boolean[] existing) {
+		for (int c = 0; c <= getLastColumn(); c++) {
+			if (columnExists(c) && (c >= existing.length || !existing[c]))
+				markDirty(c, 0, size());
+		}
+	}
+
+	/** Returns true if the given cell already holds the given number. */
+	private boolean isUnchanged(final int column, final int row,
+		final double value)
+	{
+		if (row >= size() || !columnExists(column)) return false;
+		return Double.compare(getValueAsDouble(column, row), value) == 0;
+	}
+
+	/** Returns which of the ImageJ 1.x columns currently exist. */
+	private boolean[] columnsInUse() {
+		final boolean[] inUse = new boolean[getLastColumn() + 1];
+		for (int c = 0; c < inUse.length; c++)
+			inUse[c] = columnExists(c);
+		return inUse;
+	}
+
 	/**
 	 * Attempts to set the given location in the backing {@link Table} to a
 	 * {@code double} value. There are several cases:
 	 * <ul>
 	 * <li>Column type extends Number: the double value is converted to the type
 	 * of the column</li>
+	 * <li>Column is of type Boolean: non-zero values are stored as true</li>
 	 * <li>Column is of type String: the double value is converted to a
 	 * String</li>
 	 * <li>Column is of type Object: the double value is just put into the
@@ -263,6 +465,10 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	 * <p>
 	 * If the column satisfies none of the above cases an exception is thrown.
 	 * </p>
+	 * <p>
+	 * How values are stored is resolved once per column, see
+	 * {@link ColumnSink}.
+	 * </p>
 	 *
 	 * @param column The column index of the value
 	 * @param row The row index of the value
@@ -274,25 +480,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 		final Column<?> col = source.get(column);
 
 		// Set value
-		if (Number.class.isAssignableFrom(col.getType())) {
-			@SuppressWarnings("unchecked")
-			final Column<Number> numberColumn = (Column<Number>) col;
-			final Number convertedValue = convert.convert(value, numberColumn
-				.getType());
-			numberColumn.set(row, convertedValue);
-		}
-		else if (col.getType() == String.class) {
-			@SuppressWarnings("unchecked")
-			final Column<String> stringColumn = (Column<String>) col;
-			stringColumn.set(row, Double.toString(value));
-		}
-		else if (col.getType() == Object.class) {
-			@SuppressWarnings("unchecked")
-			final Column<Object> objectColumn = (Column<Object>) col;
-			objectColumn.set(row, value);
-		}
-		else throw new IllegalArgumentException(
-			"Cannot add double to column of type " + col.getType());
+		sink(column, col).set(row, value);
 
 		// Set column heading
 		col.setHeader(super.getColumnHeading(column));
@@ -344,44 +532,6 @@ public class TableWrapper extends ij.measure.ResultsTable {
 			"type " + c.getType());
 	}
 
-	/**
-	 * Checks if the value at the given position is a String.
-	 *
-	 * @return true if the value at the given location is a String, otherwise
-	 *         false
-	 */
-	private boolean checkString(final int row, final int col) {
-		final double d = getValueAsDouble(col, row);
-		final String s = getStringValue(col, row);
-
-		// convert d to a string, as ResultsTable would
-		String c = "";
-		try {
-			final Field f = ij.measure.ResultsTable.class.getDeclaredField(
-				"decimalPlaces");
-			f.setAccessible(true);
-			final short[] dec = (short[]) f.get(this);
-			final short places = dec[col];
-			if (places == Short.MIN_VALUE) {
-				final Method m = super.getClass().getDeclaredMethod("n", double.class);
-				m.setAccessible(true);
-				c = (String) m.invoke(this, d);
-			}
-			else {
-				c = ResultsTable.d2s(d, dec[col]);
-			}
-		}
-		catch (final Exception exc) {
-			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
-			c = ResultsTable.d2s(d, ij.measure.ResultsTable.AUTO_FORMAT);
-		}
-
-		// Special case for NaN
-		if (((Double) d).isNaN() && (s == "" || s == null)) return false;
-
-		return !s.equals(c);
-	}
-
 	/**
 	 * If {@code source} does not have a column at the given index, it creates
 	 * columns until there is a column for the given index.
@@ -397,4 +547,73 @@ public class TableWrapper extends ij.measure.ResultsTable {
 		while (index != (source.getColumnCount() - 1))
 			source.appendColumn();
 	}
+
+	/**
+	 * Returns the {@link ColumnSink} for the given source column, creating it if
+	 * the column is new or has been replaced.
+	 */
+	private ColumnSink sink(final int column, final Column<?> col) {
+		if (column >= sinks.length) sinks = Arrays.copyOf(sinks, Math.max(column +
+			1, 2 * sinks.length));
+		ColumnSink sink = sinks[column];
+		if (sink == null || sink.column != col) {
+			sink = new ColumnSink(col);
+			sinks[column] = sink;
+		}
+		return sink;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Stores {@code double} values in one column of the backing {@link Table}.
+	 * Primitive columns are written without boxing, and the {@link Converter}
+	 * for other {@link Number} types is looked up once rather than per value.
+	 */
+	private final class ColumnSink {
+
+		private final Column<?> column;
+		private final Class<?> type;
+		private final Converter<?, ?> converter;
+
+		private ColumnSink(final Column<?> column) {
+			this.column = column;
+			type = column.getType();
+			converter = Number.class.isAssignableFrom(type) && !(column instanceof
+				DoubleColumn || column instanceof FloatColumn) ? convert.getHandler(
+					Double.class, type) : null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void set(final int row, final double value) {
+			if (column instanceof DoubleColumn) {
+				((DoubleColumn) column).setValue(row, value);
+			}
+			else if (column instanceof FloatColumn) {
+				((FloatColumn) column).setValue(row, (float) value);
+			}
+			else if (column instanceof BoolColumn) {
+				((BoolColumn) column).setValue(row, value != 0);
+			}
+			else if (type == Double.class) {
+				((Column<Double>) column).set(row, value);
+			}
+			else if (type == Boolean.class) {
+				((Column<Boolean>) column).set(row, value != 0);
+			}
+			else if (Number.class.isAssignableFrom(type)) {
+				final Number convertedValue = (Number) (converter == null ? convert
+					.convert(value, type) : converter.convert(value, type));
+				((Column<Number>) column).set(row, convertedValue);
+			}
+			else if (type == String.class) {
+				((Column<String>) column).set(row, Double.toString(value));
+			}
+			else if (type == Object.class) {
+				((Column<Object>) column).set(row, value);
+			}
+			else throw new IllegalArgumentException(
+				"Cannot add double to column of type " + type);
+		}
+	}
 }
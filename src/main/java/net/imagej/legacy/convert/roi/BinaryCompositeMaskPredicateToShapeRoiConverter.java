@@ -34,11 +34,16 @@ package net.imagej.legacy.convert.roi;
 import ij.gui.Roi;
 import ij.gui.ShapeRoi;
 
+import java.awt.Rectangle;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Predicate;
 
+import net.imagej.legacy.convert.RoiConverterCache;
 import net.imglib2.RealLocalizable;
 import net.imglib2.roi.Operators;
 import net.imglib2.roi.Operators.MaskOperator;
@@ -62,39 +67,27 @@ public class BinaryCompositeMaskPredicateToShapeRoiConverter extends
 	AbstractMaskPredicateToRoiConverter<BinaryCompositeMaskPredicate<RealLocalizable>, ShapeRoi>
 {
 
+	/** Number of operands from which subtrees are combined in parallel. */
+	private static final int PARALLEL_THRESHOLD = 64;
+
 	@Parameter
 	private ConvertService convertService;
 
+	/** Converts the operands, without a full lookup for each of them. */
+	private RoiConverterCache<Roi> operandConverters;
+
 	@Override
 	public boolean canConvert(final Object src, final Type dest) {
-		if (super.canConvert(src, dest) &&
-			src instanceof BinaryCompositeMaskPredicate)
-		{
-			final BinaryCompositeMaskPredicate<?> mor =
-				(BinaryCompositeMaskPredicate<?>) src;
-			final List<?> o = mor.operands();
-			for (int i = 0; i < o.size(); i++) {
-				if (!convertService.supports(o.get(i), Roi.class)) return false;
-			}
-			return true;
-		}
-		return false;
+		return super.canConvert(src, dest) &&
+			src instanceof BinaryCompositeMaskPredicate && supportsOperands(
+				(BinaryCompositeMaskPredicate<?>) src);
 	}
 
 	@Override
 	public boolean canConvert(final Object src, final Class<?> dest) {
-		if (super.canConvert(src, dest) &&
-			src instanceof BinaryCompositeMaskPredicate)
-		{
-			final BinaryCompositeMaskPredicate<?> mor =
-				(BinaryCompositeMaskPredicate<?>) src;
-			final List<?> o = mor.operands();
-			for (int i = 0; i < o.size(); i++) {
-				if (!convertService.supports(o.get(i), Roi.class)) return false;
-			}
-			return true;
-		}
-		return false;
+		return super.canConvert(src, dest) &&
+			src instanceof BinaryCompositeMaskPredicate && supportsOperands(
+				(BinaryCompositeMaskPredicate<?>) src);
 	}
 
 	@Override
@@ -112,27 +105,41 @@ public class BinaryCompositeMaskPredicateToShapeRoiConverter extends
 	public ShapeRoi convert(
 		final BinaryCompositeMaskPredicate<RealLocalizable> mask)
 	{
-		final List<Predicate<?>> o = mask.operands();
-		final List<ShapeRoi> sr = new ArrayList<>();
+		final List<Predicate<?>> o = flatten(mask);
+		final List<ShapeRoi> sr = new ArrayList<>(o.size());
 		final MaskOperator op = mask.operator();
 
 		for (final Predicate<?> es : o) {
-			final Roi result = convertService.convert(es, Roi.class);
+			final Roi result = operandConverters().convert(es);
 			if (result == null) throw new IllegalArgumentException("Cannot convert " +
 				es.getClass() + " to Roi");
-			if (result instanceof ShapeRoi) sr.add((ShapeRoi) result);
+			// NB: ShapeRoi operations modify the Roi they are called on, so never
+			// combine into a ShapeRoi which belongs to someone else.
+			if (result instanceof ShapeRoi) sr.add((ShapeRoi) result.clone());
 			else sr.add(new ShapeRoi(result));
 		}
 
 		if (sr.isEmpty()) throw new IllegalArgumentException(
 			"Cannot convert operands to Rois");
 
-		ShapeRoi base = sr.get(0);
-		for (int i = 1; i < sr.size(); i++) {
-			base = combineRois(base, sr.get(i), op);
+		if (op == Operators.MINUS) {
+			// a - b - c - ... is a - (b | c | ...), and operands whose bounds do not
+			// overlap those of a cannot change the result
+			final ShapeRoi base = sr.get(0);
+			final Rectangle bounds = base.getBounds();
+			final List<ShapeRoi> subtrahends = new ArrayList<>();
+			for (int i = 1; i < sr.size(); i++) {
+				if (sr.get(i).getBounds().intersects(bounds)) subtrahends.add(sr.get(
+					i));
+			}
+			// NB: Still apply one operation, so the result is normalized the same
+			// way as for overlapping operands
+			if (subtrahends.isEmpty()) subtrahends.add(sr.get(1));
+			return combineRois(base, combine(subtrahends, 0, subtrahends.size(),
+				Operators.OR), op);
 		}
 
-		return base;
+		return combine(sr, 0, sr.size(), op);
 	}
 
 	@Override
@@ -142,7 +149,91 @@ public class BinaryCompositeMaskPredicateToShapeRoiConverter extends
 
 	// -- Helper methods --
 
-	private ShapeRoi combineRois(final ShapeRoi base, final ShapeRoi sr,
+	private boolean supportsOperands(final BinaryCompositeMaskPredicate<?> mask) {
+		final RoiConverterCache<Roi> converters = operandConverters();
+		for (final Predicate<?> o : flatten(mask)) {
+			if (!converters.supports(o)) return false;
+		}
+		return true;
+	}
+
+	private synchronized RoiConverterCache<Roi> operandConverters() {
+		if (operandConverters == null) operandConverters =
+			new RoiConverterCache<>(convertService, Roi.class);
+		return operandConverters;
+	}
+
+	/**
+	 * Collects the operands of the given mask, descending into operands which
+	 * are themselves composites with the same operator. Since {@code AND},
+	 * {@code OR} and {@code XOR} are associative, all such operands are
+	 * flattened. For {@code MINUS} only the first operand is, since
+	 * {@code (a - b) - c} is {@code a - b - c} but {@code a - (b - c)} is not.
+	 */
+	private static List<Predicate<?>> flatten(
+		final BinaryCompositeMaskPredicate<?> mask)
+	{
+		final MaskOperator op = mask.operator();
+		final List<Predicate<?>> operands = new ArrayList<>();
+		if (op == Operators.MINUS) {
+			// Walk down the chain of first operands of ((a - b) - c) - d
+			final Deque<Predicate<?>> rest = new ArrayDeque<>();
+			Predicate<?> p = mask;
+			while (isComposite(p, op)) {
+				final List<Predicate<?>> o = ((BinaryCompositeMaskPredicate<?>) p)
+					.operands();
+				for (int i = o.size() - 1; i > 0; i--)
+					rest.push(o.get(i));
+				p = o.get(0);
+			}
+			operands.add(p);
+			operands.addAll(rest);
+			return operands;
+		}
+
+		final Deque<Predicate<?>> todo = new ArrayDeque<>();
+		todo.push(mask);
+		while (!todo.isEmpty()) {
+			final Predicate<?> p = todo.pop();
+			if (!isComposite(p, op)) {
+				operands.add(p);
+				continue;
+			}
+			// Push in reverse, so operands are visited left to right
+			final List<Predicate<?>> o = ((BinaryCompositeMaskPredicate<?>) p)
+				.operands();
+			for (int i = o.size() - 1; i >= 0; i--)
+				todo.push(o.get(i));
+		}
+		return operands;
+	}
+
+	private static boolean isComposite(final Predicate<?> p,
+		final MaskOperator op)
+	{
+		return p instanceof BinaryCompositeMaskPredicate &&
+			((BinaryCompositeMaskPredicate<?>) p).operator() == op;
+	}
+
+	/**
+	 * Combines {@code rois[from, to)} as a balanced binary tree of operations.
+	 * Large subtrees are combined in parallel.
+	 */
+	private static ShapeRoi combine(final List<ShapeRoi> rois, final int from,
+		final int to, final MaskOperator op)
+	{
+		if (to - from == 1) return rois.get(from);
+		final int mid = (from + to) >>> 1;
+		if (to - from < PARALLEL_THRESHOLD) return combineRois(combine(rois, from,
+			mid, op), combine(rois, mid, to, op), op);
+
+		final ForkJoinTask<ShapeRoi> left = ForkJoinTask.adapt(() -> combine(rois,
+			from, mid, op)).fork();
+		final ShapeRoi right = combine(rois, mid, to, op);
+		return combineRois(left.join(), right, op);
+	}
+
+	private static ShapeRoi combineRois(final ShapeRoi base, final ShapeRoi sr,
 		final MaskOperator op)
 	{
 		if (op == Operators.AND) return base.and(sr);
@@ -0,0 +1,349 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.imglib2.RealInterval;
+
+/**
+ * A spatial index over the 2D bounding boxes of ROIs, which finds the ROIs
+ * whose bounds contain a point or intersect a rectangle without scanning all
+ * of them. The index only knows about bounds: callers confirm candidates with
+ * an exact test, such as {@code test(...)} of a mask.
+ * <p>
+ * The index is a hierarchy of hashed uniform grids. Each item is stored on the
+ * level whose cells are the smallest power of two at least as large as its
+ * bounds, so that it overlaps at most 2x2 cells; small and large ROIs mixed in
+ * one overlay thus do not slow each other down. Items can be added, moved and
+ * removed at any time, in time independent of the number of indexed items.
+ * Items are compared by identity.
+ * </p>
+ * <p>
+ * Items whose bounds are not finite are candidates of every query.
+ * </p>
+ */
+public final class BoundsIndex<T> {
+
+	/** Largest level; items larger than its cells are never hashed. */
+	private static final int MAX_LEVEL = 62;
+
+	private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+	private final Level<T>[] levels;
+	private final List<Entry<T>> unbounded = new ArrayList<>();
+
+	@SuppressWarnings("unchecked")
+	public BoundsIndex() {
+		levels = new Level[MAX_LEVEL + 1];
+	}
+
+	/** Returns the number of indexed items. */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/** Returns true if the given item is indexed. */
+	public synchronized boolean contains(final T item) {
+		return entries.containsKey(item);
+	}
+
+	/**
+	 * Indexes the given item with the bounds of the given interval in its first
+	 * two dimensions.
+	 *
+	 * @see #put(Object, double, double, double, double)
+	 */
+	public boolean put(final T item, final RealInterval bounds) {
+		return put(item, bounds.realMin(0), bounds.realMin(1), bounds.realMax(0),
+			bounds.realMax(1));
+	}
+
+	/**
+	 * Indexes the given item with the given bounds, both inclusive. If the item
+	 * is already indexed, it is moved to its new bounds.
+	 *
+	 * @return false if the item was already indexed with the same bounds
+	 */
+	public synchronized boolean put(final T item, final double minX,
+		final double minY, final double maxX, final double maxY)
+	{
+		final Entry<T> old = entries.get(item);
+		if (old != null) {
+			if (old.hasBounds(minX, minY, maxX, maxY)) return false;
+			unlink(old);
+		}
+		final Entry<T> entry = new Entry<>(item, minX, minY, maxX, maxY);
+		entries.put(item, entry);
+		link(entry);
+		return true;
+	}
+
+	/**
+	 * Removes the given item from the index.
+	 *
+	 * @return true if the item was indexed
+	 */
+	public synchronized boolean remove(final T item) {
+		final Entry<T> entry = entries.remove(item);
+		if (entry == null) return false;
+		unlink(entry);
+		return true;
+	}
+
+	/**
+	 * Removes every indexed item which is not in the given set, e.g. after a
+	 * synchronization put the current items.
+	 */
+	public synchronized void retainAll(final Set<?> items) {
+		for (final Iterator<Entry<T>> it = entries.values().iterator(); it
+			.hasNext();)
+		{
+			final Entry<T> entry = it.next();
+			if (items.contains(entry.item)) continue;
+			it.remove();
+			unlink(entry);
+		}
+	}
+
+	/** Removes all items from the index. */
+	public synchronized void clear() {
+		entries.clear();
+		unbounded.clear();
+		for (int l = 0; l < levels.length; l++)
+			levels[l] = null;
+	}
+
+	/**
+	 * Returns the items whose bounds contain the given point, in no particular
+	 * order.
+	 */
+	public synchronized List<T> candidates(final double x, final double y) {
+		final List<T> result = new ArrayList<>();
+		for (final Entry<T> entry : unbounded)
+			result.add(entry.item);
+		for (final Level<T> level : levels) {
+			if (level == null) continue;
+			final List<Entry<T>> cell = level.cells.get(key(level.cell(x), level
+				.cell(y)));
+			if (cell == null) continue;
+			// NB: A point lies in a single cell per level, so no duplicates.
+			for (final Entry<T> entry : cell) {
+				if (entry.intersects(x, y, x, y)) result.add(entry.item);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the items whose bounds intersect the given rectangle, bounds
+	 * inclusive, in no particular order.
+	 */
+	public synchronized List<T> candidates(final double minX, final double minY,
+		final double maxX, final double maxY)
+	{
+		final List<T> result = new ArrayList<>();
+		for (final Entry<T> entry : unbounded)
+			result.add(entry.item);
+		if (!(minX <= maxX && minY <= maxY)) return result;
+		for (final Level<T> level : levels) {
+			if (level == null) continue;
+			final long cx0 = level.cell(minX);
+			final long cx1 = level.cell(maxX);
+			final long cy0 = level.cell(minY);
+			final long cy1 = level.cell(maxY);
+			final double numCells = (double) (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+			if (numCells > level.cells.size()) {
+				// Fewer occupied cells than covered ones: visit those instead
+				for (final Map.Entry<Long, List<Entry<T>>> cell : level.cells
+					.entrySet())
+				{
+					final long k = cell.getKey();
+					final long cx = k >> 32;
+					final long cy = (int) k;
+					if (cx < cx0 || cx > cx1 || cy < cy0 || cy > cy1) continue;
+					collect(level, cx, cy, cell.getValue(), minX, minY, maxX, maxY,
+						result);
+				}
+				continue;
+			}
+			for (long cy = cy0; cy <= cy1; cy++) {
+				for (long cx = cx0; cx <= cx1; cx++) {
+					final List<Entry<T>> cell = level.cells.get(key(cx, cy));
+					if (cell != null) collect(level, cx, cy, cell, minX, minY, maxX,
+						maxY, result);
+				}
+			}
+		}
+		return result;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Adds the entries of the given cell which intersect the query to the
+	 * result. An entry spanning several cells is only reported by the cell
+	 * holding the corner of its intersection with the query, so once.
+	 */
+	private static <T> void collect(final Level<T> level, final long cx,
+		final long cy, final List<Entry<T>> cell, final double minX,
+		final double minY, final double maxX, final double maxY,
+		final List<T> result)
+	{
+		for (final Entry<T> entry : cell) {
+			if (!entry.intersects(minX, minY, maxX, maxY)) continue;
+			if (level.cell(Math.max(entry.minX, minX)) != cx || level.cell(Math.max(
+				entry.minY, minY)) != cy) continue;
+			result.add(entry.item);
+		}
+	}
+
+	private void link(final Entry<T> entry) {
+		final int l = entry.level;
+		if (l < 0) {
+			unbounded.add(entry);
+			return;
+		}
+		if (levels[l] == null) levels[l] = new Level<>(l);
+		final Level<T> level = levels[l];
+		for (long cy = level.cell(entry.minY); cy <= level.cell(entry.maxY); cy++) {
+			for (long cx = level.cell(entry.minX); cx <= level.cell(
+				entry.maxX); cx++)
+			{
+				level.cells.computeIfAbsent(key(cx, cy), k -> new ArrayList<>(2)).add(
+					entry);
+			}
+		}
+		level.size++;
+	}
+
+	private void unlink(final Entry<T> entry) {
+		final int l = entry.level;
+		if (l < 0) {
+			unbounded.remove(entry);
+			return;
+		}
+		final Level<T> level = levels[l];
+		for (long cy = level.cell(entry.minY); cy <= level.cell(entry.maxY); cy++) {
+			for (long cx = level.cell(entry.minX); cx <= level.cell(
+				entry.maxX); cx++)
+			{
+				final Long k = key(cx, cy);
+				final List<Entry<T>> cell = level.cells.get(k);
+				cell.remove(entry);
+				if (cell.isEmpty()) level.cells.remove(k);
+			}
+		}
+		if (--level.size == 0) levels[l] = null;
+	}
+
+	/** Combines cell coordinates, which fit into an int each, into a key. */
+	private static long key(final long cx, final long cy) {
+		return cx << 32 | cy & 0xffffffffL;
+	}
+
+	/**
+	 * Returns the level of the given bounds: the smallest level whose cells are
+	 * at least as large as the bounds, or -1 if the bounds are not finite.
+	 */
+	private static int level(final double minX, final double minY,
+		final double maxX, final double maxY)
+	{
+		final double extent = Math.max(maxX - minX, maxY - minY);
+		if (!(extent <= Math.scalb(1.0, MAX_LEVEL)) || Double.isInfinite(minX) ||
+			Double.isInfinite(minY)) return -1;
+		if (extent <= 1) return 0;
+		return Math.getExponent(extent) + (extent == Math.scalb(1.0, Math
+			.getExponent(extent)) ? 0 : 1);
+	}
+
+	// -- Helper classes --
+
+	private static final class Level<T> {
+
+		private final double cellSize;
+		private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+		private int size;
+
+		private Level(final int level) {
+			cellSize = Math.scalb(1.0, level);
+		}
+
+		/** Returns the cell containing the given coordinate. */
+		private long cell(final double coordinate) {
+			final double c = Math.floor(coordinate / cellSize);
+			// NB: Clamped so that cell coordinates fit into the key.
+			return (long) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE,
+				c));
+		}
+	}
+
+	private static final class Entry<T> {
+
+		private final T item;
+		private final double minX;
+		private final double minY;
+		private final double maxX;
+		private final double maxY;
+		private final int level;
+
+		private Entry(final T item, final double minX, final double minY,
+			final double maxX, final double maxY)
+		{
+			this.item = item;
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			level = level(minX, minY, maxX, maxY);
+		}
+
+		private boolean hasBounds(final double x0, final double y0,
+			final double x1, final double y1)
+		{
+			return Double.compare(minX, x0) == 0 && Double.compare(minY, y0) == 0 &&
+				Double.compare(maxX, x1) == 0 && Double.compare(maxY, y1) == 0;
+		}
+
+		private boolean intersects(final double x0, final double y0,
+			final double x1, final double y1)
+		{
+			return minX <= x1 && maxX >= x0 && minY <= y1 && maxY >= y0;
+		}
+	}
+
+}
@@ -45,14 +45,30 @@ import net.imglib2.roi.MaskInterval;
  * of this class, simply calls {@code contains(...)} on the underlying ImageJ
  * 1.x Roi. This is intended to wrap existing ImageJ 1.x Rois which do not
  * translate well to existing Imglib2 interfaces.
+ * <p>
+ * In raster mode, once enough queries have been seen, e.g. when the wrapper is
+ * iterated as a mask, the Roi is rasterized once over its bounds and positions
+ * within the bounds are answered from the raster. This is much faster than
+ * {@code contains(...)} for polygon and freehand Rois, and gives the same
+ * result. The raster is created again when the bounds or number of coordinates
+ * of the Roi change, or after {@link #synchronize()}.
+ * </p>
  *
  * @author Alison Walter
  */
 public class DefaultRoiWrapper<R extends Roi> implements
-	IJRoiWrapper<R, Localizable>, MaskInterval
+	IJRoiWrapper<R, Localizable>, MaskInterval, SpanIterable
 {
 
 	private final R roi;
+	private final boolean rasterize;
+
+	/** Bounds of the Roi, cached on first use. */
+	private volatile Bounds bounds;
+
+	/** Raster of the Roi in raster mode, once queries are dense enough. */
+	private volatile RoiRaster raster;
+	private long queries;
 
 	/**
 	 * Creates a {@link MaskInterval} which wraps the given {@link Roi}.
@@ -60,7 +76,24 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	 * @param roi the Roi to be wrapped
 	 */
 	public DefaultRoiWrapper(final R roi) {
+		this(roi, false);
+	}
+
+	/**
+	 * Creates a {@link MaskInterval} which wraps the given {@link Roi}.
+	 *
+	 * @param roi the Roi to be wrapped
+	 * @param rasterize if true, {@link #test(Localizable)} is answered from a
+	 *          raster of the Roi instead of calling {@code contains(...)}
+	 */
+	public DefaultRoiWrapper(final R roi, final boolean rasterize) {
 		this.roi = roi;
+		this.rasterize = rasterize;
+	}
+
+	/** Returns true if this wrapper answers queries from a raster of the Roi. */
+	public boolean isRasterized() {
+		return rasterize;
 	}
 
 	@Override
@@ -70,14 +103,20 @@ public class DefaultRoiWrapper<R extends Roi> implements
 
 	@Override
 	public boolean test(final Localizable t) {
-		return roi.contains(t.getIntPosition(0), t.getIntPosition(1));
+		final int x = t.getIntPosition(0);
+		final int y = t.getIntPosition(1);
+		if (rasterize) {
+			final RoiRaster r = raster();
+			if (r != null && r.covers(x, y)) return r.contains(x, y);
+		}
+		return roi.contains(x, y);
 	}
 
 	@Override
 	public long min(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		return d == 0 ? roi.getBounds().x : roi.getBounds().y;
+		return d == 0 ? bounds().x : bounds().y;
 	}
 
 	@Override
@@ -96,8 +135,8 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	public long max(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		final Rectangle r = roi.getBounds();
-		return d == 0 ? r.x + r.width : r.y + r.height;
+		final Bounds b = bounds();
+		return d == 0 ? b.x + b.width : b.y + b.height;
 	}
 
 	@Override
@@ -161,7 +200,7 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	public long dimension(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		return d == 0 ? roi.getBounds().width : roi.getBounds().height;
+		return d == 0 ? bounds().width : bounds().height;
 	}
 
 	@Override
@@ -169,4 +208,101 @@ public class DefaultRoiWrapper<R extends Roi> implements
 		return roi;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only positions within the integer bounds of the Roi are included, as for
+	 * iterating this wrapper as a mask. The Roi is rasterized once and the
+	 * raster is kept until the Roi changes, unless it is too large, in which
+	 * case every position is tested.
+	 * </p>
+	 */
+	@Override
+	public RoiSpans spans() {
+		RoiRaster r = raster;
+		if (r == null || !r.matchesExactly(roi)) {
+			r = RoiRaster.create(roi);
+			raster = r;
+		}
+		final RoiSpans spans = r.spans();
+		if (spans != null) return spans;
+		final Rectangle rect = roi.getBounds();
+		return RoiSpans.scan(rect.x, rect.y, rect.x + rect.width - 1, rect.y +
+			rect.height - 1, roi::contains);
+	}
+
+	@Override
+	public void synchronize() {
+		bounds = null;
+		raster = null;
+		queries = 0;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Returns the cached integer bounds of the wrapped {@link Roi}, recomputing
+	 * them if the Roi has moved or been resized.
+	 */
+	private Bounds bounds() {
+		Bounds b = bounds;
+		if (b == null || !b.matches(roi)) {
+			b = new Bounds(roi);
+			bounds = b;
+		}
+		return b;
+	}
+
+	/**
+	 * Returns the raster of the wrapped {@link Roi}, or null if queries have not
+	 * been dense enough yet. The raster is discarded if the Roi has changed.
+	 */
+	private RoiRaster raster() {
+		RoiRaster r = raster;
+		if (r != null) {
+			if (r.matches(roi)) return r;
+			synchronize();
+		}
+		if (++queries < RoiRaster.denseThreshold(roi)) return null;
+		r = RoiRaster.create(roi);
+		raster = r;
+		return r;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Integer bounds of a {@link Roi}, so the {@link MaskInterval} methods do not
+	 * allocate a {@link Rectangle} on every call.
+	 */
+	private static final class Bounds {
+
+		private final double xBase;
+		private final double yBase;
+		private final double floatWidth;
+		private final double floatHeight;
+
+		private final long x;
+		private final long y;
+		private final long width;
+		private final long height;
+
+		private Bounds(final Roi roi) {
+			xBase = roi.getXBase();
+			yBase = roi.getYBase();
+			floatWidth = roi.getFloatWidth();
+			floatHeight = roi.getFloatHeight();
+
+			final Rectangle r = roi.getBounds();
+			x = r.x;
+			y = r.y;
+			width = r.width;
+			height = r.height;
+		}
+
+		private boolean matches(final Roi roi) {
+			return Rois.hasBounds(roi, xBase, yBase, floatWidth, floatHeight);
+		}
+	}
+
 }
@@ -49,6 +49,22 @@ public interface IJRoiWrapper<R extends Roi, L> extends MaskPredicate<L> {
 	 */
 	R getRoi();
 
+	/**
+	 * Discards any geometry this wrapper has cached from the backing ImageJ 1.x
+	 * {@link Roi}, so that subsequent calls reflect its current state.
+	 * <p>
+	 * Wrappers detect changes to the bounds and the number of coordinates of
+	 * the Roi on their own, with checks cheap enough for every query. This
+	 * needs to be called after the Roi has been modified in a way which leaves
+	 * both unchanged, e.g. moving a single vertex within the bounding box or
+	 * editing the {@link java.awt.Shape} of an {@link ij.gui.ShapeRoi} in
+	 * place.
+	 * </p>
+	 */
+	default void synchronize() {
+		// NB: No-op by default, for wrappers which cache nothing.
+	}
+
 	@Override
 	default int numDimensions() {
 		return 2;
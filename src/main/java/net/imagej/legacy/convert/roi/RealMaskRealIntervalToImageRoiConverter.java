@@ -31,31 +31,27 @@
 
 package net.imagej.legacy.convert.roi;
 
-import ij.ImagePlus;
 import ij.gui.ImageRoi;
 
-import java.lang.reflect.Type;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 
-import net.imagej.Dataset;
-import net.imagej.DatasetService;
-import net.imglib2.RandomAccessible;
-import net.imglib2.RandomAccessibleInterval;
-import net.imglib2.RealRandomAccessibleRealInterval;
-import net.imglib2.roi.Masks;
+import net.imglib2.RealPoint;
 import net.imglib2.roi.RealMaskRealInterval;
-import net.imglib2.type.logic.BoolType;
-import net.imglib2.view.Views;
 
 import org.scijava.Priority;
-import org.scijava.convert.ConversionRequest;
-import org.scijava.convert.ConvertService;
 import org.scijava.convert.Converter;
-import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 
 /**
  * Converts a {@link RealMaskRealInterval} to an {@link ImageRoi}. This
  * conversion is lossy, since the MaskRealInterval must be rasterized.
+ * <p>
+ * The mask is tested at each integer position of its bounds and written
+ * directly into an 8-bit grayscale {@link BufferedImage}, 255 inside and 0
+ * outside. Rows are rasterized sequentially on the calling thread, since
+ * masks, e.g. wrappers with lazily built caches, need not be thread-safe.
+ * </p>
  *
  * @author Alison Walter
  */
@@ -64,31 +60,7 @@ public class RealMaskRealIntervalToImageRoiConverter extends
 	AbstractMaskPredicateToRoiConverter<RealMaskRealInterval, ImageRoi>
 {
 
-	@Parameter
-	private ConvertService convertService;
-
-	@Parameter(required = false)
-	private DatasetService datasetService;
-
-	@Override
-	public boolean canConvert(final ConversionRequest request) {
-		return datasetService != null && super.canConvert(request);
-	}
-
-	@Override
-	public boolean canConvert(final Object src, final Type dest) {
-		return datasetService != null && super.canConvert(src, dest);
-	}
-
-	@Override
-	public boolean canConvert(final Object src, final Class<?> dest) {
-		return datasetService != null && super.canConvert(src, dest);
-	}
-
-	@Override
-	public boolean canConvert(final Class<?> src, final Class<?> dest) {
-		return datasetService != null && super.canConvert(src, dest);
-	}
+	private static final byte INSIDE = (byte) 255;
 
 	@Override
 	public Class<ImageRoi> getOutputType() {
@@ -102,29 +74,45 @@ public class RealMaskRealIntervalToImageRoiConverter extends
 
 	@Override
 	public ImageRoi convert(final RealMaskRealInterval mask) {
-		// Wrap mask as RRARI
-		final RealRandomAccessibleRealInterval<BoolType> rrari = Masks
-			.toRealRandomAccessibleRealInterval(mask);
-
-		// Convert the RRARI to a RAI whose min is (0, 0), this will ensure it
-		// displays properly
-		final RandomAccessible<BoolType> raster = Views.raster(rrari);
-		final RandomAccessible<BoolType> translate = Views.translate(raster,
-			new long[] { (long) -mask.realMin(0), (long) -mask.realMin(1) });
-		final RandomAccessibleInterval<BoolType> rai = Views.interval(translate,
-			new long[] { 0, 0 }, new long[] { (long) (mask.realMax(0) - mask.realMin(
-				0)), (long) (mask.realMax(1) - mask.realMin(1)) });
-
-		// Convert RAI to ImagePlus
-		final Dataset d = datasetService.create(rai);
-		final ImagePlus ip = convertService.convert(d, ImagePlus.class);
-
-		return new ImageRoi((int) mask.realMin(0), (int) mask.realMin(1), ip
-			.getBufferedImage());
+		// The image's (0, 0) is the mask's min truncated to integers, this will
+		// ensure it displays properly
+		final long x0 = (long) mask.realMin(0);
+		final long y0 = (long) mask.realMin(1);
+		final long w = (long) (mask.realMax(0) - mask.realMin(0)) + 1;
+		final long h = (long) (mask.realMax(1) - mask.realMin(1)) + 1;
+		if (w <= 0 || h <= 0 || w * h > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Cannot rasterize mask of size " + w +
+				" x " + h);
+		final int width = (int) w;
+		final int height = (int) h;
+
+		final BufferedImage image = new BufferedImage(width, height,
+			BufferedImage.TYPE_BYTE_GRAY);
+		final byte[] pixels = ((DataBufferByte) image.getRaster()
+			.getDataBuffer()).getData();
+
+		final RealPoint p = new RealPoint(2);
+		for (int y = 0; y < height; y++)
+			rasterizeRow(mask, p, x0, y0 + y, width, pixels, y * width);
+
+		return new ImageRoi((int) x0, (int) y0, image);
 	}
 
 	@Override
 	public boolean isLossy() {
 		return true;
 	}
+
+	// -- Helper methods --
+
+	private static void rasterizeRow(final RealMaskRealInterval mask,
+		final RealPoint p, final long x0, final long y, final int width,
+		final byte[] pixels, final int offset)
+	{
+		p.setPosition(y, 1);
+		for (int x = 0; x < width; x++) {
+			p.setPosition(x0 + x, 0);
+			if (mask.test(p)) pixels[offset + x] = INSIDE;
+		}
+	}
 }
@@ -0,0 +1,264 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.Line;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+import ij.process.FloatPolygon;
+import ij.process.ImageProcessor;
+
+import java.awt.Rectangle;
+
+/**
+ * A bit mask of which integer positions within the bounds of an ImageJ 1.x
+ * {@link Roi} it contains, used by {@link DefaultRoiWrapper} in raster mode.
+ * <p>
+ * The mask is filled from {@link Roi#getMask()}, which ImageJ 1.x computes by
+ * scan conversion rather than one {@link Roi#contains(int, int)} test per
+ * pixel. The two may disagree along the outline of the Roi, so positions next
+ * to a change in the mask are evaluated with {@code contains} directly, and the
+ * mask always agrees with the exact test. Rois without an area mask, such as
+ * lines, are tested at every position.
+ * </p>
+ * <p>
+ * Besides the bounds, the mask remembers the geometry which determines the
+ * shape within them: the coordinates of polygons and lines, the corner
+ * diameter of rounded rectangles and the stroke width. {@link #matches}
+ * compares everything but the coordinates themselves, in constant time, and
+ * is meant for every query; {@link #matchesExactly} also compares the
+ * coordinates, and is meant for bulk operations.
+ * </p>
+ */
+final class RoiRaster {
+
+	/** Largest mask (in pixels) which will be created, 16 MiB of bits. */
+	private static final long MAX_PIXELS = 1L << 27;
+
+	// -- Snapshot of the rasterized Roi, used to detect changes --
+
+	private final double xBase;
+	private final double yBase;
+	private final double floatWidth;
+	private final double floatHeight;
+	private final int cornerDiameter;
+	private final double strokeWidth;
+	private final int numCoordinates;
+	private final float[] coordinates;
+
+	// -- Mask over [x0, x0 + width) x [y0, y0 + height) --
+
+	private final int x0;
+	private final int y0;
+	private final int width;
+	private final int height;
+	private final long[] bits;
+	private final boolean tooLarge;
+
+	private RoiRaster(final Roi roi) {
+		xBase = roi.getXBase();
+		yBase = roi.getYBase();
+		floatWidth = roi.getFloatWidth();
+		floatHeight = roi.getFloatHeight();
+		cornerDiameter = roi.getCornerDiameter();
+		strokeWidth = roi.getStrokeWidth();
+		numCoordinates = numCoordinates(roi);
+		coordinates = coordinates(roi);
+
+		final Rectangle r = roi.getBounds();
+		if ((long) r.width * r.height > MAX_PIXELS) {
+			// Too large to rasterize, covers nothing
+			x0 = 0;
+			y0 = 0;
+			width = 0;
+			height = 0;
+			bits = new long[0];
+			tooLarge = true;
+			return;
+		}
+		tooLarge = false;
+		x0 = r.x;
+		y0 = r.y;
+		width = r.width;
+		height = r.height;
+		bits = new long[(int) (((long) width * height + 63) >>> 6)];
+		rasterize(roi);
+	}
+
+	/**
+	 * Rasterizes the current state of the given {@link Roi}.
+	 */
+	static RoiRaster create(final Roi roi) {
+		return new RoiRaster(roi);
+	}
+
+	/**
+	 * Returns the number of queries after which rasterizing the given
+	 * {@link Roi} is expected to pay off.
+	 */
+	static long denseThreshold(final Roi roi) {
+		return Math.max(256, (long) (roi.getFloatWidth() * roi
+			.getFloatHeight()) / 32);
+	}
+
+	/**
+	 * Returns true if the given {@link Roi} still has the same bounds, number of
+	 * coordinates, corner diameter and stroke width as when this mask was
+	 * created. This takes constant time, so a vertex moved within the bounds is
+	 * not detected.
+	 */
+	boolean matches(final Roi roi) {
+		return Rois.hasBounds(roi, xBase, yBase, floatWidth, floatHeight) &&
+			numCoordinates(roi) == numCoordinates && roi
+				.getCornerDiameter() == cornerDiameter && roi
+					.getStrokeWidth() == strokeWidth;
+	}
+
+	/**
+	 * Returns true if the given {@link Roi} still {@link #matches} this mask and
+	 * has the same coordinates as when it was created.
+	 */
+	boolean matchesExactly(final Roi roi) {
+		return matches(roi) && hasCoordinates(roi);
+	}
+
+	/** Returns true if the given position is covered by this mask. */
+	boolean covers(final int x, final int y) {
+		return x >= x0 && x - x0 < width && y >= y0 && y - y0 < height;
+	}
+
+	/**
+	 * Returns whether the Roi contains the given position, which must be
+	 * {@link #covers(int, int) covered} by this mask.
+	 */
+	boolean contains(final int x, final int y) {
+		final long i = (long) (y - y0) * width + (x - x0);
+		return (bits[(int) (i >>> 6)] & (1L << i)) != 0;
+	}
+
+	/**
+	 * Returns the spans of this mask, or null if the Roi was too large to be
+	 * rasterized.
+	 */
+	RoiSpans spans() {
+		return tooLarge ? null : RoiSpans.fromBits(bits, x0, y0, width, height);
+	}
+
+	// -- Helper methods --
+
+	private void rasterize(final Roi roi) {
+		final ImageProcessor ip = roi.isArea() ? roi.getMask() : null;
+		final byte[] mask = ip == null ? null : (byte[]) ip.getPixels();
+		// NB: Only a plain rectangle has no mask because it fills its bounds.
+		// Without a mask that matches the bounds, every position is tested.
+		final boolean exact = ip == null ? !roi.isArea() || roi
+			.getType() != Roi.RECTANGLE : ip.getWidth() != width || ip
+				.getHeight() != height;
+		for (int row = 0; row < height; row++) {
+			final long rowStart = (long) row * width;
+			for (int col = 0; col < width; col++) {
+				final boolean inside = exact || isOutline(mask, col, row) ? roi
+					.contains(x0 + col, y0 + row) : inside(mask, col, row);
+				if (inside) {
+					final long i = rowStart + col;
+					bits[(int) (i >>> 6)] |= 1L << i;
+				}
+			}
+		}
+	}
+
+	/** Returns the value of the mask, or false outside of it. */
+	private boolean inside(final byte[] mask, final int col, final int row) {
+		if (col < 0 || col >= width || row < 0 || row >= height) return false;
+		return mask == null || mask[row * width + col] != 0;
+	}
+
+	/**
+	 * Returns true if any neighbour of the given position has a different mask
+	 * value, including positions just outside of the mask.
+	 */
+	private boolean isOutline(final byte[] mask, final int col, final int row) {
+		final boolean value = inside(mask, col, row);
+		for (int dy = -1; dy <= 1; dy++) {
+			for (int dx = -1; dx <= 1; dx++) {
+				if (inside(mask, col + dx, row + dy) != value) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the given {@link Roi} has the same coordinates as when
+	 * this mask was created.
+	 */
+	private boolean hasCoordinates(final Roi roi) {
+		if (coordinates == null) return !hasCoordinateGeometry(roi);
+		if (!hasCoordinateGeometry(roi)) return false;
+		final FloatPolygon p = roi.getFloatPolygon();
+		if (2 * p.npoints != coordinates.length) return false;
+		for (int i = 0; i < p.npoints; i++) {
+			if (p.xpoints[i] != coordinates[2 * i] || p.ypoints[i] != coordinates[2 *
+				i + 1]) return false;
+		}
+		return true;
+	}
+
+	private static int numCoordinates(final Roi roi) {
+		return roi instanceof PolygonRoi ? ((PolygonRoi) roi).getNCoordinates()
+			: -1;
+	}
+
+	/**
+	 * Returns the interleaved coordinates of the given {@link Roi}, or null if
+	 * its bounds and the other properties determine its shape.
+	 */
+	private static float[] coordinates(final Roi roi) {
+		if (!hasCoordinateGeometry(roi)) return null;
+		final FloatPolygon p = roi.getFloatPolygon();
+		final float[] xy = new float[2 * p.npoints];
+		for (int i = 0; i < p.npoints; i++) {
+			xy[2 * i] = p.xpoints[i];
+			xy[2 * i + 1] = p.ypoints[i];
+		}
+		return xy;
+	}
+
+	/**
+	 * Returns true if the shape of the given {@link Roi} within its bounds is
+	 * given by its coordinates. Spline fit polygons report the points of the
+	 * spline, so fitting one changes its coordinates as well.
+	 */
+	private static boolean hasCoordinateGeometry(final Roi roi) {
+		return roi instanceof PolygonRoi || roi instanceof Line;
+	}
+
+}
@@ -0,0 +1,342 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import java.util.Arrays;
+
+import net.imglib2.AbstractCursor;
+import net.imglib2.Cursor;
+
+/**
+ * The integer positions contained in an ImageJ 1.x Roi, as horizontal spans
+ * ordered by row and then by x.
+ * <p>
+ * Each span covers the positions {@code (xStart, row)} to {@code (xEnd, row)},
+ * both inclusive. Spans on the same row neither overlap nor touch. Iterating
+ * the spans, or the {@link #cursor() cursor} over their positions, takes time
+ * proportional to the area of the Roi rather than to its bounding box.
+ * </p>
+ */
+public final class RoiSpans {
+
+	private int numSpans;
+	private long area;
+	private int[] rows;
+	private int[] xStarts;
+	private int[] xEnds;
+
+	private RoiSpans(final int capacity) {
+		rows = new int[capacity];
+		xStarts = new int[capacity];
+		xEnds = new int[capacity];
+	}
+
+	/** Returns the number of spans. */
+	public int numSpans() {
+		return numSpans;
+	}
+
+	/** Returns the number of positions covered by all spans. */
+	public long area() {
+		return area;
+	}
+
+	/** Returns the y coordinate of the given span. */
+	public int row(final int span) {
+		checkSpan(span);
+		return rows[span];
+	}
+
+	/** Returns the first x coordinate of the given span. */
+	public int xStart(final int span) {
+		checkSpan(span);
+		return xStarts[span];
+	}
+
+	/** Returns the last x coordinate of the given span, inclusive. */
+	public int xEnd(final int span) {
+		checkSpan(span);
+		return xEnds[span];
+	}
+
+	/** Returns an iterator over the spans. */
+	public SpanIterator spanIterator() {
+		return new SpanIterator();
+	}
+
+	/**
+	 * Returns a cursor which visits only the positions covered by the spans,
+	 * row by row.
+	 */
+	public Cursor<Void> cursor() {
+		return new InsideCursor();
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Collects the spans of a bit mask over
+	 * {@code [x0, x0 + width) x [y0, y0 + height)}, stored row by row with bit
+	 * {@code i} in bit {@code i % 64} of word {@code i / 64}.
+	 */
+	static RoiSpans fromBits(final long[] bits, final int x0, final int y0,
+		final int width, final int height)
+	{
+		final Builder spans = new Builder();
+		for (int row = 0; row < height; row++) {
+			final long rowStart = (long) row * width;
+			int col = nextBit(bits, rowStart, 0, width, true);
+			while (col < width) {
+				final int end = nextBit(bits, rowStart, col, width, false);
+				spans.add(y0 + row, x0 + col, x0 + end - 1);
+				col = nextBit(bits, rowStart, end, width, true);
+			}
+		}
+		return spans.build();
+	}
+
+	/**
+	 * Collects the spans of a Roi by testing every position within the given
+	 * bounds, both inclusive.
+	 */
+	static RoiSpans scan(final int minX, final int minY, final int maxX,
+		final int maxY, final PositionTest test)
+	{
+		final Builder spans = new Builder();
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				if (test.contains(x, y)) spans.add(y, x, x);
+			}
+		}
+		return spans.build();
+	}
+
+	/**
+	 * Returns the first column from {@code from} on whose bit is {@code set},
+	 * or {@code width} if there is none.
+	 */
+	private static int nextBit(final long[] bits, final long rowStart,
+		final int from, final int width, final boolean set)
+	{
+		final long end = rowStart + width;
+		long i = rowStart + from;
+		while (i < end) {
+			long word = bits[(int) (i >>> 6)];
+			if (!set) word = ~word;
+			// NB: Ignore the bits before i.
+			word &= -1L << i;
+			if (word != 0) {
+				final long found = (i & ~63L) + Long.numberOfTrailingZeros(word);
+				return (int) (Math.min(found, end) - rowStart);
+			}
+			i = (i & ~63L) + 64;
+		}
+		return width;
+	}
+
+	private void checkSpan(final int span) {
+		if (span < 0 || span >= numSpans) throw new IndexOutOfBoundsException(
+			"Invalid span " + span);
+	}
+
+	// -- Helper classes --
+
+	/** Tests whether a Roi contains an integer position. */
+	interface PositionTest {
+
+		boolean contains(int x, int y);
+	}
+
+	/**
+	 * Builds {@link RoiSpans}. Spans must be added row by row, and from left to
+	 * right within a row. A span which touches the previous one is merged with
+	 * it. The builder must not be used after {@link #build()}.
+	 */
+	public static final class Builder {
+
+		private final RoiSpans spans = new RoiSpans(16);
+
+		/**
+		 * Adds the positions {@code (xStart, row)} to {@code (xEnd, row)}, both
+		 * inclusive.
+		 */
+		public void add(final int row, final int xStart, final int xEnd) {
+			if (xEnd < xStart) return;
+			final RoiSpans s = spans;
+			final int last = s.numSpans - 1;
+			if (last >= 0 && (s.rows[last] > row || s.rows[last] == row &&
+				s.xEnds[last] >= xStart))
+			{
+				throw new IllegalArgumentException("Span (" + row + ", " + xStart +
+					", " + xEnd + ") is not after the previous span");
+			}
+			s.area += (long) xEnd - xStart + 1;
+			if (last >= 0 && s.rows[last] == row && s.xEnds[last] + 1 == xStart) {
+				s.xEnds[last] = xEnd;
+				return;
+			}
+			if (s.numSpans == s.rows.length) {
+				final int capacity = s.numSpans * 2;
+				s.rows = Arrays.copyOf(s.rows, capacity);
+				s.xStarts = Arrays.copyOf(s.xStarts, capacity);
+				s.xEnds = Arrays.copyOf(s.xEnds, capacity);
+			}
+			s.rows[s.numSpans] = row;
+			s.xStarts[s.numSpans] = xStart;
+			s.xEnds[s.numSpans] = xEnd;
+			s.numSpans++;
+		}
+
+		public RoiSpans build() {
+			return spans;
+		}
+	}
+
+	/**
+	 * Iterates over the spans. Call {@link #fwd()} before reading the first
+	 * span.
+	 */
+	public final class SpanIterator {
+
+		private int span = -1;
+
+		private SpanIterator() {
+			// NB: Created by RoiSpans#spanIterator().
+		}
+
+		public boolean hasNext() {
+			return span + 1 < numSpans;
+		}
+
+		/** Moves to the next span. */
+		public void fwd() {
+			span++;
+		}
+
+		/** Moves back to before the first span. */
+		public void reset() {
+			span = -1;
+		}
+
+		public int row() {
+			return rows[span];
+		}
+
+		public int xStart() {
+			return xStarts[span];
+		}
+
+		/** Returns the last x coordinate of the current span, inclusive. */
+		public int xEnd() {
+			return xEnds[span];
+		}
+	}
+
+	/** Visits the positions of all spans, without a per position test. */
+	private final class InsideCursor extends AbstractCursor<Void> {
+
+		private int span;
+		private long x;
+
+		private InsideCursor() {
+			super(2);
+			reset();
+		}
+
+		private InsideCursor(final InsideCursor cursor) {
+			super(2);
+			span = cursor.span;
+			x = cursor.x;
+		}
+
+		@Override
+		public Void get() {
+			return null;
+		}
+
+		@Override
+		public void fwd() {
+			if (x < xEnds[span]) x++;
+			else {
+				span++;
+				x = xStarts[span];
+			}
+		}
+
+		@Override
+		public void jumpFwd(final long steps) {
+			long remaining = steps;
+			while (remaining > 0) {
+				final long inSpan = xEnds[span] - x;
+				if (remaining <= inSpan) {
+					x += remaining;
+					return;
+				}
+				remaining -= inSpan + 1;
+				span++;
+				x = xStarts[span];
+			}
+		}
+
+		@Override
+		public void reset() {
+			span = 0;
+			x = numSpans == 0 ? 0 : xStarts[0] - 1L;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return numSpans > 0 && (x < xEnds[span] || span + 1 < numSpans);
+		}
+
+		@Override
+		public void localize(final long[] position) {
+			position[0] = x;
+			position[1] = rows[span];
+		}
+
+		@Override
+		public long getLongPosition(final int d) {
+			return d == 0 ? x : rows[span];
+		}
+
+		@Override
+		public InsideCursor copy() {
+			return new InsideCursor(this);
+		}
+
+		public InsideCursor copyCursor() {
+			return copy();
+		}
+	}
+
+}
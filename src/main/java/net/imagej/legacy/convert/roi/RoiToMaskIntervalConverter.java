@@ -46,6 +46,9 @@ import org.scijava.plugin.Plugin;
  * Converts an ImageJ 1.x {@link Roi} to an Imglib2 {@link MaskInterval}. The
  * only ImageJ 1.x Rois not supported by this converter are: {@link TextRoi},
  * {@link Arrow}, and {@link ImageRoi}.
+ * <p>
+ * Area Rois are wrapped in raster mode, see {@link DefaultRoiWrapper}.
+ * </p>
  *
  * @author Alison Walter
  */
@@ -66,7 +69,8 @@ public class RoiToMaskIntervalConverter extends
 
 	@Override
 	public MaskInterval convert(final Roi src) {
-		return new DefaultRoiWrapper<>(src);
+		// NB: Area Rois are rasterized once they are iterated.
+		return new DefaultRoiWrapper<>(src, src.isArea());
 	}
 
 	@Override
@@ -31,6 +31,8 @@
 
 package net.imagej.legacy.convert.roi;
 
+import ij.gui.Roi;
+
 import net.imglib2.AbstractRealLocalizable;
 import net.imglib2.Localizable;
 import net.imglib2.RealLocalizable;
@@ -65,6 +67,42 @@ public class Rois {
 		return new IJRoiPoint(x, y);
 	}
 
+	/**
+	 * Returns true if the bounds of the given {@link Roi} are exactly the given
+	 * values. Wrappers use this to detect that geometry they have cached from
+	 * the Roi is stale.
+	 *
+	 * @param roi the Roi whose bounds to check
+	 * @param x expected {@link Roi#getXBase()}
+	 * @param y expected {@link Roi#getYBase()}
+	 * @param width expected {@link Roi#getFloatWidth()}
+	 * @param height expected {@link Roi#getFloatHeight()}
+	 */
+	public static boolean hasBounds(final Roi roi, final double x,
+		final double y, final double width, final double height)
+	{
+		return roi.getXBase() == x && roi.getYBase() == y && roi
+			.getFloatWidth() == width && roi.getFloatHeight() == height;
+	}
+
+	/**
+	 * Returns true if the first {@code length} coordinates of the two arrays are
+	 * equal. Wrappers use this to detect that a Roi has not changed since they
+	 * last synchronized their source.
+	 *
+	 * @param a coordinates, e.g. {@link ij.process.FloatPolygon#xpoints}
+	 * @param b coordinates to compare with
+	 * @param length number of coordinates to compare
+	 */
+	public static boolean sameCoordinates(final float[] a, final float[] b,
+		final int length)
+	{
+		if (a.length < length || b.length < length) return false;
+		for (int i = 0; i < length; i++)
+			if (a[i] != b[i]) return false;
+		return true;
+	}
+
 	// -- Helper classes --
 
 	/**
@@ -0,0 +1,354 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.ShapeRoi;
+
+import java.awt.Shape;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+
+/**
+ * A bit mask of which integer positions are contained in the {@link Shape} of
+ * an ImageJ 1.x {@link ShapeRoi}, used by {@link ShapeRoiWrapper} once it sees
+ * dense, pixel aligned queries.
+ * <p>
+ * The shape is flattened once into an edge list, and each row of the mask is
+ * filled by counting edge crossings with the same rules as
+ * {@link Shape#contains(double, double)}. Positions within the flattening
+ * tolerance of an edge are not decided by the flattened edges; they are
+ * evaluated with {@code Shape.contains} directly, so the mask always agrees
+ * with the exact test.
+ * </p>
+ */
+final class ShapeRaster {
+
+	/** Maximum distance between the flattened and the true outline. */
+	private static final double FLATNESS = 0.25;
+
+	/** Recursion limit for flattening, high enough to reach {@link #FLATNESS}. */
+	private static final int FLATTENING_LIMIT = 16;
+
+	/** Distance from a flattened edge within which positions are tested exactly. */
+	private static final double TOLERANCE = FLATNESS + 1e-3;
+
+	/** Largest mask (in pixels) which will be created, 16 MiB of bits. */
+	private static final long MAX_PIXELS = 1L << 27;
+
+	// -- Snapshot of the rasterized Roi, used to detect changes --
+
+	private final double xBase;
+	private final double yBase;
+	private final double floatWidth;
+	private final double floatHeight;
+	private final Shape shape;
+
+	// -- Mask over [x0, x0 + width) x [y0, y0 + height) --
+
+	private final int x0;
+	private final int y0;
+	private final int width;
+	private final int height;
+	private final long[] bits;
+	private final boolean tooLarge;
+
+	private ShapeRaster(final ShapeRoi roi) {
+		xBase = roi.getXBase();
+		yBase = roi.getYBase();
+		floatWidth = roi.getFloatWidth();
+		floatHeight = roi.getFloatHeight();
+		shape = roi.getShape();
+
+		final long xMin = (long) Math.floor(xBase);
+		final long yMin = (long) Math.floor(yBase);
+		final long w = (long) Math.ceil(xBase + floatWidth) - xMin + 1;
+		final long h = (long) Math.ceil(yBase + floatHeight) - yMin + 1;
+		if (w * h > MAX_PIXELS || xMin < Integer.MIN_VALUE || yMin <
+			Integer.MIN_VALUE || xMin + w > Integer.MAX_VALUE || yMin +
+				h > Integer.MAX_VALUE)
+		{
+			// Too large to rasterize, covers nothing
+			x0 = 0;
+			y0 = 0;
+			width = 0;
+			height = 0;
+			bits = new long[0];
+			tooLarge = true;
+			return;
+		}
+		tooLarge = false;
+		x0 = (int) xMin;
+		y0 = (int) yMin;
+		width = (int) w;
+		height = (int) h;
+		bits = new long[(int) ((w * h + 63) >>> 6)];
+		rasterize(shape);
+	}
+
+	/**
+	 * Rasterizes the current shape of the given {@link ShapeRoi}.
+	 */
+	static ShapeRaster create(final ShapeRoi roi) {
+		return new ShapeRaster(roi);
+	}
+
+	/**
+	 * Returns the number of pixel aligned queries after which rasterizing the
+	 * given {@link ShapeRoi} is expected to pay off.
+	 */
+	static long denseThreshold(final ShapeRoi roi) {
+		return Math.max(256, (long) (roi.getFloatWidth() * roi
+			.getFloatHeight()) / 32);
+	}
+
+	/**
+	 * Returns true if the given {@link ShapeRoi} still has the same bounds and
+	 * {@link Shape} instance as when this mask was created.
+	 */
+	boolean matches(final ShapeRoi roi) {
+		return Rois.hasBounds(roi, xBase, yBase, floatWidth, floatHeight) && roi
+			.getShape() == shape;
+	}
+
+	/** Returns true if the given position is covered by this mask. */
+	boolean covers(final int x, final int y) {
+		return x >= x0 && x - x0 < width && y >= y0 && y - y0 < height;
+	}
+
+	/**
+	 * Returns whether the shape contains the given position, which must be
+	 * {@link #covers(int, int) covered} by this mask.
+	 */
+	boolean contains(final int x, final int y) {
+		final long i = (long) (y - y0) * width + (x - x0);
+		return (bits[(int) (i >>> 6)] & (1L << i)) != 0;
+	}
+
+	/**
+	 * Returns the spans of this mask, or null if the shape was too large to be
+	 * rasterized.
+	 */
+	RoiSpans spans() {
+		return tooLarge ? null : RoiSpans.fromBits(bits, x0, y0, width, height);
+	}
+
+	// -- Helper methods --
+
+	private void rasterize(final Shape shape) {
+		final Edges edges = new Edges(shape);
+		final int mask = edges.windingRule == PathIterator.WIND_EVEN_ODD ? 1 : -1;
+
+		// Edges sorted by their top, and the edges near the current row
+		final Integer[] order = new Integer[edges.size];
+		for (int e = 0; e < edges.size; e++)
+			order[e] = e;
+		Arrays.sort(order, (a, b) -> Double.compare(edges.yMin(a), edges.yMin(
+			b)));
+		int[] active = new int[16];
+		int numActive = 0;
+		int next = 0;
+
+		double[] crossX = new double[16];
+		int[] crossDir = new int[16];
+		final int[] exact = new int[width];
+		Arrays.fill(exact, -1);
+
+		for (int row = 0; row < height; row++) {
+			// NB: The shape is stored with its upper left corner at (0, 0)
+			final double py = (y0 + row) - yBase;
+
+			// Update the edges within TOLERANCE of this row
+			int kept = 0;
+			for (int a = 0; a < numActive; a++)
+				if (edges.yMax(active[a]) + TOLERANCE >= py) active[kept++] =
+					active[a];
+			numActive = kept;
+			while (next < edges.size && edges.yMin(order[next]) - TOLERANCE <= py) {
+				final int e = order[next++];
+				if (edges.yMax(e) + TOLERANCE < py) continue;
+				if (numActive == active.length) active = Arrays.copyOf(active,
+					numActive * 2);
+				active[numActive++] = e;
+			}
+
+			// Crossings of the row with the edges, as in Shape.contains
+			int numCross = 0;
+			int winding = 0;
+			for (int a = 0; a < numActive; a++) {
+				final int e = active[a];
+				final double ey0 = edges.y0[e];
+				final double ey1 = edges.y1[e];
+				if (py < ey0 && py < ey1 || py >= ey0 && py >= ey1) continue;
+				if (numCross == crossX.length) {
+					crossX = Arrays.copyOf(crossX, numCross * 2);
+					crossDir = Arrays.copyOf(crossDir, numCross * 2);
+				}
+				crossX[numCross] = edges.x0[e] + (py - ey0) * (edges.x1[e] -
+					edges.x0[e]) / (ey1 - ey0);
+				crossDir[numCross] = ey0 < ey1 ? 1 : -1;
+				winding += crossDir[numCross++];
+				// NB: Insertion sort, the number of crossings per row is small
+				for (int c = numCross - 1; c > 0 && crossX[c - 1] > crossX[c]; c--) {
+					final double tx = crossX[c];
+					crossX[c] = crossX[c - 1];
+					crossX[c - 1] = tx;
+					final int td = crossDir[c];
+					crossDir[c] = crossDir[c - 1];
+					crossDir[c - 1] = td;
+				}
+			}
+
+			// Positions near an edge are decided by the exact shape
+			for (int a = 0; a < numActive; a++)
+				markNearEdge(edges, active[a], py, row, exact);
+
+			// Walk the row left to right, counting crossings to the right
+			int c = 0;
+			final long rowStart = (long) row * width;
+			for (int col = 0; col < width; col++) {
+				final double px = (x0 + col) - xBase;
+				final boolean inside;
+				if (exact[col] == row) inside = shape.contains(px, py);
+				else {
+					while (c < numCross && crossX[c] <= px)
+						winding -= crossDir[c++];
+					inside = (winding & mask) != 0;
+				}
+				if (inside) {
+					final long i = rowStart + col;
+					bits[(int) (i >>> 6)] |= 1L << i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks the columns of the given row which are within {@link #TOLERANCE} of
+	 * the given edge, by setting their entry in {@code exact} to {@code row}.
+	 */
+	private void markNearEdge(final Edges edges, final int e, final double py,
+		final int row, final int[] exact)
+	{
+		final double ex0 = edges.x0[e];
+		final double ey0 = edges.y0[e];
+		final double ex1 = edges.x1[e];
+		final double ey1 = edges.y1[e];
+
+		// Clip the edge to the band [py - TOLERANCE, py + TOLERANCE]
+		double t0 = 0;
+		double t1 = 1;
+		if (ey0 != ey1) {
+			final double ta = (py - TOLERANCE - ey0) / (ey1 - ey0);
+			final double tb = (py + TOLERANCE - ey0) / (ey1 - ey0);
+			t0 = Math.max(0, Math.min(ta, tb));
+			t1 = Math.min(1, Math.max(ta, tb));
+			if (t0 > t1) return;
+		}
+		else if (Math.abs(py - ey0) > TOLERANCE) return;
+
+		final double xa = ex0 + t0 * (ex1 - ex0);
+		final double xb = ex0 + t1 * (ex1 - ex0);
+		final double left = Math.min(xa, xb) - TOLERANCE + xBase - x0;
+		final double right = Math.max(xa, xb) + TOLERANCE + xBase - x0;
+		final int first = (int) Math.max(0, Math.ceil(left));
+		final int last = (int) Math.min(width - 1, Math.floor(right));
+		for (int col = first; col <= last; col++)
+			exact[col] = row;
+	}
+
+	// -- Helper classes --
+
+	/** The flattened, implicitly closed outline of a {@link Shape}. */
+	private static final class Edges {
+
+		private final int windingRule;
+		private int size;
+		private double[] x0 = new double[64];
+		private double[] y0 = new double[64];
+		private double[] x1 = new double[64];
+		private double[] y1 = new double[64];
+
+		private Edges(final Shape shape) {
+			final PathIterator pi = new FlatteningPathIterator(shape.getPathIterator(
+				null), FLATNESS, FLATTENING_LIMIT);
+			windingRule = pi.getWindingRule();
+			final double[] coords = new double[6];
+			double moveX = 0, moveY = 0, curX = 0, curY = 0;
+			for (; !pi.isDone(); pi.next()) {
+				switch (pi.currentSegment(coords)) {
+					case PathIterator.SEG_MOVETO:
+						add(curX, curY, moveX, moveY);
+						moveX = curX = coords[0];
+						moveY = curY = coords[1];
+						break;
+					case PathIterator.SEG_LINETO:
+						add(curX, curY, coords[0], coords[1]);
+						curX = coords[0];
+						curY = coords[1];
+						break;
+					case PathIterator.SEG_CLOSE:
+						add(curX, curY, moveX, moveY);
+						curX = moveX;
+						curY = moveY;
+						break;
+				}
+			}
+			add(curX, curY, moveX, moveY);
+		}
+
+		private void add(final double xa, final double ya, final double xb,
+			final double yb)
+		{
+			if (xa == xb && ya == yb) return;
+			if (size == x0.length) {
+				x0 = Arrays.copyOf(x0, size * 2);
+				y0 = Arrays.copyOf(y0, size * 2);
+				x1 = Arrays.copyOf(x1, size * 2);
+				y1 = Arrays.copyOf(y1, size * 2);
+			}
+			x0[size] = xa;
+			y0[size] = ya;
+			x1[size] = xb;
+			y1[size] = yb;
+			size++;
+		}
+
+		private double yMin(final int e) {
+			return Math.min(y0[e], y1[e]);
+		}
+
+		private double yMax(final int e) {
+			return Math.max(y0[e], y1[e]);
+		}
+	}
+}
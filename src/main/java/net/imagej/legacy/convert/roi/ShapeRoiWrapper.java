@@ -34,6 +34,7 @@ package net.imagej.legacy.convert.roi;
 import ij.gui.ShapeRoi;
 
 import net.imglib2.RealLocalizable;
+import net.imglib2.RealPoint;
 import net.imglib2.roi.RealMaskRealInterval;
 
 /**
@@ -42,19 +43,44 @@ import net.imglib2.roi.RealMaskRealInterval;
  *
  * @author Alison Walter
  */
-public class ShapeRoiWrapper implements IJRealRoiWrapper<ShapeRoi> {
+public class ShapeRoiWrapper implements IJRealRoiWrapper<ShapeRoi>,
+	SpanIterable
+{
 
 	private final ShapeRoi shape;
 
+	/** Mask of the shape at integer positions, created once queries are dense. */
+	private volatile ShapeRaster raster;
+
+	/** Number of integer position queries since the mask was last discarded. */
+	private long latticeQueries;
+
 	public ShapeRoiWrapper(final ShapeRoi shape) {
 		this.shape = shape;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Once enough queries at integer positions have been seen, e.g. when the
+	 * wrapper is iterated as a mask, the shape is rasterized once and integer
+	 * positions are answered from the raster. Other positions are always tested
+	 * against the {@link java.awt.Shape} directly. Both give the same result.
+	 * </p>
+	 */
 	@Override
 	public boolean test(final RealLocalizable t) {
+		final double xt = t.getDoublePosition(0);
+		final double yt = t.getDoublePosition(1);
+		if (xt == (int) xt && yt == (int) yt) {
+			final ShapeRaster r = raster();
+			if (r != null && r.covers((int) xt, (int) yt)) return r.contains(
+				(int) xt, (int) yt);
+		}
+
 		// The backing shape is stored with its upper left corner at (0, 0)
-		final double x = t.getDoublePosition(0) - shape.getXBase();
-		final double y = t.getDoublePosition(1) - shape.getYBase();
+		final double x = xt - shape.getXBase();
+		final double y = yt - shape.getYBase();
 		return shape.getShape().contains(x, y);
 	}
 
@@ -78,4 +104,56 @@ public class ShapeRoiWrapper implements IJRealRoiWrapper<ShapeRoi> {
 		return shape;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The shape is rasterized once and the raster is kept until the Roi
+	 * changes, unless it is too large, in which case every integer position
+	 * within its bounds is tested.
+	 * </p>
+	 */
+	@Override
+	public RoiSpans spans() {
+		ShapeRaster r = raster;
+		if (r == null || !r.matches(shape)) {
+			r = ShapeRaster.create(shape);
+			raster = r;
+		}
+		final RoiSpans spans = r.spans();
+		if (spans != null) return spans;
+		final RealPoint p = new RealPoint(2);
+		final RoiSpans.PositionTest inside = (x, y) -> {
+			p.setPosition(x, 0);
+			p.setPosition(y, 1);
+			return test(p);
+		};
+		return RoiSpans.scan((int) Math.ceil(realMin(0)), (int) Math.ceil(realMin(
+			1)), (int) Math.floor(realMax(0)), (int) Math.floor(realMax(1)), inside);
+	}
+
+	@Override
+	public void synchronize() {
+		raster = null;
+		latticeQueries = 0;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Returns the mask of the wrapped {@link ShapeRoi}, or null if queries have
+	 * not been dense enough yet. The mask is discarded if the bounds or the
+	 * shape of the Roi have changed.
+	 */
+	private ShapeRaster raster() {
+		ShapeRaster r = raster;
+		if (r != null) {
+			if (r.matches(shape)) return r;
+			synchronize();
+		}
+		if (++latticeQueries < ShapeRaster.denseThreshold(shape)) return null;
+		r = ShapeRaster.create(shape);
+		raster = r;
+		return r;
+	}
+
 }
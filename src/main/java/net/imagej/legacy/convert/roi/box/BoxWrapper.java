@@ -34,10 +34,15 @@ package net.imagej.legacy.convert.roi.box;
 import ij.gui.Roi;
 
 import net.imagej.legacy.convert.roi.MaskPredicateWrapper;
+import net.imagej.legacy.convert.roi.Rois;
 import net.imglib2.roi.geom.real.WritableBox;
 
 /**
  * A {@link Roi} with an associated {@link WritableBox}.
+ * <p>
+ * {@link #synchronize()} does nothing if the bounds of the Roi are unchanged
+ * since the last synchronization.
+ * </p>
  *
  * @author Alison Walter
  */
@@ -47,9 +52,19 @@ public final class BoxWrapper extends Roi implements
 
 	private final WritableBox box;
 
+	/** Bounds of the Roi as of the last synchronization. */
+	private double syncedX;
+	private double syncedY;
+	private double syncedWidth;
+	private double syncedHeight;
+
 	public BoxWrapper(final WritableBox b) {
 		super(b.realMin(0), b.realMin(1), b.sideLength(0), b.sideLength(1));
 		box = b;
+		syncedX = getXBase();
+		syncedY = getYBase();
+		syncedWidth = getFloatWidth();
+		syncedHeight = getFloatHeight();
 	}
 
 	// -- MaskPredicateWrapper methods --
@@ -62,10 +77,16 @@ public final class BoxWrapper extends Roi implements
 	@Override
 	public void synchronize() {
 		// TODO: What if the Roi has rounded corners?
+		if (Rois.hasBounds(this, syncedX, syncedY, syncedWidth, syncedHeight))
+			return;
 		box.setSideLength(0, getFloatWidth());
 		box.setSideLength(1, getFloatHeight());
 		box.center().setPosition(new double[] { getXBase() + (getFloatWidth() /
 			2.0), getYBase() + (getFloatHeight() / 2.0) });
+		syncedX = getXBase();
+		syncedY = getYBase();
+		syncedWidth = getFloatWidth();
+		syncedHeight = getFloatHeight();
 	}
 
 }
@@ -34,14 +34,15 @@ package net.imagej.legacy.convert.roi.ellipsoid;
 import ij.gui.OvalRoi;
 
 import net.imagej.legacy.convert.roi.IJRealRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiSpans;
 import net.imagej.legacy.convert.roi.Rois;
+import net.imagej.legacy.convert.roi.SpanIterable;
 import net.imglib2.RealLocalizable;
 import net.imglib2.roi.BoundaryType;
 import net.imglib2.roi.geom.real.Ellipsoid;
 import net.imglib2.roi.geom.real.WritableEllipsoid;
 import net.imglib2.roi.util.AbstractRealMaskPoint;
 import net.imglib2.roi.util.RealLocalizableRealPositionable;
-import net.imglib2.util.Intervals;
 
 /**
  * Wraps an ImageJ 1.x {@link OvalRoi} as an ImgLib2 {@link Ellipsoid}.
@@ -49,11 +50,14 @@ import net.imglib2.util.Intervals;
  * @author Alison Walter
  */
 public class OvalRoiWrapper implements IJRealRoiWrapper<OvalRoi>,
-	WritableEllipsoid
+	WritableEllipsoid, SpanIterable
 {
 
 	private final OvalRoi oval;
 
+	/** Geometry of the oval, cached from the Roi on first use. */
+	private volatile Geometry geometry;
+
 	/**
 	 * Creates an ImageJ 1.x {@link OvalRoi} and then wraps it as an ImgLib2
 	 * {@link Ellipsoid}.
@@ -102,18 +106,44 @@ public class OvalRoiWrapper implements IJRealRoiWrapper<OvalRoi>,
 		// NB: ImageJ 1.x contains(...) is not used due to the limitations of
 		// integer coordinates. ImageJ 1.x contains method does use `<= 1` which
 		// results in a closed ellipsoid.
-		if (Intervals.contains(this, t)) {
-			final double xr = semiAxisLength(0);
-			final double yr = semiAxisLength(1);
-			final RealLocalizable c = center();
-			final double xt = t.getDoublePosition(0);
-			final double yt = t.getDoublePosition(1);
-
-			return (((xt - c.getDoublePosition(0)) / xr) * ((xt - c.getDoublePosition(
-				0)) / xr)) + (((yt - c.getDoublePosition(1)) / yr) * ((yt - c
-					.getDoublePosition(1)) / yr)) <= 1.0;
+		return contains(geometry(), t.getDoublePosition(0), t.getDoublePosition(
+			1));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The span of each row is computed from the equation of the ellipse, and
+	 * its ends are checked against {@link #test(RealLocalizable)}.
+	 * </p>
+	 */
+	@Override
+	public RoiSpans spans() {
+		final Geometry g = geometry();
+		final RoiSpans.Builder spans = new RoiSpans.Builder();
+		final int minX = (int) Math.ceil(g.x);
+		final int maxX = (int) Math.floor(g.maxX);
+		final int maxY = (int) Math.floor(g.maxY);
+		for (int y = (int) Math.ceil(g.y); y <= maxY; y++) {
+			final double dy = (y - g.cy) / g.yr;
+			if (!(dy * dy <= 1.0)) continue;
+			final double half = g.xr * Math.sqrt(1.0 - dy * dy);
+			int start = Math.max(minX, (int) Math.ceil(g.cx - half));
+			int end = Math.min(maxX, (int) Math.floor(g.cx + half));
+
+			// NB: Each row of an ellipse is a single span, so rounding errors
+			// only ever move its ends by a position.
+			while (start <= end && !contains(g, start, y))
+				start++;
+			while (start > minX && contains(g, start - 1, y))
+				start--;
+			while (end >= start && !contains(g, end, y))
+				end--;
+			while (end < maxX && contains(g, end + 1, y))
+				end++;
+			spans.add(y, start, end);
 		}
-		return false;
+		return spans.build();
 	}
 
 	@Override
@@ -173,8 +203,74 @@ public class OvalRoiWrapper implements IJRealRoiWrapper<OvalRoi>,
 		return oval;
 	}
 
+	@Override
+	public void synchronize() {
+		geometry = null;
+	}
+
+	// -- Helper methods --
+
+	private static boolean contains(final Geometry g, final double xt,
+		final double yt)
+	{
+		if (xt < g.x || xt > g.maxX || yt < g.y || yt > g.maxY) return false;
+
+		final double dx = (xt - g.cx) / g.xr;
+		final double dy = (yt - g.cy) / g.yr;
+		return dx * dx + dy * dy <= 1.0;
+	}
+
+	/**
+	 * Returns the cached geometry of the wrapped {@link OvalRoi}, recomputing it
+	 * if the bounds of the Roi have changed.
+	 */
+	private Geometry geometry() {
+		Geometry g = geometry;
+		if (g == null || !g.matches(oval)) {
+			g = new Geometry(oval);
+			geometry = g;
+		}
+		return g;
+	}
+
 	// -- Helper classes --
 
+	/**
+	 * Primitive geometry of an {@link OvalRoi}, so {@code test(...)} does not
+	 * need to query the Roi or allocate a center point.
+	 */
+	private static final class Geometry {
+
+		private final double x;
+		private final double y;
+		private final double width;
+		private final double height;
+
+		private final double maxX;
+		private final double maxY;
+		private final double cx;
+		private final double cy;
+		private final double xr;
+		private final double yr;
+
+		private Geometry(final OvalRoi oval) {
+			x = oval.getXBase();
+			y = oval.getYBase();
+			width = oval.getFloatWidth();
+			height = oval.getFloatHeight();
+			maxX = x + width;
+			maxY = y + height;
+			cx = (x + maxX) / 2.0;
+			cy = (y + maxY) / 2.0;
+			xr = width / 2;
+			yr = height / 2;
+		}
+
+		private boolean matches(final OvalRoi oval) {
+			return Rois.hasBounds(oval, x, y, width, height);
+		}
+	}
+
 	private class OvalCenter extends AbstractRealMaskPoint {
 
 		public OvalCenter(final double x, final double y) {
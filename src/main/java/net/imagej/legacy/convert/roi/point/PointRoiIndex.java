@@ -0,0 +1,200 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi.point;
+
+import ij.gui.PointRoi;
+import ij.process.FloatPolygon;
+
+import net.imagej.legacy.convert.roi.Rois;
+
+/**
+ * A uniform grid over the points of an ImageJ 1.x {@link PointRoi}, which
+ * allows {@link PointRoiWrapper} to answer containment and bounds queries
+ * without scanning every point.
+ * <p>
+ * The grid has roughly one cell per point, and the point coordinates are
+ * stored sorted by cell so each cell is a contiguous range of the coordinate
+ * arrays. An index is a snapshot of the points; {@link #matches(PointRoi)}
+ * tells in constant time whether a Roi still has as many points within the
+ * same bounds.
+ * </p>
+ */
+final class PointRoiIndex {
+
+	private final float[] x;
+	private final float[] y;
+	private final int[] cellStart;
+	private final int nx;
+	private final int ny;
+	private final double scaleX;
+	private final double scaleY;
+
+	private final double minX;
+	private final double minY;
+	private final double maxX;
+	private final double maxY;
+
+	// -- Snapshot of the indexed Roi, used to detect changes --
+
+	private final int numPoints;
+	private final double xBase;
+	private final double yBase;
+	private final double width;
+	private final double height;
+
+	private PointRoiIndex(final PointRoi roi) {
+		numPoints = roi.getNCoordinates();
+		xBase = roi.getXBase();
+		yBase = roi.getYBase();
+		width = roi.getFloatWidth();
+		height = roi.getFloatHeight();
+
+		final FloatPolygon fp = roi.getContainedFloatPoints();
+		final int n = Math.min(numPoints, fp.npoints);
+		final float[] px = fp.xpoints;
+		final float[] py = fp.ypoints;
+
+		double x0 = Double.POSITIVE_INFINITY;
+		double y0 = Double.POSITIVE_INFINITY;
+		double x1 = Double.NEGATIVE_INFINITY;
+		double y1 = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			if (px[i] < x0) x0 = px[i];
+			if (px[i] > x1) x1 = px[i];
+			if (py[i] < y0) y0 = py[i];
+			if (py[i] > y1) y1 = py[i];
+		}
+		minX = x0;
+		minY = y0;
+		maxX = x1;
+		maxY = y1;
+
+		// Aim for about one point per cell, following the aspect ratio of the
+		// bounding box
+		final double w = maxX - minX;
+		final double h = maxY - minY;
+		if (n < 2 || !(w > 0 || h > 0)) {
+			nx = 1;
+			ny = 1;
+		}
+		else if (!(w > 0)) {
+			nx = 1;
+			ny = n;
+		}
+		else if (!(h > 0)) {
+			nx = n;
+			ny = 1;
+		}
+		else {
+			nx = (int) Math.max(1, Math.min(n, Math.round(Math.sqrt(n * w / h))));
+			ny = Math.max(1, Math.min(n, (n + nx - 1) / nx));
+		}
+		scaleX = w > 0 ? nx / w : 0;
+		scaleY = h > 0 ? ny / h : 0;
+
+		// Counting sort of the points by cell
+		final int[] cells = new int[n];
+		cellStart = new int[nx * ny + 1];
+		for (int i = 0; i < n; i++) {
+			cells[i] = cell(px[i], py[i]);
+			cellStart[cells[i] + 1]++;
+		}
+		for (int c = 0; c < nx * ny; c++)
+			cellStart[c + 1] += cellStart[c];
+
+		x = new float[n];
+		y = new float[n];
+		final int[] next = new int[nx * ny];
+		for (int i = 0; i < n; i++) {
+			final int j = cellStart[cells[i]] + next[cells[i]]++;
+			x[j] = px[i];
+			y[j] = py[i];
+		}
+	}
+
+	/**
+	 * Creates an index over the current points of the given {@link PointRoi}.
+	 */
+	static PointRoiIndex build(final PointRoi roi) {
+		return new PointRoiIndex(roi);
+	}
+
+	/**
+	 * Returns true if the given {@link PointRoi} still has the same number of
+	 * points and the same bounds as when this index was built. A point moved
+	 * within the bounds changes neither, and is only seen after the index is
+	 * rebuilt.
+	 */
+	boolean matches(final PointRoi roi) {
+		return roi.getNCoordinates() == numPoints && Rois.hasBounds(roi, xBase,
+			yBase, width, height);
+	}
+
+	/**
+	 * Returns true if one of the indexed points is exactly at the given
+	 * position.
+	 */
+	boolean contains(final float xt, final float yt) {
+		if (!(xt >= minX && xt <= maxX && yt >= minY && yt <= maxY)) return false;
+		final int c = cell(xt, yt);
+		for (int i = cellStart[c]; i < cellStart[c + 1]; i++)
+			if (x[i] == xt && y[i] == yt) return true;
+		return false;
+	}
+
+	/**
+	 * Returns the smallest coordinate of the indexed points in the given
+	 * dimension, or positive infinity if there are no points.
+	 */
+	double min(final int d) {
+		return d == 0 ? minX : minY;
+	}
+
+	/**
+	 * Returns the largest coordinate of the indexed points in the given
+	 * dimension, or negative infinity if there are no points.
+	 */
+	double max(final int d) {
+		return d == 0 ? maxX : maxY;
+	}
+
+	// -- Helper methods --
+
+	private int cell(final double xt, final double yt) {
+		return clamp((int) ((yt - minY) * scaleY), ny) * nx + clamp((int) ((xt -
+			minX) * scaleX), nx);
+	}
+
+	private static int clamp(final int c, final int n) {
+		return c < 0 ? 0 : c >= n ? n - 1 : c;
+	}
+}
@@ -58,6 +58,9 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 
 	private final PointRoi points;
 
+	/** Index over the points of the Roi, built lazily on first use. */
+	private volatile PointRoiIndex index;
+
 	/**
 	 * Creates an ImageJ 1.x {@link PointRoi} and wraps it as an ImgLib2
 	 * {@link RealPointCollection}.
@@ -153,64 +156,29 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 	public boolean test(final RealLocalizable t) {
 		// NB: ImageJ 1.x contains(...) is not used due to the limitations of
 		// integer coordinates.
-		final float xt = t.getFloatPosition(0);
-		final float yt = t.getFloatPosition(1);
-		final float[] x = points.getContainedFloatPoints().xpoints;
-		final float[] y = points.getContainedFloatPoints().ypoints;
-		final int numPoints = points.getNCoordinates();
-
-		for (int i = 0; i < numPoints; i++)
-			if (xt == x[i] && yt == y[i]) return true;
-		return false;
+		return index().contains(t.getFloatPosition(0), t.getFloatPosition(1));
 	}
 
 	@Override
 	public double realMin(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-
-		final int numPoints = points.getNCoordinates();
-		double min = Double.POSITIVE_INFINITY;
-
-		if (d == 0) {
-			final float[] x = points.getContainedFloatPoints().xpoints;
-			for (int i = 0; i < numPoints; i++)
-				if (x[i] < min) min = x[i];
-			return min;
-		}
-
-		final float[] y = points.getContainedFloatPoints().ypoints;
-		for (int i = 0; i < numPoints; i++)
-			if (y[i] < min) min = y[i];
-		return min;
+		return index().min(d);
 	}
 
 	@Override
 	public double realMax(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-
-		final int numPoints = points.getNCoordinates();
-		double max = Double.NEGATIVE_INFINITY;
-
-		if (d == 0) {
-			final float[] x = points.getContainedFloatPoints().xpoints;
-			for (int i = 0; i < numPoints; i++)
-				if (x[i] > max) max = x[i];
-			return max;
-		}
-
-		final float[] y = points.getContainedFloatPoints().ypoints;
-		for (int i = 0; i < numPoints; i++)
-			if (y[i] > max) max = y[i];
-		return max;
+		return index().max(d);
 	}
 
 	@Override
 	public Iterable<RealLocalizable> points() {
 		final List<RealLocalizable> pts = new ArrayList<>();
-		final float[] x = points.getContainedFloatPoints().xpoints;
-		final float[] y = points.getContainedFloatPoints().ypoints;
+		final FloatPolygon fp = points.getContainedFloatPoints();
+		final float[] x = fp.xpoints;
+		final float[] y = fp.ypoints;
 		final int numPoints = points.getNCoordinates();
 
 		for (int i = 0; i < numPoints; i++) {
@@ -229,6 +197,7 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 	@Override
 	public void addPoint(final RealLocalizable point) {
 		points.addPoint(point.getDoublePosition(0), point.getDoublePosition(1));
+		index = null;
 	}
 
 	/**
@@ -248,8 +217,11 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 			// exact match is not found. So test that the point is part of the
 			// roi
 			// first.
-			if (test(point)) points.deleteHandle(point.getDoublePosition(0), point
-				.getDoublePosition(1));
+			if (test(point)) {
+				points.deleteHandle(point.getDoublePosition(0), point
+					.getDoublePosition(1));
+				index = null;
+			}
 		}
 		else Rois.unsupported("removePoint");
 	}
@@ -259,4 +231,25 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 		return points;
 	}
 
+	@Override
+	public void synchronize() {
+		index = null;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Returns the index over the points of the wrapped {@link PointRoi},
+	 * rebuilding it if the number of points or the bounds of the Roi have
+	 * changed since it was last built.
+	 */
+	private PointRoiIndex index() {
+		PointRoiIndex i = index;
+		if (i == null || !i.matches(points)) {
+			i = PointRoiIndex.build(points);
+			index = i;
+		}
+		return i;
+	}
+
 }
@@ -32,10 +32,14 @@
 package net.imagej.legacy.convert.roi.point;
 
 import ij.gui.PointRoi;
+import ij.process.FloatPolygon;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import net.imagej.legacy.convert.roi.MaskPredicateWrapper;
+import net.imagej.legacy.convert.roi.Rois;
 import net.imglib2.RealLocalizable;
 import net.imglib2.RealPoint;
 import net.imglib2.roi.geom.real.WritableRealPointCollection;
@@ -46,6 +50,12 @@ import org.scijava.util.FloatArray;
 
 /**
  * A {@link PointRoi} with an associated {@link WritableRealPointCollection}.
+ * <p>
+ * The wrapper remembers the points it last pushed to the
+ * {@link WritableRealPointCollection}, so {@link #synchronize()} only moves
+ * the points which have changed since, and does nothing if the Roi is
+ * unchanged. Changes made directly to the source are not detected.
+ * </p>
  *
  * @author Alison Walter
  */
@@ -56,12 +66,19 @@ public final class RealPointCollectionWrapper extends PointRoi implements
 	private final WritableRealPointCollection<RealLocalizableRealPositionable> rpc;
 	private int numPoints;
 
+	/** Points of the Roi as of the last synchronization. */
+	private float[] syncedX;
+	private float[] syncedY;
+
 	public RealPointCollectionWrapper(
 		final WritableRealPointCollection<RealLocalizableRealPositionable> p)
 	{
 		super(getCoors(p, 0), getCoors(p, 1), countPoints(p));
 		numPoints = getFloatPolygon().npoints;
 		rpc = p;
+		final FloatPolygon fp = getContainedFloatPoints();
+		syncedX = fp.xpoints;
+		syncedY = fp.ypoints;
 	}
 
 	// -- MaskPredicateWrapper methods --
@@ -75,6 +92,13 @@ public final class RealPointCollectionWrapper extends PointRoi implements
 
 	@Override
 	public void synchronize() {
+		final FloatPolygon fp = getContainedFloatPoints();
+		final float[] xCoor = fp.xpoints;
+		final float[] yCoor = fp.ypoints;
+		final boolean resized = getNCoordinates() != numPoints;
+		if (!resized && Rois.sameCoordinates(xCoor, syncedX, numPoints) && Rois
+			.sameCoordinates(yCoor, syncedY, numPoints)) return;
+
 		// Check if points were added
 		if (getNCoordinates() > numPoints) {
 			while (getNCoordinates() != numPoints) {
@@ -85,19 +109,30 @@ public final class RealPointCollectionWrapper extends PointRoi implements
 		}
 		// Check if points were removed
 		if (getNCoordinates() < numPoints) {
-			while (getNCoordinates() != numPoints) {
-				rpc.removePoint(rpc.points().iterator().next());
-				numPoints--;
-			}
+			// NB: Collect the points first, rather than iterating once per point.
+			final List<RealLocalizableRealPositionable> removed = new ArrayList<>(
+				numPoints - getNCoordinates());
+			final Iterator<RealLocalizableRealPositionable> itr = rpc.points()
+				.iterator();
+			while (removed.size() < numPoints - getNCoordinates())
+				removed.add(itr.next());
+			for (final RealLocalizableRealPositionable point : removed)
+				rpc.removePoint(point);
+			numPoints = getNCoordinates();
 		}
 
-		// Update point locations
+		// Update point locations, all of them if points were added or removed
 		final Iterator<RealLocalizableRealPositionable> itr = rpc.points()
 			.iterator();
-		final float[] xCoor = getContainedFloatPoints().xpoints;
-		final float[] yCoor = getContainedFloatPoints().ypoints;
-		for (int i = 0; i < numPoints; i++)
-			itr.next().setPosition(new float[] { xCoor[i], yCoor[i] });
+		for (int i = 0; i < numPoints; i++) {
+			final RealLocalizableRealPositionable point = itr.next();
+			if (!resized && xCoor[i] == syncedX[i] && yCoor[i] == syncedY[i])
+				continue;
+			point.setPosition(new float[] { xCoor[i], yCoor[i] });
+		}
+
+		syncedX = xCoor;
+		syncedY = yCoor;
 	}
 
 	// -- Helper methods --
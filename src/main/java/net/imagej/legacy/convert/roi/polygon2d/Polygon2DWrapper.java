@@ -36,10 +36,17 @@ import ij.gui.Roi;
 import ij.process.FloatPolygon;
 
 import net.imagej.legacy.convert.roi.MaskPredicateWrapper;
+import net.imagej.legacy.convert.roi.Rois;
 import net.imglib2.roi.geom.real.WritablePolygon2D;
 
 /**
  * A {@link PolygonRoi} with an associated {@link WritablePolygon2D}.
+ * <p>
+ * The wrapper remembers the vertices it last pushed to the
+ * {@link WritablePolygon2D}, so {@link #synchronize()} only writes the
+ * vertices which have changed since, and nothing if the Roi is unchanged.
+ * Changes made directly to the source are not detected.
+ * </p>
  *
  * @author Alison Walter
  */
@@ -49,9 +56,18 @@ public final class Polygon2DWrapper extends PolygonRoi implements
 
 	private final WritablePolygon2D polygon;
 
+	/** Vertices of the Roi as of the last synchronization. */
+	private float[] syncedX;
+	private float[] syncedY;
+	private int syncedPoints;
+
 	public Polygon2DWrapper(final WritablePolygon2D p) {
 		super(getCoordinates(p, 0), getCoordinates(p, 1), Roi.POLYGON);
 		polygon = p;
+		final FloatPolygon fp = getFloatPolygon();
+		syncedX = fp.xpoints;
+		syncedY = fp.ypoints;
+		syncedPoints = fp.npoints;
 	}
 
 	// -- MaskPredicateWrapper methods --
@@ -64,7 +80,12 @@ public final class Polygon2DWrapper extends PolygonRoi implements
 	@Override
 	public void synchronize() {
 		final FloatPolygon fp = getFloatPolygon();
+		if (fp.npoints == syncedPoints && polygon.numVertices() == syncedPoints &&
+			Rois.sameCoordinates(fp.xpoints, syncedX, syncedPoints) && Rois
+				.sameCoordinates(fp.ypoints, syncedY, syncedPoints)) return;
 
+		// NB: Vertices past the last synchronized ones must always be written.
+		final int synced = Math.min(syncedPoints, polygon.numVertices());
 		if (polygon.numVertices() > nPoints) {
 			while (polygon.numVertices() != nPoints)
 				polygon.removeVertex(polygon.numVertices() - 1);
@@ -75,9 +96,15 @@ public final class Polygon2DWrapper extends PolygonRoi implements
 		}
 
 		for (int i = 0; i < polygon.numVertices(); i++) {
-			polygon.vertex(i).setPosition(fp.xpoints[i], 0);
-			polygon.vertex(i).setPosition(fp.ypoints[i], 1);
+			if (i < synced && fp.xpoints[i] == syncedX[i] &&
+				fp.ypoints[i] == syncedY[i]) continue;
+			polygon.vertex(i).setPosition(new double[] { fp.xpoints[i],
+				fp.ypoints[i] });
 		}
+
+		syncedX = fp.xpoints;
+		syncedY = fp.ypoints;
+		syncedPoints = fp.npoints;
 	}
 
 	// -- Helper methods --
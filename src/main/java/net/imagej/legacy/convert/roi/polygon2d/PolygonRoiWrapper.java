@@ -37,7 +37,9 @@ import ij.gui.Roi;
 import ij.process.FloatPolygon;
 
 import net.imagej.legacy.convert.roi.AbstractPolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiSpans;
 import net.imagej.legacy.convert.roi.Rois;
+import net.imagej.legacy.convert.roi.SpanIterable;
 import net.imglib2.RealLocalizable;
 import net.imglib2.roi.geom.GeomMaths;
 import net.imglib2.roi.geom.real.Polygon2D;
@@ -52,7 +54,7 @@ import gnu.trove.list.array.TDoubleArrayList;
  * @author Alison Walter
  */
 public class PolygonRoiWrapper extends AbstractPolygonRoiWrapper implements
-	WritablePolygon2D
+	WritablePolygon2D, SpanIterable
 {
 
 	/**
@@ -132,6 +134,20 @@ public class PolygonRoiWrapper extends AbstractPolygonRoiWrapper implements
 		return GeomMaths.pnpoly(x, y, t);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The polygon is scan converted row by row, with the same result as
+	 * {@link #test(RealLocalizable)} at every integer position.
+	 * </p>
+	 */
+	@Override
+	public RoiSpans spans() {
+		final FloatPolygon fp = getRoi().getFloatPolygon();
+		return PolygonSpans.of(fp.xpoints, fp.ypoints, getRoi()
+			.getNCoordinates());
+	}
+
 	@Override
 	public RealLocalizableRealPositionable vertex(final int pos) {
 		final FloatPolygon fp = getRoi().getFloatPolygon();
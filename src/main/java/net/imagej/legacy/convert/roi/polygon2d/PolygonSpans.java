@@ -0,0 +1,173 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi.polygon2d;
+
+import java.util.Arrays;
+
+import net.imagej.legacy.convert.roi.RoiSpans;
+import net.imglib2.RealPoint;
+import net.imglib2.roi.geom.GeomMaths;
+
+import gnu.trove.list.array.TDoubleArrayList;
+
+/**
+ * Scan converts a polygon into {@link RoiSpans}, giving the same result as
+ * testing every integer position with {@link GeomMaths#pnpoly}.
+ * <p>
+ * For each row, the x coordinates at which the edges cross the row are
+ * computed with the same arithmetic as {@code pnpoly}. A position is inside if
+ * an odd number of crossings lie to its right, so the positions between every
+ * other pair of sorted crossings form the spans of the row. The ends of each
+ * span are checked with {@code pnpoly}, and a row is tested position by
+ * position if they disagree.
+ * </p>
+ */
+final class PolygonSpans {
+
+	private PolygonSpans() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Computes the spans of the polygon with the given vertices.
+	 *
+	 * @param xPoints x coordinates of the vertices
+	 * @param yPoints y coordinates of the vertices
+	 * @param nPoints number of vertices
+	 */
+	static RoiSpans of(final float[] xPoints, final float[] yPoints,
+		final int nPoints)
+	{
+		final TDoubleArrayList x = new TDoubleArrayList(nPoints);
+		final TDoubleArrayList y = new TDoubleArrayList(nPoints);
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < nPoints; i++) {
+			x.add(xPoints[i]);
+			y.add(yPoints[i]);
+			minX = Math.min(minX, xPoints[i]);
+			maxX = Math.max(maxX, xPoints[i]);
+			minY = Math.min(minY, yPoints[i]);
+			maxY = Math.max(maxY, yPoints[i]);
+		}
+
+		final RoiSpans.Builder spans = new RoiSpans.Builder();
+		if (nPoints == 0) return spans.build();
+
+		final int firstX = (int) Math.ceil(minX);
+		final int lastX = (int) Math.floor(maxX);
+		final double[] crossings = new double[nPoints];
+		// NB: At most one span per pair of crossings, stored as start and end.
+		final int[] rowSpans = new int[nPoints + 2];
+		final RealPoint p = new RealPoint(2);
+		final int lastRow = (int) Math.floor(maxY);
+		for (int row = (int) Math.ceil(minY); row <= lastRow; row++) {
+			final int numCrossings = crossings(x, y, row, crossings);
+			Arrays.sort(crossings, 0, numCrossings);
+
+			int length = 0;
+			for (int k = 0; k + 1 < numCrossings; k += 2) {
+				final int start = (int) Math.ceil(crossings[k]);
+				final int end = (int) Math.ceil(crossings[k + 1]) - 1;
+				if (start > end) continue;
+				if (length > 0 && rowSpans[length - 1] + 1 >= start) {
+					rowSpans[length - 1] = end;
+					continue;
+				}
+				rowSpans[length++] = start;
+				rowSpans[length++] = end;
+			}
+
+			p.setPosition(row, 1);
+			if (agrees(x, y, p, rowSpans, length)) {
+				for (int k = 0; k < length; k += 2)
+					spans.add(row, rowSpans[k], rowSpans[k + 1]);
+			}
+			else {
+				for (int col = firstX; col <= lastX; col++) {
+					p.setPosition(col, 0);
+					if (GeomMaths.pnpoly(x, y, p)) spans.add(row, col, col);
+				}
+			}
+		}
+		return spans.build();
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Collects the x coordinates at which the edges of the polygon cross the
+	 * given row, and returns their number.
+	 */
+	private static int crossings(final TDoubleArrayList x,
+		final TDoubleArrayList y, final double row, final double[] crossings)
+	{
+		final int n = x.size();
+		int count = 0;
+		for (int i = 0, j = n - 1; i < n; j = i++) {
+			final double xi = x.getQuick(i);
+			final double yi = y.getQuick(i);
+			final double xj = x.getQuick(j);
+			final double yj = y.getQuick(j);
+			if ((yi > row) != (yj > row)) {
+				crossings[count++] = (xj - xi) * (row - yi) / (yj - yi) + xi;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns true if {@code pnpoly} agrees with the given spans of a row at
+	 * and next to both ends of every span.
+	 */
+	private static boolean agrees(final TDoubleArrayList x,
+		final TDoubleArrayList y, final RealPoint p, final int[] rowSpans,
+		final int length)
+	{
+		for (int k = 0; k < length; k += 2) {
+			if (!pnpoly(x, y, p, rowSpans[k]) || !pnpoly(x, y, p, rowSpans[k +
+				1]) || pnpoly(x, y, p, rowSpans[k] - 1) || pnpoly(x, y, p,
+					rowSpans[k + 1] + 1)) return false;
+		}
+		return true;
+	}
+
+	private static boolean pnpoly(final TDoubleArrayList x,
+		final TDoubleArrayList y, final RealPoint p, final int col)
+	{
+		p.setPosition(col, 0);
+		return GeomMaths.pnpoly(x, y, p);
+	}
+
+}
@@ -36,6 +36,8 @@ import ij.gui.Roi;
 import ij.process.FloatPolygon;
 
 import net.imagej.legacy.convert.roi.AbstractPolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiSpans;
+import net.imagej.legacy.convert.roi.SpanIterable;
 import net.imglib2.AbstractRealLocalizable;
 import net.imglib2.RealLocalizable;
 import net.imglib2.roi.geom.GeomMaths;
@@ -50,7 +52,7 @@ import gnu.trove.list.array.TDoubleArrayList;
  * @author Alison Walter
  */
 public class UnmodifiablePolygonRoiWrapper extends AbstractPolygonRoiWrapper
-	implements Polygon2D
+	implements Polygon2D, SpanIterable
 {
 
 	/**
@@ -89,6 +91,20 @@ public class UnmodifiablePolygonRoiWrapper extends AbstractPolygonRoiWrapper
 		return GeomMaths.pnpoly(x, y, t);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The polygon is scan converted row by row, with the same result as
+	 * {@link #test(RealLocalizable)} at every integer position.
+	 * </p>
+	 */
+	@Override
+	public RoiSpans spans() {
+		final FloatPolygon fp = getRoi().getFloatPolygon();
+		return PolygonSpans.of(fp.xpoints, fp.ypoints, getRoi()
+			.getNCoordinates());
+	}
+
 	@Override
 	public RealLocalizable vertex(final int pos) {
 		final FloatPolygon fp = getRoi().getFloatPolygon();
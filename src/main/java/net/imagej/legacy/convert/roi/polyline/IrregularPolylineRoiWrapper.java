@@ -33,8 +33,10 @@ package net.imagej.legacy.convert.roi.polyline;
 
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
+import ij.process.FloatPolygon;
 
 import net.imagej.legacy.convert.roi.IJRealRoiWrapper;
+import net.imagej.legacy.convert.roi.Rois;
 import net.imglib2.RealLocalizable;
 import net.imglib2.roi.BoundaryType;
 import net.imglib2.roi.RealMaskRealInterval;
@@ -57,6 +59,9 @@ public class IrregularPolylineRoiWrapper implements
 
 	private final PolygonRoi roi;
 
+	/** Segments of the polyline, cached from the Roi on first use. */
+	private volatile Segments segments;
+
 	/**
 	 * Creates a {@link RealMaskRealInterval} which wraps the given {@link Roi}.
 	 *
@@ -76,14 +81,11 @@ public class IrregularPolylineRoiWrapper implements
 	 */
 	@Override
 	public boolean test(final RealLocalizable t) {
-		final float[] x = roi.getFloatPolygon().xpoints;
-		final float[] y = roi.getFloatPolygon().ypoints;
-
+		final Segments s = segments();
 		final double xt = t.getDoublePosition(0);
 		final double yt = t.getDoublePosition(1);
-		for (int i = 1; i < getRoi().getNCoordinates(); i++) {
-			if (lineContains(x[i - 1], y[i - 1], x[i], y[i], xt, yt, roi
-				.getStrokeWidth())) return true;
+		for (int i = 0; i < s.count; i++) {
+			if (s.contains(i, xt, yt)) return true;
 		}
 
 		return false;
@@ -99,6 +101,11 @@ public class IrregularPolylineRoiWrapper implements
 		return roi;
 	}
 
+	@Override
+	public void synchronize() {
+		segments = null;
+	}
+
 	@Override
 	public double realMin(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
@@ -124,33 +131,110 @@ public class IrregularPolylineRoiWrapper implements
 
 	// -- Helper methods --
 
-	private boolean lineContains(final double x1, final double y1,
-		final double x2, final double y2, final double xt, final double yt,
-		final double width)
-	{
-		final double[] directionVector = new double[] { x2 - x1, y2 - y1 };
-		final double magnitude = Math.sqrt((directionVector[0] *
-			directionVector[0]) + (directionVector[1] * directionVector[1]));
-		directionVector[0] = directionVector[0] / magnitude;
-		directionVector[1] = directionVector[1] / magnitude;
-
-		final double projection = (xt - x1) * directionVector[0] + (yt - y1) *
-			directionVector[1];
-
-		double xp = x1 + (projection * directionVector[0]);
-		double yp = y1 + (projection * directionVector[1]);
-
-		if (xp > Math.max(x1, x2)) xp = Math.max(x1, x2);
-		if (xp < Math.min(x1, x2)) xp = Math.min(x1, x2);
-		if (yp > Math.max(y1, y2)) yp = Math.max(y1, y2);
-		if (yp < Math.min(y1, y2)) yp = Math.min(y1, y2);
-
-		final boolean result;
-
-		if (width == 0) result = ((xp - xt) * (xp - xt) + (yp - yt) * (yp -
-			yt)) <= 1e-15;
-		else result = Math.sqrt(((xp - xt) * (xp - xt) + (yp - yt) * (yp -
-			yt))) <= width / 2;
-		return result;
+	/**
+	 * Returns the cached segments of the wrapped {@link PolygonRoi}, recomputing
+	 * them if its vertex count, stroke width or bounds have changed.
+	 */
+	private Segments segments() {
+		Segments s = segments;
+		if (s == null || !s.matches(roi)) {
+			s = new Segments(roi);
+			segments = s;
+		}
+		return s;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * The segments of a polyline as primitive arrays: start points, unit
+	 * direction vectors and bounding boxes. This lets {@code test(...)} check
+	 * each segment without copying the polygon or allocating a direction
+	 * vector.
+	 */
+	private static final class Segments {
+
+		private final int numPoints;
+		private final double xBase;
+		private final double yBase;
+		private final double width;
+		private final double height;
+		private final double strokeWidth;
+
+		private final int count;
+		private final double[] x1;
+		private final double[] y1;
+		private final double[] ux;
+		private final double[] uy;
+		private final double[] minX;
+		private final double[] minY;
+		private final double[] maxX;
+		private final double[] maxY;
+
+		private Segments(final PolygonRoi roi) {
+			numPoints = roi.getNCoordinates();
+			xBase = roi.getXBase();
+			yBase = roi.getYBase();
+			width = roi.getFloatWidth();
+			height = roi.getFloatHeight();
+			strokeWidth = roi.getStrokeWidth();
+
+			final FloatPolygon fp = roi.getFloatPolygon();
+			final int n = Math.max(0, Math.min(numPoints, fp.npoints));
+			count = Math.max(0, n - 1);
+			x1 = new double[count];
+			y1 = new double[count];
+			ux = new double[count];
+			uy = new double[count];
+			minX = new double[count];
+			minY = new double[count];
+			maxX = new double[count];
+			maxY = new double[count];
+			for (int i = 0; i < count; i++) {
+				final double xs = fp.xpoints[i];
+				final double ys = fp.ypoints[i];
+				final double xe = fp.xpoints[i + 1];
+				final double ye = fp.ypoints[i + 1];
+				final double dx = xe - xs;
+				final double dy = ye - ys;
+				final double magnitude = Math.sqrt((dx * dx) + (dy * dy));
+				x1[i] = xs;
+				y1[i] = ys;
+				ux[i] = dx / magnitude;
+				uy[i] = dy / magnitude;
+				minX[i] = Math.min(xs, xe);
+				minY[i] = Math.min(ys, ye);
+				maxX[i] = Math.max(xs, xe);
+				maxY[i] = Math.max(ys, ye);
+			}
+		}
+
+		/**
+		 * Returns true if the Roi still has the number of vertices, stroke width
+		 * and bounds these segments were computed from. Moving an inner vertex
+		 * changes none of them, and needs
+		 * {@link IrregularPolylineRoiWrapper#synchronize()}.
+		 */
+		private boolean matches(final PolygonRoi roi) {
+			return roi.getNCoordinates() == numPoints && roi
+				.getStrokeWidth() == strokeWidth && Rois.hasBounds(roi, xBase, yBase,
+					width, height);
+		}
+
+		private boolean contains(final int i, final double xt, final double yt) {
+			final double projection = (xt - x1[i]) * ux[i] + (yt - y1[i]) * uy[i];
+
+			double xp = x1[i] + (projection * ux[i]);
+			double yp = y1[i] + (projection * uy[i]);
+
+			if (xp > maxX[i]) xp = maxX[i];
+			if (xp < minX[i]) xp = minX[i];
+			if (yp > maxY[i]) yp = maxY[i];
+			if (yp < minY[i]) yp = minY[i];
+
+			final double d2 = (xp - xt) * (xp - xt) + (yp - yt) * (yp - yt);
+			if (strokeWidth == 0) return d2 <= 1e-15;
+			return Math.sqrt(d2) <= strokeWidth / 2;
+		}
 	}
 }
@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import java.util.Arrays;
+
+/**
+ * Transfers binary masks between ImageJ 1.x {@code byte[]} pixels and the
+ * {@code long[]} storage of {@code ArrayImg}s of {@code BitType}, 64 pixels at
+ * a time.
+ * <p>
+ * Pixels and bits are both in row-major order. Bit {@code i} of the
+ * {@code long[]} is bit {@code i % 64} of word {@code i / 64}, which is the
+ * layout {@code BitType} uses.
+ * </p>
+ */
+final class BitMasks {
+
+	private BitMasks() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Sets {@code length} bits of {@code dest}, starting at bit {@code destBit},
+	 * to whether the corresponding pixels of {@code src} are nonzero.
+	 */
+	static void pack(final byte[] src, final int srcOffset, final long[] dest,
+		final long destBit, final int length)
+	{
+		int s = srcOffset;
+		long d = destBit;
+		int remaining = length;
+
+		// Leading bits, up to the next word boundary
+		while (remaining > 0 && (d & 63) != 0) {
+			setBit(dest, d++, src[s++] != 0);
+			remaining--;
+		}
+
+		// Whole words
+		while (remaining >= 64) {
+			long word = 0;
+			for (int b = 0; b < 64; b++) {
+				final int v = src[s + b];
+				// NB: (v | -v) is negative exactly when v is nonzero.
+				word |= (long) ((v | -v) >>> 31) << b;
+			}
+			dest[(int) (d >>> 6)] = word;
+			s += 64;
+			d += 64;
+			remaining -= 64;
+		}
+
+		// Trailing bits
+		while (remaining > 0) {
+			setBit(dest, d++, src[s++] != 0);
+			remaining--;
+		}
+	}
+
+	/**
+	 * Sets {@code length} pixels of {@code dest}, starting at
+	 * {@code destOffset}, to {@code value} where the corresponding bit of
+	 * {@code src} is set, and to 0 elsewhere.
+	 */
+	static void unpack(final long[] src, final long srcBit, final byte[] dest,
+		final int destOffset, final int length, final byte value)
+	{
+		long s = srcBit;
+		int d = destOffset;
+		int remaining = length;
+
+		// Leading bits, up to the next word boundary
+		while (remaining > 0 && (s & 63) != 0) {
+			dest[d++] = getBit(src, s++) ? value : 0;
+			remaining--;
+		}
+
+		// Whole words, filling empty and full words at once
+		while (remaining >= 64) {
+			final long word = src[(int) (s >>> 6)];
+			if (word == 0) Arrays.fill(dest, d, d + 64, (byte) 0);
+			else if (word == -1) Arrays.fill(dest, d, d + 64, value);
+			else {
+				for (int b = 0; b < 64; b++)
+					dest[d + b] = (byte) (-(int) ((word >>> b) & 1) & value);
+			}
+			s += 64;
+			d += 64;
+			remaining -= 64;
+		}
+
+		// Trailing bits
+		while (remaining > 0) {
+			dest[d++] = getBit(src, s++) ? value : 0;
+			remaining--;
+		}
+	}
+
+	/**
+	 * Packs a {@code width} by {@code height} region of {@code src}, whose rows
+	 * are {@code stride} pixels apart, into the bits of {@code dest}, row by
+	 * row with no padding between rows.
+	 */
+	static void pack(final byte[] src, final int srcOffset, final int stride,
+		final long[] dest, final int width, final int height)
+	{
+		if (stride == width) {
+			pack(src, srcOffset, dest, 0, width * height);
+			return;
+		}
+		for (int y = 0; y < height; y++)
+			pack(src, srcOffset + y * stride, dest, (long) y * width, width);
+	}
+
+	/**
+	 * Unpacks the bits of a {@code width} by {@code height} mask, stored row by
+	 * row with no padding, into a region of {@code dest} whose rows are
+	 * {@code stride} pixels apart.
+	 */
+	static void unpack(final long[] src, final byte[] dest, final int destOffset,
+		final int stride, final int width, final int height, final byte value)
+	{
+		if (stride == width) {
+			unpack(src, 0, dest, destOffset, width * height, value);
+			return;
+		}
+		for (int y = 0; y < height; y++)
+			unpack(src, (long) y * width, dest, destOffset + y * stride, width,
+				value);
+	}
+
+	// -- Helper methods --
+
+	private static boolean getBit(final long[] bits, final long index) {
+		return (bits[(int) (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	private static void setBit(final long[] bits, final long index,
+		final boolean value)
+	{
+		final int word = (int) (index >>> 6);
+		if (value) bits[word] |= 1L << index;
+		else bits[word] &= ~(1L << index);
+	}
+
+}
@@ -33,9 +33,11 @@ package net.imagej.legacy.translate;
 
 import ij.ImagePlus;
 import ij.ImageStack;
+import ij.gui.Roi;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import net.imagej.Dataset;
 import net.imagej.ImgPlus;
@@ -79,7 +81,9 @@ public class Harmonizer extends AbstractContextual {
 	{
 		setContext(context);
 		imageTranslator = trans;
-		bitDepthMap = new HashMap<>();
+		// NB: A harmonizer lives as long as its image map, so do not keep the
+		// ImagePluses it saw alive.
+		bitDepthMap = new WeakHashMap<>();
 		colorTableHarmonizer = new ColorTableHarmonizer(imageDisplayService);
 		metadataHarmonizer = new MetadataHarmonizer();
 		compositeHarmonizer = new CompositeHarmonizer();
@@ -168,6 +172,33 @@ public class Harmonizer extends AbstractContextual {
 		bitDepthMap.put(imp, imp.getBitDepth());
 	}
 
+	/**
+	 * Returns the legacy {@link Roi}s of the given display which contain the
+	 * given position, as of its last harmonization.
+	 *
+	 * @see OverlayHarmonizer#getRoisAt(ImageDisplay, int, int)
+	 */
+	public List<Roi> getRoisAt(final ImageDisplay display, final int x,
+		final int y)
+	{
+		return overlayHarmonizer.getRoisAt(display, x, y);
+	}
+
+	/**
+	 * Returns the legacy {@link Roi}s of the given display whose bounds
+	 * intersect the given rectangle, as of its last harmonization.
+	 *
+	 * @see OverlayHarmonizer#getRoisIntersecting(ImageDisplay, double, double,
+	 *      double, double)
+	 */
+	public List<Roi> getRoisIntersecting(final ImageDisplay display,
+		final double minX, final double minY, final double maxX,
+		final double maxY)
+	{
+		return overlayHarmonizer.getRoisIntersecting(display, minX, minY, maxX,
+			maxY);
+	}
+
 	// -- private interface --
 
 	/**
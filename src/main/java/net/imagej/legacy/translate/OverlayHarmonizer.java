@@ -47,12 +47,21 @@ import ij.process.ImageProcessor;
 import java.awt.Color;
 import java.awt.Rectangle;
 import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
 import java.awt.geom.Rectangle2D.Double;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 
+import net.imagej.display.DataView;
 import net.imagej.display.ImageDisplay;
 import net.imagej.display.OverlayService;
+import net.imagej.legacy.convert.roi.BoundsIndex;
 import net.imagej.overlay.AngleOverlay;
 import net.imagej.overlay.BinaryMaskOverlay;
 import net.imagej.overlay.EllipseOverlay;
@@ -66,7 +75,6 @@ import net.imagej.overlay.TextOverlay;
 import net.imagej.overlay.TextOverlay.Justification;
 import net.imagej.overlay.ThresholdOverlay;
 import net.imagej.threshold.ThresholdService;
-import net.imglib2.RandomAccess;
 import net.imglib2.RealLocalizable;
 import net.imglib2.RealPoint;
 import net.imglib2.RealRandomAccess;
@@ -111,6 +119,28 @@ public class OverlayHarmonizer extends AbstractContextual implements
 	@Parameter
 	private LogService log;
 
+	/** Per display, the links between its overlays and the legacy ROIs. */
+	private final Map<ImageDisplay, RoiOverlayLinks> links = Collections
+		.synchronizedMap(new WeakHashMap<>());
+
+	/** Per display, both sides of its threshold as of the last synchronization. */
+	private final Map<ImageDisplay, ThresholdState> thresholds = Collections
+		.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Per display, a spatial index over the bounds of the legacy ROIs as of the
+	 * last synchronization.
+	 */
+	private final Map<ImageDisplay, BoundsIndex<Roi>> indexes = Collections
+		.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * For the binary masks created by this harmonizer, which are translated
+	 * views, the bit storage behind each view and its offset.
+	 */
+	private final Map<Img<?>, MaskStorage> maskStorage = Collections
+		.synchronizedMap(new WeakHashMap<>());
+
 	public OverlayHarmonizer(final Context context) {
 		setContext(context);
 	}
@@ -119,13 +149,24 @@ public class OverlayHarmonizer extends AbstractContextual implements
 	 * Updates the given {@link ImageDisplay} to contain {@link Overlay}s
 	 * corresponding to all the given {@link ImagePlus}'s Rois (both the active
 	 * Roi and the Rois stored in ImageJ 1.x's current Overlay).
+	 * <p>
+	 * Overlays of Rois which did not change since the last harmonization of the
+	 * display are kept; only added or changed Rois are converted, and the
+	 * overlays of removed or changed Rois are removed in one display update.
+	 * The overlays of a changed Roi take the place of its previous overlays.
+	 * </p>
 	 */
 	@Override
 	public void updateDisplay(final ImageDisplay display, final ImagePlus imp) {
-		final List<Overlay> overlaysToRemove = overlayService.getOverlays(display);
-		for (final Overlay overlay : overlaysToRemove) {
-			overlayService.removeOverlay(display, overlay);
-		}
+		final RoiOverlayLinks oldLinks = links(display);
+		final RoiOverlayLinks newLinks = new RoiOverlayLinks();
+		final List<Overlay> existing = overlayService.getOverlays(display);
+		final Set<Overlay> present = identitySet(existing);
+		final Set<Overlay> kept = identitySet(Collections.emptyList());
+		final List<Overlay> added = new ArrayList<>();
+		final Map<RoiOverlayLinks.Link, List<Overlay>> changed =
+			new IdentityHashMap<>();
+		final List<Roi> rois = getRois(imp);
 		/*
 		if (fullySelected(display, imp)) {
 			for (DataView view : display)
@@ -133,9 +174,31 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		}
 		else {
 		*/
-		final List<Overlay> overlays = getOverlays(imp);
-		overlayService.addOverlays(display, overlays);
+		for (final Roi roi : rois) {
+			// NB: A Roi listed twice is converted twice, as it used to be.
+			final RoiOverlayLinks.Link link = newLinks.contains(roi) ? null
+				: oldLinks.get(roi);
+			if (link != null && present.containsAll(link.overlays)) {
+				kept.addAll(link.overlays);
+				newLinks.add(link);
+				continue;
+			}
+			final RoiOverlayLinks.Link previous = newLinks.contains(roi) ? null
+				: oldLinks.linked(roi);
+			final ArrayList<Overlay> overlays = new ArrayList<>();
+			createOverlays(roi, overlays);
+			added.addAll(overlays);
+			newLinks.link(roi, overlays);
+			if (previous != null) changed.put(previous, overlays);
+		}
+		final Set<Overlay> removed = identitySet(Collections.emptyList());
+		for (final Overlay overlay : existing) {
+			if (!kept.contains(overlay)) removed.add(overlay);
+		}
+		replaceOverlays(display, removed, replacements(changed, removed), added);
 		// }
+		links.put(display, newLinks);
+		updateIndex(display, rois);
 		setModernThreshold(display, imp);
 	}
 
@@ -148,7 +211,15 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		updateLegacyImage(final ImageDisplay display, final ImagePlus imp)
 	{
 		final List<Overlay> overlays = overlayService.getOverlays(display);
-		setOverlays(overlays, overlayService.getActiveOverlay(display), imp);
+		final Overlay activeOverlay = overlayService.getActiveOverlay(display);
+		final RoiOverlayLinks newLinks = new RoiOverlayLinks();
+		final Roi roi = createRoi(activeOverlay);
+		final ij.gui.Overlay o = createIJ1Overlay(overlays, activeOverlay, links(
+			display), newLinks);
+		imp.setRoi(roi);
+		imp.setOverlay(o);
+		links.put(display, newLinks);
+		updateIndex(display, getRois(imp));
 		setLegacyThreshold(display, imp);
 	}
 
@@ -184,7 +255,8 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		final ImagePlus imp)
 	{
 		final Roi roi = createRoi(activeOverlay);
-		final ij.gui.Overlay o = createIJ1Overlay(overlays, activeOverlay);
+		final ij.gui.Overlay o = createIJ1Overlay(overlays, activeOverlay,
+			new RoiOverlayLinks(), new RoiOverlayLinks());
 		imp.setRoi(roi);
 		imp.setOverlay(o);
 		/*
@@ -209,27 +281,220 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		// Overlay of any ImagePlus. Haven't yet thought this through.
 	}
 
+	/**
+	 * Returns the legacy {@link Roi}s of the given display which contain the
+	 * given position, as of the last synchronization of the display.
+	 * <p>
+	 * Candidates are found through a spatial index over the bounds of the Rois,
+	 * which is updated incrementally on each synchronization, and confirmed with
+	 * {@link Roi#contains(int, int)}. The Rois are in no particular order.
+	 * </p>
+	 */
+	public List<Roi> getRoisAt(final ImageDisplay display, final int x,
+		final int y)
+	{
+		final List<Roi> hits = new ArrayList<>();
+		final BoundsIndex<Roi> index = indexes.get(display);
+		if (index == null) return hits;
+		for (final Roi roi : index.candidates(x, y)) {
+			if (roi.contains(x, y)) hits.add(roi);
+		}
+		return hits;
+	}
+
+	/**
+	 * Returns the legacy {@link Roi}s of the given display whose bounds
+	 * intersect the given rectangle, bounds inclusive, as of the last
+	 * synchronization of the display. The Rois are in no particular order.
+	 */
+	public List<Roi> getRoisIntersecting(final ImageDisplay display,
+		final double minX, final double minY, final double maxX,
+		final double maxY)
+	{
+		final BoundsIndex<Roi> index = indexes.get(display);
+		if (index == null) return new ArrayList<>();
+		final List<Roi> hits = index.candidates(minX, minY, maxX, maxY);
+		// NB: The index pads the bounds, so check the exact bounds.
+		hits.removeIf(roi -> !intersects(roi, minX, minY, maxX, maxY));
+		return hits;
+	}
+
+	// -- Helper methods - synchronization --
+
+	private RoiOverlayLinks links(final ImageDisplay display) {
+		final RoiOverlayLinks displayLinks = links.get(display);
+		return displayLinks == null ? new RoiOverlayLinks() : displayLinks;
+	}
+
+	/** Returns the active Roi followed by the Rois of the legacy overlay. */
+	private List<Roi> getRois(final ImagePlus imp) {
+		final List<Roi> rois = new ArrayList<>();
+		if (imp.getRoi() != null) rois.add(imp.getRoi());
+		final ij.gui.Overlay overlay = imp.getOverlay();
+		if (overlay != null) {
+			for (int i = 0; i < overlay.size(); i++) {
+				if (overlay.get(i) != null) rois.add(overlay.get(i));
+			}
+		}
+		return rois;
+	}
+
+	/**
+	 * Maps the first removed overlay of each changed link to the overlays
+	 * converted from its Roi anew, which are to take its place.
+	 */
+	private static Map<Overlay, List<Overlay>> replacements(
+		final Map<RoiOverlayLinks.Link, List<Overlay>> changed,
+		final Set<Overlay> removed)
+	{
+		final Map<Overlay, List<Overlay>> replacements = new IdentityHashMap<>();
+		for (final Map.Entry<RoiOverlayLinks.Link, List<Overlay>> entry : changed
+			.entrySet())
+		{
+			for (final Overlay overlay : entry.getKey().overlays) {
+				if (removed.contains(overlay) && !replacements.containsKey(overlay)) {
+					replacements.put(overlay, entry.getValue());
+					break;
+				}
+			}
+		}
+		return replacements;
+	}
+
+	/**
+	 * Removes the given overlays from the display and adds the new ones, with a
+	 * single update rather than one per overlay. Overlays which replace a
+	 * removed overlay are put in its place, so that the order of the display
+	 * keeps following the legacy overlay; the other new overlays are appended.
+	 * The views of the removed overlays are disposed, as by
+	 * {@link OverlayService#removeOverlay(ImageDisplay, Overlay)}.
+	 */
+	private void replaceOverlays(final ImageDisplay display,
+		final Set<Overlay> removed, final Map<Overlay, List<Overlay>> replacements,
+		final List<Overlay> added)
+	{
+		if (removed.isEmpty() && added.isEmpty()) return;
+		final int oldSize = display.size();
+		if (!added.isEmpty()) overlayService.addOverlays(display, added);
+		final Map<Object, DataView> addedViews = new IdentityHashMap<>();
+		for (int i = oldSize; i < display.size(); i++)
+			addedViews.put(display.get(i).getData(), display.get(i));
+
+		final List<DataView> order = new ArrayList<>(display.size());
+		final List<DataView> disposed = new ArrayList<>();
+		for (int i = 0; i < oldSize; i++) {
+			final DataView view = display.get(i);
+			if (!removed.contains(view.getData())) {
+				order.add(view);
+				continue;
+			}
+			disposed.add(view);
+			final List<Overlay> replacement = replacements.get(view.getData());
+			if (replacement == null) continue;
+			for (final Overlay overlay : replacement) {
+				final DataView addedView = addedViews.remove(overlay);
+				if (addedView != null) order.add(addedView);
+			}
+		}
+		for (int i = oldSize; i < display.size(); i++) {
+			if (addedViews.remove(display.get(i).getData()) != null) order.add(
+				display.get(i));
+		}
+
+		for (int i = 0; i < order.size(); i++) {
+			if (display.get(i) != order.get(i)) display.set(i, order.get(i));
+		}
+		for (int i = display.size() - 1; i >= order.size(); i--)
+			display.remove(i);
+		for (final DataView view : disposed)
+			view.dispose();
+		display.update();
+	}
+
+	/**
+	 * Updates the spatial index of the display to the given Rois, moving only
+	 * the Rois whose bounds changed.
+	 */
+	private void updateIndex(final ImageDisplay display, final List<Roi> rois) {
+		final BoundsIndex<Roi> index = indexes.computeIfAbsent(display,
+			d -> new BoundsIndex<>());
+		final Set<Roi> current = Collections.newSetFromMap(
+			new IdentityHashMap<>());
+		for (final Roi roi : rois) {
+			current.add(roi);
+			final Rectangle2D bounds = roi.getFloatBounds();
+			// NB: Wide lines may contain positions just outside of their bounds.
+			final double pad = 1 + (roi.isLine() ? roi.getStrokeWidth() / 2 : 0);
+			index.put(roi, bounds.getMinX() - pad, bounds.getMinY() - pad, bounds
+				.getMaxX() + pad, bounds.getMaxY() + pad);
+		}
+		index.retainAll(current);
+	}
+
+	private static boolean intersects(final Roi roi, final double minX,
+		final double minY, final double maxX, final double maxY)
+	{
+		final Rectangle2D bounds = roi.getFloatBounds();
+		return bounds.getMinX() <= maxX && bounds.getMaxX() >= minX && bounds
+			.getMinY() <= maxY && bounds.getMaxY() >= minY;
+	}
+
+	private static Set<Overlay> identitySet(final List<Overlay> overlays) {
+		final Set<Overlay> set = Collections.newSetFromMap(
+			new IdentityHashMap<>());
+		set.addAll(overlays);
+		return set;
+	}
+
 	// -- Helper methods - legacy Roi creation --
 
-	private void setModernThreshold(ImageDisplay display, ImagePlus imp) {
-		ImageProcessor proc = imp.getProcessor();
-		double threshMin = proc.getMinThreshold();
-		double threshMax = proc.getMaxThreshold();
+	/**
+	 * Updates the {@link ThresholdOverlay} of the display to match the threshold
+	 * of the {@link ImagePlus}. Nothing is done if neither side changed since
+	 * the last synchronization, and an existing overlay is updated in place.
+	 */
+	private void setModernThreshold(final ImageDisplay display,
+		final ImagePlus imp)
+	{
+		final ImageProcessor proc = imp.getProcessor();
+		final ThresholdOverlay current = currentThreshold(display);
+		final ThresholdState last = thresholds.get(display);
+		if (last != null && last.matches(proc, current)) return;
+
+		final double threshMin = proc.getMinThreshold();
+		final double threshMax = proc.getMaxThreshold();
+		ThresholdOverlay thresh = current;
 		if (threshMin == ImageProcessor.NO_THRESHOLD) {
-			if (thresholdService.hasThreshold(display)) {
+			if (thresh != null) {
 				thresholdService.removeThreshold(display);
+				thresh = null;
 			}
 		}
 		else { // an IJ1 thresh exists
-			ThresholdOverlay thresh = thresholdService.getThreshold(display);
-			thresh.setRange(threshMin, threshMax);
+			if (thresh == null) thresh = thresholdService.getThreshold(display);
+			if (thresh.getRangeMin() != threshMin || thresh
+				.getRangeMax() != threshMax)
+			{
+				thresh.setRange(threshMin, threshMax);
+			}
 		}
+		thresholds.put(display, new ThresholdState(proc, thresh));
 	}
 
-	private void setLegacyThreshold(ImageDisplay display, ImagePlus imp) {
-		ImageProcessor proc = imp.getProcessor();
-		if (thresholdService.hasThreshold(display)) {
-			ThresholdOverlay thresh = thresholdService.getThreshold(display);
+	/**
+	 * Updates the threshold of the {@link ImagePlus} to match the
+	 * {@link ThresholdOverlay} of the display. Nothing is done if neither side
+	 * changed since the last synchronization.
+	 */
+	private void setLegacyThreshold(final ImageDisplay display,
+		final ImagePlus imp)
+	{
+		final ImageProcessor proc = imp.getProcessor();
+		final ThresholdOverlay thresh = currentThreshold(display);
+		final ThresholdState last = thresholds.get(display);
+		if (last != null && last.matches(proc, thresh)) return;
+
+		if (thresh != null) {
 			double min = thresh.getRangeMin();
 			double max = thresh.getRangeMax();
 			proc.setThreshold(min, max, ImageProcessor.NO_LUT_UPDATE);
@@ -237,16 +502,40 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		else {
 			proc.resetThreshold();
 		}
+		thresholds.put(display, new ThresholdState(proc, thresh));
+	}
+
+	/** Returns the threshold of the display, without creating one. */
+	private ThresholdOverlay currentThreshold(final ImageDisplay display) {
+		return thresholdService.hasThreshold(display) ? thresholdService
+			.getThreshold(display) : null;
 	}
 
+	/**
+	 * Creates the legacy overlay of the given {@link Overlay}s, reusing the
+	 * linked Rois of overlays which did not change.
+	 */
 	private ij.gui.Overlay createIJ1Overlay(final List<Overlay> overlays,
-		Overlay activeOverlay)
+		Overlay activeOverlay, final RoiOverlayLinks oldLinks,
+		final RoiOverlayLinks newLinks)
 	{
 		List<Roi> rois = new ArrayList<>();
 		for (Overlay o : overlays) {
 			if (o != activeOverlay) {
+				final RoiOverlayLinks.Link link = newLinks.contains(o) ? null
+					: oldLinks.get(o);
+				if (link != null && link.overlays.size() == 1 && !newLinks.contains(
+					link.roi))
+				{
+					rois.add(link.roi);
+					newLinks.add(link);
+					continue;
+				}
 				Roi roi = createRoi(o);
-				if (roi != null) rois.add(roi);
+				if (roi != null) {
+					rois.add(roi);
+					newLinks.link(roi, Collections.singletonList(o));
+				}
 			}
 		}
 		if (rois.size() == 0) return null;
@@ -478,15 +767,23 @@ public class OverlayHarmonizer extends AbstractContextual implements
 
 		// set things so that true is between 1 and 3 and false is below 1
 		ip.setThreshold(1, 3, ImageProcessor.NO_LUT_UPDATE);
-		final RealRandomAccess<BitType> ra = region.realRandomAccess();
+		final byte[] pixels = (byte[]) ip.getPixels();
+		final long[] bits = getMaskBits(region, x, y, width, height);
+		if (bits != null) {
+			BitMasks.unpack(bits, pixels, 0, width, width, height, (byte) 2);
+		}
+		else {
+			final RealRandomAccess<BitType> ra = region.realRandomAccess();
 
-		// this picks a plane at the minimum Z, T, etc within the Roi
-		ra.setPosition(min);
-		for (int i = 0; i < width; i++) {
-			ra.setPosition(i + x, 0);
+			// this picks a plane at the minimum Z, T, etc within the Roi
+			ra.setPosition(min);
+			// NB: Row by row, in the order of the pixels.
 			for (int j = 0; j < height; j++) {
 				ra.setPosition(j + y, 1);
-				ip.set(i, j, ra.get().get() ? 2 : 0);
+				for (int i = 0; i < width; i++) {
+					ra.setPosition(i + x, 0);
+					pixels[j * width + i] = (byte) (ra.get().get() ? 2 : 0);
+				}
 			}
 		}
 		final ThresholdToSelection plugin = new ThresholdToSelection();
@@ -498,6 +795,34 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		return roi;
 	}
 
+	/**
+	 * Returns the bits of the given region if it is a binary mask whose
+	 * {@code long[]} storage covers exactly the given rectangle, or null if the
+	 * mask must be read pixel by pixel. Besides plain {@link ArrayImg}s at the
+	 * origin, this covers the translated masks created by this harmonizer.
+	 */
+	private long[] getMaskBits(final RegionOfInterest region, final int x,
+		final int y, final int width, final int height)
+	{
+		if (!(region instanceof BinaryMaskRegionOfInterest)) return null;
+		final Object img = ((BinaryMaskRegionOfInterest<?, ?>) region).getImg();
+		final MaskStorage storage = maskStorage.get(img);
+		final ArrayImg<?, ?> arrayImg;
+		if (storage != null) {
+			if (x != storage.x || y != storage.y) return null;
+			arrayImg = storage.img;
+		}
+		else {
+			if (x != 0 || y != 0 || !(img instanceof ArrayImg)) return null;
+			arrayImg = (ArrayImg<?, ?>) img;
+		}
+		if (arrayImg.numDimensions() != 2 || arrayImg.dimension(0) != width ||
+			arrayImg.dimension(1) != height) return null;
+		final Object storage = arrayImg.update(null);
+		return storage instanceof LongArray ? ((LongArray) storage)
+			.getCurrentStorageArray() : null;
+	}
+
 	private void assignPropertiesToRoi(final Roi roi, final Overlay overlay) {
 		roi.setName(overlay.getName());
 		roi.setStrokeWidth((float) overlay.getLineWidth());
@@ -727,8 +1052,13 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		return overlay;
 	}
 
-	@SuppressWarnings("unused")
-	private Overlay createDefaultOverlay(final Roi roi)
+	/**
+	 * Creates a binary mask overlay from the mask of the given {@link Roi}. The
+	 * mask is a view of a bit {@link ArrayImg} translated to the bounds of the
+	 * Roi, whose storage is remembered so converting it back reads the bits
+	 * directly.
+	 */
+	Overlay createDefaultOverlay(final Roi roi)
 	{
 		final Rectangle bounds = roi.getBounds();
 		final ArrayImg<BitType, LongArray> arrayImg =
@@ -739,15 +1069,10 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		final Img<BitType> img =
 			new ImgView<BitType>(Views.translate(arrayImg, xOff, yOff), arrayImg
 				.factory());
-		final RandomAccess<BitType> ra = img.randomAccess();
 		final ImageProcessor ip = roi.getMask();
-		for (int i = xOff; i < xOff + bounds.width; i++) {
-			ra.setPosition(i, 0);
-			for (int j = yOff; j < yOff + bounds.height; j++) {
-				ra.setPosition(j, 1);
-				ra.get().set(ip.get(i - xOff, j - yOff) > 0);
-			}
-		}
+		BitMasks.pack((byte[]) ip.getPixels(), 0, ip.getWidth(), arrayImg.update(
+			null).getCurrentStorageArray(), bounds.width, bounds.height);
+		maskStorage.put(img, new MaskStorage(arrayImg, xOff, yOff));
 		final BinaryMaskRegionOfInterest<BitType, Img<BitType>> broi =
 			new BinaryMaskRegionOfInterest<BitType, Img<BitType>>(img);
 		final Overlay overlay =
@@ -797,4 +1122,70 @@ public class OverlayHarmonizer extends AbstractContextual implements
 		}
 	}
 
+	// -- Helper classes --
+
+	/**
+	 * The threshold of an {@link ImageProcessor}, i.e. its range and LUT update
+	 * mode, and the range of the {@link ThresholdOverlay} it was synchronized
+	 * with.
+	 */
+	private static final class ThresholdState {
+
+		private final double min;
+		private final double max;
+		private final int lutUpdate;
+
+		/**
+		 * NB: The overlay is referenced weakly since it references its display,
+		 * which is a weak key of the map holding this state.
+		 */
+		private final WeakReference<ThresholdOverlay> overlay;
+		private final double rangeMin;
+		private final double rangeMax;
+
+		private ThresholdState(final ImageProcessor proc,
+			final ThresholdOverlay thresh)
+		{
+			min = proc.getMinThreshold();
+			max = proc.getMaxThreshold();
+			lutUpdate = proc.getLutUpdate();
+			overlay = thresh == null ? null : new WeakReference<>(thresh);
+			rangeMin = thresh == null ? 0 : thresh.getRangeMin();
+			rangeMax = thresh == null ? 0 : thresh.getRangeMax();
+		}
+
+		/**
+		 * Returns true if neither the processor nor the overlay changed since
+		 * this state was recorded.
+		 */
+		private boolean matches(final ImageProcessor proc,
+			final ThresholdOverlay thresh)
+		{
+			if (proc.getMinThreshold() != min || proc.getMaxThreshold() != max ||
+				proc.getLutUpdate() != lutUpdate)
+			{
+				return false;
+			}
+			if (thresh == null) return overlay == null;
+			return overlay != null && overlay.get() == thresh && thresh
+				.getRangeMin() == rangeMin && thresh.getRangeMax() == rangeMax;
+		}
+	}
+
+	/** The bit storage behind a translated binary mask, and its offset. */
+	private static final class MaskStorage {
+
+		private final ArrayImg<?, ?> img;
+		private final long x;
+		private final long y;
+
+		private MaskStorage(final ArrayImg<?, ?> img, final long x,
+			final long y)
+		{
+			this.img = img;
+			this.x = x;
+			this.y = y;
+		}
+	}
+
 }
@@ -35,7 +35,9 @@ import ij.IJ;
 import ij.plugin.filter.Analyzer;
 import ij.text.TextWindow;
 
+import net.imagej.legacy.convert.ResultsTables;
 import net.imagej.table.DefaultResultsTable;
+import net.imagej.table.DoubleColumn;
 import net.imagej.table.ResultsTable;
 import net.imagej.table.Table;
 import net.imagej.table.TableDisplay;
@@ -61,12 +63,6 @@ public class ResultsTableHarmonizer {
 
 	// -- ResultsTableHarmonizer methods --
 
-
-	// NB - since modern ImageJ currently supports null (empty) column names we
-	// need to set headings by col which is deprecated in IJ1.
-
-	@SuppressWarnings("deprecation")
-
 	public void setLegacyImageJResultsTable() {
 		TableDisplay display = displayService.getActiveDisplay(TableDisplay.class);
 		ResultsTable table = getFirstResultsTable(display);
@@ -75,38 +71,7 @@ public class ResultsTableHarmonizer {
 			return;
 		}
 		ij.measure.ResultsTable ij1Table = new ij.measure.ResultsTable();
-		ij1Table.setDefaultHeadings();
-		for (int c = 0; c < table.getColumnCount(); c++) {
-			String header = table.getColumnHeader(c);
-			if (header == null) {
-				// TODO - can't help but to use deprecated API
-				ij1Table.setHeading(c, null);
-			}
-			else { // modern ij col header != null
-				int colIndex = ij1Table.getColumnIndex(header);
-				if (colIndex < 0) {
-					int newCol = ij1Table.getFreeColumn(header);
-					// TODO - can't help but to use deprecated API
-					ij1Table.setHeading(newCol, header);
-				}
-				else {
-					ij1Table.setHeading(colIndex, header);
-				}
-			}
-		}
-		for (int r = 0; r < table.getRowCount(); r++) {
-			ij1Table.incrementCounter();
-			ij1Table.setLabel(table.getRowHeader(r), r);
-			for (int c = 0; c < table.getColumnCount(); c++) {
-				String header = table.getColumnHeader(c);
-				int ij1ColIndex = c;
-				if (header != null) {
-					ij1ColIndex = ij1Table.getColumnIndex(header);
-				}
-				double value = table.get(c, r);
-				ij1Table.setValue(ij1ColIndex, r, value);
-			}
-		}
+		copyToLegacy(table, ij1Table);
 		IJ.getTextPanel(); // HACK - force IJ1 to append data
 		Analyzer.setResultsTable(ij1Table);
 	}
@@ -138,22 +103,7 @@ public class ResultsTableHarmonizer {
 		}
 
 		// rebuild table
-		table.clear();
-		table.setRowCount(0);
-		for (int c = 0; c <= ij1Table.getLastColumn(); c++) {
-			if (ij1Table.columnExists(c)) {
-				table.appendColumn(ij1Table.getColumnHeading(c));
-			}
-		}
-		for (int r = 0; r < ij1Table.getCounter(); r++) {
-			table.appendRow(ij1Table.getLabel(r));
-			for (int modIjCol = 0, c = 0; c <= ij1Table.getLastColumn(); c++) {
-				if (ij1Table.columnExists(c)) {
-					double value = ij1Table.getValueAsDouble(c, r);
-					table.setValue(modIjCol++, r, value);
-				}
-			}
-		}
+		copyToModern(ij1Table, table);
 
 		// close IJ1's table
 		TextWindow window = ij.measure.ResultsTable.getResultsWindow();
@@ -168,7 +118,89 @@ public class ResultsTableHarmonizer {
 		}
 	}
 
-	// -- private helpers --
+	// -- Helper methods --
+
+	/**
+	 * Fills the given (empty) legacy ImageJ table with the contents of a modern
+	 * ImageJ table. The legacy column of each modern column is resolved once,
+	 * after which each column's values are copied in bulk.
+	 */
+	// NB - since modern ImageJ currently supports null (empty) column names we
+	// need to set headings by col which is deprecated in IJ1.
+	@SuppressWarnings("deprecation")
+	static void copyToLegacy(ResultsTable table, ij.measure.ResultsTable ij1Table)
+	{
+		ij1Table.setDefaultHeadings();
+		int columnCount = table.getColumnCount();
+		int rowCount = table.getRowCount();
+		for (int c = 0; c < columnCount; c++) {
+			String header = table.getColumnHeader(c);
+			if (header == null) {
+				// TODO - can't help but to use deprecated API
+				ij1Table.setHeading(c, null);
+			}
+			else { // modern ij col header != null
+				int colIndex = ij1Table.getColumnIndex(header);
+				if (colIndex < 0) {
+					int newCol = ij1Table.getFreeColumn(header);
+					// TODO - can't help but to use deprecated API
+					ij1Table.setHeading(newCol, header);
+				}
+				else {
+					ij1Table.setHeading(colIndex, header);
+				}
+			}
+		}
+		int[] ij1Columns = new int[columnCount];
+		for (int c = 0; c < columnCount; c++) {
+			String header = table.getColumnHeader(c);
+			ij1Columns[c] = header == null ? c : ij1Table.getColumnIndex(header);
+		}
+
+		// NB: Allocate all the rows up front, then fill each column in turn.
+		for (int r = 0; r < rowCount; r++) {
+			ij1Table.incrementCounter();
+		}
+		for (int r = 0; r < rowCount; r++) {
+			ij1Table.setLabel(table.getRowHeader(r), r);
+		}
+		for (int c = 0; c < columnCount; c++) {
+			ResultsTables.setColumn(ij1Table, ij1Columns[c], table.get(c).getArray(),
+				rowCount);
+		}
+	}
+
+	/**
+	 * Replaces the contents of the given modern ImageJ table with those of a
+	 * legacy ImageJ table. Each column is transferred as a whole
+	 * {@code double[]}; as before, String cells become NaN.
+	 */
+	static void copyToModern(ij.measure.ResultsTable ij1Table, ResultsTable table)
+	{
+		table.clear();
+		table.setRowCount(0);
+		int lastColumn = ij1Table.getLastColumn();
+		for (int c = 0; c <= lastColumn; c++) {
+			if (ij1Table.columnExists(c)) {
+				table.appendColumn(ij1Table.getColumnHeading(c));
+			}
+		}
+		int rowCount = ij1Table.getCounter();
+		table.setRowCount(rowCount);
+		for (int r = 0; r < rowCount; r++) {
+			String label = ij1Table.getLabel(r);
+			if (label != null) table.setRowHeader(r, label);
+		}
+		for (int modIjCol = 0, c = 0; c <= lastColumn; c++) {
+			if (ij1Table.columnExists(c)) {
+				// NB: getColumnAsDoubles returns a new array of exactly rowCount
+				// values, which the column can adopt without copying it again.
+				DoubleColumn column = table.get(modIjCol++);
+				column.setArray(ij1Table.getColumnAsDoubles(c));
+				column.setSize(rowCount);
+			}
+		}
+	}
 
 	private ResultsTable getFirstResultsTable(TableDisplay display) {
 		if (display == null) return null;
@@ -0,0 +1,287 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.gui.Line;
+import ij.gui.Roi;
+import ij.gui.ShapeRoi;
+import ij.gui.TextRoi;
+import ij.process.FloatPolygon;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.imagej.overlay.AngleOverlay;
+import net.imagej.overlay.BinaryMaskOverlay;
+import net.imagej.overlay.GeneralPathOverlay;
+import net.imagej.overlay.LineOverlay;
+import net.imagej.overlay.Overlay;
+import net.imagej.overlay.PointOverlay;
+import net.imagej.overlay.PolygonOverlay;
+import net.imagej.overlay.TextOverlay;
+import net.imglib2.RealLocalizable;
+import net.imglib2.roi.PolygonRegionOfInterest;
+import net.imglib2.roi.RegionOfInterest;
+
+import org.scijava.util.ColorRGB;
+
+/**
+ * The {@link Roi}s of one display linked by identity to the {@link Overlay}s
+ * they were converted to or from, with fingerprints of both sides as of the
+ * conversion. {@link OverlayHarmonizer} reuses the conversions of links whose
+ * {@link Roi} and {@link Overlay}s did not change since.
+ * <p>
+ * Fingerprints hash the type, geometry, name, stroke and fill of each side.
+ * {@link BinaryMaskOverlay}s cannot be fingerprinted cheaply, so links to them
+ * are never reused.
+ * </p>
+ */
+class RoiOverlayLinks {
+
+	private final Map<Roi, Link> byRoi = new IdentityHashMap<>();
+	private final Map<Overlay, Link> byOverlay = new IdentityHashMap<>();
+
+	/**
+	 * Returns the link of the given {@link Roi}, or null if there is none or
+	 * either side changed since it was linked.
+	 */
+	Link get(final Roi roi) {
+		final Link link = byRoi.get(roi);
+		return link != null && link.isCurrent() ? link : null;
+	}
+
+	/**
+	 * Returns the link of the given {@link Overlay}, or null if there is none or
+	 * either side changed since it was linked.
+	 */
+	Link get(final Overlay overlay) {
+		final Link link = byOverlay.get(overlay);
+		return link != null && link.isCurrent() ? link : null;
+	}
+
+	/** Returns the link of the given {@link Roi}, even if it is not current. */
+	Link linked(final Roi roi) {
+		return byRoi.get(roi);
+	}
+
+	boolean contains(final Roi roi) {
+		return byRoi.containsKey(roi);
+	}
+
+	boolean contains(final Overlay overlay) {
+		return byOverlay.containsKey(overlay);
+	}
+
+	/** Links a {@link Roi} to the {@link Overlay}s converted to or from it. */
+	void link(final Roi roi, final List<Overlay> overlays) {
+		add(new Link(roi, overlays));
+	}
+
+	/** Adds a link which is known to be current. */
+	void add(final Link link) {
+		byRoi.put(link.roi, link);
+		for (final Overlay overlay : link.overlays)
+			byOverlay.put(overlay, link);
+	}
+
+	// -- Helper classes --
+
+	static final class Link {
+
+		final Roi roi;
+		final List<Overlay> overlays;
+		private final long roiPrint;
+		private final long overlayPrint;
+		private final boolean reusable;
+
+		private Link(final Roi roi, final List<Overlay> overlays) {
+			this.roi = roi;
+			this.overlays = overlays;
+			roiPrint = fingerprint(roi);
+			overlayPrint = fingerprint(overlays);
+			reusable = overlays.stream().noneMatch(
+				o -> o instanceof BinaryMaskOverlay);
+		}
+
+		private boolean isCurrent() {
+			return reusable && fingerprint(roi) == roiPrint && fingerprint(
+				overlays) == overlayPrint;
+		}
+	}
+
+	// -- Helper methods --
+
+	static long fingerprint(final Roi roi) {
+		long h = roi.getClass().hashCode();
+		h = mix(h, roi.getType());
+		h = mix(h, Objects.hashCode(roi.getName()));
+		h = mix(h, Float.floatToIntBits(roi.getStrokeWidth()));
+		h = mix(h, Objects.hashCode(roi.getStrokeColor()));
+		h = mix(h, Objects.hashCode(roi.getFillColor()));
+		if (roi instanceof TextRoi) {
+			final TextRoi textRoi = (TextRoi) roi;
+			h = mix(h, Objects.hashCode(textRoi.getText()));
+			h = mix(h, textRoi.getJustification());
+			return mix(h, textRoi.getFloatBounds());
+		}
+		if (roi instanceof Line) {
+			final Line line = (Line) roi;
+			h = mix(h, Double.doubleToLongBits(line.x1d));
+			h = mix(h, Double.doubleToLongBits(line.y1d));
+			h = mix(h, Double.doubleToLongBits(line.x2d));
+			return mix(h, Double.doubleToLongBits(line.y2d));
+		}
+		if (roi instanceof ShapeRoi) {
+			final Rectangle bounds = roi.getBounds();
+			h = mix(h, bounds.x);
+			h = mix(h, bounds.y);
+			return mix(h, ((ShapeRoi) roi).getShape());
+		}
+		if (roi.getType() == Roi.RECTANGLE || roi.getType() == Roi.OVAL) {
+			return mix(h, roi.getFloatBounds());
+		}
+		final FloatPolygon polygon = roi.getFloatPolygon();
+		h = mix(h, polygon.npoints);
+		for (int i = 0; i < polygon.npoints; i++) {
+			h = mix(h, Float.floatToIntBits(polygon.xpoints[i]));
+			h = mix(h, Float.floatToIntBits(polygon.ypoints[i]));
+		}
+		return h;
+	}
+
+	static long fingerprint(final List<Overlay> overlays) {
+		long h = overlays.size();
+		for (final Overlay overlay : overlays)
+			h = mix(h, fingerprint(overlay));
+		return h;
+	}
+
+	static long fingerprint(final Overlay overlay) {
+		long h = overlay.getClass().hashCode();
+		h = mix(h, Objects.hashCode(overlay.getName()));
+		h = mix(h, Double.doubleToLongBits(overlay.getLineWidth()));
+		h = mix(h, argb(overlay.getLineColor()));
+		h = mix(h, argb(overlay.getFillColor()));
+		h = mix(h, overlay.getAlpha());
+		final RegionOfInterest region = overlay.getRegionOfInterest();
+		if (region != null) {
+			for (int d = 0; d < region.numDimensions(); d++) {
+				h = mix(h, Double.doubleToLongBits(region.realMin(d)));
+				h = mix(h, Double.doubleToLongBits(region.realMax(d)));
+			}
+		}
+		if (overlay instanceof PolygonOverlay) {
+			final PolygonRegionOfInterest polygon = ((PolygonOverlay) overlay)
+				.getRegionOfInterest();
+			h = mix(h, polygon.getVertexCount());
+			for (int v = 0; v < polygon.getVertexCount(); v++)
+				h = mix(h, polygon.getVertex(v));
+		}
+		else if (overlay instanceof PointOverlay) {
+			for (final double[] point : ((PointOverlay) overlay).getPoints())
+				h = mix(h, point);
+		}
+		else if (overlay instanceof LineOverlay) {
+			final LineOverlay line = (LineOverlay) overlay;
+			final double[] point = new double[line.numDimensions()];
+			line.getLineStart(point);
+			h = mix(h, point);
+			line.getLineEnd(point);
+			h = mix(h, point);
+		}
+		else if (overlay instanceof AngleOverlay) {
+			final AngleOverlay angle = (AngleOverlay) overlay;
+			final double[] point = new double[angle.numDimensions()];
+			angle.getPoint1(point);
+			h = mix(h, point);
+			angle.getCenter(point);
+			h = mix(h, point);
+			angle.getPoint2(point);
+			h = mix(h, point);
+		}
+		else if (overlay instanceof TextOverlay) {
+			final TextOverlay text = (TextOverlay) overlay;
+			h = mix(h, Objects.hashCode(text.getText()));
+			h = mix(h, text.getJustification().ordinal());
+		}
+		else if (overlay instanceof GeneralPathOverlay) {
+			h = mix(h, ((GeneralPathOverlay) overlay).getRegionOfInterest()
+				.getGeneralPath());
+		}
+		return h;
+	}
+
+	private static long mix(final long h, final long value) {
+		return (Long.rotateLeft(h, 7) ^ value) * 0x9E3779B97F4A7C15L;
+	}
+
+	private static long mix(long h, final double[] values) {
+		for (final double value : values)
+			h = mix(h, Double.doubleToLongBits(value));
+		return h;
+	}
+
+	private static long mix(long h, final RealLocalizable point) {
+		for (int d = 0; d < point.numDimensions(); d++)
+			h = mix(h, Double.doubleToLongBits(point.getDoublePosition(d)));
+		return h;
+	}
+
+	private static long mix(long h, final Rectangle2D bounds) {
+		h = mix(h, Double.doubleToLongBits(bounds.getX()));
+		h = mix(h, Double.doubleToLongBits(bounds.getY()));
+		h = mix(h, Double.doubleToLongBits(bounds.getWidth()));
+		return mix(h, Double.doubleToLongBits(bounds.getHeight()));
+	}
+
+	private static long mix(long h, final Shape shape) {
+		final double[] coords = new double[6];
+		for (final PathIterator iterator = shape.getPathIterator(null); !iterator
+			.isDone(); iterator.next())
+		{
+			final int type = iterator.currentSegment(coords);
+			h = mix(h, type);
+			h = mix(h, coords);
+		}
+		return h;
+	}
+
+	private static long argb(final ColorRGB color) {
+		return color == null ? 0 : color.getARGB();
+	}
+}
@@ -91,14 +91,21 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.OptionsSynchronizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.SwitchToModernMode.class.getName()) ||
 					className.startsWith(net.imagej.legacy.command.LegacyCommand.class.getName()) ||
+					className.startsWith("net.imagej.legacy.convert.ColumnValueIndex") ||
 					className.startsWith(net.imagej.legacy.convert.DatasetToImagePlusConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.DoubleToImagePlusConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ImageDisplayToImagePlusConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ImagePlusToDatasetConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ImagePlusToImageDisplayConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ImageTitleToImagePlusConverter.class.getName()) ||
+					className.startsWith(net.imagej.legacy.convert.OffHeapGenericTable.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.OverlayToROITreeConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ResultsTableColumnWrapper.class.getName()) ||
+					className.startsWith(net.imagej.legacy.convert.RoiConverterCache.class.getName()) ||
+					className.startsWith(net.imagej.legacy.convert.RoiManagerSnapshot.class.getName()) ||
+					className.startsWith(net.imagej.legacy.convert.ResultsTableDoubleColumn.class.getName()) ||
+					className.startsWith(net.imagej.legacy.convert.ResultsTables.class.getName()) ||
+					className.startsWith("net.imagej.legacy.convert.ResultsTableSpliterator") ||
 					className.startsWith(net.imagej.legacy.convert.ResultsTableToGenericTableConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ResultsTableUnwrapper.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ResultsTableWrapper.class.getName()) ||
@@ -117,8 +124,11 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.convert.roi.IJRealRoiWrapper.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.IJRoiWrapper.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.RealMaskRealIntervalToImageRoiConverter.class.getName()) ||
+					className.startsWith("net.imagej.legacy.convert.roi.RoiRaster") ||
 					className.startsWith(net.imagej.legacy.convert.roi.RoiToMaskIntervalConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.RoiUnwrappers.class.getName()) ||
+					className.startsWith(net.imagej.legacy.convert.roi.Rois.class.getName()) ||
+					className.startsWith("net.imagej.legacy.convert.roi.ShapeRaster") ||
 					className.startsWith(net.imagej.legacy.convert.roi.ShapeRoiToMaskRealIntervalConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.ShapeRoiWrapper.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.box.BoxToRoiConverter.class.getName()) ||
@@ -138,6 +148,7 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.convert.roi.line.WritableLineToIJLineConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.point.PointMaskToPointRoiConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.point.PointMaskWrapper.class.getName()) ||
+					className.startsWith("net.imagej.legacy.convert.roi.point.PointRoiIndex") ||
 					className.startsWith(net.imagej.legacy.convert.roi.point.PointRoiToRealPointCollectionConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.point.PointRoiWrapper.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.point.RealPointCollectionToPointRoiConverter.class.getName()) ||
@@ -180,7 +191,8 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.translate.NameHarmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.OverlayHarmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.PositionHarmonizer.class.getName()) ||
-					className.startsWith(net.imagej.legacy.translate.ResultsTableHarmonizer.class.getName()))
+					className.startsWith(net.imagej.legacy.translate.ResultsTableHarmonizer.class.getName()) ||
+					className.startsWith("net.imagej.legacy.translate.RoiOverlayLinks"))
 			{
 				continue;
 			}
@@ -31,10 +31,14 @@
 
 package net.imagej.legacy;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import ij.ImagePlus;
 import ij.gui.NewImage;
+import ij.gui.OvalRoi;
+import ij.gui.Roi;
 
 import net.imagej.Dataset;
 import net.imagej.DatasetService;
@@ -42,7 +46,11 @@ import net.imagej.ImgPlus;
 import net.imagej.axis.Axes;
 import net.imagej.axis.AxisType;
 import net.imagej.axis.DefaultLinearAxis;
+import net.imagej.display.ImageDisplay;
+import net.imagej.legacy.translate.DisplayCreator;
+import net.imagej.overlay.ThresholdOverlay;
 import net.imagej.patcher.LegacyInjector;
+import net.imagej.threshold.ThresholdService;
 import net.imglib2.Cursor;
 import net.imglib2.type.numeric.RealType;
 
@@ -295,4 +303,52 @@ public class LegacyImageMapTest {
 //		Utils.testSame(ds1,imp);
 		assertTrue(true);
 	}
+
+	@Test
+	public void testToggleLegacyModeKeepsHarmonizerState() {
+		synchronized (LegacyService.class) {
+			final Context context = new Context(LegacyService.class);
+			try {
+				final LegacyImageMap map = context.service(LegacyService.class)
+					.getImageMap();
+				final ImagePlus source = NewImage.createByteImage("rois", 20, 20, 1,
+					NewImage.FILL_RAMP);
+				final ij.gui.Overlay overlay = new ij.gui.Overlay();
+				overlay.add(new Roi(2, 2, 5, 5));
+				overlay.add(new OvalRoi(10, 10, 6, 6));
+				source.setOverlay(overlay);
+				final ImageDisplay display = new DisplayCreator(context).createDisplay(
+					source);
+				final ThresholdOverlay thresh = context.service(
+					ThresholdService.class).getThreshold(display);
+				thresh.setRange(10, 20);
+
+				// First switch to legacy mode and back
+				final ImagePlus first = map.registerDisplay(display, false);
+				map.toggleLegacyMode(true);
+				map.toggleLegacyMode(false);
+				assertEquals(2, first.getOverlay().size());
+				assertEquals(10, first.getProcessor().getMinThreshold(), 0);
+
+				// Second switch: the Rois of unchanged overlays are reused
+				thresh.setRange(30, 40);
+				final ImagePlus second = map.registerDisplay(display, false);
+				map.toggleLegacyMode(true);
+				assertEquals(2, second.getOverlay().size());
+				for (int i = 0; i < 2; i++)
+					assertSame(first.getOverlay().get(i), second.getOverlay().get(i));
+				assertEquals(30, second.getProcessor().getMinThreshold(), 0);
+				assertEquals(40, second.getProcessor().getMaxThreshold(), 0);
+
+				// The spatial index of the display is available from the map
+				final Roi rect = second.getOverlay().get(0);
+				assertTrue(map.getRoisAt(display, 3, 3).contains(rect));
+				assertEquals(2, map.getRoisIntersecting(display, 0, 0, 19, 19)
+					.size());
+			}
+			finally {
+				context.dispose();
+			}
+		}
+	}
 }
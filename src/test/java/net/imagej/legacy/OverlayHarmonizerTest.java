@@ -32,26 +32,41 @@
 package net.imagej.legacy;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import ij.ImagePlus;
+import ij.gui.OvalRoi;
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
 import ij.gui.ShapeRoi;
+import ij.process.ImageProcessor;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
 import net.imagej.display.ImageDisplay;
+import net.imagej.display.OverlayService;
+import net.imagej.legacy.translate.DisplayCreator;
 import net.imagej.legacy.translate.OverlayHarmonizer;
 import net.imagej.overlay.BinaryMaskOverlay;
+import net.imagej.overlay.EllipseOverlay;
 import net.imagej.overlay.Overlay;
 import net.imagej.overlay.PolygonOverlay;
+import net.imagej.overlay.ThresholdOverlay;
 import net.imagej.patcher.LegacyInjector;
+import net.imagej.threshold.ThresholdService;
+import net.imglib2.RandomAccess;
 import net.imglib2.RealLocalizable;
 import net.imglib2.RealRandomAccess;
 import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.LongArray;
+import net.imglib2.roi.BinaryMaskRegionOfInterest;
+import net.imglib2.roi.EllipseRegionOfInterest;
 import net.imglib2.roi.PolygonRegionOfInterest;
 import net.imglib2.roi.RegionOfInterest;
 import net.imglib2.type.logic.BitType;
@@ -60,6 +75,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.scijava.Context;
+import org.scijava.event.EventHandler;
+import org.scijava.event.EventService;
+import org.scijava.event.EventSubscriber;
+import org.scijava.event.SciJavaEvent;
 
 /**
  * Unit tests for {@link OverlayHarmonizer}.
@@ -106,15 +125,65 @@ public class OverlayHarmonizerTest {
 	 */
 	@Test
 	public void testUpdateDisplay() {
-		// TODO: this just runs the code, but does not check the results.
-//		OverlayTranslator ot = new OverlayTranslator();
-//		Random r = new Random(1234);
-//		Dataset ds = Helper.makeDataset(Helper.makeRandomByteArray(r, 11, 15), "Foo");
-//		ImagePlus imagePlus = Helper.makeImagePlus("Bar", Helper.makeRandomByteArray(r, 11, 15));
-//		imagePlus.setRoi(Helper.makePolygonROI(new int[] { 0, 5, 5, 0, 0}, new int[] { 0, 0, 5, 5, 0}));
-//		ot.setDatasetOverlays(ds, imagePlus);
 		synchronized (LegacyService.class) {
-			// fill me some day
+			final Random r = new Random(1234);
+			final ImagePlus imagePlus =
+				Helper.makeImagePlus("Bar", Helper.makeRandomByteArray(r, 11, 15));
+			final Roi rect = new Roi(1, 1, 3, 4);
+			final Roi oval = new OvalRoi(2, 3, 5, 6);
+			final Roi polygon = Helper.makePolygonROI(new int[] { 0, 5, 5, 0 },
+				new int[] { 0, 0, 5, 5 });
+			final ij.gui.Overlay legacyOverlay = new ij.gui.Overlay();
+			legacyOverlay.add(rect);
+			legacyOverlay.add(oval);
+			legacyOverlay.add(polygon);
+			imagePlus.setOverlay(legacyOverlay);
+			final ImageDisplay display =
+				new DisplayCreator(context).createDisplay(imagePlus);
+			final OverlayService overlayService =
+				context.service(OverlayService.class);
+			final OverlayHarmonizer ot = new OverlayHarmonizer(context);
+
+			ot.updateDisplay(display, imagePlus);
+			final List<Overlay> first = overlayService.getOverlays(display);
+			assertEquals(3, first.size());
+
+			// unchanged Rois keep their overlays
+			ot.updateDisplay(display, imagePlus);
+			final List<Overlay> second = overlayService.getOverlays(display);
+			assertEquals(3, second.size());
+			for (final Overlay overlay : first)
+				assertTrue(containsSame(second, overlay));
+
+			// only the moved Roi is converted again
+			oval.setLocation(6, 7);
+			ot.updateDisplay(display, imagePlus);
+			final List<Overlay> third = overlayService.getOverlays(display);
+			assertEquals(3, third.size());
+			int reused = 0;
+			for (final Overlay overlay : third) {
+				if (containsSame(first, overlay)) reused++;
+				else {
+					assertTrue(overlay instanceof EllipseOverlay);
+					final EllipseRegionOfInterest region =
+						((EllipseOverlay) overlay).getRegionOfInterest();
+					assertEquals(8.5, region.getOrigin(0), 0.5);
+					assertEquals(10, region.getOrigin(1), 0.5);
+				}
+			}
+			assertEquals(2, reused);
+
+			// removed Rois lose their overlays
+			legacyOverlay.remove(polygon);
+			ot.updateDisplay(display, imagePlus);
+			assertEquals(2, overlayService.getOverlays(display).size());
+
+			// unchanged overlays keep their Rois
+			ot.updateLegacyImage(display, imagePlus);
+			final ij.gui.Overlay updated = imagePlus.getOverlay();
+			assertEquals(2, updated.size());
+			assertTrue(updated.get(0) == rect || updated.get(1) == rect);
+			assertTrue(updated.get(0) == oval || updated.get(1) == oval);
 		}
 	}
 
@@ -416,4 +485,210 @@ public class OverlayHarmonizerTest {
 			}
 		}
 	}
+
+	@Test
+	public void testCreateBinaryMaskROIFromBits() {
+		synchronized (LegacyService.class) {
+			// NB: An untranslated ArrayImg, whose bits are unpacked 64 at a time.
+			final Random r = new Random(4321);
+			final ArrayImg<BitType, LongArray> img = ArrayImgs.bits(97, 13);
+			img.setLinkedType(new BitType(img));
+			final RandomAccess<BitType> ra = img.randomAccess();
+			for (int i = 0; i < 97; i++) {
+				ra.setPosition(i, 0);
+				for (int j = 0; j < 13; j++) {
+					ra.setPosition(j, 1);
+					ra.get().set(r.nextInt(3) == 0);
+				}
+			}
+			final BinaryMaskOverlay<BitType, Img<BitType>> overlay =
+				new BinaryMaskOverlay<>(context,
+					new BinaryMaskRegionOfInterest<BitType, Img<BitType>>(img));
+			final OverlayHarmonizer ot = new OverlayHarmonizer(context);
+			final ImagePlus imagePlus = Helper.makeImagePlus("Bar", Helper
+				.makeRandomByteArray(r, 100, 20));
+			final ArrayList<Overlay> overlays = new ArrayList<>();
+			overlays.add(overlay);
+			ot.setOverlays(overlays, overlay, imagePlus);
+			final Roi roi = imagePlus.getRoi();
+			for (int i = 0; i < 97; i++) {
+				ra.setPosition(i, 0);
+				for (int j = 0; j < 13; j++) {
+					ra.setPosition(j, 1);
+					assertEquals(ra.get().get(), roi.contains(i, j));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testThresholdUnchangedIsNotSynchronized() {
+		synchronized (LegacyService.class) {
+			final ImagePlus imagePlus = Helper.makeImagePlus("Bar", Helper
+				.makeRandomByteArray(new Random(1234), 11, 15));
+			final ImageProcessor proc = imagePlus.getProcessor();
+			proc.setThreshold(10, 100, ImageProcessor.RED_LUT);
+			final ImageDisplay display = new DisplayCreator(context).createDisplay(
+				imagePlus);
+			final ThresholdService thresholdService = context.service(
+				ThresholdService.class);
+			final OverlayHarmonizer ot = new OverlayHarmonizer(context);
+			ot.updateDisplay(display, imagePlus);
+			final ThresholdOverlay thresh = thresholdService.getThreshold(display);
+			assertEquals(10, thresh.getRangeMin(), 0);
+			assertEquals(100, thresh.getRangeMax(), 0);
+
+			final EventCounter counter = new EventCounter();
+			final EventService eventService = context.service(EventService.class);
+			final List<EventSubscriber<?>> subscribers = eventService.subscribe(
+				counter);
+			for (int i = 0; i < 10; i++) {
+				ot.updateDisplay(display, imagePlus);
+				ot.updateLegacyImage(display, imagePlus);
+			}
+			eventService.unsubscribe(subscribers);
+
+			assertEquals(0, counter.count);
+			assertSame(thresh, thresholdService.getThreshold(display));
+			assertEquals(10, proc.getMinThreshold(), 0);
+			assertEquals(100, proc.getMaxThreshold(), 0);
+			// NB: The LUT update mode is only reset when the threshold changes.
+			assertEquals(ImageProcessor.RED_LUT, proc.getLutUpdate());
+		}
+	}
+
+	@Test
+	public void testThresholdUpdatedInPlace() {
+		synchronized (LegacyService.class) {
+			final ImagePlus imagePlus = Helper.makeImagePlus("Bar", Helper
+				.makeRandomByteArray(new Random(1234), 11, 15));
+			final ImageProcessor proc = imagePlus.getProcessor();
+			proc.setThreshold(10, 100, ImageProcessor.NO_LUT_UPDATE);
+			final ImageDisplay display = new DisplayCreator(context).createDisplay(
+				imagePlus);
+			final ThresholdService thresholdService = context.service(
+				ThresholdService.class);
+			final OverlayService overlayService = context.service(
+				OverlayService.class);
+			final OverlayHarmonizer ot = new OverlayHarmonizer(context);
+			ot.updateDisplay(display, imagePlus);
+			final ThresholdOverlay thresh = thresholdService.getThreshold(display);
+
+			proc.setThreshold(20, 200, ImageProcessor.NO_LUT_UPDATE);
+			ot.updateDisplay(display, imagePlus);
+			assertSame(thresh, thresholdService.getThreshold(display));
+			assertEquals(20, thresh.getRangeMin(), 0);
+			assertEquals(200, thresh.getRangeMax(), 0);
+			assertTrue(containsSame(overlayService.getOverlays(display), thresh));
+
+			// Modern changes are bridged back to the legacy image
+			thresh.setRange(5, 50);
+			ot.updateLegacyImage(display, imagePlus);
+			assertEquals(5, proc.getMinThreshold(), 0);
+			assertEquals(50, proc.getMaxThreshold(), 0);
+
+			proc.resetThreshold();
+			ot.updateDisplay(display, imagePlus);
+			assertFalse(thresholdService.hasThreshold(display));
+
+			thresholdService.getThreshold(display).setRange(30, 40);
+			ot.updateLegacyImage(display, imagePlus);
+			assertEquals(30, proc.getMinThreshold(), 0);
+			assertEquals(40, proc.getMaxThreshold(), 0);
+		}
+	}
+
+	@Test
+	public void testGetRoisAt() {
+		synchronized (LegacyService.class) {
+			final Random r = new Random(4321);
+			final ImagePlus imagePlus = Helper.makeImagePlus("Bar", Helper
+				.makeRandomByteArray(r, 200, 200));
+			final ij.gui.Overlay overlay = new ij.gui.Overlay();
+			for (int i = 0; i < 300; i++) {
+				final int x = r.nextInt(190);
+				final int y = r.nextInt(190);
+				final int size = 2 + r.nextInt(i % 10 == 0 ? 100 : 15);
+				if (i % 3 == 0) overlay.add(new Roi(x, y, size, size / 2 + 1));
+				else if (i % 3 == 1) overlay.add(new OvalRoi(x, y, size, size));
+				else overlay.add(new PolygonRoi(new float[] { x, x + size, x },
+					new float[] { y, y + size / 2f, y + size }, Roi.POLYGON));
+			}
+			imagePlus.setOverlay(overlay);
+			final ImageDisplay display = new DisplayCreator(context).createDisplay(
+				imagePlus);
+			final OverlayHarmonizer ot = new OverlayHarmonizer(context);
+			ot.updateDisplay(display, imagePlus);
+			assertRoisAt(ot, display, imagePlus, r);
+
+			// Remove and move some Rois, and add a new one
+			for (int i = 0; i < 50; i++)
+				overlay.remove(r.nextInt(overlay.size()));
+			overlay.get(0).setLocation(150, 20);
+			overlay.add(new OvalRoi(10, 10, 60, 40));
+			ot.updateDisplay(display, imagePlus);
+			assertRoisAt(ot, display, imagePlus, r);
+
+			ot.updateLegacyImage(display, imagePlus);
+			assertRoisAt(ot, display, imagePlus, r);
+		}
+	}
+
+	/**
+	 * Compares {@link OverlayHarmonizer#getRoisAt} and
+	 * {@link OverlayHarmonizer#getRoisIntersecting} with testing every Roi.
+	 */
+	private static void assertRoisAt(final OverlayHarmonizer ot,
+		final ImageDisplay display, final ImagePlus imagePlus, final Random r)
+	{
+		final List<Roi> rois = new ArrayList<>();
+		if (imagePlus.getRoi() != null) rois.add(imagePlus.getRoi());
+		final ij.gui.Overlay overlay = imagePlus.getOverlay();
+		for (int i = 0; i < overlay.size(); i++)
+			rois.add(overlay.get(i));
+		for (int q = 0; q < 500; q++) {
+			final int x = r.nextInt(210) - 5;
+			final int y = r.nextInt(210) - 5;
+			final List<Roi> expected = new ArrayList<>();
+			final List<Roi> intersecting = new ArrayList<>();
+			for (final Roi roi : rois) {
+				if (roi.contains(x, y)) expected.add(roi);
+				final java.awt.geom.Rectangle2D b = roi.getFloatBounds();
+				if (b.getMinX() <= x + 20 && b.getMaxX() >= x && b.getMinY() <= y +
+					20 && b.getMaxY() >= y) intersecting.add(roi);
+			}
+			assertSameRois(expected, ot.getRoisAt(display, x, y));
+			assertSameRois(intersecting, ot.getRoisIntersecting(display, x, y, x +
+				20, y + 20));
+		}
+	}
+
+	private static void assertSameRois(final List<Roi> expected,
+		final List<Roi> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		// NB: Roi#equals compares geometry, but the same Rois are expected.
+		for (final Roi roi : expected)
+			assertTrue(actual.stream().anyMatch(a -> a == roi));
+	}
+
+	private static boolean containsSame(final List<Overlay> overlays,
+		final Overlay overlay)
+	{
+		for (final Overlay o : overlays) {
+			if (o == overlay) return true;
+		}
+		return false;
+	}
+
+	/** Counts the events published while it is subscribed. */
+	public static class EventCounter {
+
+		private int count;
+
+		@EventHandler
+		protected void onEvent(final SciJavaEvent evt) {
+			count++;
+		}
+	}
 }
@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import net.imagej.patcher.LegacyInjector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Join style benchmark for {@link ResultsTableColumnWrapper#indexOf(Object)}:
+ * looks up the row of every key of one table in the column of another, with
+ * and without the value index.
+ */
+@State(Scope.Benchmark)
+public class ColumnValueIndexBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "1000", "10000" })
+	private int rows;
+
+	private double[] keys;
+	private ij.measure.ResultsTable table;
+
+	@Setup
+	public void setup() {
+		keys = new double[rows];
+		table = new ij.measure.ResultsTable();
+		for (int r = 0; r < rows; r++) {
+			keys[r] = (r * 7919L) % (2 * rows);
+			table.incrementCounter();
+			table.addValue("ID", r);
+			table.addValue("Label", "object " + r);
+		}
+	}
+
+	@Benchmark
+	public long joinLinear() {
+		return join(new ResultsTableColumnWrapper(table, 0));
+	}
+
+	@Benchmark
+	public long joinIndexed() {
+		final ResultsTableColumnWrapper column = new ResultsTableColumnWrapper(
+			table, 0);
+		column.setIndexed(true);
+		return join(column);
+	}
+
+	// -- Helper methods --
+
+	private long join(final ResultsTableColumnWrapper column) {
+		long matches = 0;
+		for (final double key : keys)
+			matches += column.indexOf(key);
+		return matches;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(ColumnValueIndexBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.gui.Line;
+import ij.gui.OvalRoi;
+import ij.gui.Overlay;
+import ij.gui.PointRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.legacy.LegacyInjector;
+import net.imagej.roi.DefaultROITree;
+import net.imagej.roi.ROITree;
+import net.imglib2.roi.MaskPredicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Benchmark for {@link OverlayToROITreeConverter} and
+ * {@link ROITreeToOverlayConverter} on overlays of mixed ROI types, compared
+ * with asking the {@link ConvertService} for each ROI in turn.
+ */
+@State(Scope.Benchmark)
+public class OverlayConversionBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "100", "1000", "10000", "100000" })
+	private int numRois;
+
+	private Context context;
+	private ConvertService convertService;
+	private Overlay overlay;
+	private ROITree tree;
+
+	@Setup
+	public void setup() {
+		context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+		overlay = new Overlay();
+		for (int i = 0; i < numRois; i++) {
+			final int x = (i % 300) * 10;
+			final int y = (i / 300) * 10;
+			switch (i % 5) {
+				case 0:
+					overlay.add(new Roi(x, y, 6, 4));
+					break;
+				case 1:
+					overlay.add(new OvalRoi(x, y, 5, 7));
+					break;
+				case 2:
+					overlay.add(new PolygonRoi(new float[] { x, x + 8, x + 4 },
+						new float[] { y, y, y + 6 }, Roi.POLYGON));
+					break;
+				case 3:
+					overlay.add(new PointRoi(new float[] { x, x + 2 }, new float[] { y,
+						y + 3 }));
+					break;
+				default:
+					overlay.add(new Line(x, y, x + 7, y + 7));
+			}
+		}
+		tree = convertService.convert(overlay, ROITree.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public ROITree overlayToROITree() {
+		return convertService.convert(overlay, ROITree.class);
+	}
+
+	/** Baseline: one {@link ConvertService} lookup per ROI. */
+	@Benchmark
+	public ROITree overlayToROITreePerRoi() {
+		final List<MaskPredicate<?>> converted = new ArrayList<>(overlay.size());
+		for (int i = 0; i < overlay.size(); i++)
+			converted.add(convertService.convert(overlay.get(i),
+				MaskPredicate.class));
+		final ROITree rois = new DefaultROITree();
+		rois.addROIs(converted);
+		return rois;
+	}
+
+	@Benchmark
+	public Overlay roiTreeToOverlay() {
+		return convertService.convert(tree, Overlay.class);
+	}
+
+	/** Baseline: one {@link ConvertService} lookup per ROI. */
+	@Benchmark
+	public Overlay roiTreeToOverlayPerRoi() {
+		final Overlay o = new Overlay();
+		tree.children().forEach(node -> o.add(convertService.convert(node.data(),
+			Roi.class)));
+		return o;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(OverlayConversionBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
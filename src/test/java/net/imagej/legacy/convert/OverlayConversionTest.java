@@ -0,0 +1,259 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import ij.gui.Line;
+import ij.gui.OvalRoi;
+import ij.gui.Overlay;
+import ij.gui.PointRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.legacy.convert.roi.IJRoiWrapper;
+import net.imagej.roi.DefaultROITree;
+import net.imagej.roi.ROITree;
+import net.imglib2.roi.MaskPredicate;
+import net.imglib2.roi.geom.real.ClosedWritableBox;
+import net.imglib2.roi.geom.real.ClosedWritableEllipsoid;
+import net.imglib2.roi.geom.real.DefaultWritablePolygon2D;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+import org.scijava.util.TreeNode;
+
+/**
+ * Tests {@link OverlayToROITreeConverter} and
+ * {@link ROITreeToOverlayConverter} against converting each ROI on its own,
+ * on both sides of {@link RoiConverterCache#PARALLEL_THRESHOLD}.
+ */
+public class OverlayConversionTest {
+
+	private ConvertService convertService;
+
+	@Before
+	public void setup() {
+		final Context context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+	}
+
+	@After
+	public void tearDown() {
+		convertService.context().dispose();
+	}
+
+	@Test
+	public void testOverlayToROITree() {
+		testOverlayToROITree(10);
+		testOverlayToROITree(RoiConverterCache.PARALLEL_THRESHOLD * 4 + 3);
+	}
+
+	@Test
+	public void testOverlayToROITreeMixedPolygons() {
+		testOverlayToROITree(createMixedOverlay(10));
+		testOverlayToROITree(createMixedOverlay(RoiConverterCache.PARALLEL_THRESHOLD *
+			4 + 3));
+	}
+
+	@Test
+	public void testROITreeToOverlay() {
+		testROITreeToOverlay(10);
+		testROITreeToOverlay(RoiConverterCache.PARALLEL_THRESHOLD * 4 + 3);
+	}
+
+	@Test
+	public void testROITreeToOverlayComposites() {
+		testROITreeToOverlay(createComposites(10));
+		testROITreeToOverlay(createComposites(RoiConverterCache.PARALLEL_THRESHOLD *
+			2 + 1));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		final Overlay overlay = createOverlay(RoiConverterCache.PARALLEL_THRESHOLD *
+			2);
+		final ROITree tree = convertService.convert(overlay, ROITree.class);
+		final Overlay back = convertService.convert(tree, Overlay.class);
+
+		assertEquals(overlay.size(), back.size());
+		for (int i = 0; i < overlay.size(); i++)
+			assertSame(overlay.get(i), back.get(i));
+	}
+
+	// -- Helper methods --
+
+	private void testOverlayToROITree(final int size) {
+		testOverlayToROITree(createOverlay(size));
+	}
+
+	private void testOverlayToROITree(final Overlay overlay) {
+		final int size = overlay.size();
+		final ROITree tree = convertService.convert(overlay, ROITree.class);
+		final List<TreeNode<?>> children = tree.children();
+
+		assertEquals(size, children.size());
+		for (int i = 0; i < size; i++) {
+			final MaskPredicate<?> expected = convertService.convert(overlay.get(i),
+				MaskPredicate.class);
+			final Object actual = children.get(i).data();
+			assertEquals(expected.getClass(), actual.getClass());
+			assertTrue(actual instanceof IJRoiWrapper);
+			assertSame(overlay.get(i), ((IJRoiWrapper<?, ?>) actual).getRoi());
+		}
+	}
+
+	private void testROITreeToOverlay(final int size) {
+		testROITreeToOverlay(createMasks(size));
+	}
+
+	private void testROITreeToOverlay(final List<MaskPredicate<?>> rois) {
+		final int size = rois.size();
+		final ROITree tree = new DefaultROITree();
+		tree.addROIs(rois);
+		final Overlay overlay = convertService.convert(tree, Overlay.class);
+
+		assertEquals(size, overlay.size());
+		for (int i = 0; i < size; i++) {
+			final Roi expected = convertService.convert(rois.get(i), Roi.class);
+			final Roi actual = overlay.get(i);
+			assertEquals(expected.getClass(), actual.getClass());
+			assertEquals(expected.getType(), actual.getType());
+			assertEquals(expected.getBounds(), actual.getBounds());
+		}
+	}
+
+	/** Creates an overlay cycling through the common ImageJ 1.x ROI types. */
+	private static Overlay createOverlay(final int size) {
+		final Overlay overlay = new Overlay();
+		for (int i = 0; i < size; i++) {
+			final int x = (i % 100) * 10;
+			final int y = (i / 100) * 10;
+			switch (i % 6) {
+				case 0:
+					overlay.add(new Roi(x, y, 6, 4));
+					break;
+				case 1:
+					overlay.add(new OvalRoi(x, y, 5, 7));
+					break;
+				case 2:
+					overlay.add(new PolygonRoi(new float[] { x, x + 8, x + 4 },
+						new float[] { y, y, y + 6 }, Roi.POLYGON));
+					break;
+				case 3:
+					overlay.add(new PolygonRoi(new float[] { x, x + 3, x + 8 },
+						new float[] { y, y + 5, y + 2 }, Roi.POLYLINE));
+					break;
+				case 4:
+					overlay.add(new PointRoi(new float[] { x, x + 2 }, new float[] { y,
+						y + 3 }));
+					break;
+				default:
+					overlay.add(new Line(x, y, x + 7, y + 7));
+			}
+		}
+		return overlay;
+	}
+
+	/**
+	 * Creates an overlay mixing ROIs of the same class and type which need
+	 * different converters: spline fit and plain polygons, and polylines with
+	 * and without a stroke width.
+	 */
+	private static Overlay createMixedOverlay(final int size) {
+		final Overlay overlay = new Overlay();
+		for (int i = 0; i < size; i++) {
+			final float x = (i % 100) * 10;
+			final float y = (i / 100) * 10;
+			final boolean polygon = i % 4 < 2;
+			final PolygonRoi roi = new PolygonRoi(new float[] { x, x + 8, x + 6,
+				x + 1 }, new float[] { y, y + 1, y + 7, y + 5 }, polygon ? Roi.POLYGON
+					: Roi.POLYLINE);
+			if (i % 2 == 0) {
+				if (polygon) roi.fitSpline();
+				else roi.setStrokeWidth(3);
+			}
+			overlay.add(roi);
+		}
+		return overlay;
+	}
+
+	/** Creates ImgLib2 ROIs cycling through boxes, ellipses and polygons. */
+	private static List<MaskPredicate<?>> createMasks(final int size) {
+		final List<MaskPredicate<?>> rois = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final double x = (i % 100) * 10;
+			final double y = (i / 100) * 10;
+			switch (i % 3) {
+				case 0:
+					rois.add(new ClosedWritableBox(new double[] { x, y }, new double[] {
+						x + 6, y + 4 }));
+					break;
+				case 1:
+					rois.add(new ClosedWritableEllipsoid(new double[] { x + 4, y + 4 },
+						new double[] { 3, 2 }));
+					break;
+				default:
+					rois.add(new DefaultWritablePolygon2D(new double[] { x, x + 8, x +
+						4 }, new double[] { y, y, y + 6 }));
+			}
+		}
+		return rois;
+	}
+
+	/**
+	 * Creates composites of boxes and ellipses, combined with alternating
+	 * operators.
+	 */
+	private static List<MaskPredicate<?>> createComposites(final int size) {
+		final List<MaskPredicate<?>> rois = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final double x = (i % 100) * 10;
+			final double y = (i / 100) * 10;
+			final ClosedWritableBox box = new ClosedWritableBox(new double[] { x,
+				y }, new double[] { x + 6, y + 4 });
+			final ClosedWritableEllipsoid ellipse = new ClosedWritableEllipsoid(
+				new double[] { x + 4, y + 4 }, new double[] { 3, 2 });
+			rois.add(i % 2 == 0 ? box.or(ellipse) : box.minus(ellipse));
+		}
+		return rois;
+	}
+
+}
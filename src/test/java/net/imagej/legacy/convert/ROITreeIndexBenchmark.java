@@ -0,0 +1,193 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.gui.OvalRoi;
+import ij.gui.Overlay;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.imagej.legacy.LegacyInjector;
+import net.imagej.roi.ROITree;
+import net.imglib2.RealInterval;
+import net.imglib2.RealPoint;
+import net.imglib2.roi.MaskPredicate;
+import net.imglib2.roi.RealMask;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+import org.scijava.util.TreeNode;
+
+/**
+ * Benchmark for hit testing and region queries through {@link ROITreeIndex},
+ * compared with testing every ROI of the {@link ROITree}, on a segmentation
+ * like overlay of small cells.
+ */
+@State(Scope.Benchmark)
+public class ROITreeIndexBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "1000", "100000" })
+	private int numRois;
+
+	private Context context;
+	private List<MaskPredicate<?>> rois;
+	private ROITree tree;
+	private ROITreeIndex index;
+	private double[] queries;
+	private int next;
+
+	@Setup
+	public void setup() {
+		context = new Context(ConvertService.class);
+		final ConvertService convertService = context.service(
+			ConvertService.class);
+		final Random random = new Random(0xCE11);
+		final Overlay overlay = new Overlay();
+		final int side = (int) Math.ceil(Math.sqrt(numRois)) * 20;
+		for (int i = 0; i < numRois; i++) {
+			final double x = random.nextDouble() * side;
+			final double y = random.nextDouble() * side;
+			final double size = 4 + random.nextDouble() * 16;
+			switch (i % 3) {
+				case 0:
+					overlay.add(new Roi(x, y, size, size));
+					break;
+				case 1:
+					overlay.add(new OvalRoi(x, y, size, size));
+					break;
+				default:
+					overlay.add(new PolygonRoi(new float[] { (float) x, (float) (x +
+						size), (float) x }, new float[] { (float) y, (float) (y + size /
+							2), (float) (y + size) }, Roi.POLYGON));
+			}
+		}
+		tree = convertService.convert(overlay, ROITree.class);
+		rois = new ArrayList<>();
+		for (final TreeNode<?> node : tree.children())
+			rois.add((MaskPredicate<?>) node.data());
+		index = new ROITreeIndex(tree);
+		queries = new double[2048];
+		for (int i = 0; i < queries.length; i++)
+			queries[i] = random.nextDouble() * side;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public List<MaskPredicate<?>> indexAt() {
+		return index.at(nextQuery(), nextQuery());
+	}
+
+	/** Baseline: tests every ROI. */
+	@Benchmark
+	public List<MaskPredicate<?>> scanAt() {
+		final RealPoint p = new RealPoint(nextQuery(), nextQuery());
+		final List<MaskPredicate<?>> hits = new ArrayList<>();
+		for (final MaskPredicate<?> roi : rois)
+			if (((RealMask) roi).test(p)) hits.add(roi);
+		return hits;
+	}
+
+	@Benchmark
+	public List<MaskPredicate<?>> indexIntersecting() {
+		final double x = nextQuery();
+		final double y = nextQuery();
+		return index.intersecting(x, y, x + 100, y + 100);
+	}
+
+	/** Baseline: compares the bounds of every ROI. */
+	@Benchmark
+	public List<MaskPredicate<?>> scanIntersecting() {
+		final double x = nextQuery();
+		final double y = nextQuery();
+		final List<MaskPredicate<?>> hits = new ArrayList<>();
+		for (final MaskPredicate<?> roi : rois) {
+			final RealInterval b = (RealInterval) roi;
+			if (b.realMin(0) <= x + 100 && b.realMax(0) >= x && b.realMin(
+				1) <= y + 100 && b.realMax(1) >= y) hits.add(roi);
+		}
+		return hits;
+	}
+
+	/** Removing and adding back one ROI, as a synchronization would. */
+	@Benchmark
+	public boolean update() {
+		final MaskPredicate<?> roi = rois.get(next++ % rois.size());
+		index.remove(roi);
+		return index.add(roi);
+	}
+
+	@Benchmark
+	public ROITreeIndex build() {
+		return new ROITreeIndex(tree);
+	}
+
+	// -- Helper methods --
+
+	private double nextQuery() {
+		return queries[next++ & (queries.length - 1)];
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(ROITreeIndexBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
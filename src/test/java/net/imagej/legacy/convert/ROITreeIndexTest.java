@@ -0,0 +1,189 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import ij.gui.Line;
+import ij.gui.OvalRoi;
+import ij.gui.Overlay;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+import ij.gui.ShapeRoi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.imagej.roi.ROITree;
+import net.imglib2.Point;
+import net.imglib2.RealInterval;
+import net.imglib2.RealPoint;
+import net.imglib2.roi.Mask;
+import net.imglib2.roi.MaskPredicate;
+import net.imglib2.roi.RealMask;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+import org.scijava.util.TreeNode;
+
+/**
+ * Tests {@link ROITreeIndex} against testing every ROI of the tree.
+ */
+public class ROITreeIndexTest {
+
+	private final Random random = new Random(0x7EE);
+	private ConvertService convertService;
+
+	@Before
+	public void setup() {
+		final Context context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+	}
+
+	@After
+	public void tearDown() {
+		convertService.context().dispose();
+	}
+
+	@Test
+	public void testAt() {
+		final ROITree tree = convertService.convert(randomOverlay(2000),
+			ROITree.class);
+		final List<MaskPredicate<?>> rois = new ArrayList<>();
+		for (final TreeNode<?> node : tree.children())
+			rois.add((MaskPredicate<?>) node.data());
+		final ROITreeIndex index = new ROITreeIndex(tree);
+		assertEquals(rois.size(), index.size());
+		assertMatchesScan(index, rois);
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		final ROITree tree = convertService.convert(randomOverlay(500),
+			ROITree.class);
+		final List<MaskPredicate<?>> rois = new ArrayList<>();
+		for (final TreeNode<?> node : tree.children())
+			rois.add((MaskPredicate<?>) node.data());
+		final ROITreeIndex index = new ROITreeIndex();
+		for (final MaskPredicate<?> roi : rois) {
+			assertTrue(index.add(roi));
+			assertFalse(index.add(roi));
+		}
+		for (int i = rois.size() - 1; i >= 0; i -= 2)
+			assertTrue(index.remove(rois.remove(i)));
+		assertEquals(rois.size(), index.size());
+		assertMatchesScan(index, rois);
+	}
+
+	// -- Helper methods --
+
+	private Overlay randomOverlay(final int numRois) {
+		final Overlay overlay = new Overlay();
+		for (int i = 0; i < numRois; i++) {
+			final double x = random.nextDouble() * 1000;
+			final double y = random.nextDouble() * 1000;
+			final double size = 1 + random.nextDouble() * (i % 10 == 0 ? 200 : 20);
+			switch (i % 5) {
+				case 0:
+					overlay.add(new Roi(x, y, size, size / 2));
+					break;
+				case 1:
+					overlay.add(new OvalRoi(x, y, size, size));
+					break;
+				case 2:
+					overlay.add(new PolygonRoi(new float[] { (float) x, (float) (x +
+						size), (float) (x + size / 3) }, new float[] { (float) y,
+							(float) (y + size / 4), (float) (y + size) }, Roi.POLYGON));
+					break;
+				case 3:
+					overlay.add(new Line(x, y, x + size, y + size / 2));
+					break;
+				default:
+					overlay.add(new ShapeRoi(new Roi(x, y, size, size)).xor(new ShapeRoi(
+						new OvalRoi(x, y, size, size))));
+			}
+		}
+		return overlay;
+	}
+
+	private void assertMatchesScan(final ROITreeIndex index,
+		final List<MaskPredicate<?>> rois)
+	{
+		for (int q = 0; q < 2000; q++) {
+			// NB: Also query integer positions, on the edges of integer masks.
+			final double x = q % 2 == 0 ? random.nextInt(1100) : random
+				.nextDouble() * 1100;
+			final double y = q % 2 == 0 ? random.nextInt(1100) : random
+				.nextDouble() * 1100;
+			final Set<MaskPredicate<?>> expected = identitySet();
+			for (final MaskPredicate<?> roi : rois)
+				if (test(roi, x, y)) expected.add(roi);
+			final List<MaskPredicate<?>> hits = index.at(x, y);
+			final Set<MaskPredicate<?>> actual = identitySet();
+			actual.addAll(hits);
+			assertEquals(hits.size(), actual.size());
+			assertEquals(expected, actual);
+
+			final Set<MaskPredicate<?>> intersecting = identitySet();
+			for (final MaskPredicate<?> roi : rois) {
+				final RealInterval b = (RealInterval) roi;
+				if (b.realMin(0) <= x + 50 && b.realMax(0) >= x && b.realMin(1) <= y +
+					50 && b.realMax(1) >= y) intersecting.add(roi);
+			}
+			final Set<MaskPredicate<?>> candidates = identitySet();
+			candidates.addAll(index.intersecting(x, y, x + 50, y + 50));
+			assertTrue(candidates.containsAll(intersecting));
+		}
+	}
+
+	private static boolean test(final MaskPredicate<?> roi, final double x,
+		final double y)
+	{
+		if (roi instanceof Mask) return ((Mask) roi).test(new Point((long) Math
+			.floor(x), (long) Math.floor(y)));
+		return ((RealMask) roi).test(new RealPoint(x, y));
+	}
+
+	private static Set<MaskPredicate<?>> identitySet() {
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+}
@@ -32,8 +32,14 @@
 package net.imagej.legacy.convert;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 
 import ij.IJ;
 import ij.ImagePlus;
@@ -41,7 +47,15 @@ import ij.gui.OvalRoi;
 import ij.gui.Overlay;
 import ij.gui.Roi;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import net.imagej.patcher.LegacyInjector;
 import net.imagej.table.BoolTable;
@@ -60,6 +74,7 @@ import net.imagej.table.DoubleColumn;
 import net.imagej.table.FloatTable;
 import net.imagej.table.GenericColumn;
 import net.imagej.table.GenericTable;
+import net.imagej.table.IntColumn;
 import net.imagej.table.IntTable;
 import net.imagej.table.LongTable;
 import net.imagej.table.ResultsTable;
@@ -219,6 +234,93 @@ public class ResultsTableConversionTest {
 			assertTrue(((Double) c.get(i)).isNaN());
 	}
 
+	@Test
+	public void testColumnWrapperValueIndex() {
+		final Random random = new Random(42);
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < 300; r++) {
+			rt.incrementCounter();
+			if (random.nextInt(5) == 0) rt.setValue("v", r, "s" + random.nextInt(
+				10));
+			else if (random.nextInt(20) == 0) rt.setValue("v", r, -0.0);
+			else rt.setValue("v", r, random.nextInt(40) - 10);
+		}
+		final ResultsTableColumnWrapper linear = new ResultsTableColumnWrapper(rt,
+			0);
+		final ResultsTableColumnWrapper indexed = new ResultsTableColumnWrapper(rt,
+			0);
+		indexed.setIndexed(true);
+
+		final List<Object> probes = new ArrayList<>();
+		for (int i = -12; i < 32; i++) {
+			probes.add(i);
+			probes.add(i + 0.5);
+			probes.add("s" + i);
+			probes.add(Integer.toString(i));
+		}
+		probes.addAll(Arrays.asList(0.0, -0.0, Double.NaN, 3f, 7L, null,
+			new Object()));
+		assertLookupsEqual(linear, indexed, probes);
+
+		// Changes through the column and of the table's size are detected
+		indexed.set(0, "new value");
+		indexed.set(1, 1234);
+		assertLookupsEqual(linear, indexed, probes);
+		assertEquals(1, indexed.indexOf(1234));
+		rt.incrementCounter();
+		rt.addValue("v", 555);
+		assertEquals(300, indexed.indexOf(555));
+		assertLookupsEqual(linear, indexed, probes);
+
+		// In place changes of a row found by the index are detected
+		rt.setValue(0, 1, 4321);
+		assertFalse(indexed.contains(1234));
+		assertEquals(1, indexed.indexOf(4321));
+		assertLookupsEqual(linear, indexed, probes);
+
+		// Other in place changes require invalidating the index
+		rt.setValue(0, 2, 999);
+		indexed.invalidateIndex();
+		assertEquals(2, indexed.indexOf(999));
+		assertLookupsEqual(linear, indexed, probes);
+	}
+
+	@Test
+	public void testResultsTableWrapperKeepsColumnIndex() {
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < 10; r++) {
+			rt.incrementCounter();
+			rt.addValue("a", r);
+			rt.addValue("b", 2 * r);
+		}
+		final ResultsTableWrapper t = new ResultsTableWrapper(rt);
+		final ResultsTableColumnWrapper a = (ResultsTableColumnWrapper) t.get(0);
+		a.setIndexed(true);
+		assertSame(a, t.get(0));
+		assertSame(a, t.get("a"));
+		assertEquals(3, a.indexOf(3.0));
+
+		// Changes through the table are detected
+		t.set(0, 3, 100);
+		assertEquals(-1, a.indexOf(3.0));
+		assertEquals(3, a.indexOf(100.0));
+	}
+
+	@Test
+	public void testColumnWrapperValueIndexOfTableWrapper() {
+		final TableWrapper rt = new TableWrapper(new DefaultResultsTable(1, 5),
+			convertService);
+		final ResultsTableColumnWrapper column = new ResultsTableColumnWrapper(rt,
+			0);
+		column.setIndexed(true);
+		assertEquals(0, column.indexOf(0.0));
+
+		// Changes made directly to a TableWrapper are detected
+		rt.setValue(0, 0, 7);
+		assertEquals(0, column.indexOf(7.0));
+		assertEquals(1, column.indexOf(0.0));
+	}
+
 	@Test
 	public void testResultsTableWrapper() {
 		final Table<Column<? extends Object>, Object> t = new ResultsTableWrapper(
@@ -253,6 +355,339 @@ public class ResultsTableConversionTest {
 		}
 	}
 
+	@Test
+	public void testResultsTableWrapperIteration() {
+		final GenericTable t = new ResultsTableWrapper(table);
+
+		int i = 0;
+		for (final Column<?> column : t) {
+			assertEquals(headings[i], column.getHeader());
+			int j = 0;
+			for (final Object o : column)
+				assertEquals(t.get(i, j++), o);
+			assertEquals(t.getRowCount(), j);
+			i++;
+		}
+		assertEquals(t.getColumnCount(), i);
+
+		// Parallel streams see every value, in order when collected
+		final List<String> headers = t.stream().parallel().map(Column::getHeader)
+			.collect(Collectors.toList());
+		assertEquals(Arrays.asList(headings), headers);
+		final Column<?> numbers = t.get(1);
+		final double sum = numbers.stream().parallel().mapToDouble(
+			o -> o instanceof Double ? (Double) o : 0).sum();
+		double expected = 0;
+		for (int r = 0; r < t.getRowCount(); r++)
+			if (stringValues[1][r] == null) expected += values[1][r];
+		assertEquals(expected, sum, 0);
+	}
+
+	@Test
+	public void testResultsTableWrapperSpliterator() {
+		final Column<?> column = new ResultsTableWrapper(table).get(0);
+		final Spliterator<?> all = column.spliterator();
+		assertEquals(table.size(), all.getExactSizeIfKnown());
+		assertTrue(all.hasCharacteristics(Spliterator.SUBSIZED));
+
+		final Spliterator<?> prefix = all.trySplit();
+		assertEquals(table.size(), prefix.estimateSize() + all.estimateSize());
+		final List<Object> seen = new ArrayList<>();
+		prefix.forEachRemaining(seen::add);
+		all.forEachRemaining(seen::add);
+		assertEquals(Arrays.asList(column.toArray()), seen);
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testResultsTableWrapperComodification() {
+		final Iterator<?> iterator = new ResultsTableWrapper(table).get(0)
+			.iterator();
+		iterator.next();
+		table.incrementCounter();
+		iterator.next();
+	}
+
+	@Test
+	public void testResultsTableWrapperRemoveRows() {
+		final Random random = new Random(0xbadcafe);
+		for (int i = 0; i < 20; i++) {
+			final ij.measure.ResultsTable rt = createRandomTable(random, 60);
+			final List<List<Object>> expected = snapshot(rt);
+			final BitSet rows = new BitSet();
+			for (int r = 0; r < 60; r++)
+				if (random.nextInt(3) == 0) rows.set(r);
+			for (int r = rows.length() - 1; r >= 0; r--)
+				if (rows.get(r)) expected.remove(r);
+
+			new ResultsTableWrapper(rt).removeRows(rows);
+			assertEquals(expected, snapshot(rt));
+		}
+
+		// Contiguous ranges
+		final ij.measure.ResultsTable rt = createRandomTable(random, 10);
+		final List<List<Object>> expected = snapshot(rt);
+		expected.subList(2, 6).clear();
+		new ResultsTableWrapper(rt).removeRows(2, 4);
+		assertEquals(expected, snapshot(rt));
+	}
+
+	@Test
+	public void testResultsTableWrapperAppendInsertRows() {
+		final ij.measure.ResultsTable rt = createRandomTable(new Random(17), 8);
+		final List<List<Object>> expected = snapshot(rt);
+		final GenericTable t = new ResultsTableWrapper(rt);
+		rt.setNaNEmptyCells(true);
+
+		t.appendRow();
+		expected.add(emptyRow(null, 3));
+		assertEquals(expected, snapshot(rt));
+
+		t.appendRows("x", "y");
+		expected.add(emptyRow("x", 3));
+		expected.add(emptyRow("y", 3));
+		assertEquals(expected, snapshot(rt));
+
+		t.insertRows(2, 3);
+		for (int i = 0; i < 3; i++)
+			expected.add(2, emptyRow(null, 3));
+		assertEquals(expected, snapshot(rt));
+
+		t.insertRows(0, "first");
+		expected.add(0, emptyRow("first", 3));
+		assertEquals(expected, snapshot(rt));
+	}
+
+	@Test
+	public void testResultsTableWrapperInsertRowsWithoutColumns() {
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		final GenericTable t = new ResultsTableWrapper(rt);
+
+		t.appendRows("a", "b");
+		assertEquals(2, t.getRowCount());
+		t.insertRow(1, "c");
+		t.insertRows(0, 2);
+		assertEquals(5, t.getRowCount());
+		assertEquals(0, t.getColumnCount());
+		assertNull(rt.getLabel(0));
+		assertEquals("a", rt.getLabel(2));
+		assertEquals("c", rt.getLabel(3));
+		assertEquals("b", rt.getLabel(4));
+	}
+
+	@Test
+	public void testResultsTableDoubleColumn() {
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < 10; r++) {
+			rt.incrementCounter();
+			rt.addValue("a", r);
+			rt.addValue("b", "s" + r);
+		}
+		final ResultsTableWrapper wrapper = new ResultsTableWrapper(rt);
+		final ResultsTableDoubleColumn view = wrapper.getDoubleColumn("a");
+		assertEquals("a", view.getHeader());
+		assertEquals(10, view.size());
+		assertTrue(view.isShared());
+		assertSame(view.getArray(), view.getArray());
+		for (int r = 0; r < 10; r++)
+			assertEquals(r, view.getValue(r), 0);
+
+		// Strings read as NaN
+		final ResultsTableDoubleColumn strings = wrapper.getDoubleColumn(1);
+		assertTrue(Double.isNaN(strings.getValue(3)));
+
+		// Changes to the ResultsTable are visible, including growth
+		rt.setValue("a", 4, 44);
+		assertEquals(44, view.getValue(4), 0);
+		for (int r = 10; r < 250; r++) {
+			rt.incrementCounter();
+			rt.addValue("a", r);
+		}
+		assertEquals(250, view.size());
+		assertEquals(249, view.getValue(249), 0);
+		assertEquals(44, view.get(4), 0);
+		rt.deleteRow(0);
+		assertEquals(249, view.size());
+		assertEquals(44, view.getValue(3), 0);
+		assertTrue(view.isShared());
+
+		// Modifying the column copies it
+		view.setValue(0, -1);
+		assertFalse(view.isShared());
+		assertEquals(-1, view.getValue(0), 0);
+		assertEquals(1, rt.getValueAsDouble(0, 0), 0);
+		rt.setValue("a", 1, 1000);
+		assertEquals(2, view.getValue(1), 0);
+		view.add(7.0);
+		assertEquals(250, view.size());
+		assertEquals(249, rt.size());
+
+		// Structural changes copy too
+		final ResultsTableDoubleColumn other = wrapper.getDoubleColumn(0);
+		other.delete(0, 10);
+		assertEquals(239, other.size());
+		assertEquals(11, other.getValue(0), 0);
+		assertEquals(249, rt.size());
+		assertEquals(1, rt.getValueAsDouble(0, 0), 0);
+	}
+
+	@Test
+	public void testResultsTableDoubleColumnAfterReset() {
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < 5; r++) {
+			rt.incrementCounter();
+			rt.addValue("a", r);
+		}
+		final ResultsTableDoubleColumn view = new ResultsTableWrapper(rt)
+			.getDoubleColumn("a");
+		assertEquals(3, view.getValue(3), 0);
+
+		// Resetting the table replaces its arrays, even if refilled to the
+		// same size
+		rt.reset();
+		for (int r = 0; r < 5; r++) {
+			rt.incrementCounter();
+			rt.addValue("a", 10 * r);
+		}
+		assertEquals(5, view.size());
+		assertEquals(30, view.getValue(3), 0);
+		assertTrue(view.isShared());
+
+		// Until the column is created again, it reads as empty
+		rt.reset();
+		assertEquals(0, view.size());
+		rt.incrementCounter();
+		rt.addValue("a", 7);
+		assertEquals(1, view.size());
+		assertEquals(7, view.getValue(0), 0);
+	}
+
+	@Test
+	public void testOffHeapGenericTable() {
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < 10; r++) {
+			rt.incrementCounter();
+			rt.addValue("a", r + 0.5);
+			if (r % 3 == 0) rt.addValue("b", "s" + r);
+			else rt.addValue("b", r);
+		}
+		rt.setLabel("row 2", 2);
+
+		for (final boolean mapped : new boolean[] { false, true }) {
+			final OffHeapGenericTable copy = OffHeapGenericTable.copyOf(rt, 5,
+				mapped ? 5 : 100);
+			assertEquals(2, copy.getColumnCount());
+			assertEquals(10, copy.getRowCount());
+			assertEquals("row 2", copy.getRowHeader(2));
+			assertTrue(copy.get(0) instanceof OffHeapDoubleColumn);
+			assertTrue(copy.get(1) instanceof GenericColumn);
+			final OffHeapDoubleColumn column = (OffHeapDoubleColumn) copy.get(0);
+			assertEquals(mapped, column.isMapped());
+			assertEquals("a", column.getHeader());
+			for (int r = 0; r < 10; r++) {
+				assertEquals(r + 0.5, column.get(r), 0);
+				final Object expected = r % 3 == 0 ? "s" + r : (Object) (double) r;
+				assertEquals(expected, copy.get(1, r));
+			}
+
+			// Converts back to IJ1
+			final ij.measure.ResultsTable back = convertService.convert(copy,
+				ij.measure.ResultsTable.class);
+			assertEquals(10, back.size());
+			assertEquals(7.5, back.getValueAsDouble(0, 7), 0);
+			assertEquals("s3", back.getStringValue(1, 3));
+
+			// The copy is independent, and grows past its capacity
+			column.set(0, -1.0);
+			assertEquals(0.5, rt.getValueAsDouble(0, 0), 0);
+			column.add(1, 42.0);
+			assertEquals(42, column.getValue(1), 0);
+			assertEquals(1.5, column.getValue(2), 0);
+			assertEquals(Double.valueOf(42), column.remove(1));
+			for (int r = 0; r < 100; r++)
+				column.add((double) r);
+			assertEquals(110, column.size());
+			assertEquals(9.5, column.getValue(9), 0);
+			assertEquals(99, column.getValue(109), 0);
+			assertEquals(9, column.indexOf(9.5));
+
+			copy.close();
+			assertTrue(column.isClosed());
+			try {
+				column.getValue(0);
+				fail("Closed column should not be readable");
+			}
+			catch (final IllegalStateException exc) {
+				// NB: Expected.
+			}
+		}
+	}
+
+	@Test
+	public void testOffHeapDoubleColumnArrayMethods() {
+		for (final boolean mapped : new boolean[] { false, true }) {
+			final OffHeapDoubleColumn column = new OffHeapDoubleColumn("c", 2,
+				mapped);
+			column.fill(new double[] { 1, 2, 3 });
+			assertEquals(3, column.size());
+			assertTrue(column.capacity() >= 3);
+			assertTrue(Arrays.equals(new double[] { 1, 2, 3 }, column.getArray()));
+
+			// getArray() is a copy; setArray(...) copies into the column
+			column.getArray()[0] = 7;
+			assertEquals(1, column.getValue(0), 0);
+			column.setArray(new double[] { 4, 5, 6, 0, 0 });
+			assertEquals(3, column.size());
+			assertEquals(6, column.getValue(2), 0);
+
+			column.insert(1, 2);
+			assertTrue(Arrays.equals(new double[] { 4, 0, 0, 5, 6 }, column
+				.copyArray()));
+			column.delete(0, 3);
+			assertTrue(Arrays.equals(new double[] { 5, 6 }, column.copyArray()));
+			column.fill(new double[] { 8, 9 }, 3);
+			assertTrue(Arrays.equals(new double[] { 5, 6, 0, 8, 9 }, column
+				.copyArray()));
+			column.addValue(1, 3);
+			assertEquals(1, column.indexOf(3.0));
+			assertTrue(column.contains(9.0));
+			assertTrue(column.removeAll(Arrays.asList(0.0, 9.0)));
+			assertEquals(Arrays.asList(5.0, 3.0, 6.0, 8.0), new ArrayList<>(
+				column));
+			column.ensureCapacity(1000);
+			assertTrue(column.capacity() >= 1000);
+			assertEquals(4, column.size());
+			column.close();
+		}
+	}
+
+	@Test
+	public void testOffHeapGenericTableLarge() {
+		final int rows = 50_000_000;
+		// NB: The ResultsTable itself needs 400 MB, and more while growing.
+		assumeTrue(Runtime.getRuntime().maxMemory() >= 1536L << 20);
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < rows; r++) {
+			rt.incrementCounter();
+			rt.addValue("v", r);
+		}
+
+		final long before = usedHeap();
+		final OffHeapGenericTable copy = OffHeapGenericTable.copyOf(rt);
+		try {
+			// NB: An on-heap copy would take another 400 MB.
+			assertTrue(usedHeap() - before < 64L << 20);
+			final OffHeapDoubleColumn column = (OffHeapDoubleColumn) copy.get(0);
+			assertTrue(column.isMapped());
+			assertEquals(rows, copy.getRowCount());
+			for (int r = 0; r < rows; r += 999_983)
+				assertEquals(r, column.getValue(r), 0);
+			assertEquals(rows - 1, column.getValue(rows - 1), 0);
+		}
+		finally {
+			copy.close();
+		}
+	}
+
 	@Test
 	public void testConvert() {
 		final GenericTable t = convertService.convert(table, GenericTable.class);
@@ -347,6 +782,21 @@ public class ResultsTableConversionTest {
 		}
 	}
 
+	@Test
+	public void testConvertWideTable() {
+		// NB: Wider than the columns ImageJ 1.x allocates up front.
+		final IntTable it = new DefaultIntTable(400, 3);
+		for (int c = 0; c < it.getColumnCount(); c++) {
+			it.setColumnHeader(c, "feature " + c);
+			for (int r = 0; r < it.getRowCount(); r++)
+				it.set(c, r, c * r - 7);
+		}
+
+		final ij.measure.ResultsTable ijTable = convertService.convert(it,
+			ij.measure.ResultsTable.class);
+		assertTablesEqual(it, ijTable);
+	}
+
 	@Test
 	public void testConvertGenericTable() {
 		final GenericTable t = createGenericTable();
@@ -387,6 +837,126 @@ public class ResultsTableConversionTest {
 		assertEquals("kitten", t.get(4, 2));
 	}
 
+	@Test
+	public void testTableWrapperApplyMacro() {
+		final ResultsTable dt = new DefaultResultsTable(3, 4);
+		final String[] names = { "a", "b", "c" };
+		for (int c = 0; c < dt.getColumnCount(); c++) {
+			dt.setColumnHeader(c, names[c]);
+			for (int r = 0; r < dt.getRowCount(); r++)
+				dt.setValue(c, r, 10 * c + r);
+		}
+		final ij.measure.ResultsTable ijTable = new TableWrapper(dt,
+			convertService);
+
+		assertTrue(ijTable.applyMacro("b = a * 2;"));
+		for (int r = 0; r < dt.getRowCount(); r++) {
+			assertEquals(r, dt.getValue(0, r), 0);
+			assertEquals(2 * r, dt.getValue(1, r), 0);
+			assertEquals(20 + r, dt.getValue(2, r), 0);
+		}
+		assertTablesEqual(dt, ijTable);
+
+		// NB: Writes made after the macro are written through again.
+		ijTable.setValue(2, 3, -1);
+		assertEquals(-1, dt.getValue(2, 3), 0);
+	}
+
+	@Test
+	public void testTableWrapperApplyMacroNewColumn() {
+		final GenericTable t = new DefaultGenericTable(1, 4);
+		t.setColumnHeader(0, "a");
+		for (int r = 0; r < t.getRowCount(); r++)
+			t.set(0, r, (double) r);
+		final ij.measure.ResultsTable ijTable = new TableWrapper(t,
+			convertService);
+
+		// NB: Rows left at the initial value of the new column are written too.
+		assertTrue(ijTable.applyMacro("if (row == 2) New = 5; else New = 0;"));
+		assertEquals(2, t.getColumnCount());
+		assertEquals("New", t.getColumnHeader(1));
+		for (int r = 0; r < t.getRowCount(); r++) {
+			assertNotNull(t.get(1, r));
+			assertEquals(r == 2 ? 5 : 0, ((Number) t.get(1, r)).doubleValue(), 0);
+		}
+		assertTablesEqual(t, ijTable);
+	}
+
+	@Test
+	public void testTableWrapperTypedColumns() {
+		final Integer[][] data = new Integer[][] { { 1, 2, 3 }, { 4, 5, 6 } };
+		final IntTable it = new DefaultIntTable(data.length, data[0].length);
+		populateTable(it, data);
+		final FloatTable ft = new DefaultFloatTable(1, 2);
+		final ij.measure.ResultsTable intWrapper = new TableWrapper(it,
+			convertService);
+		final ij.measure.ResultsTable floatWrapper = new TableWrapper(ft,
+			convertService);
+
+		intWrapper.setValue(1, 2, 42);
+		assertEquals(Integer.valueOf(42), it.get(1, 2));
+		floatWrapper.setValue(0, 1, 0.25);
+		assertEquals(Float.valueOf(0.25f), ft.get(0, 1));
+
+		// NB: Replacing a column must not reuse the previous column's sink.
+		it.set(0, new IntColumn());
+		it.get(0).setSize(3);
+		intWrapper.setValue(0, 0, 7);
+		assertEquals(Integer.valueOf(7), it.get(0, 0));
+	}
+
+	@Test
+	public void testTableListWrapperSynchronize() {
+		final List<Table<?, ?>> tables = new ArrayList<>();
+		tables.add(new DefaultResultsTable(2, 3));
+		tables.add(createGenericTable());
+		final TableListWrapper wrapper = new TableListWrapper(tables,
+			convertService);
+		assertEquals(2, wrapper.size());
+
+		// Unchanged list: the source is kept as is
+		wrapper.get(0).setValue(0, 1, 5);
+		assertSame(tables, wrapper.getUpdatedSource());
+		assertEquals(5.0, tables.get(0).get(0, 1));
+
+		// Replaced element: only it is converted
+		final Table<?, ?> second = tables.get(1);
+		wrapper.set(0, table);
+		final List<Table<?, ?>> updated = wrapper.getUpdatedSource();
+		assertNotSame(tables, updated);
+		assertEquals(2, updated.size());
+		assertTrue(updated.get(0) instanceof ResultsTableWrapper);
+		assertSame(table, ((ResultsTableWrapper) updated.get(0)).getSource());
+		assertSame(second, updated.get(1));
+
+		// Removed element
+		wrapper.remove(1);
+		assertEquals(1, wrapper.getUpdatedSource().size());
+		assertSame(updated.get(0), wrapper.getUpdatedSource().get(0));
+	}
+
+	@Test
+	public void testTableListWrapperSynchronizeChangedTables() {
+		final List<Table<?, ?>> tables = new ArrayList<>();
+		tables.add(new DefaultResultsTable(2, 3));
+		tables.add(new DefaultResultsTable(1, 1));
+		final TableListWrapper wrapper = new TableListWrapper(tables,
+			convertService);
+		final ij.measure.ResultsTable first = wrapper.get(0);
+
+		// Rows added through the ResultsTable are written through
+		first.incrementCounter();
+		assertSame(tables, wrapper.getUpdatedSource());
+		assertEquals(4, tables.get(0).getRowCount());
+
+		// Rows added to the Table are not seen by its ResultsTable copy
+		tables.get(1).appendRows(2);
+		final List<Table<?, ?>> updated = wrapper.getUpdatedSource();
+		assertSame(tables.get(1), updated.get(1));
+		assertSame(first, wrapper.get(0));
+		assertEquals(3, wrapper.get(1).size());
+	}
+
 	@Test
 	public void testConverterMatchingToResultsTable() {
 		// Supported
@@ -465,6 +1035,12 @@ public class ResultsTableConversionTest {
 
 	// -- Helper methods --
 
+	private static long usedHeap() {
+		System.gc();
+		final Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
 	private void assertTablesEqual(final ij.measure.ResultsTable expected,
 		final Table<?, ?> actual)
 	{
@@ -546,6 +1122,60 @@ public class ResultsTableConversionTest {
 		return t;
 	}
 
+	/**
+	 * Creates a table with three columns, where the second column holds some
+	 * Strings and some rows have labels.
+	 */
+	private ij.measure.ResultsTable createRandomTable(final Random random,
+		final int rows)
+	{
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < rows; r++) {
+			rt.incrementCounter();
+			if (random.nextInt(3) == 0) rt.setLabel("row " + r, r);
+			rt.setValue("a", r, r);
+			if (random.nextBoolean()) rt.setValue("b", r, "s" + r);
+			else rt.setValue("b", r, random.nextDouble());
+			rt.setValue("c", r, -r);
+		}
+		return rt;
+	}
+
+	/** Returns each row of the table as its label followed by its values. */
+	private List<List<Object>> snapshot(final ij.measure.ResultsTable rt) {
+		final GenericTable t = new ResultsTableWrapper(rt);
+		final List<List<Object>> rows = new ArrayList<>();
+		for (int r = 0; r < t.getRowCount(); r++) {
+			final List<Object> row = new ArrayList<>();
+			row.add(t.getRowHeader(r));
+			for (int c = 0; c < t.getColumnCount(); c++)
+				row.add(t.get(c, r));
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	private List<Object> emptyRow(final String label, final int columns) {
+		final List<Object> row = new ArrayList<>();
+		row.add(label);
+		for (int c = 0; c < columns; c++)
+			row.add(Double.NaN);
+		return row;
+	}
+
+	private void assertLookupsEqual(final Column<Object> expected,
+		final Column<Object> actual, final List<Object> probes)
+	{
+		for (final Object probe : probes) {
+			assertEquals(String.valueOf(probe), expected.contains(probe), actual
+				.contains(probe));
+			assertEquals(String.valueOf(probe), expected.indexOf(probe), actual
+				.indexOf(probe));
+			assertEquals(String.valueOf(probe), expected.lastIndexOf(probe), actual
+				.lastIndexOf(probe));
+		}
+	}
+
 	private int computeColumnCount(final ij.measure.ResultsTable table) {
 		int count = 0;
 		for (int i = 0; i <= table.getLastColumn(); i++)
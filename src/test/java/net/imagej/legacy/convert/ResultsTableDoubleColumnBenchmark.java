@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.table.DoubleColumn;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for reading every column of a {@link ij.measure.ResultsTable} as
+ * a {@link DoubleColumn}: through {@link ResultsTableDoubleColumn} views,
+ * which share the table's arrays, versus copying each column. Run with the GC
+ * profiler, {@code gc.alloc.rate.norm} of the views should not depend on the
+ * number of rows.
+ */
+@State(Scope.Benchmark)
+public class ResultsTableDoubleColumnBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "1000", "100000" })
+	private int rows;
+
+	@Param({ "10" })
+	private int columns;
+
+	private ResultsTableWrapper table;
+
+	@Setup
+	public void setup() {
+		final ij.measure.ResultsTable rt = new ij.measure.ResultsTable();
+		for (int r = 0; r < rows; r++) {
+			rt.incrementCounter();
+			for (int c = 0; c < columns; c++)
+				rt.addValue("c" + c, r * c);
+		}
+		table = new ResultsTableWrapper(rt);
+	}
+
+	@Benchmark
+	public double views() {
+		double sum = 0;
+		for (int c = 0; c < columns; c++)
+			sum += sum(table.getDoubleColumn(c));
+		return sum;
+	}
+
+	@Benchmark
+	public double copies() {
+		final ij.measure.ResultsTable rt = table.getSource();
+		double sum = 0;
+		for (int c = 0; c < columns; c++) {
+			final DoubleColumn column = new DoubleColumn(rt.getColumnHeading(c));
+			column.fill(rt.getColumnAsDoubles(c));
+			sum += sum(column);
+		}
+		return sum;
+	}
+
+	// -- Helper methods --
+
+	private static double sum(final DoubleColumn column) {
+		final double[] values = column.getArray();
+		final int size = column.size();
+		double sum = 0;
+		for (int r = 0; r < size; r++)
+			sum += values[r];
+		return sum;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(ResultsTableDoubleColumnBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
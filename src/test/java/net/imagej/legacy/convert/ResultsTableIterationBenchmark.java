@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.table.Column;
+import net.imagej.table.DefaultGenericTable;
+import net.imagej.table.GenericColumn;
+import net.imagej.table.GenericTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for iterating a {@link ResultsTableWrapper}: a parallel stream
+ * reduction over its columns, compared with copying the table into a
+ * {@link DefaultGenericTable} and iterating the copy.
+ */
+@State(Scope.Benchmark)
+public class ResultsTableIterationBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	private ij.measure.ResultsTable table;
+
+	@Setup
+	public void setup() {
+		table = new ij.measure.ResultsTable();
+		for (int r = 0; r < rows; r++) {
+			table.incrementCounter();
+			for (int c = 0; c < 8; c++)
+				table.addValue("c" + c, r * c);
+		}
+	}
+
+	@Benchmark
+	public double parallelStream() {
+		return new ResultsTableWrapper(table).stream().parallel().mapToDouble(
+			ResultsTableIterationBenchmark::sum).sum();
+	}
+
+	@Benchmark
+	public double copyThenIterate() {
+		final GenericTable source = new ResultsTableWrapper(table);
+		final GenericTable copy = new DefaultGenericTable();
+		for (int c = 0; c < source.getColumnCount(); c++) {
+			final GenericColumn column = new GenericColumn(source.getColumnHeader(c));
+			for (int r = 0; r < source.getRowCount(); r++)
+				column.add(source.get(c, r));
+			copy.add(column);
+		}
+		double sum = 0;
+		for (final Column<?> column : copy)
+			sum += sum(column);
+		return sum;
+	}
+
+	// -- Helper methods --
+
+	private static double sum(final Column<?> column) {
+		double sum = 0;
+		for (final Object o : column)
+			sum += (Double) o;
+		return sum;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(ResultsTableIterationBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.gui.OvalRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+import ij.plugin.frame.RoiManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.legacy.LegacyInjector;
+import net.imagej.roi.DefaultROITree;
+import net.imagej.roi.ROITree;
+import net.imglib2.roi.MaskPredicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Benchmark for {@link RoiManagerSnapshot} on managers of mixed ROI types,
+ * compared with asking the {@link ConvertService} for each managed ROI in turn.
+ */
+@State(Scope.Benchmark)
+public class RoiManagerSnapshotBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "1000", "10000", "100000" })
+	private int numRois;
+
+	private Context context;
+	private ConvertService convertService;
+	private RoiManager manager;
+	private RoiManagerSnapshot snapshot;
+
+	@Setup
+	public void setup() {
+		context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+		manager = new RoiManager(true);
+		for (int i = 0; i < numRois; i++) {
+			final int x = (i % 300) * 10;
+			final int y = (i / 300) * 10;
+			final Roi roi;
+			switch (i % 3) {
+				case 0:
+					roi = new Roi(x, y, 6, 4);
+					break;
+				case 1:
+					roi = new OvalRoi(x, y, 5, 7);
+					break;
+				default:
+					roi = new PolygonRoi(new float[] { x, x + 8, x + 4 }, new float[] {
+						y, y, y + 6 }, Roi.POLYGON);
+			}
+			roi.setName("roi-" + i);
+			roi.setPosition(1, 1 + i % 10, 1);
+			manager.addRoi(roi);
+		}
+		snapshot = new RoiManagerSnapshot(convertService, manager);
+		snapshot.snapshot();
+	}
+
+	@TearDown
+	public void tearDown() {
+		manager.close();
+		context.dispose();
+	}
+
+	@Benchmark
+	public ROITree snapshot() {
+		return snapshot.snapshot();
+	}
+
+	/** Nothing was added since the last snapshot, so nothing is converted. */
+	@Benchmark
+	public ROITree refreshUnchanged() {
+		return snapshot.refresh();
+	}
+
+	/** Baseline: one {@link ConvertService} lookup per ROI. */
+	@Benchmark
+	public ROITree perRoi() {
+		final Roi[] rois = manager.getRoisAsArray();
+		final List<MaskPredicate<?>> converted = new ArrayList<>(rois.length);
+		for (final Roi roi : rois)
+			converted.add(convertService.convert(roi, MaskPredicate.class));
+		final ROITree tree = new DefaultROITree();
+		tree.addROIs(converted);
+		return tree;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(RoiManagerSnapshotBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
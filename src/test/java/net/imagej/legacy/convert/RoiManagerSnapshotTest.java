@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import ij.gui.OvalRoi;
+import ij.gui.Roi;
+import ij.plugin.frame.RoiManager;
+
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.legacy.convert.roi.IJRoiWrapper;
+import net.imagej.roi.ROITree;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+import org.scijava.util.TreeNode;
+
+/**
+ * Tests {@link RoiManagerSnapshot}.
+ * <p>
+ * Most tests take snapshots of an array of {@link Roi}s, so that they also run
+ * headless; {@link #testManager()} needs a {@link RoiManager}.
+ * </p>
+ */
+public class RoiManagerSnapshotTest {
+
+	private ConvertService convertService;
+	private List<Roi> rois;
+
+	@Before
+	public void setup() {
+		final Context context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+		rois = new ArrayList<>();
+	}
+
+	@After
+	public void tearDown() {
+		convertService.context().dispose();
+	}
+
+	@Test
+	public void testSnapshot() {
+		final int n = RoiConverterCache.PARALLEL_THRESHOLD * 2 + 5;
+		for (int i = 0; i < n; i++)
+			rois.add(roi(i));
+		final RoiManagerSnapshot snapshot = new RoiManagerSnapshot(convertService,
+			null);
+		assertTrue(snapshot.rois().children().isEmpty());
+
+		assertRois(snapshot.snapshot(array()));
+		assertEquals(n, snapshot.lastConverted());
+		assertRois(snapshot.snapshot(array()));
+		assertEquals(n, snapshot.lastConverted());
+	}
+
+	@Test
+	public void testRefresh() {
+		for (int i = 0; i < 10; i++)
+			rois.add(roi(i));
+		final RoiManagerSnapshot snapshot = new RoiManagerSnapshot(convertService,
+			null);
+		final ROITree first = snapshot.refresh(array());
+		assertEquals(10, snapshot.lastConverted());
+		final Object kept = first.children().get(3).data();
+
+		for (int i = 10; i < 15; i++)
+			rois.add(roi(i));
+		final ROITree second = snapshot.refresh(array());
+		assertEquals(5, snapshot.lastConverted());
+		assertRois(second);
+		assertSame(kept, second.children().get(3).data());
+
+		rois.remove(0);
+		final ROITree third = snapshot.refresh(array());
+		assertEquals(0, snapshot.lastConverted());
+		assertRois(third);
+		assertSame(kept, third.children().get(2).data());
+		assertSame(third, snapshot.rois());
+	}
+
+	@Test
+	public void testRefreshDuplicates() {
+		for (int i = 0; i < 6; i++)
+			rois.add(roi(i));
+		rois.add(rois.get(2));
+		final RoiManagerSnapshot snapshot = new RoiManagerSnapshot(convertService,
+			null);
+		final ROITree first = snapshot.refresh(array());
+		assertEquals(6, snapshot.lastConverted());
+		assertRois(first);
+		assertSame(first.children().get(2).data(), first.children().get(6)
+			.data());
+
+		final ROITree second = snapshot.refresh(array());
+		assertEquals(0, snapshot.lastConverted());
+		assertRois(second);
+	}
+
+	@Test
+	public void testManager() {
+		assumeTrue(!GraphicsEnvironment.isHeadless());
+		final RoiManager manager = new RoiManager(true);
+		try {
+			for (int i = 0; i < 10; i++) {
+				rois.add(roi(i));
+				manager.addRoi(rois.get(i));
+			}
+			final RoiManagerSnapshot snapshot = new RoiManagerSnapshot(
+				convertService, manager);
+			assertRois(snapshot.snapshot());
+
+			manager.select(0);
+			manager.runCommand("Delete");
+			rois.remove(0);
+			assertRois(snapshot.refresh());
+			assertEquals(0, snapshot.lastConverted());
+		}
+		finally {
+			manager.close();
+		}
+	}
+
+	// -- Helper methods --
+
+	private Roi[] array() {
+		return rois.toArray(new Roi[rois.size()]);
+	}
+
+	private Roi roi(final int i) {
+		final Roi roi = i % 2 == 0 ? new Roi(i * 10, 5, 8, 6) : new OvalRoi(i *
+			10, 20, 7, 9);
+		roi.setName("roi-" + i);
+		roi.setPosition(1 + i % 2, 1 + i % 3, 1 + i % 5);
+		return roi;
+	}
+
+	/**
+	 * Checks that the tree holds a wrapper of every {@link Roi}, in their order.
+	 */
+	private void assertRois(final ROITree tree) {
+		final List<TreeNode<?>> children = tree.children();
+		assertEquals(rois.size(), children.size());
+		for (int i = 0; i < rois.size(); i++) {
+			final Roi roi = ((IJRoiWrapper<?, ?>) children.get(i).data()).getRoi();
+			assertSame(rois.get(i), roi);
+			assertTrue(roi.getName().startsWith("roi-"));
+		}
+	}
+
+}
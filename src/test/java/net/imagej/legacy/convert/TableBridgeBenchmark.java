@@ -0,0 +1,297 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.ImagePlus;
+import ij.measure.Measurements;
+import ij.process.ByteProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.table.Column;
+import net.imagej.table.DefaultGenericTable;
+import net.imagej.table.DefaultResultsTable;
+import net.imagej.table.GenericColumn;
+import net.imagej.table.GenericTable;
+import net.imagej.table.Table;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Benchmark suite for the table bridges, over one grid of table shapes and
+ * contents: reads and writes through {@link ResultsTableWrapper} and
+ * {@link TableWrapper}, conversions in both directions,
+ * {@link TableWrapper#update} and {@link TableListWrapper#synchronize()}.
+ * Every benchmark touches the whole table, so scores are comparable across
+ * benchmarks of the same shape. {@link #main} runs with the GC profiler, for
+ * allocation per operation ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Copies made by {@code ResultsTableHarmonizer} are benchmarked by
+ * {@code ResultsTableHarmonizerBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class TableBridgeBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	/**
+	 * Columns x rows; spans 10 to 1M rows and 5 to 5000 columns, but omits the
+	 * corners above 5M cells (a 5000 x 1M table is 40 GB per copy).
+	 */
+	@Param({ "5x10", "5x10000", "5x1000000", "50x100000", "500x10000",
+		"5000x10", "5000x1000" })
+	private String shape;
+
+	/**
+	 * Either "numeric", or "mixed" where every fifth column holds Strings. The
+	 * modern table is a {@link DefaultResultsTable} or a
+	 * {@link DefaultGenericTable}, respectively.
+	 */
+	@Param({ "numeric", "mixed" })
+	private String content;
+
+	private int columns;
+	private int rows;
+	private boolean mixed;
+
+	private Context context;
+	private ConvertService convertService;
+
+	private ij.measure.ResultsTable legacy;
+	private Table<?, ?> modern;
+	private ResultsTableWrapper legacyWrapper;
+	private TableWrapper modernWrapper;
+	private TableListWrapper listWrapper;
+	private ij.measure.ResultsTable[] replacements;
+	private ImagePlus imp;
+	private int step;
+
+	@Setup
+	public void setup() {
+		final String[] dims = shape.split("x");
+		columns = Integer.parseInt(dims[0]);
+		rows = Integer.parseInt(dims[1]);
+		mixed = content.equals("mixed");
+
+		context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+
+		legacy = createLegacyTable();
+		modern = createModernTable();
+		legacyWrapper = new ResultsTableWrapper(legacy);
+		modernWrapper = new TableWrapper(modern, convertService);
+
+		final List<Table<?, ?>> list = new ArrayList<>();
+		list.add(createModernTable());
+		listWrapper = new TableListWrapper(list, convertService);
+		listWrapper.size(); // NB: Converts the table.
+		replacements = new ij.measure.ResultsTable[] { createLegacyTable(),
+			createLegacyTable() };
+
+		imp = new ImagePlus("benchmark", new ByteProcessor(16, 16));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	// -- Reads --
+
+	@Benchmark
+	public double readResultsTableWrapper() {
+		double sum = 0;
+		for (int c = 0; c < columns; c++) {
+			for (int r = 0; r < rows; r++) {
+				final Object value = legacyWrapper.get(c, r);
+				sum += value instanceof Double ? (Double) value : 1;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double readTableWrapper() {
+		double sum = 0;
+		for (int c = 0; c < columns; c++) {
+			if (isStringColumn(c)) {
+				for (int r = 0; r < rows; r++)
+					sum += modernWrapper.getStringValue(c, r).length();
+			}
+			else {
+				for (int r = 0; r < rows; r++)
+					sum += modernWrapper.getValueAsDouble(c, r);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double readDoubleColumns() {
+		double sum = 0;
+		for (int c = 0; c < columns; c++) {
+			final double[] values = legacyWrapper.getDoubleColumn(c).getArray();
+			for (int r = 0; r < rows; r++)
+				sum += values[r];
+		}
+		return sum;
+	}
+
+	// -- Writes --
+
+	@Benchmark
+	public Object writeResultsTableWrapper() {
+		final double offset = ++step;
+		for (int c = 0; c < columns; c++) {
+			if (isStringColumn(c)) continue;
+			for (int r = 0; r < rows; r++)
+				legacyWrapper.set(c, r, offset + r);
+		}
+		return legacyWrapper.get(columns - 1, rows - 1);
+	}
+
+	@Benchmark
+	public Object writeTableWrapper() {
+		final double offset = ++step;
+		for (int c = 0; c < columns; c++) {
+			if (isStringColumn(c)) continue;
+			for (int r = 0; r < rows; r++)
+				modernWrapper.setValue(c, r, offset + r);
+		}
+		return modern.get(columns - 1, rows - 1);
+	}
+
+	// -- Conversions --
+
+	@Benchmark
+	public GenericTable convertToGenericTable() {
+		return convertService.convert(legacy, GenericTable.class);
+	}
+
+	@Benchmark
+	public ij.measure.ResultsTable convertToResultsTable() {
+		return convertService.convert(modern, ij.measure.ResultsTable.class);
+	}
+
+	// -- Synchronization --
+
+	/**
+	 * Measures {@link TableWrapper#update} with unchanged measurements, as when
+	 * results are displayed after each measurement; only the first invocation
+	 * adds columns.
+	 */
+	@Benchmark
+	public int update() {
+		modernWrapper.update(Measurements.AREA | Measurements.MEAN, imp, null);
+		return modern.getColumnCount();
+	}
+
+	/** Measures {@link TableListWrapper#synchronize()} after a replacement. */
+	@Benchmark
+	public List<Table<?, ?>> synchronize() {
+		listWrapper.set(0, replacements[++step % replacements.length]);
+		return listWrapper.getUpdatedSource();
+	}
+
+	// -- Helper methods --
+
+	private boolean isStringColumn(final int c) {
+		return mixed && c % 5 == 0;
+	}
+
+	private ij.measure.ResultsTable createLegacyTable() {
+		final ij.measure.ResultsTable table = new ij.measure.ResultsTable();
+		for (int r = 0; r < rows; r++)
+			table.incrementCounter();
+		for (int c = 0; c < columns; c++) {
+			// NB: setValue(String, int, ...) looks up the heading for every cell.
+			final int col = table.getFreeColumn("c" + c);
+			for (int r = 0; r < rows; r++) {
+				if (isStringColumn(c)) table.setValue(col, r, "s" + r);
+				else table.setValue(col, r, c + 0.5 * r);
+			}
+		}
+		return table;
+	}
+
+	private Table<?, ?> createModernTable() {
+		if (!mixed) {
+			final DefaultResultsTable table = new DefaultResultsTable(columns, rows);
+			for (int c = 0; c < columns; c++) {
+				table.setColumnHeader(c, "c" + c);
+				for (int r = 0; r < rows; r++)
+					table.setValue(c, r, c + 0.5 * r);
+			}
+			return table;
+		}
+		final GenericTable table = new DefaultGenericTable();
+		for (int c = 0; c < columns; c++) {
+			final Column<Object> column = new GenericColumn("c" + c);
+			for (int r = 0; r < rows; r++)
+				column.add(isStringColumn(c) ? "s" + r : (Object) (c + 0.5 * r));
+			table.add(column);
+		}
+		return table;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(TableBridgeBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.jvmArgsAppend("-Xmx4g")
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
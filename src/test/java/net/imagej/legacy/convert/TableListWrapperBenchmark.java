@@ -0,0 +1,136 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.table.DefaultResultsTable;
+import net.imagej.table.ResultsTable;
+import net.imagej.table.Table;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Benchmark for {@link TableListWrapper#synchronize()}, with one of the
+ * attached tables changing per iteration.
+ */
+@State(Scope.Benchmark)
+public class TableListWrapperBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "1", "10", "50" })
+	private int tableCount;
+
+	private Context context;
+	private TableListWrapper wrapper;
+	private ij.measure.ResultsTable[] replacements;
+	private int index;
+	private int replaced;
+
+	@Setup
+	public void setup() {
+		context = new Context(ConvertService.class);
+		final List<Table<?, ?>> tables = new ArrayList<>();
+		for (int i = 0; i < tableCount; i++)
+			tables.add(createTable());
+		wrapper = new TableListWrapper(tables, context.service(
+			ConvertService.class));
+		wrapper.size(); // NB: Converts the tables.
+
+		replacements = new ij.measure.ResultsTable[2];
+		for (int i = 0; i < replacements.length; i++) {
+			replacements[i] = new ij.measure.ResultsTable();
+			for (int r = 0; r < 100; r++)
+				replacements[i].setValue("value", r, r);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public List<Table<?, ?>> modifyOne() {
+		index = (index + 1) % tableCount;
+		wrapper.get(index).setValue(0, 0, index);
+		return wrapper.getUpdatedSource();
+	}
+
+	@Benchmark
+	public List<Table<?, ?>> replaceOne() {
+		index = (index + 1) % tableCount;
+		wrapper.set(index, replacements[replaced++ % 2]);
+		return wrapper.getUpdatedSource();
+	}
+
+	// -- Helper methods --
+
+	private static ResultsTable createTable() {
+		final ResultsTable table = new DefaultResultsTable(5, 100);
+		for (int c = 0; c < table.getColumnCount(); c++) {
+			table.setColumnHeader(c, "c" + c);
+			for (int r = 0; r < table.getRowCount(); r++)
+				table.setValue(c, r, r * c);
+		}
+		return table;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(TableListWrapperBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
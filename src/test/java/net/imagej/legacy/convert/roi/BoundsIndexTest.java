@@ -0,0 +1,210 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.imglib2.FinalRealInterval;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link BoundsIndex} against a brute-force scan of all bounds.
+ */
+public class BoundsIndexTest {
+
+	private final Random random = new Random(0xB0D5);
+
+	@Test
+	public void testCandidates() {
+		final double[][] bounds = randomBounds(2000);
+		final Integer[] ids = ids(bounds.length);
+		final BoundsIndex<Integer> index = new BoundsIndex<>();
+		for (int i = 0; i < bounds.length; i++)
+			assertTrue(index.put(ids[i], bounds[i][0], bounds[i][1], bounds[i][2],
+				bounds[i][3]));
+		assertEquals(bounds.length, index.size());
+		assertMatchesScan(index, bounds);
+	}
+
+	@Test
+	public void testMoveAndRemove() {
+		final double[][] bounds = randomBounds(1000);
+		final Integer[] ids = ids(bounds.length);
+		final BoundsIndex<Integer> index = new BoundsIndex<>();
+		for (int i = 0; i < bounds.length; i++)
+			index.put(ids[i], bounds[i][0], bounds[i][1], bounds[i][2], bounds[i][3]);
+
+		// Same bounds: nothing to do
+		assertFalse(index.put(ids[7], bounds[7][0], bounds[7][1], bounds[7][2],
+			bounds[7][3]));
+
+		// Move a third of the items, possibly to another level
+		final double[][] moved = randomBounds(bounds.length);
+		for (int i = 0; i < bounds.length; i += 3) {
+			bounds[i] = moved[i];
+			assertTrue(index.put(ids[i], bounds[i][0], bounds[i][1], bounds[i][2],
+				bounds[i][3]));
+		}
+		// Remove another third
+		for (int i = 1; i < bounds.length; i += 3) {
+			assertTrue(index.remove(ids[i]));
+			assertFalse(index.remove(ids[i]));
+			bounds[i] = null;
+		}
+		assertEquals(bounds.length - (bounds.length + 1) / 3, index.size());
+		assertMatchesScan(index, bounds);
+
+		// Keep only the even items
+		final Set<Integer> even = new HashSet<>();
+		for (int i = 0; i < bounds.length; i++) {
+			if (i % 2 == 0) even.add(ids[i]);
+			else bounds[i] = null;
+		}
+		index.retainAll(even);
+		assertMatchesScan(index, bounds);
+
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(index.candidates(-1e9, -1e9, 1e9, 1e9).isEmpty());
+	}
+
+	@Test
+	public void testUnbounded() {
+		final BoundsIndex<String> index = new BoundsIndex<>();
+		index.put("all", Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+			Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+		index.put("nan", Double.NaN, 0, 1, 1);
+		index.put("box", new FinalRealInterval(new double[] { 2, 3 },
+			new double[] { 4, 5 }));
+		assertEquals(set("all", "nan", "box"), new HashSet<>(index.candidates(3,
+			4)));
+		assertEquals(set("all", "nan"), new HashSet<>(index.candidates(100,
+			-100)));
+		assertEquals(set("all", "nan", "box"), new HashSet<>(index.candidates(4,
+			5, 10, 10)));
+		assertTrue(index.remove("all"));
+		assertEquals(set("nan"), new HashSet<>(index.candidates(0, 0)));
+	}
+
+	// -- Helper methods --
+
+	/** The index compares items by identity, so each id is boxed once. */
+	private static Integer[] ids(final int n) {
+		final Integer[] ids = new Integer[n];
+		for (int i = 0; i < n; i++)
+			ids[i] = i;
+		return ids;
+	}
+
+	/**
+	 * Boxes of sizes from below one to a few hundred, around the origin so some
+	 * have negative coordinates.
+	 */
+	private double[][] randomBounds(final int n) {
+		final double[][] bounds = new double[n][];
+		for (int i = 0; i < n; i++) {
+			final double x = random.nextDouble() * 2000 - 500;
+			final double y = random.nextDouble() * 2000 - 500;
+			final double scale = Math.pow(2, random.nextInt(10) - 2);
+			final double w = random.nextDouble() * scale;
+			final double h = random.nextDouble() * scale;
+			bounds[i] = new double[] { x, y, x + w, y + h };
+		}
+		return bounds;
+	}
+
+	/** Compares point and rectangle queries with a scan of the bounds. */
+	private void assertMatchesScan(final BoundsIndex<Integer> index,
+		final double[][] bounds)
+	{
+		for (int q = 0; q < 300; q++) {
+			final double x = random.nextDouble() * 2200 - 600;
+			final double y = random.nextDouble() * 2200 - 600;
+			assertSameItems(scan(bounds, x, y, x, y), index.candidates(x, y));
+
+			final double size = Math.pow(2, random.nextInt(12) - 1);
+			final double x1 = x + random.nextDouble() * size;
+			final double y1 = y + random.nextDouble() * size;
+			assertSameItems(scan(bounds, x, y, x1, y1), index.candidates(x, y, x1,
+				y1));
+		}
+		// Query exactly on the corners of a few items
+		for (int i = 0; i < bounds.length; i += 97) {
+			if (bounds[i] == null) continue;
+			final double[] b = bounds[i];
+			assertSameItems(scan(bounds, b[0], b[1], b[0], b[1]), index.candidates(
+				b[0], b[1]));
+			assertSameItems(scan(bounds, b[2], b[3], b[2], b[3]), index.candidates(
+				b[2], b[3]));
+		}
+		assertSameItems(scan(bounds, -1e9, -1e9, 1e9, 1e9), index.candidates(-1e9,
+			-1e9, 1e9, 1e9));
+	}
+
+	private static List<Integer> scan(final double[][] bounds, final double x0,
+		final double y0, final double x1, final double y1)
+	{
+		final List<Integer> items = new ArrayList<>();
+		for (int i = 0; i < bounds.length; i++) {
+			final double[] b = bounds[i];
+			if (b != null && b[0] <= x1 && b[2] >= x0 && b[1] <= y1 && b[3] >= y0)
+				items.add(i);
+		}
+		return items;
+	}
+
+	private static void assertSameItems(final List<Integer> expected,
+		final List<Integer> actual)
+	{
+		final List<Integer> sorted = new ArrayList<>(actual);
+		Collections.sort(sorted);
+		// NB: Also checks that no item is reported twice.
+		assertEquals(expected, sorted);
+	}
+
+	private static Set<String> set(final String... items) {
+		final Set<String> set = new HashSet<>();
+		Collections.addAll(set, items);
+		return set;
+	}
+
+}
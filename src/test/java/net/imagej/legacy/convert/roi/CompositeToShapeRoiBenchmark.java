@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.Roi;
+import ij.gui.ShapeRoi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.imglib2.roi.RealMaskRealInterval;
+import net.imglib2.roi.geom.real.ClosedWritableEllipsoid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Benchmark for {@link BinaryCompositeMaskPredicateToShapeRoiConverter},
+ * converting the union of many cell-like ellipses, compared with combining the
+ * operands left to right.
+ */
+@State(Scope.Benchmark)
+public class CompositeToShapeRoiBenchmark {
+
+	@Param({ "10", "100", "1000", "5000" })
+	private int numOperands;
+
+	private Context context;
+	private ConvertService convertService;
+	private List<RealMaskRealInterval> cells;
+	private RealMaskRealInterval union;
+
+	@Setup
+	public void setup() {
+		context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+
+		// Cells on a jittered grid, so neighbours touch but most are disjoint
+		final Random rand = new Random(3);
+		final int columns = (int) Math.ceil(Math.sqrt(numOperands));
+		cells = new ArrayList<>();
+		for (int i = 0; i < numOperands; i++) {
+			final double x = (i % columns) * 20 + rand.nextDouble() * 4;
+			final double y = (i / columns) * 20 + rand.nextDouble() * 4;
+			cells.add(new ClosedWritableEllipsoid(new double[] { x, y },
+				new double[] { 8 + rand.nextDouble() * 4, 8 + rand.nextDouble() *
+					4 }));
+		}
+		union = cells.get(0);
+		for (int i = 1; i < numOperands; i++)
+			union = union.or(cells.get(i));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public ShapeRoi convert() {
+		return convertService.convert(union, ShapeRoi.class);
+	}
+
+	/** Baseline: left to right combination of the converted operands. */
+	@Benchmark
+	public ShapeRoi sequential() {
+		ShapeRoi base = new ShapeRoi(convertService.convert(cells.get(0),
+			Roi.class));
+		for (int i = 1; i < numOperands; i++)
+			base = base.or(new ShapeRoi(convertService.convert(cells.get(i),
+				Roi.class)));
+		return base;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(CompositeToShapeRoiBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(2)
+			.measurementIterations(4)
+			.warmupTime(TimeValue.seconds(1))
+			.measurementTime(TimeValue.seconds(1))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -41,12 +41,16 @@ import ij.gui.Arrow;
 import ij.gui.EllipseRoi;
 import ij.gui.ImageRoi;
 import ij.gui.Line;
+import ij.gui.OvalRoi;
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
 import ij.gui.RotatedRectRoi;
+import ij.gui.ShapeRoi;
 import ij.gui.TextRoi;
 
 import java.awt.Rectangle;
+import java.lang.reflect.Field;
+import java.util.Random;
 
 import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToEllipseRoiConverter;
 import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToLineConverter;
@@ -230,6 +234,126 @@ public class DefaultRoiConversionTest {
 		assertFalse(w.test(test));
 	}
 
+	@Test
+	public void testDefaultRoiWrapperBoundsAfterMoved() {
+		final Roi r = new Roi(10, 12, 30, 20);
+		final MaskInterval w = new DefaultRoiWrapper<>(r);
+		assertEquals(10, w.min(0));
+		assertEquals(40, w.max(0));
+
+		r.setLocation(50, 5);
+		assertEquals(50, w.min(0));
+		assertEquals(5, w.min(1));
+		assertEquals(80, w.max(0));
+		assertEquals(25, w.max(1));
+		assertEquals(30, w.dimension(0));
+		assertEquals(20, w.dimension(1));
+	}
+
+	@Test
+	public void testDefaultRoiWrapperRasterMode() {
+		final PolygonRoi spline = new PolygonRoi(new float[] { 0, 15, 30 },
+			new float[] { 10, 25, 10 }, Roi.POLYGON);
+		spline.fitSpline();
+		final ShapeRoi shape = new ShapeRoi(new Roi(0, 0, 40, 30)).xor(
+			new ShapeRoi(new OvalRoi(10.5, 5, 45, 31)));
+		final Roi[] rois = { createFreehandRoi(400, 60.5, 70.25, 50), spline,
+			new Roi(17, -3, 10, 16, 10), new Roi(3, 4, 50, 20), new OvalRoi(-7.5, 3,
+				41, 29), new EllipseRoi(10, 11, 60, 71, 0.5), new RotatedRectRoi(-3.5,
+					27, 30.5, 61, 6), shape };
+
+		for (final Roi roi : rois) {
+			final DefaultRoiWrapper<Roi> w = new DefaultRoiWrapper<>(roi, true);
+			assertTrue(w.isRasterized());
+			// NB: The first pass rasterizes the Roi, the second uses the raster.
+			assertSameAsContains(w, roi);
+			assertSameAsContains(w, roi);
+		}
+	}
+
+	@Test
+	public void testDefaultRoiWrapperRasterModeAfterChange() {
+		final Roi roi = createFreehandRoi(200, 40, 40, 30);
+		final DefaultRoiWrapper<Roi> w = new DefaultRoiWrapper<>(roi, true);
+		assertSameAsContains(w, roi);
+
+		roi.setLocation(100, -20);
+		assertSameAsContains(w, roi);
+		assertSameAsContains(w, roi);
+
+		w.synchronize();
+		assertSameAsContains(w, roi);
+		assertSameAsContains(w, roi);
+	}
+
+	@Test
+	public void testDefaultRoiWrapperRasterModeAfterGeometryChange()
+		throws Exception
+	{
+		final PolygonRoi polygon = new PolygonRoi(new float[] { 0, 40, 40, 20, 0 },
+			new float[] { 0, 0, 40, 20, 40 }, Roi.POLYGON);
+		final DefaultRoiWrapper<Roi> p = new DefaultRoiWrapper<>(polygon, true);
+		assertSameAsContains(p, polygon);
+
+		// NB: Move the inner vertex without changing bounds or vertex count.
+		final Rectangle bounds = polygon.getBounds();
+		final Field ypf = PolygonRoi.class.getDeclaredField("ypf");
+		ypf.setAccessible(true);
+		((float[]) ypf.get(polygon))[3] = 35;
+		assertEquals(bounds, polygon.getBounds());
+		// NB: Bulk operations compare the coordinates, queries need synchronize.
+		assertSpansSameAsContains(p.spans(), polygon);
+		p.synchronize();
+		assertSameAsContains(p, polygon);
+
+		final Roi rect = new Roi(3, 4, 50, 20, 16);
+		final DefaultRoiWrapper<Roi> r = new DefaultRoiWrapper<>(rect, true);
+		assertSameAsContains(r, rect);
+		rect.setCornerDiameter(4);
+		assertSameAsContains(r, rect);
+	}
+
+	@Test
+	public void testDefaultRoiWrapperSpans() {
+		final ShapeRoi shape = new ShapeRoi(new Roi(0, 0, 40, 30)).xor(
+			new ShapeRoi(new OvalRoi(10.5, 5, 45, 31)));
+		final Roi[] rois = { createFreehandRoi(400, 60.5, 70.25, 50), new Roi(17,
+			-3, 10, 16, 10), new Roi(3, 4, 50, 20), new EllipseRoi(10, 11, 60, 71,
+				0.5), new RotatedRectRoi(-3.5, 27, 30.5, 61, 6), shape, new Line(10,
+					10, 40, 25) };
+
+		for (final Roi roi : rois) {
+			assertSpansSameAsContains(new DefaultRoiWrapper<>(roi).spans(), roi);
+		}
+	}
+
+	@Test
+	public void testDefaultRoiWrapperSpansAfterChange() {
+		final Roi roi = new Roi(3, 4, 50, 20, 16);
+		final DefaultRoiWrapper<Roi> w = new DefaultRoiWrapper<>(roi);
+		assertSpansSameAsContains(w.spans(), roi);
+		assertSpansSameAsContains(w.spans(), roi);
+
+		roi.setCornerDiameter(4);
+		assertSpansSameAsContains(w.spans(), roi);
+		roi.setLocation(-10, 7);
+		assertSpansSameAsContains(w.spans(), roi);
+	}
+
+	@Test
+	public void testDefaultRoiWrapperSpansFromRaster() {
+		final Roi roi = createFreehandRoi(300, 50, 45, 35);
+		final DefaultRoiWrapper<Roi> w = new DefaultRoiWrapper<>(roi, true);
+		// NB: Dense queries rasterize the Roi, which spans() then reuses.
+		assertSameAsContains(w, roi);
+		assertSpansSameAsContains(w.spans(), roi);
+		assertSpansSameAsContains(w.spans(), roi);
+
+		roi.setLocation(-20, 11);
+		assertSpansSameAsContains(w.spans(), roi);
+		assertSameAsContains(w, roi);
+	}
+
 	// -- To MaskInterval conversion tests --
 
 	@Test
@@ -243,6 +367,20 @@ public class DefaultRoiConversionTest {
 		assertTrue(converted instanceof DefaultRoiWrapper);
 	}
 
+	@Test
+	public void testRoiToMaskIntervalConverterRasterMode() {
+		final Roi freehand = createFreehandRoi(100, 50, 50, 40);
+		final MaskInterval area = convertService.convert(freehand,
+			MaskInterval.class);
+		assertTrue(((DefaultRoiWrapper<?>) area).isRasterized());
+		assertSameAsContains(area, freehand);
+		assertSameAsContains(area, freehand);
+
+		final MaskInterval line = convertService.convert(new Line(10, 10, 100,
+			100), MaskInterval.class);
+		assertFalse(((DefaultRoiWrapper<?>) line).isRasterized());
+	}
+
 	@Test
 	public void testRoiToMaskIntervalConverterSplineFitPolygonRoi() {
 		final PolygonRoi p = new PolygonRoi(new float[] { 0, 15, 30 }, new float[] {
@@ -383,4 +521,68 @@ public class DefaultRoiConversionTest {
 		assertEquals(Roi.FREEROI, crrr.getType());
 		assertTrue(rrr == crrr);
 	}
+
+	// -- Helper methods --
+
+	/** Creates a star shaped freehand Roi with subpixel vertices. */
+	private static Roi createFreehandRoi(final int numVertices, final double cx,
+		final double cy, final double radius)
+	{
+		final Random rand = new Random(numVertices);
+		final float[] x = new float[numVertices];
+		final float[] y = new float[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			final double angle = 2 * Math.PI * i / numVertices;
+			final double r = radius * (0.6 + 0.4 * rand.nextDouble());
+			x[i] = (float) (cx + r * Math.cos(angle));
+			y[i] = (float) (cy + r * Math.sin(angle));
+		}
+		return new PolygonRoi(x, y, Roi.FREEROI);
+	}
+
+	/**
+	 * Checks that the spans cover exactly the positions within the bounds of the
+	 * Roi for which {@link Roi#contains(int, int)} is true.
+	 */
+	private static void assertSpansSameAsContains(final RoiSpans spans,
+		final Roi roi)
+	{
+		final Rectangle bounds = roi.getBounds();
+		final boolean[] covered = new boolean[bounds.width * bounds.height];
+		final RoiSpans.SpanIterator it = spans.spanIterator();
+		while (it.hasNext()) {
+			it.fwd();
+			for (int x = it.xStart(); x <= it.xEnd(); x++) {
+				assertTrue(bounds.contains(x, it.row()));
+				covered[(it.row() - bounds.y) * bounds.width + x - bounds.x] = true;
+			}
+		}
+		long area = 0;
+		for (int y = bounds.y; y < bounds.y + bounds.height; y++) {
+			for (int x = bounds.x; x < bounds.x + bounds.width; x++) {
+				final boolean contains = roi.contains(x, y);
+				assertEquals("(" + x + ", " + y + ")", contains, covered[(y -
+					bounds.y) * bounds.width + x - bounds.x]);
+				if (contains) area++;
+			}
+		}
+		assertEquals(area, spans.area());
+	}
+
+	/**
+	 * Checks that the wrapper agrees with {@link Roi#contains(int, int)} on and
+	 * around the bounds of the Roi.
+	 */
+	private static void assertSameAsContains(final MaskInterval w,
+		final Roi roi)
+	{
+		final Rectangle bounds = roi.getBounds();
+		for (int y = bounds.y - 2; y < bounds.y + bounds.height + 2; y++) {
+			for (int x = bounds.x - 2; x < bounds.x + bounds.width + 2; x++) {
+				test.setPosition(new int[] { x, y });
+				assertEquals("(" + x + ", " + y + ")", roi.contains(x, y), w.test(
+					test));
+			}
+		}
+	}
 }
@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.util.Random;
+
+import net.imglib2.Point;
+import net.imglib2.roi.MaskInterval;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for {@link DefaultRoiWrapper}, iterating over the bounds of large
+ * freehand Rois as a measurement would, with and without raster mode.
+ */
+@State(Scope.Thread)
+public class DefaultRoiWrapperBenchmark {
+
+	@Param({ "100", "500", "1500" })
+	private int radius;
+
+	@Param({ "1000", "10000" })
+	private int numVertices;
+
+	private Roi roi;
+	private DefaultRoiWrapper<Roi> rasterized;
+
+	@Setup
+	public void setup() {
+		// A star shaped outline, as traced around a cell
+		final Random rand = new Random(42);
+		final float[] x = new float[numVertices];
+		final float[] y = new float[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			final double angle = 2 * Math.PI * i / numVertices;
+			final double r = radius * (0.8 + 0.2 * rand.nextDouble());
+			x[i] = (float) (radius + r * Math.cos(angle));
+			y[i] = (float) (radius + r * Math.sin(angle));
+		}
+		roi = new PolygonRoi(x, y, Roi.FREEROI);
+		rasterized = new DefaultRoiWrapper<>(roi, true);
+		iterate(rasterized);
+	}
+
+	/** Baseline: {@code Roi.contains} for every position. */
+	@Benchmark
+	public long iterateContains() {
+		return iterate(new DefaultRoiWrapper<>(roi));
+	}
+
+	/** A new wrapper in raster mode, including rasterization. */
+	@Benchmark
+	public long iterateRasterFirst() {
+		return iterate(new DefaultRoiWrapper<>(roi, true));
+	}
+
+	/** A wrapper in raster mode whose raster already exists. */
+	@Benchmark
+	public long iterateRaster() {
+		return iterate(rasterized);
+	}
+
+	// -- Helper methods --
+
+	private static long iterate(final MaskInterval mask) {
+		final Point p = new Point(2);
+		long count = 0;
+		for (long y = mask.min(1); y <= mask.max(1); y++) {
+			p.setPosition(y, 1);
+			for (long x = mask.min(0); x <= mask.max(0); x++) {
+				p.setPosition(x, 0);
+				if (mask.test(p)) count++;
+			}
+		}
+		return count;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(DefaultRoiWrapperBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
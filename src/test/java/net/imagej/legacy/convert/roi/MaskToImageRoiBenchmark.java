@@ -0,0 +1,122 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.ImagePlus;
+import ij.gui.ImageRoi;
+
+import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.roi.Masks;
+import net.imglib2.roi.RealMaskRealInterval;
+import net.imglib2.roi.geom.real.ClosedWritableEllipsoid;
+import net.imglib2.type.logic.BoolType;
+import net.imglib2.view.Views;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Benchmark for {@link RealMaskRealIntervalToImageRoiConverter}, compared with
+ * rasterizing the mask through a {@link Dataset} and an {@link ImagePlus}.
+ */
+@State(Scope.Benchmark)
+public class MaskToImageRoiBenchmark {
+
+	@Param({ "64", "512", "2048" })
+	private int size;
+
+	private Context context;
+	private ConvertService convertService;
+	private DatasetService datasetService;
+	private RealMaskRealInterval mask;
+
+	@Setup
+	public void setup() {
+		context = new Context();
+		convertService = context.service(ConvertService.class);
+		datasetService = context.service(DatasetService.class);
+		mask = new ClosedWritableEllipsoid(new double[] { size / 2.0, size /
+			2.0 }, new double[] { size / 2.0, size / 3.0 });
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public ImageRoi convert() {
+		return convertService.convert(mask, ImageRoi.class);
+	}
+
+	/** Baseline: rasterizing through a Dataset and an ImagePlus. */
+	@Benchmark
+	public ImageRoi viaDataset() {
+		final RandomAccessible<BoolType> raster = Views.raster(Masks
+			.toRealRandomAccessibleRealInterval(mask));
+		final RandomAccessible<BoolType> translate = Views.translate(raster,
+			new long[] { (long) -mask.realMin(0), (long) -mask.realMin(1) });
+		final RandomAccessibleInterval<BoolType> rai = Views.interval(translate,
+			new long[] { 0, 0 }, new long[] { (long) (mask.realMax(0) - mask.realMin(
+				0)), (long) (mask.realMax(1) - mask.realMin(1)) });
+		final Dataset d = datasetService.create(rai);
+		final ImagePlus ip = convertService.convert(d, ImagePlus.class);
+		return new ImageRoi((int) mask.realMin(0), (int) mask.realMin(1), ip
+			.getBufferedImage());
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(MaskToImageRoiBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
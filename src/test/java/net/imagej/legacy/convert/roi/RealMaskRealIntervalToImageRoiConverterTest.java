@@ -36,6 +36,7 @@ import static org.junit.Assert.assertTrue;
 
 import ij.gui.ImageRoi;
 import ij.gui.Roi;
+import ij.process.ImageProcessor;
 
 import net.imglib2.FinalRealInterval;
 import net.imglib2.RealPoint;
@@ -43,6 +44,7 @@ import net.imglib2.realtransform.AffineTransform2D;
 import net.imglib2.roi.BoundaryType;
 import net.imglib2.roi.KnownConstant;
 import net.imglib2.roi.RealMaskRealInterval;
+import net.imglib2.roi.geom.real.ClosedWritableEllipsoid;
 import net.imglib2.roi.mask.real.DefaultRealMaskRealInterval;
 
 import org.junit.After;
@@ -111,4 +113,51 @@ public class RealMaskRealIntervalToImageRoiConverterTest {
 		assertEquals(mri.test(new RealPoint(pos)), ir.getProcessor().getPixelValue(
 			(int) tpos[0], (int) tpos[1]) > 0);
 	}
+
+	@Test
+	public void testConversionRasterizesEachPosition() {
+		final RealMaskRealInterval checker = new DefaultRealMaskRealInterval(
+			new FinalRealInterval(new double[] { 12, 10 }, new double[] { 50, 72 }),
+			BoundaryType.UNSPECIFIED, t -> (t.getDoublePosition(0) + t
+				.getDoublePosition(1)) % 2 == 0, KnownConstant.UNKNOWN);
+		assertRasterized(checker, convertService.convert(checker, ImageRoi.class));
+
+		// Fractional and negative bounds
+		final RealMaskRealInterval ellipse = new ClosedWritableEllipsoid(
+			new double[] { -3.5, 20.25 }, new double[] { 17.75, 9.5 });
+		assertRasterized(ellipse, convertService.convert(ellipse, ImageRoi.class));
+
+		// Spans several hundred rows
+		final RealMaskRealInterval big = new ClosedWritableEllipsoid(
+			new double[] { 300, 250 }, new double[] { 290, 180 });
+		assertRasterized(big, convertService.convert(big, ImageRoi.class));
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Checks that the ImageRoi starts at the mask's min truncated to integers,
+	 * and is set at exactly the integer positions inside the mask.
+	 */
+	private void assertRasterized(final RealMaskRealInterval mask,
+		final ImageRoi roi)
+	{
+		final long x0 = (long) mask.realMin(0);
+		final long y0 = (long) mask.realMin(1);
+		assertEquals(x0, roi.getXBase(), 0);
+		assertEquals(y0, roi.getYBase(), 0);
+		final ImageProcessor ip = roi.getProcessor();
+		assertEquals((long) (mask.realMax(0) - mask.realMin(0)) + 1, ip
+			.getWidth());
+		assertEquals((long) (mask.realMax(1) - mask.realMin(1)) + 1, ip
+			.getHeight());
+		final RealPoint p = new RealPoint(2);
+		for (int y = 0; y < ip.getHeight(); y++) {
+			for (int x = 0; x < ip.getWidth(); x++) {
+				p.setPosition(x0 + x, 0);
+				p.setPosition(y0 + y, 1);
+				assertEquals(mask.test(p), ip.getPixel(x, y) != 0);
+			}
+		}
+	}
 }
@@ -0,0 +1,313 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.ImageRoi;
+import ij.gui.OvalRoi;
+import ij.gui.PointRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+import ij.gui.RotatedRectRoi;
+import ij.gui.ShapeRoi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.imglib2.RealPoint;
+import net.imglib2.roi.MaskInterval;
+import net.imglib2.roi.RealMaskRealInterval;
+import net.imglib2.roi.geom.real.Box;
+import net.imglib2.roi.geom.real.ClosedWritableBox;
+import net.imglib2.roi.geom.real.ClosedWritableEllipsoid;
+import net.imglib2.roi.geom.real.DefaultWritablePolygon2D;
+import net.imglib2.roi.geom.real.DefaultWritablePolyline;
+import net.imglib2.roi.geom.real.DefaultWritableRealPointCollection;
+import net.imglib2.roi.geom.real.Ellipsoid;
+import net.imglib2.roi.geom.real.Polygon2D;
+import net.imglib2.roi.geom.real.Polyline;
+import net.imglib2.roi.geom.real.RealPointCollection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Benchmark for converting ImageJ 1.x Rois to ImgLib2 masks and back through
+ * the {@link ConvertService}, sweeping the number of vertices, the number of
+ * points and the depth of composite masks. The composites are converted with
+ * {@link BinaryCompositeMaskPredicateToShapeRoiConverter} and
+ * {@link RealMaskRealIntervalToImageRoiConverter}.
+ */
+@State(Scope.Benchmark)
+public class RoiConversionBenchmark {
+
+	private static final int SIZE = 256;
+
+	private Context context;
+	private ConvertService convertService;
+
+	private Roi rect;
+	private OvalRoi oval;
+	private RotatedRectRoi rotatedRect;
+	private Box box;
+	private Ellipsoid ellipsoid;
+
+	@Setup
+	public void setup() {
+		context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+
+		rect = new Roi(12.5, 30, 100, 70.25);
+		oval = new OvalRoi(10.5, 20.25, 200, 150);
+		rotatedRect = new RotatedRectRoi(20, 30.5, 200, 180, 40);
+		box = new ClosedWritableBox(new double[] { 12.5, 30 }, new double[] {
+			112.5, 100.25 });
+		ellipsoid = new ClosedWritableEllipsoid(new double[] { 110.5, 95.25 },
+			new double[] { 100, 75 });
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	// -- Roi to MaskPredicate --
+
+	@Benchmark
+	public Box rectToBox() {
+		return convertService.convert(rect, Box.class);
+	}
+
+	@Benchmark
+	public Ellipsoid ovalToEllipsoid() {
+		return convertService.convert(oval, Ellipsoid.class);
+	}
+
+	@Benchmark
+	public MaskInterval rotatedRectToMaskInterval() {
+		return convertService.convert(rotatedRect, MaskInterval.class);
+	}
+
+	@Benchmark
+	public Polygon2D polygonToPolygon2D(final Vertices v) {
+		return convertService.convert(v.polygon, Polygon2D.class);
+	}
+
+	@Benchmark
+	public Polygon2D freehandToPolygon2D(final Vertices v) {
+		return convertService.convert(v.freehand, Polygon2D.class);
+	}
+
+	@Benchmark
+	public Polyline polylineToPolyline(final Vertices v) {
+		return convertService.convert(v.polyline, Polyline.class);
+	}
+
+	@Benchmark
+	public RealMaskRealInterval shapeToMask(final Vertices v) {
+		return convertService.convert(v.shape, RealMaskRealInterval.class);
+	}
+
+	@Benchmark
+	public RealPointCollection<?> pointsToRealPointCollection(final Points p) {
+		return convertService.convert(p.pointRoi, RealPointCollection.class);
+	}
+
+	// -- MaskPredicate to Roi --
+
+	@Benchmark
+	public Roi boxToRoi() {
+		return convertService.convert(box, Roi.class);
+	}
+
+	@Benchmark
+	public OvalRoi ellipsoidToOval() {
+		return convertService.convert(ellipsoid, OvalRoi.class);
+	}
+
+	@Benchmark
+	public PolygonRoi polygon2DToPolygon(final Vertices v) {
+		return convertService.convert(v.polygon2D, PolygonRoi.class);
+	}
+
+	@Benchmark
+	public PolygonRoi polylineToPolygonRoi(final Vertices v) {
+		return convertService.convert(v.polyline2D, PolygonRoi.class);
+	}
+
+	@Benchmark
+	public PointRoi realPointCollectionToPoints(final Points p) {
+		return convertService.convert(p.collection, PointRoi.class);
+	}
+
+	@Benchmark
+	public ShapeRoi compositeToShape(final Composite c) {
+		return convertService.convert(c.composite, ShapeRoi.class);
+	}
+
+	@Benchmark
+	public ImageRoi compositeToImageRoi(final Composite c) {
+		return convertService.convert(c.composite, ImageRoi.class);
+	}
+
+	// -- Helper classes --
+
+	/** Polygons and polylines with {@code numVertices}, in both libraries. */
+	@State(Scope.Benchmark)
+	public static class Vertices {
+
+		@Param({ "8", "64", "512", "4096" })
+		private int numVertices;
+
+		private PolygonRoi polygon;
+		private PolygonRoi freehand;
+		private PolygonRoi polyline;
+		private ShapeRoi shape;
+		private Polygon2D polygon2D;
+		private Polyline polyline2D;
+
+		@Setup
+		public void setup() {
+			final Random rand = new Random(numVertices);
+			final float[] x = new float[numVertices];
+			final float[] y = new float[numVertices];
+			final double[] xd = new double[numVertices];
+			final double[] yd = new double[numVertices];
+			final List<RealPoint> vertices = new ArrayList<>();
+			for (int v = 0; v < numVertices; v++) {
+				final double angle = 2 * Math.PI * v / numVertices;
+				final double r = SIZE / 2 * (0.6 + 0.4 * rand.nextDouble());
+				x[v] = (float) (SIZE / 2 + r * Math.cos(angle));
+				y[v] = (float) (SIZE / 2 + r * Math.sin(angle));
+				xd[v] = x[v];
+				yd[v] = y[v];
+				vertices.add(new RealPoint(new double[] { xd[v], yd[v] }));
+			}
+			polygon = new PolygonRoi(x, y, Roi.POLYGON);
+			freehand = new PolygonRoi(x, y, Roi.FREEROI);
+			polyline = new PolygonRoi(x, y, Roi.POLYLINE);
+			shape = new ShapeRoi(freehand).xor(new ShapeRoi(new OvalRoi(SIZE / 4,
+				SIZE / 4, SIZE / 2, SIZE / 2)));
+			polygon2D = new DefaultWritablePolygon2D(xd, yd);
+			polyline2D = new DefaultWritablePolyline(vertices);
+		}
+	}
+
+	/** Point Rois and collections of {@code numPoints} random points. */
+	@State(Scope.Benchmark)
+	public static class Points {
+
+		@Param({ "10", "1000", "100000" })
+		private int numPoints;
+
+		private PointRoi pointRoi;
+		private RealPointCollection<RealPoint> collection;
+
+		@Setup
+		public void setup() {
+			final Random rand = new Random(numPoints);
+			final float[] x = new float[numPoints];
+			final float[] y = new float[numPoints];
+			final List<RealPoint> points = new ArrayList<>();
+			for (int p = 0; p < numPoints; p++) {
+				x[p] = rand.nextInt(SIZE) + (rand.nextBoolean() ? 0.25f : 0);
+				y[p] = rand.nextInt(SIZE);
+				points.add(new RealPoint(new double[] { x[p], y[p] }));
+			}
+			pointRoi = new PointRoi(x, y);
+			collection = new DefaultWritableRealPointCollection<>(points);
+		}
+	}
+
+	/**
+	 * A balanced composite of ellipses, {@code depth} levels deep, combined
+	 * with union, exclusive or and difference in turn.
+	 */
+	@State(Scope.Benchmark)
+	public static class Composite {
+
+		@Param({ "1", "4", "8" })
+		private int depth;
+
+		private RealMaskRealInterval composite;
+
+		@Setup
+		public void setup() {
+			composite = composite(depth, new Random(depth));
+		}
+
+		private static RealMaskRealInterval composite(final int level,
+			final Random rand)
+		{
+			if (level == 0) {
+				return new ClosedWritableEllipsoid(new double[] { rand.nextDouble() *
+					SIZE, rand.nextDouble() * SIZE }, new double[] { 8 + rand
+						.nextDouble() * 24, 8 + rand.nextDouble() * 24 });
+			}
+			final RealMaskRealInterval left = composite(level - 1, rand);
+			final RealMaskRealInterval right = composite(level - 1, rand);
+			switch (level % 3) {
+				case 0:
+					return left.or(right);
+				case 1:
+					return left.xor(right);
+				default:
+					return left.minus(right);
+			}
+		}
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(RoiConversionBenchmark.class.getName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.imglib2.Cursor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link RoiSpans}.
+ */
+public class RoiSpansTest {
+
+	@Rule
+	public final ExpectedException exception = ExpectedException.none();
+
+	@Test
+	public void testBuilder() {
+		final RoiSpans.Builder builder = new RoiSpans.Builder();
+		builder.add(-2, 3, 5);
+		builder.add(-2, 6, 6);
+		builder.add(-2, 9, 8);
+		builder.add(-2, 10, 12);
+		builder.add(4, -7, -7);
+		final RoiSpans spans = builder.build();
+
+		assertEquals(3, spans.numSpans());
+		assertEquals(9, spans.area());
+		assertSpan(spans, 0, -2, 3, 6);
+		assertSpan(spans, 1, -2, 10, 12);
+		assertSpan(spans, 2, 4, -7, -7);
+	}
+
+	@Test
+	public void testBuilderOverlappingSpans() {
+		final RoiSpans.Builder builder = new RoiSpans.Builder();
+		builder.add(0, 3, 5);
+
+		exception.expect(IllegalArgumentException.class);
+		builder.add(0, 5, 8);
+	}
+
+	@Test
+	public void testBuilderRowsOutOfOrder() {
+		final RoiSpans.Builder builder = new RoiSpans.Builder();
+		builder.add(1, 3, 5);
+
+		exception.expect(IllegalArgumentException.class);
+		builder.add(0, 10, 12);
+	}
+
+	@Test
+	public void testFromBits() {
+		final int x0 = -31;
+		final int y0 = 17;
+		final int width = 131;
+		final int height = 9;
+		final Random rand = new Random(0xdeadbeef);
+		final boolean[] inside = new boolean[width * height];
+		final long[] bits = new long[(width * height + 63) / 64];
+		for (int i = 0; i < inside.length; i++) {
+			// NB: Long runs, so spans cross word and row boundaries.
+			inside[i] = i > 0 && rand.nextInt(16) != 0 ? inside[i - 1] : rand
+				.nextBoolean();
+			if (inside[i]) bits[i >>> 6] |= 1L << i;
+		}
+
+		final RoiSpans spans = RoiSpans.fromBits(bits, x0, y0, width, height);
+		final boolean[] covered = new boolean[inside.length];
+		final RoiSpans.SpanIterator it = spans.spanIterator();
+		while (it.hasNext()) {
+			it.fwd();
+			for (int x = it.xStart(); x <= it.xEnd(); x++) {
+				covered[(it.row() - y0) * width + x - x0] = true;
+			}
+		}
+		assertArrayEquals(inside, covered);
+	}
+
+	@Test
+	public void testCursor() {
+		final RoiSpans spans = createSpans();
+		final List<long[]> expected = new ArrayList<>();
+		for (int s = 0; s < spans.numSpans(); s++) {
+			for (int x = spans.xStart(s); x <= spans.xEnd(s); x++)
+				expected.add(new long[] { x, spans.row(s) });
+		}
+		assertEquals(spans.area(), expected.size());
+
+		final Cursor<Void> c = spans.cursor();
+		final long[] position = new long[2];
+		for (final long[] p : expected) {
+			assertTrue(c.hasNext());
+			c.fwd();
+			c.localize(position);
+			assertArrayEquals(p, position);
+			assertEquals(p[0], c.getLongPosition(0));
+			assertEquals(p[1], c.getLongPosition(1));
+		}
+		assertFalse(c.hasNext());
+
+		c.reset();
+		c.fwd();
+		c.localize(position);
+		assertArrayEquals(expected.get(0), position);
+	}
+
+	@Test
+	public void testCursorJumpFwd() {
+		final RoiSpans spans = createSpans();
+		final Cursor<Void> stepped = spans.cursor();
+		final long[] expected = new long[2];
+		final long[] actual = new long[2];
+		for (long steps = 1; steps <= spans.area(); steps++) {
+			stepped.fwd();
+			stepped.localize(expected);
+			final Cursor<Void> jumped = spans.cursor();
+			jumped.jumpFwd(steps);
+			jumped.localize(actual);
+			assertArrayEquals(expected, actual);
+			assertEquals(stepped.hasNext(), jumped.hasNext());
+		}
+
+		// NB: Jumps from within a span.
+		final Cursor<Void> c = spans.cursor();
+		c.jumpFwd(3);
+		c.jumpFwd(9);
+		c.localize(actual);
+		assertArrayEquals(new long[] { -2, -3 }, actual);
+	}
+
+	@Test
+	public void testCursorCopy() {
+		final Cursor<Void> c = createSpans().cursor();
+		c.jumpFwd(5);
+		final Cursor<Void> copy = c.copyCursor();
+		c.fwd();
+		assertEquals(6, c.getLongPosition(0));
+		assertEquals(5, copy.getLongPosition(0));
+		copy.fwd();
+		assertEquals(6, copy.getLongPosition(0));
+		assertEquals(-5, copy.getLongPosition(1));
+	}
+
+	@Test
+	public void testEmpty() {
+		final RoiSpans spans = new RoiSpans.Builder().build();
+		assertEquals(0, spans.numSpans());
+		assertEquals(0, spans.area());
+		assertFalse(spans.spanIterator().hasNext());
+		assertFalse(spans.cursor().hasNext());
+	}
+
+	// -- Helper methods --
+
+	private static RoiSpans createSpans() {
+		final RoiSpans.Builder builder = new RoiSpans.Builder();
+		builder.add(-5, 0, 0);
+		builder.add(-5, 2, 9);
+		builder.add(-3, -4, 3);
+		builder.add(0, 7, 7);
+		builder.add(0, 10, 30);
+		builder.add(1, 1, 2);
+		return builder.build();
+	}
+
+	private static void assertSpan(final RoiSpans spans, final int span,
+		final int row, final int xStart, final int xEnd)
+	{
+		assertEquals(row, spans.row(span));
+		assertEquals(xStart, spans.xStart(span));
+		assertEquals(xEnd, spans.xEnd(span));
+	}
+
+}
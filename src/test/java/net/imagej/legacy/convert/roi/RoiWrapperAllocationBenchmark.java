@@ -0,0 +1,136 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.OvalRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import net.imagej.legacy.convert.roi.ellipsoid.OvalRoiWrapper;
+import net.imagej.legacy.convert.roi.polyline.IrregularPolylineRoiWrapper;
+import net.imglib2.Point;
+import net.imglib2.RealPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for the per-pixel methods of {@link OvalRoiWrapper},
+ * {@link IrregularPolylineRoiWrapper} and {@link DefaultRoiWrapper}. Run with
+ * the GC profiler, {@code gc.alloc.rate.norm} should be zero (or within noise)
+ * for every benchmark, since none of these methods allocate.
+ */
+@State(Scope.Thread)
+public class RoiWrapperAllocationBenchmark {
+
+	private static final int SIZE = 256;
+
+	private OvalRoiWrapper oval;
+	private IrregularPolylineRoiWrapper polyline;
+	private DefaultRoiWrapper<Roi> rect;
+
+	private final RealPoint realPosition = new RealPoint(2);
+	private final Point position = new Point(2);
+	private int i;
+
+	@Setup
+	public void setup() {
+		oval = new OvalRoiWrapper(new OvalRoi(10.5, 20.25, 200, 150));
+
+		final int n = 64;
+		final float[] x = new float[n];
+		final float[] y = new float[n];
+		for (int v = 0; v < n; v++) {
+			x[v] = v * SIZE / (float) n;
+			y[v] = SIZE / 2 + (float) Math.sin(v / 4.0) * SIZE / 3;
+		}
+		final PolygonRoi poly = new PolygonRoi(x, y, n, Roi.POLYLINE);
+		poly.updateWideLine(6);
+		polyline = new IrregularPolylineRoiWrapper(poly);
+
+		rect = new DefaultRoiWrapper<>(new Roi(12, 30, 100, 70));
+	}
+
+	@Benchmark
+	public boolean ovalTest() {
+		next(realPosition);
+		return oval.test(realPosition);
+	}
+
+	@Benchmark
+	public boolean polylineTest() {
+		next(realPosition);
+		return polyline.test(realPosition);
+	}
+
+	@Benchmark
+	public boolean defaultTest() {
+		position.setPosition(i % SIZE, 0);
+		position.setPosition(i++ / SIZE % SIZE, 1);
+		return rect.test(position);
+	}
+
+	@Benchmark
+	public long defaultBounds() {
+		return rect.min(0) + rect.min(1) + rect.max(0) + rect.max(1) + rect
+			.dimension(0) + rect.dimension(1);
+	}
+
+	// -- Helper methods --
+
+	/** Moves the query position to the next pixel of a SIZE x SIZE image. */
+	private void next(final RealPoint p) {
+		p.setPosition(i % SIZE, 0);
+		p.setPosition(i++ / SIZE % SIZE, 1);
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(RoiWrapperAllocationBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(200))
+			.measurementTime(TimeValue.milliseconds(200))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.Line;
+import ij.gui.OvalRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+import ij.gui.ShapeRoi;
+
+import java.util.Random;
+
+import net.imagej.legacy.convert.roi.box.RoiWrapper;
+import net.imagej.legacy.convert.roi.ellipsoid.OvalRoiWrapper;
+import net.imagej.legacy.convert.roi.line.IJLineWrapper;
+import net.imagej.legacy.convert.roi.point.PointRoiWrapper;
+import net.imagej.legacy.convert.roi.polygon2d.PolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.polygon2d.UnmodifiablePolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.polyline.IrregularPolylineRoiWrapper;
+import net.imagej.legacy.convert.roi.polyline.PolylineRoiWrapper;
+import net.imglib2.Point;
+import net.imglib2.RealInterval;
+import net.imglib2.RealPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for {@code test(...)} and the bounds of every wrapper of an ImageJ
+ * 1.x Roi as an ImgLib2 mask, sweeping the number of vertices and points. Each
+ * call tests the next position of a {@code SIZE x SIZE} image, so inside,
+ * outside and boundary positions are all measured. Run with the GC profiler,
+ * {@code gc.alloc.rate.norm} is the allocation per call.
+ */
+@State(Scope.Thread)
+public class RoiWrapperBenchmark {
+
+	private static final int SIZE = 256;
+
+	private RoiWrapper box;
+	private OvalRoiWrapper oval;
+	private IJLineWrapper line;
+	private DefaultRoiWrapper<Roi> rect;
+
+	private final RealPoint realPosition = new RealPoint(2);
+	private final Point position = new Point(2);
+	private int i;
+
+	@Setup
+	public void setup() {
+		box = new RoiWrapper(new Roi(12.5, 30, 100, 70.25));
+		oval = new OvalRoiWrapper(new OvalRoi(10.5, 20.25, 200, 150));
+		line = new IJLineWrapper(new Line(3.5, 10, 240, 200.25));
+		rect = new DefaultRoiWrapper<>(new Roi(12, 30, 100, 70));
+	}
+
+	// -- test(...) --
+
+	@Benchmark
+	public boolean boxTest() {
+		return box.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean ovalTest() {
+		return oval.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean lineTest() {
+		return line.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean defaultTest() {
+		return rect.test(next());
+	}
+
+	@Benchmark
+	public boolean polygonTest(final Vertices v) {
+		return v.polygon.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean freehandTest(final Vertices v) {
+		return v.freehand.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean defaultFreehandTest(final Vertices v) {
+		return v.defaultFreehand.test(next());
+	}
+
+	@Benchmark
+	public boolean polylineTest(final Vertices v) {
+		return v.polyline.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean widePolylineTest(final Vertices v) {
+		return v.widePolyline.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean shapeTest(final Vertices v) {
+		return v.shape.test(nextReal());
+	}
+
+	@Benchmark
+	public boolean pointTest(final Points p) {
+		return p.points.test(nextReal());
+	}
+
+	// -- Bounds --
+
+	@Benchmark
+	public double ovalBounds() {
+		return realBounds(oval);
+	}
+
+	@Benchmark
+	public long defaultBounds() {
+		return rect.min(0) + rect.min(1) + rect.max(0) + rect.max(1) + rect
+			.dimension(0) + rect.dimension(1);
+	}
+
+	@Benchmark
+	public double polygonBounds(final Vertices v) {
+		return realBounds(v.polygon);
+	}
+
+	@Benchmark
+	public double polylineBounds(final Vertices v) {
+		return realBounds(v.polyline);
+	}
+
+	@Benchmark
+	public double shapeBounds(final Vertices v) {
+		return realBounds(v.shape);
+	}
+
+	@Benchmark
+	public double pointBounds(final Points p) {
+		return realBounds(p.points);
+	}
+
+	// -- Helper methods --
+
+	/** Moves the query position to the next pixel of a SIZE x SIZE image. */
+	private RealPoint nextReal() {
+		realPosition.setPosition(i % SIZE + 0.25, 0);
+		realPosition.setPosition(i++ / SIZE % SIZE, 1);
+		return realPosition;
+	}
+
+	private Point next() {
+		position.setPosition(i % SIZE, 0);
+		position.setPosition(i++ / SIZE % SIZE, 1);
+		return position;
+	}
+
+	private static double realBounds(final RealInterval interval) {
+		return interval.realMin(0) + interval.realMin(1) + interval.realMax(0) +
+			interval.realMax(1);
+	}
+
+	// -- Helper classes --
+
+	/** Wrappers of Rois with a star shaped outline of {@code numVertices}. */
+	@State(Scope.Thread)
+	public static class Vertices {
+
+		@Param({ "8", "64", "512", "4096" })
+		private int numVertices;
+
+		private PolygonRoiWrapper polygon;
+		private UnmodifiablePolygonRoiWrapper freehand;
+		private DefaultRoiWrapper<Roi> defaultFreehand;
+		private PolylineRoiWrapper polyline;
+		private IrregularPolylineRoiWrapper widePolyline;
+		private ShapeRoiWrapper shape;
+
+		@Setup
+		public void setup() {
+			final Random rand = new Random(numVertices);
+			final float[] x = new float[numVertices];
+			final float[] y = new float[numVertices];
+			for (int v = 0; v < numVertices; v++) {
+				final double angle = 2 * Math.PI * v / numVertices;
+				final double r = SIZE / 2 * (0.6 + 0.4 * rand.nextDouble());
+				x[v] = (float) (SIZE / 2 + r * Math.cos(angle));
+				y[v] = (float) (SIZE / 2 + r * Math.sin(angle));
+			}
+			polygon = new PolygonRoiWrapper(x, y);
+			final PolygonRoi free = new PolygonRoi(x, y, Roi.FREEROI);
+			freehand = new UnmodifiablePolygonRoiWrapper(free);
+			defaultFreehand = new DefaultRoiWrapper<>(free);
+			polyline = new PolylineRoiWrapper(x, y);
+			final PolygonRoi wide = new PolygonRoi(x, y, Roi.POLYLINE);
+			wide.updateWideLine(6);
+			widePolyline = new IrregularPolylineRoiWrapper(wide);
+			shape = new ShapeRoiWrapper(new ShapeRoi(free).xor(new ShapeRoi(
+				new OvalRoi(SIZE / 4, SIZE / 4, SIZE / 2, SIZE / 2))));
+		}
+	}
+
+	/** A wrapper of {@code numPoints} random points. */
+	@State(Scope.Thread)
+	public static class Points {
+
+		@Param({ "10", "1000", "100000" })
+		private int numPoints;
+
+		private PointRoiWrapper points;
+
+		@Setup
+		public void setup() {
+			final Random rand = new Random(numPoints);
+			final float[] x = new float[numPoints];
+			final float[] y = new float[numPoints];
+			for (int p = 0; p < numPoints; p++) {
+				x[p] = rand.nextInt(SIZE) + (rand.nextBoolean() ? 0.25f : 0);
+				y[p] = rand.nextInt(SIZE);
+			}
+			points = new PointRoiWrapper(x, y);
+		}
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(RoiWrapperBenchmark.class.getName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(200))
+			.measurementTime(TimeValue.milliseconds(200))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -37,12 +37,20 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import ij.gui.OvalRoi;
+import ij.gui.PolygonRoi;
 import ij.gui.Roi;
 import ij.gui.ShapeRoi;
 
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToShapeRoiConverter;
 import net.imglib2.RealPoint;
 import net.imglib2.realtransform.AffineTransform2D;
+import net.imglib2.roi.Operators;
+import net.imglib2.roi.Operators.MaskOperator;
 import net.imglib2.roi.RealMask;
 import net.imglib2.roi.RealMaskRealInterval;
 import net.imglib2.roi.composite.CompositeMaskPredicate;
@@ -132,6 +140,97 @@ public class ShapeRoiConversionTest {
 		assertFalse(wrap.test(test));
 	}
 
+	@Test
+	public void testShapeRoiWrapperRasterMatchesShape() {
+		final Random rand = new Random(0xbeef);
+		for (int n = 0; n < 10; n++) {
+			ShapeRoi s = new ShapeRoi(randomRoi(rand));
+			for (int k = 0; k < 6; k++) {
+				final ShapeRoi other = new ShapeRoi(randomRoi(rand));
+				final int op = rand.nextInt(3);
+				s = op == 0 ? s.or(other) : op == 1 ? s.xor(other) : s.not(other);
+			}
+			final ShapeRoiWrapper w = new ShapeRoiWrapper(s);
+			final RealPoint test = new RealPoint(2);
+			final int x0 = (int) s.getXBase() - 2;
+			final int y0 = (int) s.getYBase() - 2;
+			final int x1 = (int) (s.getXBase() + s.getFloatWidth()) + 2;
+			final int y1 = (int) (s.getYBase() + s.getFloatHeight()) + 2;
+
+			// NB: Iterate twice, the first pass triggers the rasterization
+			for (int pass = 0; pass < 2; pass++) {
+				for (int y = y0; y <= y1; y++) {
+					for (int x = x0; x <= x1; x++) {
+						test.setPosition(x, 0);
+						test.setPosition(y, 1);
+						assertEquals(exactTest(s, x, y), w.test(test));
+					}
+				}
+			}
+
+			// Sub-pixel positions are always tested exactly
+			for (int i = 0; i < 1000; i++) {
+				final double x = x0 + rand.nextDouble() * (x1 - x0);
+				final double y = y0 + rand.nextDouble() * (y1 - y0);
+				test.setPosition(x, 0);
+				test.setPosition(y, 1);
+				assertEquals(exactTest(s, x, y), w.test(test));
+			}
+		}
+	}
+
+	@Test
+	public void testShapeRoiWrapperSpans() {
+		final Random rand = new Random(0xcafe);
+		for (int n = 0; n < 10; n++) {
+			ShapeRoi s = new ShapeRoi(randomRoi(rand));
+			for (int k = 0; k < 6; k++) {
+				final ShapeRoi other = new ShapeRoi(randomRoi(rand));
+				final int op = rand.nextInt(3);
+				s = op == 0 ? s.or(other) : op == 1 ? s.xor(other) : s.not(other);
+			}
+			final RoiSpans spans = new ShapeRoiWrapper(s).spans();
+			final int x0 = (int) s.getXBase() - 2;
+			final int y0 = (int) s.getYBase() - 2;
+			final int x1 = (int) (s.getXBase() + s.getFloatWidth()) + 2;
+			final int y1 = (int) (s.getYBase() + s.getFloatHeight()) + 2;
+			final int width = x1 - x0 + 1;
+			final boolean[] covered = new boolean[width * (y1 - y0 + 1)];
+			final RoiSpans.SpanIterator it = spans.spanIterator();
+			while (it.hasNext()) {
+				it.fwd();
+				for (int x = it.xStart(); x <= it.xEnd(); x++)
+					covered[(it.row() - y0) * width + x - x0] = true;
+			}
+
+			for (int y = y0; y <= y1; y++) {
+				for (int x = x0; x <= x1; x++) {
+					assertEquals(exactTest(s, x, y), covered[(y - y0) * width + x -
+						x0]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testShapeRoiWrapperRasterUpdatedAfterMoved() {
+		final RealPoint test = new RealPoint(2);
+		for (int i = 0; i < 100000; i++) {
+			test.setPosition(100 + i % 50, 0);
+			test.setPosition(240 + i / 50 % 50, 1);
+			wrap.test(test);
+		}
+		test.setPosition(105, 0);
+		test.setPosition(280, 1);
+		assertTrue(wrap.test(test));
+
+		shape.setLocation(300, 300);
+		assertFalse(wrap.test(test));
+		test.setPosition(305, 0);
+		test.setPosition(340, 1);
+		assertTrue(wrap.test(test));
+	}
+
 	@Test
 	public void testShapeRoiWrapperBounds() {
 		assertEquals(100, wrap.realMin(0), 0);
@@ -243,4 +342,111 @@ public class ShapeRoiConversionTest {
 		assertEquals(multi.realMax(0), s.getXBase() + s.getFloatWidth(), 0);
 		assertEquals(multi.realMax(1), s.getYBase() + s.getFloatHeight(), 0);
 	}
+
+	@Test
+	public void testMaskOperationResultToShapeRoiConverterBalanced() {
+		final Random rand = new Random(0xcafe);
+		final MaskOperator[] ops = { Operators.OR, Operators.AND, Operators.XOR,
+			Operators.MINUS };
+		for (final MaskOperator op : ops) {
+			for (final int n : new int[] { 2, 3, 17, 130 }) {
+				// Chain the operands, e.g. ((a | b) | c) | d, as scripts do
+				final List<RealMaskRealInterval> leaves = new ArrayList<>();
+				for (int i = 0; i < n; i++) {
+					// NB: AND needs overlapping operands to be interesting
+					final double spread = op == Operators.AND ? 10 : 200;
+					leaves.add(new ClosedWritableEllipsoid(new double[] { 100 + rand
+						.nextDouble() * spread, 100 + rand.nextDouble() * spread },
+						new double[] { 30 + rand.nextDouble() * 20, 30 + rand
+							.nextDouble() * 20 }));
+				}
+				RealMaskRealInterval chain = leaves.get(0);
+				for (int i = 1; i < n; i++)
+					chain = combine(chain, leaves.get(i), op);
+
+				final ShapeRoi balanced = convertService.convert(chain,
+					ShapeRoi.class);
+				final ShapeRoi sequential = sequential(leaves, op);
+
+				assertEquals(sequential.getBounds(), balanced.getBounds());
+				for (int y = 0; y < 400; y += 3) {
+					for (int x = 0; x < 400; x += 3) {
+						// NB: Offset the samples, so they are unlikely to be on an edge
+						final double xs = x + 0.3719;
+						final double ys = y + 0.5813;
+						assertEquals(exactTest(sequential, xs, ys), exactTest(balanced, xs,
+							ys));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMaskOperationResultToShapeRoiConverterKeepsOperands() {
+		final RealMaskRealInterval union = wrap.or(cb);
+		final Rectangle bounds = shape.getBounds();
+		convertService.convert(union, ShapeRoi.class);
+
+		// The wrapped ShapeRoi must not have been modified
+		assertEquals(bounds, shape.getBounds());
+	}
+
+	// -- Helper methods --
+
+	private static RealMaskRealInterval combine(final RealMaskRealInterval a,
+		final RealMaskRealInterval b, final MaskOperator op)
+	{
+		if (op == Operators.AND) return a.and(b);
+		if (op == Operators.OR) return a.or(b);
+		if (op == Operators.XOR) return a.xor(b);
+		return a.minus(b);
+	}
+
+	/** Combines the operands left to right, as the converter used to. */
+	private ShapeRoi sequential(final List<RealMaskRealInterval> leaves,
+		final MaskOperator op)
+	{
+		ShapeRoi base = new ShapeRoi(convertService.convert(leaves.get(0),
+			Roi.class));
+		for (int i = 1; i < leaves.size(); i++) {
+			final ShapeRoi sr = new ShapeRoi(convertService.convert(leaves.get(i),
+				Roi.class));
+			if (op == Operators.AND) base = base.and(sr);
+			else if (op == Operators.OR) base = base.or(sr);
+			else if (op == Operators.XOR) base = base.xor(sr);
+			else base = base.not(sr);
+		}
+		return base;
+	}
+
+
+	private static Roi randomRoi(final Random rand) {
+		final double x = rand.nextDouble() * 80;
+		final double y = rand.nextDouble() * 80;
+		final double w = 5 + rand.nextDouble() * 40;
+		final double h = 5 + rand.nextDouble() * 40;
+		switch (rand.nextInt(3)) {
+			case 0:
+				return new OvalRoi(x, y, w, h);
+			case 1:
+				return new Roi((int) x, (int) y, (int) w, (int) h);
+			default:
+				final int n = 3 + rand.nextInt(8);
+				final float[] px = new float[n];
+				final float[] py = new float[n];
+				for (int i = 0; i < n; i++) {
+					px[i] = (float) (x + rand.nextDouble() * w);
+					py[i] = (float) (y + rand.nextDouble() * h);
+				}
+				return new PolygonRoi(px, py, n, Roi.POLYGON);
+		}
+	}
+
+	private static boolean exactTest(final ShapeRoi s, final double x,
+		final double y)
+	{
+		return s.getShape().contains(x - s.getXBase(), y - s.getYBase());
+	}
+
 }
@@ -0,0 +1,134 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.gui.OvalRoi;
+import ij.gui.ShapeRoi;
+
+import java.awt.Shape;
+import java.util.Random;
+
+import net.imglib2.RealPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for iterating a {@link ShapeRoiWrapper} as a mask, i.e. testing
+ * every pixel of its bounding box, for composite {@link ShapeRoi}s made of
+ * increasing numbers of ovals.
+ */
+@State(Scope.Thread)
+public class ShapeRoiWrapperBenchmark {
+
+	@Param({ "10", "100", "500" })
+	private int numShapes;
+
+	private ShapeRoi roi;
+	private ShapeRoiWrapper warm;
+
+	@Setup
+	public void setup() {
+		final Random rand = new Random(7);
+		roi = new ShapeRoi(new OvalRoi(0, 0, 20, 20));
+		for (int i = 1; i < numShapes; i++) {
+			final ShapeRoi oval = new ShapeRoi(new OvalRoi(rand.nextDouble() * 500,
+				rand.nextDouble() * 500, 5 + rand.nextDouble() * 30, 5 + rand
+					.nextDouble() * 30));
+			roi = i % 5 == 0 ? roi.not(oval) : roi.or(oval);
+		}
+		warm = new ShapeRoiWrapper(roi);
+		iterate(warm);
+	}
+
+	/** First iteration of a new wrapper, including rasterization. */
+	@Benchmark
+	public int iterateNewWrapper() {
+		return iterate(new ShapeRoiWrapper(roi));
+	}
+
+	/** Iteration of a wrapper which has already been rasterized. */
+	@Benchmark
+	public int iterateRasterized() {
+		return iterate(warm);
+	}
+
+	/** Baseline: testing every pixel against the shape. */
+	@Benchmark
+	public int iterateShapeContains() {
+		final Shape shape = roi.getShape();
+		int count = 0;
+		for (int y = 0; y < roi.getFloatHeight(); y++)
+			for (int x = 0; x < roi.getFloatWidth(); x++)
+				if (shape.contains(x, y)) count++;
+		return count;
+	}
+
+	// -- Helper methods --
+
+	private int iterate(final ShapeRoiWrapper wrapper) {
+		final RealPoint p = new RealPoint(2);
+		final int x0 = (int) wrapper.realMin(0);
+		final int y0 = (int) wrapper.realMin(1);
+		final int x1 = (int) wrapper.realMax(0);
+		final int y1 = (int) wrapper.realMax(1);
+		int count = 0;
+		for (int y = y0; y <= y1; y++) {
+			p.setPosition(y, 1);
+			for (int x = x0; x <= x1; x++) {
+				p.setPosition(x, 0);
+				if (wrapper.test(p)) count++;
+			}
+		}
+		return count;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(ShapeRoiWrapperBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import java.util.Random;
+
+import net.imagej.legacy.convert.roi.polygon2d.PolygonRoiWrapper;
+import net.imglib2.Cursor;
+import net.imglib2.RandomAccess;
+import net.imglib2.RealPoint;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.FloatArray;
+import net.imglib2.type.numeric.real.FloatType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for summing an image over a polygon, testing every position of the
+ * bounding box versus iterating the {@link RoiSpans} of the polygon.
+ */
+@State(Scope.Thread)
+public class SpanIterationBenchmark {
+
+	private static final int SIZE = 2048;
+
+	/** A star filling its bounds, or a thin diagonal band which does not. */
+	@Param({ "star", "band" })
+	private String shape;
+
+	private ArrayImg<FloatType, FloatArray> img;
+	private float[] pixels;
+	private PolygonRoiWrapper polygon;
+
+	@Setup
+	public void setup() {
+		img = ArrayImgs.floats(SIZE, SIZE);
+		pixels = img.update(null).getCurrentStorageArray();
+		final Random rand = new Random(42);
+		for (int i = 0; i < pixels.length; i++)
+			pixels[i] = rand.nextFloat();
+
+		if (shape.equals("band")) {
+			polygon = new PolygonRoiWrapper(new float[] { 10.5f, 30.5f, 2030.5f,
+				2010.5f }, new float[] { 30.25f, 10.25f, 2010.25f, 2030.25f });
+			return;
+		}
+		final int numVertices = 1000;
+		final float[] x = new float[numVertices];
+		final float[] y = new float[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			final double angle = 2 * Math.PI * i / numVertices;
+			final double r = SIZE / 2 * (0.8 + 0.2 * rand.nextDouble()) - 1;
+			x[i] = (float) (SIZE / 2 + r * Math.cos(angle));
+			y[i] = (float) (SIZE / 2 + r * Math.sin(angle));
+		}
+		polygon = new PolygonRoiWrapper(x, y);
+	}
+
+	/** Baseline: {@code test(...)} for every position of the bounds. */
+	@Benchmark
+	public double sumTest() {
+		final RealPoint p = new RealPoint(2);
+		double sum = 0;
+		final int x0 = (int) Math.ceil(polygon.realMin(0));
+		final int x1 = (int) Math.floor(polygon.realMax(0));
+		final int y1 = (int) Math.floor(polygon.realMax(1));
+		for (int y = (int) Math.ceil(polygon.realMin(1)); y <= y1; y++) {
+			p.setPosition(y, 1);
+			for (int x = x0; x <= x1; x++) {
+				p.setPosition(x, 0);
+				if (polygon.test(p)) sum += pixels[y * SIZE + x];
+			}
+		}
+		return sum;
+	}
+
+	/** Spans of the polygon, summed directly from the pixel array. */
+	@Benchmark
+	public double sumSpans() {
+		final RoiSpans.SpanIterator it = polygon.spans().spanIterator();
+		double sum = 0;
+		while (it.hasNext()) {
+			it.fwd();
+			final int offset = it.row() * SIZE;
+			for (int x = it.xStart(); x <= it.xEnd(); x++)
+				sum += pixels[offset + x];
+		}
+		return sum;
+	}
+
+	/** The inside cursor of the polygon, reading through a RandomAccess. */
+	@Benchmark
+	public double sumInsideCursor() {
+		final Cursor<Void> c = polygon.insideCursor();
+		final RandomAccess<FloatType> ra = img.randomAccess();
+		double sum = 0;
+		while (c.hasNext()) {
+			c.fwd();
+			ra.setPosition(c);
+			sum += ra.get().get();
+		}
+		return sum;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(SpanIterationBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
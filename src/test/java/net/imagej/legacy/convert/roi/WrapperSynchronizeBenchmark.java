@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.imagej.legacy.convert.roi.box.BoxWrapper;
+import net.imagej.legacy.convert.roi.point.RealPointCollectionWrapper;
+import net.imagej.legacy.convert.roi.polygon2d.Polygon2DWrapper;
+import net.imglib2.RealPoint;
+import net.imglib2.roi.geom.real.ClosedWritableBox;
+import net.imglib2.roi.geom.real.DefaultWritablePolygon2D;
+import net.imglib2.roi.geom.real.DefaultWritableRealPointCollection;
+import net.imglib2.roi.util.RealLocalizableRealPositionable;
+import net.imglib2.roi.util.RealLocalizableRealPositionableWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for {@link MaskPredicateWrapper#synchronize()} of
+ * {@link Polygon2DWrapper}, {@link RealPointCollectionWrapper} and
+ * {@link BoxWrapper}, both when the Roi is unchanged and after it was moved.
+ */
+@State(Scope.Thread)
+public class WrapperSynchronizeBenchmark {
+
+	/** Number of polygon vertices and collection points. */
+	@Param({ "1000", "50000", "100000" })
+	private int size;
+
+	private Polygon2DWrapper polygon;
+	private RealPointCollectionWrapper points;
+	private BoxWrapper box;
+	private int moves;
+
+	@Setup
+	public void setup() {
+		final Random rand = new Random(42);
+
+		// A star shaped polygon, so its vertices are in order around the center
+		final double[] vx = new double[size];
+		final double[] vy = new double[size];
+		for (int i = 0; i < size; i++) {
+			final double angle = 2 * Math.PI * i / size;
+			final double radius = 500 + rand.nextDouble() * 100;
+			vx[i] = 1000 + radius * Math.cos(angle);
+			vy[i] = 1000 + radius * Math.sin(angle);
+		}
+		polygon = new Polygon2DWrapper(new DefaultWritablePolygon2D(vx, vy));
+
+		final List<RealLocalizableRealPositionable> pts = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			pts.add(new RealLocalizableRealPositionableWrapper<>(new RealPoint(
+				new double[] { rand.nextInt(2000), rand.nextInt(2000) })));
+		points = new RealPointCollectionWrapper(
+			new DefaultWritableRealPointCollection<>(pts));
+
+		box = new BoxWrapper(new ClosedWritableBox(new double[] { 10, 11 },
+			new double[] { 210, 311 }));
+	}
+
+	@Benchmark
+	public Polygon2DWrapper polygonUnchanged() {
+		polygon.synchronize();
+		return polygon;
+	}
+
+	@Benchmark
+	public Polygon2DWrapper polygonMoved() {
+		polygon.setLocation(400 + (moves++ & 1), 400);
+		polygon.synchronize();
+		return polygon;
+	}
+
+	@Benchmark
+	public RealPointCollectionWrapper pointsUnchanged() {
+		points.synchronize();
+		return points;
+	}
+
+	@Benchmark
+	public RealPointCollectionWrapper pointsMoved() {
+		points.setLocation(moves++ & 1, 0);
+		points.synchronize();
+		return points;
+	}
+
+	@Benchmark
+	public BoxWrapper boxUnchanged() {
+		box.synchronize();
+		return box;
+	}
+
+	@Benchmark
+	public BoxWrapper boxMoved() {
+		box.setLocation(10 + (moves++ & 1), 11);
+		box.synchronize();
+		return box;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(WrapperSynchronizeBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
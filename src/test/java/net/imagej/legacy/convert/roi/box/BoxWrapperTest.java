@@ -90,6 +90,16 @@ public class BoxWrapperTest {
 		assertEquals(b.sideLength(1), r.getFloatHeight(), 0);
 	}
 
+	@Test
+	public void testSynchronizeUnchanged() {
+		final WritableBox box = new ClosedWritableBox(new double[] { 0.1, 11 },
+			new double[] { 21.3, 30 });
+		new BoxWrapper(box).synchronize();
+
+		assertEquals(0.1, box.realMin(0), 0);
+		assertEquals(21.3, box.realMax(0), 0);
+	}
+
 	@Test
 	public void testGetUpdatedSource() {
 		r.setLocation(1, 3);
@@ -37,6 +37,8 @@ import static org.junit.Assert.assertTrue;
 
 import ij.gui.OvalRoi;
 
+import net.imagej.legacy.convert.roi.RoiSpans;
+import net.imglib2.Cursor;
 import net.imglib2.RealLocalizable;
 import net.imglib2.RealPoint;
 import net.imglib2.roi.geom.real.ClosedWritableEllipsoid;
@@ -165,4 +167,39 @@ public class OvalRoiWrapperTest {
 			.getDoublePosition(1), 0);
 	}
 
+	@Test
+	public void testOvalWrapperSpans() {
+		final OvalRoi[] ovals = { oval, new OvalRoi(-3.25, 7.5, 40.5, 13),
+			new OvalRoi(5, 5, 1, 1), new OvalRoi(20.5, 3, 0, 9), new OvalRoi(0, 0,
+				101, 57) };
+		for (final OvalRoi o : ovals) {
+			final OvalRoiWrapper w = new OvalRoiWrapper(o);
+			final RoiSpans spans = w.spans();
+			final int x0 = (int) Math.floor(w.realMin(0)) - 2;
+			final int y0 = (int) Math.floor(w.realMin(1)) - 2;
+			final int x1 = (int) Math.ceil(w.realMax(0)) + 2;
+			final int y1 = (int) Math.ceil(w.realMax(1)) + 2;
+			final int width = x1 - x0 + 1;
+			final boolean[] covered = new boolean[width * (y1 - y0 + 1)];
+			final Cursor<Void> c = w.insideCursor();
+			long count = 0;
+			while (c.hasNext()) {
+				c.fwd();
+				covered[(c.getIntPosition(1) - y0) * width + c.getIntPosition(0) -
+					x0] = true;
+				count++;
+			}
+			assertEquals(spans.area(), count);
+
+			final RealPoint test = new RealPoint(2);
+			for (int y = y0; y <= y1; y++) {
+				for (int x = x0; x <= x1; x++) {
+					test.setPosition(x, 0);
+					test.setPosition(y, 1);
+					assertEquals(w.test(test), covered[(y - y0) * width + x - x0]);
+				}
+			}
+		}
+	}
+
 }
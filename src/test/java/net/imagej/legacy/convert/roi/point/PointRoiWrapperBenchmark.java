@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi.point;
+
+import ij.gui.PointRoi;
+
+import java.util.Random;
+
+import net.imglib2.RealPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for {@link PointRoiWrapper}. Measures containment and bounds
+ * queries against multi-point Rois of different sizes, as produced by spot
+ * detection.
+ */
+@State(Scope.Thread)
+public class PointRoiWrapperBenchmark {
+
+	private static final int QUERIES = 1024;
+
+	@Param({ "1000", "10000", "100000", "1000000" })
+	private int numPoints;
+
+	private PointRoiWrapper wrapper;
+	private RealPoint[] queries;
+
+	@Setup
+	public void setup() {
+		final Random rand = new Random(42);
+		final int size = (int) Math.sqrt(numPoints) * 4;
+		final float[] x = new float[numPoints];
+		final float[] y = new float[numPoints];
+		for (int i = 0; i < numPoints; i++) {
+			x[i] = rand.nextInt(size);
+			y[i] = rand.nextInt(size);
+		}
+		wrapper = new PointRoiWrapper(new PointRoi(x, y, numPoints));
+
+		// Half of the queries hit a point, the other half are random pixels
+		queries = new RealPoint[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			final int p = rand.nextInt(numPoints);
+			queries[i] = i % 2 == 0 ? new RealPoint(x[p], y[p]) : new RealPoint(rand
+				.nextInt(size), rand.nextInt(size));
+		}
+		wrapper.test(queries[0]);
+	}
+
+	@Benchmark
+	public int testPoints() {
+		int hits = 0;
+		for (final RealPoint q : queries)
+			if (wrapper.test(q)) hits++;
+		return hits;
+	}
+
+	@Benchmark
+	public double bounds() {
+		return wrapper.realMin(0) + wrapper.realMin(1) + wrapper.realMax(0) +
+			wrapper.realMax(1);
+	}
+
+	@Benchmark
+	public boolean rebuildAndTest() {
+		wrapper.synchronize();
+		return wrapper.test(queries[0]);
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(PointRoiWrapperBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(200))
+			.measurementTime(TimeValue.milliseconds(200))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -42,6 +42,7 @@ import ij.gui.PointRoi;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 import net.imglib2.RealLocalizable;
 import net.imglib2.RealPoint;
@@ -213,4 +214,87 @@ public class PointRoiWrapperTest {
 		assertFalse(iw.hasNext());
 	}
 
+	@Test
+	public void testPointRoiWrapperMatchesLinearScan() {
+		final Random rand = new Random(0xdeadbeef);
+		for (final int n : new int[] { 1, 2, 17, 1000, 20000 }) {
+			final float[] x = new float[n];
+			final float[] y = new float[n];
+			for (int i = 0; i < n; i++) {
+				// NB: Use a coarse lattice so there are duplicates and collinear
+				// points, plus some sub-pixel positions
+				x[i] = rand.nextInt(200) / (rand.nextBoolean() ? 1f : 8f);
+				y[i] = n % 2 == 0 ? rand.nextInt(50) - 25.5f : 3;
+			}
+			final PointRoi roi = new PointRoi(x, y, n);
+			final PointRoiWrapper w = new PointRoiWrapper(roi);
+			final float[] px = roi.getContainedFloatPoints().xpoints;
+			final float[] py = roi.getContainedFloatPoints().ypoints;
+
+			for (int i = 0; i < n; i++)
+				assertTrue(w.test(new RealPoint(px[i], py[i])));
+			for (int i = 0; i < 5000; i++) {
+				final RealPoint p = new RealPoint(rand.nextInt(220) / 8.0 - 1, rand
+					.nextInt(60) - 30.5);
+				assertEquals(linearTest(roi, p), w.test(p));
+			}
+			for (int d = 0; d < 2; d++) {
+				assertEquals(linearMin(d == 0 ? px : py, n), w.realMin(d), 0);
+				assertEquals(linearMax(d == 0 ? px : py, n), w.realMax(d), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testPointRoiWrapperIndexUpdatedAfterRoiModified() {
+		assertFalse(wrap.test(new RealPoint(-7, 2)));
+		point.addPoint(-7, 2);
+		assertTrue(wrap.test(new RealPoint(-7, 2)));
+		assertEquals(-7, wrap.realMin(0), 0);
+	}
+
+	@Test
+	public void testPointRoiWrapperIndexUpdatedAfterPointMoved() {
+		final ImagePlus i = IJ.createImage("Ramp", "8-bit ramp", 128, 128, 1);
+		i.setRoi(point);
+		point.setImage(i);
+		point.addPoint(5, 5);
+		assertTrue(wrap.test(new RealPoint(5, 5)));
+
+		// Replace an inner point: same number of points and same bounds
+		point.deleteHandle(5, 5);
+		point.addPoint(9, 9);
+		assertEquals(4, point.getNCoordinates());
+		wrap.synchronize();
+		assertFalse(wrap.test(new RealPoint(5, 5)));
+		assertTrue(wrap.test(new RealPoint(9, 9)));
+	}
+
+	// -- Helper methods --
+
+	private static boolean linearTest(final PointRoi roi,
+		final RealLocalizable t)
+	{
+		final float[] x = roi.getContainedFloatPoints().xpoints;
+		final float[] y = roi.getContainedFloatPoints().ypoints;
+		for (int i = 0; i < roi.getNCoordinates(); i++)
+			if (t.getFloatPosition(0) == x[i] && t.getFloatPosition(1) == y[i])
+				return true;
+		return false;
+	}
+
+	private static double linearMin(final float[] c, final int n) {
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < n; i++)
+			if (c[i] < min) min = c[i];
+		return min;
+	}
+
+	private static double linearMax(final float[] c, final int n) {
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++)
+			if (c[i] > max) max = c[i];
+		return max;
+	}
+
 }
@@ -103,6 +103,32 @@ public class RealPointCollectionWrapperTest {
 		assertTrue(pointsEqual());
 	}
 
+	@Test
+	public void testSynchronizeUnchanged() {
+		final List<RealLocalizableRealPositionable> pts = new ArrayList<>(1);
+		pts.add(new RealLocalizableRealPositionableWrapper<>(new RealPoint(
+			new double[] { 0.1, 6.3 })));
+		final WritableRealPointCollection<RealLocalizableRealPositionable> p =
+			new DefaultWritableRealPointCollection<>(pts);
+		new RealPointCollectionWrapper(p).synchronize();
+
+		// NB: Points which did not change keep their double precision.
+		final RealLocalizable pt = p.points().iterator().next();
+		assertEquals(0.1, pt.getDoublePosition(0), 0);
+		assertEquals(6.3, pt.getDoublePosition(1), 0);
+	}
+
+	@Test
+	public void testSynchronizeMoved() {
+		wrap.setLocation(20, 30);
+
+		assertFalse(pointsEqual());
+
+		wrap.synchronize();
+
+		assertTrue(pointsEqual());
+	}
+
 	@Test
 	public void testGetUpdatedSource() {
 		wrap.deleteHandle(12, 3);
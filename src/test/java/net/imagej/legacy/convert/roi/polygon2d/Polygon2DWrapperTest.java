@@ -97,6 +97,32 @@ public class Polygon2DWrapperTest {
 		}
 	}
 
+	@Test
+	public void testSynchronizeUnchanged() {
+		final WritablePolygon2D p = new DefaultWritablePolygon2D(new double[] {
+			0.1, 4, 7 }, new double[] { 1, 13.3, 1 });
+		final Polygon2DWrapper w = new Polygon2DWrapper(p);
+		w.synchronize();
+
+		// NB: Vertices which did not change keep their double precision.
+		assertEquals(0.1, p.vertex(0).getDoublePosition(0), 0);
+		assertEquals(13.3, p.vertex(1).getDoublePosition(1), 0);
+	}
+
+	@Test
+	public void testSynchronizeMoved() {
+		wrap.setLocation(20, 30);
+		wrap.synchronize();
+
+		final float[] xp = wrap.getFloatPolygon().xpoints;
+		final float[] yp = wrap.getFloatPolygon().ypoints;
+		assertEquals(polygon.numVertices(), wrap.getFloatPolygon().npoints);
+		for (int i = 0; i < polygon.numVertices(); i++) {
+			assertEquals(polygon.vertex(i).getDoublePosition(0), xp[i], 0);
+			assertEquals(polygon.vertex(i).getDoublePosition(1), yp[i], 0);
+		}
+	}
+
 	@Test
 	public void testGetUpdatedSource() {
 		wrap.deleteHandle(4, -13);
@@ -40,6 +40,10 @@ import ij.ImagePlus;
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
 
+import java.util.Random;
+
+import net.imagej.legacy.convert.roi.RoiSpans;
+import net.imagej.legacy.convert.roi.SpanIterable;
 import net.imglib2.RealLocalizable;
 import net.imglib2.RealPoint;
 import net.imglib2.roi.geom.real.DefaultWritablePolygon2D;
@@ -163,4 +167,65 @@ public class PolygonRoiWrapperTest {
 		assertEquals(200, wrap.realMax(1), 0);
 	}
 
+	@Test
+	public void testPolygonRoiWrapperSpans() {
+		assertSpansSameAsTest((PolygonRoiWrapper) wrap);
+
+		// Self-intersecting star with vertices on integer rows
+		final float[] sx = new float[] { 50, 62, 20, 80, 38 };
+		final float[] sy = new float[] { 0, 40, 15, 15, 40 };
+		assertSpansSameAsTest(new PolygonRoiWrapper(sx, sy));
+
+		final Random rand = new Random(0x5eed);
+		for (int n = 0; n < 20; n++) {
+			final int numVertices = 3 + rand.nextInt(20);
+			final float[] x = new float[numVertices];
+			final float[] y = new float[numVertices];
+			for (int i = 0; i < numVertices; i++) {
+				// NB: Half of the polygons have integer vertices.
+				x[i] = n % 2 == 0 ? rand.nextInt(60) : rand.nextFloat() * 60 - 10;
+				y[i] = n % 2 == 0 ? rand.nextInt(40) : rand.nextFloat() * 40 + 3;
+			}
+			assertSpansSameAsTest(new PolygonRoiWrapper(x, y));
+		}
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Checks that the spans of the given polygon cover exactly the integer
+	 * positions for which its {@code test(...)} returns true.
+	 */
+	static <P extends Polygon2D & SpanIterable> void assertSpansSameAsTest(
+		final P p)
+	{
+		final int x0 = (int) Math.floor(p.realMin(0)) - 2;
+		final int y0 = (int) Math.floor(p.realMin(1)) - 2;
+		final int x1 = (int) Math.ceil(p.realMax(0)) + 2;
+		final int y1 = (int) Math.ceil(p.realMax(1)) + 2;
+		final int width = x1 - x0 + 1;
+		final boolean[] covered = new boolean[width * (y1 - y0 + 1)];
+		final RoiSpans spans = p.spans();
+		final RoiSpans.SpanIterator it = spans.spanIterator();
+		while (it.hasNext()) {
+			it.fwd();
+			for (int x = it.xStart(); x <= it.xEnd(); x++)
+				covered[(it.row() - y0) * width + x - x0] = true;
+		}
+
+		final RealPoint test = new RealPoint(2);
+		long area = 0;
+		for (int y = y0; y <= y1; y++) {
+			for (int x = x0; x <= x1; x++) {
+				test.setPosition(x, 0);
+				test.setPosition(y, 1);
+				final boolean inside = p.test(test);
+				assertEquals("(" + x + ", " + y + ")", inside, covered[(y - y0) *
+					width + x - x0]);
+				if (inside) area++;
+			}
+		}
+		assertEquals(area, spans.area());
+	}
+
 }
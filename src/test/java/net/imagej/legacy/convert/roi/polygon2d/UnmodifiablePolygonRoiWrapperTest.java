@@ -94,6 +94,12 @@ public class UnmodifiablePolygonRoiWrapperTest {
 		assertFalse(freeWrap.test(new RealPoint(new double[] { 27.25, 8 })));
 	}
 
+	@Test
+	public void testUnmodifiablePolygonRoiWrapperFreeRoiSpans() {
+		PolygonRoiWrapperTest.assertSpansSameAsTest(
+			(UnmodifiablePolygonRoiWrapper) freeWrap);
+	}
+
 	@Test
 	public void testUnmodifiablePolygonRoiWrapperFreeRoiBounds() {
 		assertEquals(0, freeWrap.realMin(0), 0);
@@ -120,6 +126,12 @@ public class UnmodifiablePolygonRoiWrapperTest {
 		assertFalse(tracedWrap.test(new RealPoint(new double[] { 8, 5 })));
 	}
 
+	@Test
+	public void testUnmodifiablePolygonRoiWrapperTracedRoiSpans() {
+		PolygonRoiWrapperTest.assertSpansSameAsTest(
+			(UnmodifiablePolygonRoiWrapper) tracedWrap);
+	}
+
 	@Test
 	public void testUnmodifiablePolygonRoiWrapperTracedRoiBounds() {
 		assertEquals(0, tracedWrap.realMin(0), 0);
@@ -38,6 +38,8 @@ import static org.junit.Assert.assertTrue;
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
 
+import java.lang.reflect.Field;
+
 import net.imglib2.Point;
 import net.imglib2.RealPoint;
 import net.imglib2.roi.RealMaskRealInterval;
@@ -115,6 +117,34 @@ public class IrregularPolylineRoiWrapperTest {
 		assertEquals(20 + 2, wrap.realMax(1), 0);
 	}
 
+	@Test
+	public void testIrregularPolylineRoiWrapperUpdatedAfterWidthChanged() {
+		poly.updateWideLine(4);
+		final Point test = new Point(new int[] { 7, 5 });
+		assertTrue(wrap.test(test));
+
+		// Cached segments must be refreshed when only the stroke width changes
+		poly.updateWideLine(1);
+		assertFalse(wrap.test(test));
+	}
+
+	@Test
+	public void testIrregularPolylineRoiWrapperUpdatedAfterVertexMoved()
+		throws ReflectiveOperationException
+	{
+		poly.updateWideLine(4);
+		final Point test = new Point(new int[] { 10, 10 });
+		assertTrue(wrap.test(test));
+
+		// Move (20, 20) to (40, 20), which keeps count and bounds
+		final float[] xpf = floatCoordinates(poly, "xpf");
+		xpf[1] += 20;
+		assertEquals(1.25, poly.getXBase(), 0);
+		wrap.synchronize();
+		assertFalse(wrap.test(test));
+		assertTrue(wrap.test(new Point(new int[] { 40, 20 })));
+	}
+
 	@Test
 	public void testIrregularPolylineRoiWrapperFreelineWithWidth() {
 		free.updateWideLine(10.5f);
@@ -215,4 +245,18 @@ public class IrregularPolylineRoiWrapperTest {
 		assertEquals(maxY + 2.5, wrap.realMax(1), 0);
 	}
 
+	// -- Helper methods --
+
+	/**
+	 * Returns the live coordinate array of the given Roi, relative to its base.
+	 * NB: ImageJ 1.x has no public API to move a single vertex.
+	 */
+	private static float[] floatCoordinates(final PolygonRoi roi,
+		final String name) throws ReflectiveOperationException
+	{
+		final Field field = PolygonRoi.class.getDeclaredField(name);
+		field.setAccessible(true);
+		return (float[]) field.get(roi);
+	}
+
 }
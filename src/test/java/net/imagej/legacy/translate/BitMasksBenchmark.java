@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import java.util.Random;
+
+import net.imglib2.RandomAccess;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.LongArray;
+import net.imglib2.type.logic.BitType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for {@link BitMasks}, transferring square masks between
+ * {@code byte[]} pixels and {@link BitType} images, compared with the
+ * column-major per-pixel access {@link OverlayHarmonizer} used before.
+ */
+@State(Scope.Thread)
+public class BitMasksBenchmark {
+
+	@Param({ "512", "2048", "8192", "16384" })
+	private int size;
+
+	private byte[] pixels;
+	private ArrayImg<BitType, LongArray> img;
+	private long[] bits;
+
+	@Setup
+	public void setup() {
+		final Random r = new Random(42);
+		pixels = new byte[size * size];
+
+		// A filled disk with noisy edges, like a typical mask
+		final double radius = size / 3.0;
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				final double dx = x - size / 2.0, dy = y - size / 2.0;
+				final double d = Math.sqrt(dx * dx + dy * dy) + r.nextGaussian() * 4;
+				pixels[y * size + x] = d < radius ? (byte) 255 : 0;
+			}
+		}
+		img = ArrayImgs.bits(size, size);
+		img.setLinkedType(new BitType(img));
+		bits = img.update(null).getCurrentStorageArray();
+	}
+
+	@Benchmark
+	public long[] pack() {
+		BitMasks.pack(pixels, 0, size, bits, size, size);
+		return bits;
+	}
+
+	@Benchmark
+	public byte[] unpack() {
+		BitMasks.unpack(bits, pixels, 0, size, size, size, (byte) 255);
+		return pixels;
+	}
+
+	/** Baseline: column-major per-pixel writes to the {@link BitType} image. */
+	@Benchmark
+	public long[] perPixelPack() {
+		final RandomAccess<BitType> ra = img.randomAccess();
+		for (int i = 0; i < size; i++) {
+			ra.setPosition(i, 0);
+			for (int j = 0; j < size; j++) {
+				ra.setPosition(j, 1);
+				ra.get().set(pixels[j * size + i] != 0);
+			}
+		}
+		return bits;
+	}
+
+	/** Baseline: column-major per-pixel reads from the {@link BitType} image. */
+	@Benchmark
+	public byte[] perPixelUnpack() {
+		final RandomAccess<BitType> ra = img.randomAccess();
+		for (int i = 0; i < size; i++) {
+			ra.setPosition(i, 0);
+			for (int j = 0; j < size; j++) {
+				ra.setPosition(j, 1);
+				pixels[j * size + i] = ra.get().get() ? (byte) 255 : 0;
+			}
+		}
+		return pixels;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(BitMasksBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.jvmArgsAppend("-Xmx4g")
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import net.imglib2.RandomAccess;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.LongArray;
+import net.imglib2.type.logic.BitType;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link BitMasks} against setting and reading one bit at a time.
+ */
+public class BitMasksTest {
+
+	@Test
+	public void testPack() {
+		final Random r = new Random(42);
+		for (int srcOffset = 0; srcOffset < 9; srcOffset++) {
+			for (int destBit = 0; destBit < 130; destBit += 7) {
+				for (int length = 0; length < 200; length += 13) {
+					final byte[] src = randomPixels(r, srcOffset + length);
+					final long[] dest = randomWords(r, (destBit + length) / 64 + 1);
+					final long[] expected = dest.clone();
+					for (int i = 0; i < length; i++)
+						setBit(expected, destBit + i, src[srcOffset + i] != 0);
+
+					BitMasks.pack(src, srcOffset, dest, destBit, length);
+					assertArrayEquals(expected, dest);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnpack() {
+		final Random r = new Random(43);
+		for (int srcBit = 0; srcBit < 130; srcBit += 7) {
+			for (int destOffset = 0; destOffset < 9; destOffset++) {
+				for (int length = 0; length < 200; length += 13) {
+					final long[] src = randomWords(r, (srcBit + length) / 64 + 1);
+					final byte[] dest = randomPixels(r, destOffset + length + 5);
+					final byte[] expected = dest.clone();
+					for (int i = 0; i < length; i++)
+						expected[destOffset + i] = getBit(src, srcBit + i) ? (byte) 2 : 0;
+
+					BitMasks.unpack(src, srcBit, dest, destOffset, length, (byte) 2);
+					assertArrayEquals(expected, dest);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyAndFullWords() {
+		final long[] src = { 0, -1, 0x5555555555555555L };
+		final byte[] dest = new byte[192];
+		BitMasks.unpack(src, 0, dest, 0, 192, (byte) -1);
+		for (int i = 0; i < 192; i++) {
+			final boolean expected = i >= 64 && (i < 128 || i % 2 == 0);
+			assertEquals(expected ? (byte) -1 : 0, dest[i]);
+		}
+
+		final long[] packed = new long[3];
+		BitMasks.pack(dest, 0, packed, 0, 192);
+		assertArrayEquals(src, packed);
+	}
+
+	@Test
+	public void testOddWidths() {
+		final Random r = new Random(44);
+		for (int width = 1; width <= 131; width += 2) {
+			for (final int height : new int[] { 1, 3, 17 }) {
+				final int stride = width + 5;
+				final int offset = 3;
+				final byte[] pixels = randomPixels(r, offset + stride * height);
+
+				// Pack a region of the pixels into a BitType image
+				final ArrayImg<BitType, LongArray> img = ArrayImgs.bits(width, height);
+				img.setLinkedType(new BitType(img));
+				final long[] bits = img.update(null).getCurrentStorageArray();
+				BitMasks.pack(pixels, offset, stride, bits, width, height);
+
+				final RandomAccess<BitType> ra = img.randomAccess();
+				for (int y = 0; y < height; y++) {
+					ra.setPosition(y, 1);
+					for (int x = 0; x < width; x++) {
+						ra.setPosition(x, 0);
+						assertEquals(pixels[offset + y * stride + x] != 0, ra.get().get());
+					}
+				}
+
+				// And back into a region of another array
+				final byte[] unpacked = new byte[offset + stride * height];
+				BitMasks.unpack(bits, unpacked, offset, stride, width, height,
+					(byte) 1);
+				for (int y = 0; y < height; y++) {
+					for (int x = 0; x < stride; x++) {
+						final int i = offset + y * stride + x;
+						final byte expected = x < width && pixels[i] != 0 ? (byte) 1 : 0;
+						assertEquals(expected, unpacked[i]);
+					}
+				}
+			}
+		}
+	}
+
+	// -- Helper methods --
+
+	private static byte[] randomPixels(final Random r, final int length) {
+		final byte[] pixels = new byte[length];
+		for (int i = 0; i < length; i++) {
+			// NB: Mostly empty, with some negative values.
+			final int v = r.nextInt(4);
+			pixels[i] = (byte) (v == 0 ? -1 - r.nextInt(128) : v == 1 ? 1 + r
+				.nextInt(127) : 0);
+		}
+		return pixels;
+	}
+
+	private static long[] randomWords(final Random r, final int length) {
+		final long[] words = new long[length];
+		for (int i = 0; i < length; i++)
+			words[i] = r.nextLong();
+		return words;
+	}
+
+	private static boolean getBit(final long[] bits, final long index) {
+		return (bits[(int) (index / 64)] & (1L << (index % 64))) != 0;
+	}
+
+	private static void setBit(final long[] bits, final long index,
+		final boolean value)
+	{
+		final long mask = 1L << (index % 64);
+		if (value) bits[(int) (index / 64)] |= mask;
+		else bits[(int) (index / 64)] &= ~mask;
+	}
+
+}
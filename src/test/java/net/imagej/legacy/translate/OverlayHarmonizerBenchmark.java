@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.ImagePlus;
+import ij.gui.NewImage;
+import ij.gui.OvalRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.awt.Rectangle;
+
+import net.imagej.display.ImageDisplay;
+import net.imagej.patcher.LegacyInjector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+
+/**
+ * Benchmark for {@link OverlayHarmonizer} with one ROI of the legacy overlay
+ * moved per iteration, comparing incremental harmonization with a full
+ * rebuild by a harmonizer which has not seen the display before.
+ * <p>
+ * The incremental cases keep one harmonizer, as
+ * {@link net.imagej.legacy.LegacyImageMap} does across mode switches; the
+ * full rebuild is what a new harmonizer per switch used to cost.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class OverlayHarmonizerBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Param({ "10", "100", "1000", "10000" })
+	private int rois;
+
+	private Context context;
+	private ImagePlus imp;
+	private ImageDisplay display;
+	private OverlayHarmonizer harmonizer;
+	private int index;
+
+	@Setup
+	public void setup() {
+		context = new Context();
+		imp = NewImage.createByteImage("overlay", 512, 512, 1,
+			NewImage.FILL_BLACK);
+		final ij.gui.Overlay overlay = new ij.gui.Overlay();
+		for (int i = 0; i < rois; i++) {
+			final int x = i * 37 % 480, y = i * 101 % 480;
+			switch (i % 3) {
+				case 0:
+					overlay.add(new Roi(x, y, 20, 12));
+					break;
+				case 1:
+					overlay.add(new OvalRoi(x, y, 15, 25));
+					break;
+				default:
+					overlay.add(new PolygonRoi(new float[] { x, x + 20, x + 10 },
+						new float[] { y, y, y + 30 }, 3, Roi.POLYGON));
+			}
+		}
+		imp.setOverlay(overlay);
+		display = new DisplayCreator(context).createDisplay(imp);
+		harmonizer = new OverlayHarmonizer(context);
+		harmonizer.updateDisplay(display, imp);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public void incremental() {
+		moveOne();
+		harmonizer.updateDisplay(display, imp);
+	}
+
+	@Benchmark
+	public void incrementalRoundTrip() {
+		moveOne();
+		harmonizer.updateDisplay(display, imp);
+		harmonizer.updateLegacyImage(display, imp);
+	}
+
+	@Benchmark
+	public void fullRebuild() {
+		moveOne();
+		new OverlayHarmonizer(context).updateDisplay(display, imp);
+	}
+
+	// -- Helper methods --
+
+	private void moveOne() {
+		final Roi roi = imp.getOverlay().get(index++ % rois);
+		final Rectangle bounds = roi.getBounds();
+		roi.setLocation(bounds.x + (index % 2 == 0 ? 1 : -1), bounds.y);
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(OverlayHarmonizerBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import ij.ImagePlus;
+import ij.gui.NewImage;
+import ij.gui.OvalRoi;
+import ij.gui.Roi;
+import ij.process.ImageProcessor;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.overlay.BinaryMaskOverlay;
+import net.imagej.overlay.Overlay;
+import net.imagej.patcher.LegacyInjector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+
+/**
+ * Tests the binary mask overlays created by {@link OverlayHarmonizer}.
+ */
+public class OverlayHarmonizerMaskTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private Context context;
+
+	@Before
+	public void setUp() {
+		context = new Context();
+	}
+
+	@After
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Test
+	public void testTranslatedMaskRoundTrip() {
+		final OverlayHarmonizer harmonizer = new OverlayHarmonizer(context);
+		final Roi source = new OvalRoi(13, 7, 41, 25);
+		final Overlay overlay = harmonizer.createDefaultOverlay(source);
+		assertTrue(overlay instanceof BinaryMaskOverlay);
+
+		final ImagePlus imp = NewImage.createByteImage("mask", 80, 50, 1,
+			NewImage.FILL_BLACK);
+		final List<Overlay> overlays = new ArrayList<>();
+		overlays.add(overlay);
+		harmonizer.setOverlays(overlays, overlay, imp);
+		final Roi roi = imp.getRoi();
+
+		// NB: The mask is what was translated, so compare with it.
+		final Rectangle bounds = source.getBounds();
+		final ImageProcessor mask = source.getMask();
+		for (int y = bounds.y - 2; y < bounds.y + bounds.height + 2; y++) {
+			for (int x = bounds.x - 2; x < bounds.x + bounds.width + 2; x++) {
+				final boolean expected = bounds.contains(x, y) && mask.get(x -
+					bounds.x, y - bounds.y) != 0;
+				assertEquals("(" + x + ", " + y + ")", expected, roi.contains(x, y));
+			}
+		}
+	}
+
+}
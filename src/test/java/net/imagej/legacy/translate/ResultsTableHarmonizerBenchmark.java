@@ -0,0 +1,109 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.table.DefaultResultsTable;
+import net.imagej.table.ResultsTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Benchmark for the table copies of {@link ResultsTableHarmonizer}, for
+ * particle analysis sized tables.
+ */
+@State(Scope.Benchmark)
+public class ResultsTableHarmonizerBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private static final String[] HEADINGS = { "Area", "Mean", "StdDev", "Min",
+		"Max", "X", "Y", "Perim.", "Circ.", "Solidity" };
+
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	private ResultsTable table;
+	private ij.measure.ResultsTable ij1Table;
+
+	@Setup
+	public void setup() {
+		table = new DefaultResultsTable(HEADINGS.length, rows);
+		ij1Table = new ij.measure.ResultsTable();
+		for (int r = 0; r < rows; r++)
+			ij1Table.incrementCounter();
+		for (int c = 0; c < HEADINGS.length; c++) {
+			table.setColumnHeader(c, HEADINGS[c]);
+			for (int r = 0; r < rows; r++) {
+				table.setValue(c, r, r * (c + 1));
+				ij1Table.setValue(HEADINGS[c], r, r * (c + 1));
+			}
+		}
+	}
+
+	@Benchmark
+	public ij.measure.ResultsTable toLegacy() {
+		final ij.measure.ResultsTable result = new ij.measure.ResultsTable();
+		ResultsTableHarmonizer.copyToLegacy(table, result);
+		return result;
+	}
+
+	@Benchmark
+	public ResultsTable toModern() {
+		final ResultsTable result = new DefaultResultsTable();
+		ResultsTableHarmonizer.copyToModern(ij1Table, result);
+		return result;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(ResultsTableHarmonizerBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}
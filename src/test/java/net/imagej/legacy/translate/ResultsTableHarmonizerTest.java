@@ -0,0 +1,204 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.table.DefaultResultsTable;
+import net.imagej.table.ResultsTable;
+
+import org.junit.Test;
+
+/**
+ * Tests the table copies of {@link ResultsTableHarmonizer}.
+ */
+public class ResultsTableHarmonizerTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private static final String[] HEADERS = { null, "Area", "Mean", "X", "Y",
+		"Mean" };
+
+	@Test
+	public void testCopyToLegacy() {
+		final Random random = new Random(0xdeadbeef);
+		for (int i = 0; i < 50; i++) {
+			final ResultsTable table = randomTable(random);
+			final ij.measure.ResultsTable expected = new ij.measure.ResultsTable();
+			copyToLegacyByCell(table, expected);
+			final ij.measure.ResultsTable actual = new ij.measure.ResultsTable();
+			ResultsTableHarmonizer.copyToLegacy(table, actual);
+			assertTablesEqual(expected, actual);
+		}
+	}
+
+	@Test
+	public void testCopyToModern() {
+		final Random random = new Random(0xcafe);
+		for (int i = 0; i < 50; i++) {
+			final ij.measure.ResultsTable ij1Table = randomLegacyTable(random);
+			final ResultsTable expected = new DefaultResultsTable();
+			copyToModernByCell(ij1Table, expected);
+			final ResultsTable actual = new DefaultResultsTable(2, 3);
+			ResultsTableHarmonizer.copyToModern(ij1Table, actual);
+			assertTablesEqual(expected, actual);
+		}
+	}
+
+	// -- Helper methods --
+
+	private static ResultsTable randomTable(final Random random) {
+		final ResultsTable table = new DefaultResultsTable(random.nextInt(6), random
+			.nextInt(40));
+		for (int c = 0; c < table.getColumnCount(); c++) {
+			table.setColumnHeader(c, HEADERS[random.nextInt(HEADERS.length)]);
+			for (int r = 0; r < table.getRowCount(); r++)
+				table.setValue(c, r, random.nextInt(3) == 0 ? Double.NaN : random
+					.nextGaussian() * 100);
+		}
+		for (int r = 0; r < table.getRowCount(); r++)
+			if (random.nextBoolean()) table.setRowHeader(r, "row " + r);
+		return table;
+	}
+
+	private static ij.measure.ResultsTable randomLegacyTable(
+		final Random random)
+	{
+		final ij.measure.ResultsTable table = new ij.measure.ResultsTable();
+		final int rows = random.nextInt(40);
+		final int columns = 1 + random.nextInt(5);
+		for (int r = 0; r < rows; r++) {
+			table.incrementCounter();
+			if (random.nextInt(4) == 0) table.setLabel("label " + r, r);
+			for (int c = 0; c < columns; c++) {
+				final String heading = "c" + c;
+				if (random.nextInt(5) == 0) table.setValue(heading, r, "s" + r);
+				else table.setValue(heading, r, random.nextDouble());
+			}
+		}
+		return table;
+	}
+
+	/** The cell by cell copy which {@code copyToLegacy} replaces. */
+	@SuppressWarnings("deprecation")
+	private static void copyToLegacyByCell(final ResultsTable table,
+		final ij.measure.ResultsTable ij1Table)
+	{
+		ij1Table.setDefaultHeadings();
+		for (int c = 0; c < table.getColumnCount(); c++) {
+			final String header = table.getColumnHeader(c);
+			if (header == null) {
+				ij1Table.setHeading(c, null);
+			}
+			else {
+				final int colIndex = ij1Table.getColumnIndex(header);
+				if (colIndex < 0) {
+					final int newCol = ij1Table.getFreeColumn(header);
+					ij1Table.setHeading(newCol, header);
+				}
+				else {
+					ij1Table.setHeading(colIndex, header);
+				}
+			}
+		}
+		for (int r = 0; r < table.getRowCount(); r++) {
+			ij1Table.incrementCounter();
+			ij1Table.setLabel(table.getRowHeader(r), r);
+			for (int c = 0; c < table.getColumnCount(); c++) {
+				final String header = table.getColumnHeader(c);
+				int ij1ColIndex = c;
+				if (header != null) {
+					ij1ColIndex = ij1Table.getColumnIndex(header);
+				}
+				ij1Table.setValue(ij1ColIndex, r, table.get(c, r));
+			}
+		}
+	}
+
+	/** The cell by cell copy which {@code copyToModern} replaces. */
+	private static void copyToModernByCell(final ij.measure.ResultsTable ij1Table,
+		final ResultsTable table)
+	{
+		table.clear();
+		table.setRowCount(0);
+		for (int c = 0; c <= ij1Table.getLastColumn(); c++) {
+			if (ij1Table.columnExists(c)) {
+				table.appendColumn(ij1Table.getColumnHeading(c));
+			}
+		}
+		for (int r = 0; r < ij1Table.getCounter(); r++) {
+			table.appendRow(ij1Table.getLabel(r));
+			for (int modIjCol = 0, c = 0; c <= ij1Table.getLastColumn(); c++) {
+				if (ij1Table.columnExists(c)) {
+					table.setValue(modIjCol++, r, ij1Table.getValueAsDouble(c, r));
+				}
+			}
+		}
+	}
+
+	private static void assertTablesEqual(final ij.measure.ResultsTable expected,
+		final ij.measure.ResultsTable actual)
+	{
+		assertEquals(expected.getCounter(), actual.getCounter());
+		assertEquals(expected.getLastColumn(), actual.getLastColumn());
+		for (int r = 0; r < expected.getCounter(); r++)
+			assertEquals(expected.getLabel(r), actual.getLabel(r));
+		for (int c = 0; c <= expected.getLastColumn(); c++) {
+			assertEquals(expected.columnExists(c), actual.columnExists(c));
+			assertEquals(expected.getColumnHeading(c), actual.getColumnHeading(c));
+			if (!expected.columnExists(c)) continue;
+			for (int r = 0; r < expected.getCounter(); r++)
+				assertEquals(expected.getValueAsDouble(c, r), actual.getValueAsDouble(
+					c, r), 0);
+		}
+	}
+
+	private static void assertTablesEqual(final ResultsTable expected,
+		final ResultsTable actual)
+	{
+		assertEquals(expected.getColumnCount(), actual.getColumnCount());
+		assertEquals(expected.getRowCount(), actual.getRowCount());
+		for (int r = 0; r < expected.getRowCount(); r++)
+			assertEquals(expected.getRowHeader(r), actual.getRowHeader(r));
+		for (int c = 0; c < expected.getColumnCount(); c++) {
+			assertEquals(expected.getColumnHeader(c), actual.getColumnHeader(c));
+			assertEquals(expected.getRowCount(), actual.get(c).size());
+			for (int r = 0; r < expected.getRowCount(); r++)
+				assertEquals(expected.getValue(c, r), actual.getValue(c, r), 0);
+		}
+	}
+}
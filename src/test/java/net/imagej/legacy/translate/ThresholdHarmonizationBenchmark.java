@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2018 Board of Regents of the University of
+ * Wisconsin-Madison, Broad Institute of MIT and Harvard, and Max Planck
+ * Institute of Molecular Cell Biology and Genetics.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.ImagePlus;
+import ij.gui.NewImage;
+import ij.process.ImageProcessor;
+
+import net.imagej.display.ImageDisplay;
+import net.imagej.patcher.LegacyInjector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.scijava.Context;
+
+/**
+ * Benchmark for {@link OverlayHarmonizer} round trips on an image with an
+ * active threshold, with the threshold unchanged or moved between round trips,
+ * compared with a harmonizer which has not seen the display before.
+ */
+@State(Scope.Benchmark)
+public class ThresholdHarmonizationBenchmark {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private Context context;
+	private ImagePlus imp;
+	private ImageDisplay display;
+	private OverlayHarmonizer harmonizer;
+	private int index;
+
+	@Setup
+	public void setup() {
+		context = new Context();
+		imp = NewImage.createByteImage("threshold", 512, 512, 1,
+			NewImage.FILL_RAMP);
+		imp.getProcessor().setThreshold(64, 192, ImageProcessor.NO_LUT_UPDATE);
+		display = new DisplayCreator(context).createDisplay(imp);
+		harmonizer = new OverlayHarmonizer(context);
+		harmonizer.updateDisplay(display, imp);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public void unchanged() {
+		harmonizer.updateDisplay(display, imp);
+		harmonizer.updateLegacyImage(display, imp);
+	}
+
+	@Benchmark
+	public void thresholdMoved() {
+		final int min = 64 + index++ % 2;
+		imp.getProcessor().setThreshold(min, 192, ImageProcessor.NO_LUT_UPDATE);
+		harmonizer.updateDisplay(display, imp);
+		harmonizer.updateLegacyImage(display, imp);
+	}
+
+	/**
+	 * Baseline: every round trip synchronizes the threshold, as with a new
+	 * harmonizer per mode switch.
+	 */
+	@Benchmark
+	public void newHarmonizer() {
+		final OverlayHarmonizer fresh = new OverlayHarmonizer(context);
+		fresh.updateDisplay(display, imp);
+		fresh.updateLegacyImage(display, imp);
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options opt = new OptionsBuilder()
+			.include(ThresholdHarmonizationBenchmark.class.getSimpleName())
+			.forks(1)
+			.warmupIterations(4)
+			.measurementIterations(8)
+			.warmupTime(TimeValue.milliseconds(500))
+			.measurementTime(TimeValue.milliseconds(500))
+			.build();
+		new Runner(opt).run();
+	}
+}